@@ -0,0 +1,186 @@
+/*
+ * @(#)FunctionsBenchmark.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.mariuszgromada.math.mxparser.Argument;
+import org.mariuszgromada.math.mxparser.Expression;
+import org.mariuszgromada.math.mxparser.Function;
+import org.mariuszgromada.math.mxparser.RecursiveArgument;
+import org.mariuszgromada.math.mxparser.mXparser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * User defined functions calls (fixed and variadic number
+ * of parameters), recursive arguments, recursive functions
+ * and calculus operators.
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class FunctionsBenchmark {
+	Argument x;
+	Expression userFunction;
+	Expression variadicFunction;
+	Expression recursiveArgument;
+	Expression recursiveFunction;
+	Expression summation;
+	Expression product;
+	Expression integral;
+	Expression derivative;
+	Expression solve;
+	double i = 0;
+	@Setup(Level.Trial)
+	public void setup() {
+		mXparser.disableUlpRounding();
+		x = new Argument("x", 1);
+		Function f = new Function("f(a,b) = 3*a + 4*b");
+		userFunction = new Expression("f(x, 2) - f(2, x)", f, x);
+		Function g = new Function("g(...) = sum(i, 1, [npar], par(i)^2)");
+		variadicFunction = new Expression("g(x, 1, 2, 3, 4, 5, 6, 7)", g, x);
+		RecursiveArgument fib = new RecursiveArgument("fib", "fib(n-1) + fib(n-2)", "n");
+		fib.addBaseCase(0, 0);
+		fib.addBaseCase(1, 1);
+		recursiveArgument = new Expression("fib(15)", fib);
+		Function fact = new Function("fact(n) = if(n > 0, n*fact(n-1), 1)");
+		recursiveFunction = new Expression("fact(20)", fact);
+		summation = new Expression("sum(i, 1, 1000, sin(i*x)/i)", x);
+		product = new Expression("prod(i, 1, 100, 1 + x/i^2)", x);
+		integral = new Expression("int(sin(t)*exp(-t*x), t, 0, 10)", x);
+		derivative = new Expression("der(sin(t)*exp(-t), t, x)", x);
+		solve = new Expression("solve(t^3 - x, t, 0, 10)", x);
+		Expression[] expressions = { userFunction, variadicFunction, recursiveArgument, recursiveFunction, summation, product, integral, derivative, solve };
+		for (Expression e : expressions)
+			e.checkSyntax();
+	}
+	/**
+	 * Next argument value (in the range 1 .. 2)
+	 */
+	double nextX() {
+		i++;
+		return 1 + (i % 1000) / 1000.0;
+	}
+	@Benchmark
+	public double userFunction() {
+		x.setArgumentValue(nextX());
+		return userFunction.calculate();
+	}
+	@Benchmark
+	public double variadicUserFunction() {
+		x.setArgumentValue(nextX());
+		return variadicFunction.calculate();
+	}
+	@Benchmark
+	public double recursiveArgument() {
+		return recursiveArgument.calculate();
+	}
+	@Benchmark
+	public double recursiveFunction() {
+		return recursiveFunction.calculate();
+	}
+	@Benchmark
+	public double summation() {
+		x.setArgumentValue(nextX());
+		return summation.calculate();
+	}
+	@Benchmark
+	public double product() {
+		x.setArgumentValue(nextX());
+		return product.calculate();
+	}
+	@Benchmark
+	public double integral() {
+		x.setArgumentValue(nextX());
+		return integral.calculate();
+	}
+	@Benchmark
+	public double derivative() {
+		x.setArgumentValue(nextX());
+		return derivative.calculate();
+	}
+	@Benchmark
+	public double solve() {
+		x.setArgumentValue(nextX());
+		return solve.calculate();
+	}
+}
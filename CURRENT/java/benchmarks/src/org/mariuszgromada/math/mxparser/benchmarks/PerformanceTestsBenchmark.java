@@ -0,0 +1,263 @@
+/*
+ * @(#)PerformanceTestsBenchmark.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.mariuszgromada.math.mxparser.Argument;
+import org.mariuszgromada.math.mxparser.Constant;
+import org.mariuszgromada.math.mxparser.Expression;
+import org.mariuszgromada.math.mxparser.Function;
+import org.mariuszgromada.math.mxparser.mXparser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH version of the scenarios of the
+ * {@link org.mariuszgromada.math.mxparser.regressiontesting.PerformanceTests}
+ * (tests 00 - 20), one benchmark per scenario, average time
+ * of one iteration of the scenario.
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ *
+ * @see org.mariuszgromada.math.mxparser.regressiontesting.PerformanceTests
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PerformanceTestsBenchmark {
+	/**
+	 * Tests 00 - 10: expression created once,
+	 * repeatedly recalculated.
+	 */
+	@State(Scope.Thread)
+	public static class SimpleCalculation {
+		@Param({
+			"2+3",
+			"2*3",
+			"2/3",
+			"2^3",
+			"sin(3)",
+			"2+3+4",
+			"2+3+4+5",
+			"2+(3+4)+5",
+			"(2+3)+(4+5)",
+			"2+(3+(4+5))",
+			"sin(2+(3*4)^2)/10"
+		})
+		public String expressionString;
+		Expression e;
+		@Setup(Level.Trial)
+		public void setup() {
+			mXparser.disableUlpRounding();
+			e = new Expression(expressionString);
+			e.checkSyntax();
+		}
+	}
+	/**
+	 * Test 11: expression with argument 'x',
+	 * argument value modified, then expression recalculated.
+	 */
+	@State(Scope.Thread)
+	public static class AdditionWithArgument {
+		Argument x;
+		Expression e;
+		double i = 0;
+		@Setup(Level.Trial)
+		public void setup() {
+			mXparser.disableUlpRounding();
+			x = new Argument("x");
+			e = new Expression("2+x", x);
+			e.checkSyntax();
+		}
+	}
+	/**
+	 * Test 12: user defined function f(x,y)=3*x+4*y.
+	 */
+	@State(Scope.Thread)
+	public static class UserFunction {
+		Argument x;
+		Argument y;
+		Expression e;
+		double i = 0;
+		@Setup(Level.Trial)
+		public void setup() {
+			mXparser.disableUlpRounding();
+			x = new Argument("x");
+			y = new Argument("y");
+			Function f = new Function("f(x,y)=3*x+4*y");
+			e = new Expression("3*f(x,y)-(2*x+3*y)", f, x, y);
+			e.checkSyntax();
+		}
+	}
+	/**
+	 * Test 20: expression string set,
+	 * then syntax checked.
+	 */
+	@State(Scope.Thread)
+	public static class SyntaxChecking {
+		Expression e;
+		@Setup(Level.Trial)
+		public void setup() {
+			mXparser.disableUlpRounding();
+			e = new Expression("");
+		}
+	}
+	/**
+	 * Tests 00 - 10
+	 */
+	@Benchmark
+	public double test000to010SimpleCalculation(SimpleCalculation s) {
+		return s.e.calculate();
+	}
+	/**
+	 * Test 11
+	 */
+	@Benchmark
+	public double test011AdditionWithArgument(AdditionWithArgument s) {
+		s.x.setArgumentValue(s.i++);
+		return s.e.calculate();
+	}
+	/**
+	 * Test 12
+	 */
+	@Benchmark
+	public double test012UserFunction(UserFunction s) {
+		s.x.setArgumentValue(s.i);
+		s.y.setArgumentValue(s.i++);
+		return s.e.calculate();
+	}
+	/**
+	 * Test 13
+	 */
+	@Benchmark
+	public Constant test013CreateConstant() {
+		return new Constant("c", 5);
+	}
+	/**
+	 * Test 14
+	 */
+	@Benchmark
+	public Constant test014CreateConstantFromString() {
+		return new Constant("c=5");
+	}
+	/**
+	 * Test 15
+	 */
+	@Benchmark
+	public Argument test015CreateArgument() {
+		return new Argument("x", 5);
+	}
+	/**
+	 * Test 16
+	 */
+	@Benchmark
+	public Argument test016CreateArgumentFromString() {
+		return new Argument("x=5");
+	}
+	/**
+	 * Test 17
+	 */
+	@Benchmark
+	public Function test017CreateFunction() {
+		return new Function("f", "x+y", "x", "y");
+	}
+	/**
+	 * Test 18
+	 */
+	@Benchmark
+	public Function test018CreateFunctionFromString() {
+		return new Function("f(x,y)=x+y");
+	}
+	/**
+	 * Test 19
+	 */
+	@Benchmark
+	public Expression test019CreateExpression() {
+		return new Expression("sin(2+(3*4)^2)/10");
+	}
+	/**
+	 * Test 20
+	 */
+	@Benchmark
+	public boolean test020SetExpressionCheckSyntax(SyntaxChecking s) {
+		s.e.setExpressionString("sin(2+(3*4)^2)/10");
+		return s.e.checkSyntax();
+	}
+}
@@ -0,0 +1,188 @@
+/*
+ * @(#)PhasesBenchmark.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mariuszgromada.math.mxparser.Argument;
+import org.mariuszgromada.math.mxparser.CompiledExpression;
+import org.mariuszgromada.math.mxparser.EvaluationContext;
+import org.mariuszgromada.math.mxparser.Expression;
+import org.mariuszgromada.math.mxparser.mXparser;
+import org.mariuszgromada.math.mxparser.parsertokens.Token;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Phases of the expression processing measured separately:
+ * tokenization only, syntax checking only (with and without
+ * the expressions cache), evaluation only of the checked
+ * expression and evaluation of the compiled expression.
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class PhasesBenchmark {
+	/**
+	 * Expressions cache disabled during the trial
+	 */
+	@State(Scope.Benchmark)
+	public static class CacheDisabled {
+		@Setup(Level.Trial)
+		public void setup() {
+			mXparser.disableExpressionsCache();
+		}
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			mXparser.setDefaultExpressionsCacheLimits();
+		}
+	}
+	@Param({
+		"2+3",
+		"sin(2+(3*4)^2)/10",
+		"x^2 + 3*x*y - sqrt(abs(y)) + if(x > y, ln(x), exp(-y))",
+		"(x+1)*(y-2)/(x^2+y^2+1) + sin(x)*cos(y) - 2*tan(x/(y+3)) + x*y*(x-y)"
+	})
+	public String expressionString;
+	Argument x;
+	Argument y;
+	Expression tokenized;
+	Expression checked;
+	Expression evaluated;
+	CompiledExpression compiled;
+	EvaluationContext context;
+	double i = 0;
+	@Setup(Level.Trial)
+	public void setup() {
+		mXparser.disableUlpRounding();
+		x = new Argument("x", 2);
+		y = new Argument("y", 3);
+		tokenized = new Expression(expressionString, x, y);
+		checked = new Expression(expressionString, x, y);
+		evaluated = new Expression(expressionString, x, y);
+		evaluated.checkSyntax();
+		compiled = evaluated.compile();
+		context = compiled.createContext();
+	}
+	/**
+	 * Tokenization only (no syntax checking).
+	 */
+	@Benchmark
+	public List<Token> parseOnly() {
+		tokenized.setExpressionString(expressionString);
+		return tokenized.getCopyOfInitialTokens();
+	}
+	/**
+	 * Syntax checking and tokenization, expressions cache disabled.
+	 */
+	@Benchmark
+	public boolean checkSyntaxOnly(CacheDisabled cacheDisabled) {
+		checked.setExpressionString(expressionString);
+		return checked.checkSyntax();
+	}
+	/**
+	 * Syntax checking and tokenization, expressions cache enabled.
+	 */
+	@Benchmark
+	public boolean checkSyntaxCached() {
+		checked.setExpressionString(expressionString);
+		return checked.checkSyntax();
+	}
+	/**
+	 * Evaluation only of the syntax checked expression.
+	 */
+	@Benchmark
+	public double evaluateOnly() {
+		x.setArgumentValue(i++);
+		return evaluated.calculate();
+	}
+	/**
+	 * Evaluation of the compiled expression with evaluation context.
+	 */
+	@Benchmark
+	public double evaluateCompiled() {
+		context.setArgumentValue(0, i++);
+		return compiled.calculate(context);
+	}
+}
@@ -0,0 +1,487 @@
+/*
+ * @(#)AdaptiveIntegration.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.mariuszgromada.math.mxparser.mathcollection.Calculus;
+
+/**
+ * AdaptiveIntegration - numerical integration engine of the int(...)
+ * operator, globally adaptive Gauss-Kronrod quadrature (7-point Gauss,
+ * 15-point Kronrod rule, error estimate as in QUADPACK QK15).
+ *
+ * In each round the subintervals with the largest error estimates
+ * (covering at least half of the total error estimate) are bisected,
+ * halves of the round are evaluated in parallel on the
+ * threads pool sized by {@link mXparser#getThreadsNumber()}. Each task
+ * uses its own evaluation context on the thread safe compiled copy
+ * of the integrand (the integration {@link Argument} object is not
+ * modified). Subintervals are kept and summed in the order of position,
+ * therefore result does not depend on threads number or scheduling.
+ *
+ * Integration stops when the total error estimate is within the
+ * tolerance or when the work budget (maximum number of integrand
+ * evaluations, {@link mXparser#setIntegrationMaxEvaluations(int)})
+ * is exhausted. Integrands not supported by the compiled evaluation
+ * and verbose mode use the same algorithm evaluated serially.
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ *
+ * @see mXparser#setIntegrationMaxEvaluations(int)
+ * @see CompiledExpression
+ */
+final class AdaptiveIntegration {
+	/**
+	 * Default maximum number of integrand evaluations
+	 */
+	static final int DEFAULT_MAX_EVALUATIONS = 100000;
+	/**
+	 * Relative tolerance used when the absolute tolerance
+	 * is below the floating point precision of the integral value
+	 */
+	static final double RELATIVE_EPSILON = 1e-12;
+	/**
+	 * Number of integrand evaluations of the rule
+	 */
+	static final int RULE_EVALUATIONS = 15;
+	/**
+	 * Maximum number of tasks per thread in one round
+	 */
+	private static final int TASKS_PER_THREAD = 4;
+	/**
+	 * Kronrod nodes (Gauss nodes are at odd positions)
+	 */
+	private static final double[] XGK = {
+		0.991455371120812639206854697526329,
+		0.949107912342758524526189684047851,
+		0.864864423359769072789712788640926,
+		0.741531185599394439863864773280788,
+		0.586087235467691130294144845693013,
+		0.405845151377397166906606412076961,
+		0.207784955007898467600689403773245,
+		0.000000000000000000000000000000000
+	};
+	/**
+	 * Kronrod weights
+	 */
+	private static final double[] WGK = {
+		0.022935322010529224963732008058970,
+		0.063092092629978553290700663189204,
+		0.104790010322250183839876322541518,
+		0.140653259715525918745189590510238,
+		0.169004726639267902826583426598550,
+		0.190350578064785409913256402421014,
+		0.204432940075298892414161999234649,
+		0.209482141084727828012999174891714
+	};
+	/**
+	 * Gauss weights
+	 */
+	private static final double[] WG = {
+		0.129484966168869693270611432679082,
+		0.279705391489276667901467771423780,
+		0.381830050505118944950369775488975,
+		0.417959183673469387755102040816327
+	};
+	/**
+	 * Machine epsilon
+	 */
+	private static final double EPMACH = Math.ulp(1.0);
+	/**
+	 * Maximum number of integrand evaluations
+	 */
+	private static volatile int maxEvaluations = DEFAULT_MAX_EVALUATIONS;
+	/**
+	 * Subinterval with the rule result
+	 */
+	static final class Interval {
+		/**
+		 * Subinterval start
+		 */
+		final double a;
+		/**
+		 * Subinterval end
+		 */
+		final double b;
+		/**
+		 * Integral estimate
+		 */
+		double integral;
+		/**
+		 * Error estimate
+		 */
+		double error;
+		/**
+		 * Subinterval selected for bisection
+		 */
+		boolean selected;
+		/**
+		 * Creates subinterval.
+		 *
+		 * @param      a                   the start
+		 * @param      b                   the end
+		 */
+		Interval(double a, double b) {
+			this.a = a;
+			this.b = b;
+		}
+		/**
+		 * Checks whether subinterval can be bisected.
+		 *
+		 * @return     true if midpoint differs from both ends.
+		 */
+		boolean isSplittable() {
+			double c = 0.5 * (a + b);
+			return (c != a) && (c != b);
+		}
+	}
+	/**
+	 * Integrand evaluated by one thread
+	 */
+	static final class Integrand {
+		/**
+		 * Compiled integrand, null for the serial evaluation
+		 */
+		private final CompiledExpression compiled;
+		/**
+		 * Evaluation context
+		 */
+		private final EvaluationContext context;
+		/**
+		 * Integration argument position in the compiled integrand
+		 */
+		private final int argumentPos;
+		/**
+		 * Integrand expression
+		 */
+		private final Expression f;
+		/**
+		 * Integration argument
+		 */
+		private final Argument x;
+		/**
+		 * Creates integrand.
+		 *
+		 * @param      compiled            the compiled integrand or null
+		 * @param      argumentPos         the integration argument position
+		 * @param      f                   the integrand expression
+		 * @param      x                   the integration argument
+		 */
+		Integrand(CompiledExpression compiled, int argumentPos, Expression f, Argument x) {
+			this.compiled = compiled;
+			this.argumentPos = argumentPos;
+			this.f = f;
+			this.x = x;
+			if (compiled != null) context = compiled.createContext();
+			else context = null;
+		}
+		/**
+		 * Integrand value.
+		 *
+		 * @param      t                   the argument value
+		 *
+		 * @return     Function value.
+		 */
+		double value(double t) {
+			if (compiled == null)
+				return mXparser.getFunctionValue(f, x, t);
+			context.setArgumentValue(argumentPos, t);
+			return compiled.calculate(context);
+		}
+		/**
+		 * Applies 15-point Gauss-Kronrod rule to the subinterval.
+		 *
+		 * @param      interval            the subinterval
+		 */
+		void apply(Interval interval) {
+			double[] fv1 = new double[7];
+			double[] fv2 = new double[7];
+			double center = 0.5 * (interval.a + interval.b);
+			double halfLength = 0.5 * (interval.b - interval.a);
+			double absHalfLength = Math.abs(halfLength);
+			double fc = value(center);
+			double resg = fc * WG[3];
+			double resk = fc * WGK[7];
+			double resabs = Math.abs(resk);
+			for (int j = 0; j < 7; j++) {
+				double absc = halfLength * XGK[j];
+				double f1 = value(center - absc);
+				double f2 = value(center + absc);
+				fv1[j] = f1;
+				fv2[j] = f2;
+				double fsum = f1 + f2;
+				resk += WGK[j] * fsum;
+				resabs += WGK[j] * ( Math.abs(f1) + Math.abs(f2) );
+				if (j % 2 == 1)
+					resg += WG[j / 2] * fsum;
+			}
+			double reskh = resk * 0.5;
+			double resasc = WGK[7] * Math.abs(fc - reskh);
+			for (int j = 0; j < 7; j++)
+				resasc += WGK[j] * ( Math.abs(fv1[j] - reskh) + Math.abs(fv2[j] - reskh) );
+			resabs *= absHalfLength;
+			resasc *= absHalfLength;
+			double error = Math.abs( (resk - resg) * halfLength );
+			if ( (resasc != 0) && (error != 0) )
+				error = resasc * Math.min(1, Math.pow(200 * error / resasc, 1.5) );
+			if (resabs > Double.MIN_NORMAL / (50 * EPMACH) )
+				error = Math.max(EPMACH * 50 * resabs, error);
+			interval.integral = resk * halfLength;
+			interval.error = error;
+		}
+	}
+	/**
+	 * Evaluation of the subintervals range
+	 */
+	static final class Task implements Callable<Void> {
+		/**
+		 * Compiled integrand
+		 */
+		private final CompiledExpression compiled;
+		/**
+		 * Integration argument position
+		 */
+		private final int argumentPos;
+		/**
+		 * Subintervals
+		 */
+		private final Interval[] intervals;
+		/**
+		 * First subinterval
+		 */
+		private final int from;
+		/**
+		 * Subinterval after the last one
+		 */
+		private final int to;
+		/**
+		 * Creates task.
+		 *
+		 * @param      compiled            the compiled integrand
+		 * @param      argumentPos         the integration argument position
+		 * @param      intervals           the subintervals
+		 * @param      from                the first subinterval
+		 * @param      to                  the subinterval after the last one
+		 */
+		Task(CompiledExpression compiled, int argumentPos, Interval[] intervals, int from, int to) {
+			this.compiled = compiled;
+			this.argumentPos = argumentPos;
+			this.intervals = intervals;
+			this.from = from;
+			this.to = to;
+		}
+		/**
+		 * Applies the rule to the subintervals.
+		 */
+		public Void call() {
+			Integrand integrand = new Integrand(compiled, argumentPos, null, null);
+			for (int i = from; i < to; i++)
+				integrand.apply(intervals[i]);
+			return null;
+		}
+	}
+	/**
+	 * Gets maximum number of integrand evaluations.
+	 *
+	 * @return     Maximum number of integrand evaluations.
+	 */
+	static int getMaxEvaluations() {
+		return maxEvaluations;
+	}
+	/**
+	 * Sets maximum number of integrand evaluations.
+	 *
+	 * @param      maxEvaluations      the maximum number of integrand evaluations
+	 */
+	static void setMaxEvaluations(int maxEvaluations) {
+		if (maxEvaluations >= RULE_EVALUATIONS)
+			AdaptiveIntegration.maxEvaluations = maxEvaluations;
+	}
+	/**
+	 * Definite integral.
+	 *
+	 * @param      f                   the integrand expression
+	 * @param      x                   the integration argument
+	 * @param      a                   form a ...
+	 * @param      b                   ... to b
+	 * @param      eps                 the absolute tolerance
+	 *
+	 * @return     Integral value, NaN if integrand or limits are not defined.
+	 */
+	static double integrate(Expression f, Argument x, double a, double b, double eps) {
+		if ( (Double.isNaN(a)) || (Double.isNaN(b)) ) return Double.NaN;
+		if ( (Double.isInfinite(a)) || (Double.isInfinite(b)) )
+			return Calculus.integralTrapezoid(f, x, a, b, eps, 20);
+		if (a == b) return 0;
+		CompiledExpression compiled = null;
+		int argumentPos = -1;
+		if (!f.getVerboseMode()) {
+			compiled = CompiledExpression.share(f);
+			if (compiled != null) {
+				argumentPos = compiled.getArgumentIndex(x);
+				if (argumentPos < 0) compiled = null;
+			}
+		}
+		Integrand integrand = new Integrand(compiled, argumentPos, f, x);
+		boolean parallel = (compiled != null) && (mXparser.getThreadsNumber() >= 2);
+		int budget = maxEvaluations;
+		List<Interval> intervals = new ArrayList<Interval>();
+		Interval whole = new Interval(a, b);
+		integrand.apply(whole);
+		intervals.add(whole);
+		int evaluations = RULE_EVALUATIONS;
+		while (true) {
+			/*
+			 * Kahan summation in the order of position
+			 */
+			double integral = 0;
+			double compensation = 0;
+			double error = 0;
+			for (Interval interval : intervals) {
+				double y = interval.integral - compensation;
+				double t = integral + y;
+				compensation = (t - integral) - y;
+				integral = t;
+				error += interval.error;
+			}
+			if ( (Double.isNaN(integral)) || (Double.isInfinite(integral)) )
+				return integral;
+			double tolerance = Math.max(eps, RELATIVE_EPSILON * Math.abs(integral));
+			if (error <= tolerance) return integral;
+			int maxBisections = (budget - evaluations) / (2 * RULE_EVALUATIONS);
+			if (maxBisections <= 0) return integral;
+			/*
+			 * Largest errors first (stable sort - equal errors in the order
+			 * of position), intervals are selected until they cover half
+			 * of the total error estimate
+			 */
+			List<Interval> candidates = new ArrayList<Interval>();
+			for (Interval interval : intervals)
+				if (interval.isSplittable())
+					candidates.add(interval);
+			if (candidates.size() == 0) return integral;
+			Collections.sort(candidates, new Comparator<Interval>() {
+				public int compare(Interval i1, Interval i2) {
+					return Double.compare(i2.error, i1.error);
+				}
+			});
+			List<Interval> selected = new ArrayList<Interval>();
+			double selectedError = 0;
+			for (Interval interval : candidates) {
+				if ( (selected.size() == maxBisections) || (selectedError >= 0.5 * error) ) break;
+				selected.add(interval);
+				selectedError += interval.error;
+			}
+			for (Interval interval : selected)
+				interval.selected = true;
+			Interval[] halves = new Interval[2 * selected.size()];
+			List<Interval> bisected = new ArrayList<Interval>(intervals.size() + selected.size());
+			int k = 0;
+			for (Interval interval : intervals) {
+				if (interval.selected) {
+					double c = 0.5 * (interval.a + interval.b);
+					halves[k] = new Interval(interval.a, c);
+					halves[k + 1] = new Interval(c, interval.b);
+					bisected.add(halves[k]);
+					bisected.add(halves[k + 1]);
+					k += 2;
+				} else bisected.add(interval);
+			}
+			if ( (!parallel) || (!applyParallel(compiled, argumentPos, halves)) )
+				for (Interval half : halves)
+					integrand.apply(half);
+			evaluations += halves.length * RULE_EVALUATIONS;
+			intervals = bisected;
+		}
+	}
+	/**
+	 * Applies the rule to the subintervals in parallel.
+	 *
+	 * @param      compiled            the compiled integrand
+	 * @param      argumentPos         the integration argument position
+	 * @param      intervals           the subintervals
+	 *
+	 * @return     true if all the subintervals were evaluated,
+	 *             otherwise false.
+	 */
+	private static boolean applyParallel(CompiledExpression compiled, int argumentPos, Interval[] intervals) {
+		int tasksNumber = Math.min(intervals.length, TASKS_PER_THREAD * mXparser.getThreadsNumber());
+		if (tasksNumber < 2) return false;
+		List<Task> tasks = new ArrayList<Task>(tasksNumber);
+		for (int t = 0; t < tasksNumber; t++) {
+			int from = (int)( (long)intervals.length * t / tasksNumber );
+			int to = (int)( (long)intervals.length * (t + 1) / tasksNumber );
+			tasks.add( new Task(compiled, argumentPos, intervals, from, to) );
+		}
+		return (IterativeOperators.invokeAll(tasks) != null);
+	}
+}
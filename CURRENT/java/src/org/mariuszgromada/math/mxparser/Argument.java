@@ -164,6 +164,17 @@ public class Argument extends PrimitiveElement {
 	 * Argument value (for free arguments).
 	 */
 	double argumentValue;
+	/**
+	 * Version of the argument value, increased when value
+	 * or type of the argument is changed.
+	 *
+	 * @see DependentArgumentCache
+	 */
+	int valueVersion = 0;
+	/**
+	 * Cached value of the dependent argument.
+	 */
+	private DependentArgumentCache valueCache = null;
 	/**
 	 * Index argument.
 	 *
@@ -359,6 +370,7 @@ public class Argument extends PrimitiveElement {
 		argumentExpression.setExpressionString(argumentExpressionString);
 		if (argumentType == FREE_ARGUMENT)
 			argumentType = DEPENDENT_ARGUMENT;
+		valueVersion++;
 	}
 	/**
 	 * Gets argument name
@@ -393,6 +405,7 @@ public class Argument extends PrimitiveElement {
 	 */
 	public void setArgumentValue(double argumentValue) {
 		this.argumentValue = argumentValue;
+		valueVersion++;
 	}
 	/*=================================================
 	 *
@@ -430,9 +443,21 @@ public class Argument extends PrimitiveElement {
 	public double getArgumentValue() {
 		if (argumentType == FREE_ARGUMENT)
 			return argumentValue;
+		else if (argumentType == DEPENDENT_ARGUMENT)
+			return getValueCache().getValue();
 		else
 			return argumentExpression.calculate();
 	}
+	/**
+	 * Gets cache of the dependent argument value.
+	 *
+	 * @return     Dependent argument value cache.
+	 */
+	DependentArgumentCache getValueCache() {
+		if (valueCache == null)
+			valueCache = new DependentArgumentCache(this);
+		return valueCache;
+	}
 	/**
 	 * Adds user defined elements (such as: Arguments, Constants, Functions)
 	 * to the argument expressions.
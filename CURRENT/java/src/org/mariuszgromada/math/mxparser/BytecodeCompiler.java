@@ -0,0 +1,1332 @@
+/*
+ * @(#)BytecodeCompiler.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.mariuszgromada.math.mxparser.mathcollection.BinaryRelations;
+import org.mariuszgromada.math.mxparser.mathcollection.BooleanAlgebra;
+import org.mariuszgromada.math.mxparser.mathcollection.MathFunctions;
+import org.mariuszgromada.math.mxparser.mathcollection.NumberTheory;
+import org.mariuszgromada.math.mxparser.mathcollection.ProbabilityDistributions;
+import org.mariuszgromada.math.mxparser.mathcollection.SpecialFunctions;
+import org.mariuszgromada.math.mxparser.mathcollection.Units;
+import org.mariuszgromada.math.mxparser.parsertokens.BinaryRelation;
+import org.mariuszgromada.math.mxparser.parsertokens.BitwiseOperator;
+import org.mariuszgromada.math.mxparser.parsertokens.BooleanOperator;
+import org.mariuszgromada.math.mxparser.parsertokens.Function1Arg;
+import org.mariuszgromada.math.mxparser.parsertokens.Function2Arg;
+import org.mariuszgromada.math.mxparser.parsertokens.Function3Arg;
+import org.mariuszgromada.math.mxparser.parsertokens.Operator;
+
+/**
+ * Package level compiler translating the tree of {@link CompiledNode}
+ * into the JVM class extending {@link BytecodeFunction}.
+ *
+ * Each node is translated into the code doing exactly what the
+ * node evaluation does (the same operations order, the same ULP
+ * rounding and almost integer rounding places), but without
+ * dispatching on the tokens ids - arithmetic operators become
+ * JVM instructions, functions with direct counterparts are called
+ * as static methods of the math collection, if / iff functions
+ * become branches. Dependent arguments and user defined functions
+ * are inlined, parameters of the inlined function are kept in
+ * the local variables.
+ *
+ * Class file is written without any external library (version 49,
+ * no stack map frames are needed) and is defined by its own class
+ * loader, so the class is unloaded together with the function.
+ * Compiled class is outside of the package, it can access only
+ * public API and protected members of the {@link BytecodeFunction}.
+ *
+ * If the tree contains nodes not supported by the bytecode (recursive
+ * calls, variadic user defined functions parameters) the compiled
+ * expression tree is evaluated instead.
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ *
+ * @see BytecodeFunction
+ * @see CompiledNode
+ * @see ExpressionCompiler
+ */
+final class BytecodeCompiler {
+	/*
+	 * Internal names and descriptors
+	 */
+	private static final String FUNCTION_CLASS = "org/mariuszgromada/math/mxparser/BytecodeFunction";
+	private static final String ARGUMENT_CLASS = "org/mariuszgromada/math/mxparser/Argument";
+	private static final String RECURSIVE_ARGUMENT_CLASS = "org/mariuszgromada/math/mxparser/RecursiveArgument";
+	private static final String EXTENSION_CLASS = "org/mariuszgromada/math/mxparser/FunctionExtensionPrimitive";
+	private static final String OPTIONS_CLASS = "org/mariuszgromada/math/mxparser/EvaluationOptions";
+	private static final String OPTIONS = "L" + OPTIONS_CLASS + ";";
+	private static final String CONSTRUCTOR_DESCRIPTOR = "([L" + ARGUMENT_CLASS + ";[[D[L" + EXTENSION_CLASS + ";ILjava/lang/String;)V";
+	private static final String CLASS_NAME = "org/mariuszgromada/math/mxparser/CompiledBytecode";
+	/*
+	 * Class file constants
+	 */
+	private static final int CLASS_FILE_VERSION = 49;
+	private static final int ACC_PUBLIC = 0x0001;
+	private static final int ACC_PROTECTED = 0x0004;
+	private static final int ACC_FINAL = 0x0010;
+	private static final int ACC_SUPER = 0x0020;
+	private static final int MAX_CODE_LENGTH = 65535;
+	/*
+	 * Opcodes
+	 */
+	private static final int ICONST_0 = 0x03;
+	private static final int DCONST_0 = 0x0e;
+	private static final int DCONST_1 = 0x0f;
+	private static final int BIPUSH = 0x10;
+	private static final int SIPUSH = 0x11;
+	private static final int LDC = 0x12;
+	private static final int LDC_W = 0x13;
+	private static final int LDC2_W = 0x14;
+	private static final int ILOAD = 0x15;
+	private static final int DLOAD = 0x18;
+	private static final int ALOAD = 0x19;
+	private static final int DALOAD = 0x31;
+	private static final int AALOAD = 0x32;
+	private static final int DSTORE = 0x39;
+	private static final int DASTORE = 0x52;
+	private static final int POP2 = 0x58;
+	private static final int DUP = 0x59;
+	private static final int DUP2_X2 = 0x5e;
+	private static final int DADD = 0x63;
+	private static final int DSUB = 0x67;
+	private static final int DMUL = 0x6b;
+	private static final int DNEG = 0x77;
+	private static final int LXOR = 0x83;
+	private static final int L2D = 0x8a;
+	private static final int D2L = 0x8f;
+	private static final int DCMPL = 0x97;
+	private static final int IFEQ = 0x99;
+	private static final int IFNE = 0x9a;
+	private static final int GOTO = 0xa7;
+	private static final int DRETURN = 0xaf;
+	private static final int RETURN = 0xb1;
+	private static final int GETFIELD = 0xb4;
+	private static final int INVOKEVIRTUAL = 0xb6;
+	private static final int INVOKESPECIAL = 0xb7;
+	private static final int INVOKESTATIC = 0xb8;
+	private static final int INVOKEINTERFACE = 0xb9;
+	private static final int CHECKCAST = 0xc0;
+	private static final int WIDE = 0xc4;
+	/**
+	 * Maximum depth of the inlined dependent arguments
+	 * and user defined functions
+	 */
+	private static final int MAX_INLINING_DEPTH = 16;
+	/**
+	 * Number of the compiled classes (unique names)
+	 */
+	private static final AtomicInteger classesNumber = new AtomicInteger();
+	/**
+	 * Signals node which can not be compiled into the bytecode.
+	 */
+	private static final class UnsupportedNodeException extends Exception {
+		private static final long serialVersionUID = 1L;
+		UnsupportedNodeException(String message) {
+			super(message);
+		}
+	}
+	/*=================================================
+	 *
+	 * Direct calls of the math collection
+	 *
+	 *=================================================
+	 */
+	/**
+	 * Direct call - parameters only
+	 */
+	private static final int CALL_PLAIN = 0;
+	/**
+	 * Direct call - parameters and degrees mode
+	 */
+	private static final int CALL_DEGREES_MODE = 1;
+	/**
+	 * Direct call - parameters, epsilon comparison mode and epsilon
+	 */
+	private static final int CALL_EPSILON = 2;
+	/**
+	 * Direct call - two parameters in the reversed order
+	 */
+	private static final int CALL_SWAPPED = 3;
+	/**
+	 * Public static method called directly by the compiled code.
+	 */
+	private static final class Call {
+		final String owner;
+		final String name;
+		final String descriptor;
+		final int kind;
+		Call(String owner, String name, String descriptor, int kind) {
+			this.owner = owner;
+			this.name = name;
+			this.descriptor = descriptor;
+			this.kind = kind;
+		}
+	}
+	private static final Map<Integer, Call> FUNCTION1_CALLS = new HashMap<Integer, Call>();
+	private static final Map<Integer, Call> FUNCTION2_CALLS = new HashMap<Integer, Call>();
+	private static final Map<Integer, Call> FUNCTION3_CALLS = new HashMap<Integer, Call>();
+	private static final Map<Integer, Call> OPERATOR_CALLS = new HashMap<Integer, Call>();
+	static {
+		addCall(FUNCTION1_CALLS, Function1Arg.SIN_ID, MathFunctions.class, "sin", 1, CALL_DEGREES_MODE);
+		addCall(FUNCTION1_CALLS, Function1Arg.COS_ID, MathFunctions.class, "cos", 1, CALL_DEGREES_MODE);
+		addCall(FUNCTION1_CALLS, Function1Arg.TAN_ID, MathFunctions.class, "tan", 1, CALL_DEGREES_MODE);
+		addCall(FUNCTION1_CALLS, Function1Arg.CTAN_ID, MathFunctions.class, "ctan", 1, CALL_DEGREES_MODE);
+		addCall(FUNCTION1_CALLS, Function1Arg.SEC_ID, MathFunctions.class, "sec", 1, CALL_DEGREES_MODE);
+		addCall(FUNCTION1_CALLS, Function1Arg.COSEC_ID, MathFunctions.class, "cosec", 1, CALL_DEGREES_MODE);
+		addCall(FUNCTION1_CALLS, Function1Arg.ASIN_ID, MathFunctions.class, "asin", 1, CALL_DEGREES_MODE);
+		addCall(FUNCTION1_CALLS, Function1Arg.ACOS_ID, MathFunctions.class, "acos", 1, CALL_DEGREES_MODE);
+		addCall(FUNCTION1_CALLS, Function1Arg.ATAN_ID, MathFunctions.class, "atan", 1, CALL_DEGREES_MODE);
+		addCall(FUNCTION1_CALLS, Function1Arg.ACTAN_ID, MathFunctions.class, "actan", 1, CALL_DEGREES_MODE);
+		addCall(FUNCTION1_CALLS, Function1Arg.ARCSEC_ID, MathFunctions.class, "asec", 1, CALL_DEGREES_MODE);
+		addCall(FUNCTION1_CALLS, Function1Arg.ARCCSC_ID, MathFunctions.class, "acosec", 1, CALL_DEGREES_MODE);
+		addCall(FUNCTION1_CALLS, Function1Arg.SINC_ID, MathFunctions.class, "sinc", 1, CALL_DEGREES_MODE);
+		addCall(FUNCTION1_CALLS, Function1Arg.LN_ID, MathFunctions.class, "ln", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.LOG2_ID, MathFunctions.class, "log2", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.LOG10_ID, MathFunctions.class, "log10", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.RAD_ID, MathFunctions.class, "rad", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.EXP_ID, MathFunctions.class, "exp", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.SQRT_ID, MathFunctions.class, "sqrt", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.SINH_ID, MathFunctions.class, "sinh", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.COSH_ID, MathFunctions.class, "cosh", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.TANH_ID, MathFunctions.class, "tanh", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.COTH_ID, MathFunctions.class, "coth", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.SECH_ID, MathFunctions.class, "sech", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.CSCH_ID, MathFunctions.class, "csch", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.DEG_ID, MathFunctions.class, "deg", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.ABS_ID, MathFunctions.class, "abs", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.SGN_ID, MathFunctions.class, "sgn", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.FLOOR_ID, MathFunctions.class, "floor", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.CEIL_ID, MathFunctions.class, "ceil", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.NOT_ID, BooleanAlgebra.class, "not", 1, CALL_EPSILON);
+		addCall(FUNCTION1_CALLS, Function1Arg.ARSINH_ID, MathFunctions.class, "arsinh", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.ARCOSH_ID, MathFunctions.class, "arcosh", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.ARTANH_ID, MathFunctions.class, "artanh", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.ARCOTH_ID, MathFunctions.class, "arcoth", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.ARSECH_ID, MathFunctions.class, "arsech", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.ARCSCH_ID, MathFunctions.class, "arcsch", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.SA_ID, MathFunctions.class, "sa", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.ULP_ID, MathFunctions.class, "ulp", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.IS_PRIME_ID, NumberTheory.class, "primeTest", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.GAMMA_ID, SpecialFunctions.class, "gamma", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.LOG_GAMMA_ID, SpecialFunctions.class, "logGamma", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.SGN_GAMMA_ID, SpecialFunctions.class, "sgnGamma", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.DI_GAMMA_ID, SpecialFunctions.class, "diGamma", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.GAUSS_ERF_ID, SpecialFunctions.class, "erf", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.GAUSS_ERFC_ID, SpecialFunctions.class, "erfc", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.GAUSS_ERF_INV_ID, SpecialFunctions.class, "erfInv", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.GAUSS_ERFC_INV_ID, SpecialFunctions.class, "erfcInv", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.EXP_INT_ID, SpecialFunctions.class, "exponentialIntegralEi", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.LOG_INT_ID, SpecialFunctions.class, "logarithmicIntegralLi", 1, CALL_PLAIN);
+		addCall(FUNCTION1_CALLS, Function1Arg.OFF_LOG_INT_ID, SpecialFunctions.class, "offsetLogarithmicIntegralLi", 1, CALL_PLAIN);
+		addCall(FUNCTION2_CALLS, Function2Arg.LOG_ID, MathFunctions.class, "log", 2, CALL_SWAPPED);
+		addCall(FUNCTION2_CALLS, Function2Arg.MOD_ID, MathFunctions.class, "mod", 2, CALL_PLAIN);
+		addCall(FUNCTION2_CALLS, Function2Arg.ROOT_ID, MathFunctions.class, "root", 2, CALL_PLAIN);
+		addCall(FUNCTION2_CALLS, Function2Arg.BINOM_COEFF_ID, MathFunctions.class, "binomCoeff", 2, CALL_PLAIN);
+		addCall(FUNCTION2_CALLS, Function2Arg.PERMUTATIONS_ID, MathFunctions.class, "numberOfPermutations", 2, CALL_PLAIN);
+		addCall(FUNCTION2_CALLS, Function2Arg.KRONECKER_DELTA_ID, MathFunctions.class, "kroneckerDelta", 2, CALL_PLAIN);
+		addCall(FUNCTION2_CALLS, Function2Arg.BETA_ID, SpecialFunctions.class, "beta", 2, CALL_PLAIN);
+		addCall(FUNCTION2_CALLS, Function2Arg.LOG_BETA_ID, SpecialFunctions.class, "logBeta", 2, CALL_PLAIN);
+		addCall(FUNCTION2_CALLS, Function2Arg.INC_GAMMA_LOWER_ID, SpecialFunctions.class, "incompleteGammaLower", 2, CALL_PLAIN);
+		addCall(FUNCTION2_CALLS, Function2Arg.INC_GAMMA_UPPER_ID, SpecialFunctions.class, "incompleteGammaUpper", 2, CALL_PLAIN);
+		addCall(FUNCTION2_CALLS, Function2Arg.REG_GAMMA_LOWER_ID, SpecialFunctions.class, "regularizedGammaLowerP", 2, CALL_PLAIN);
+		addCall(FUNCTION2_CALLS, Function2Arg.REG_GAMMA_UPPER_ID, SpecialFunctions.class, "regularizedGammaUpperQ", 2, CALL_PLAIN);
+		addCall(FUNCTION3_CALLS, Function3Arg.CHI_ID, MathFunctions.class, "chi", 3, CALL_PLAIN);
+		addCall(FUNCTION3_CALLS, Function3Arg.CHI_LR_ID, MathFunctions.class, "chi_LR", 3, CALL_PLAIN);
+		addCall(FUNCTION3_CALLS, Function3Arg.CHI_L_ID, MathFunctions.class, "chi_L", 3, CALL_PLAIN);
+		addCall(FUNCTION3_CALLS, Function3Arg.CHI_R_ID, MathFunctions.class, "chi_R", 3, CALL_PLAIN);
+		addCall(FUNCTION3_CALLS, Function3Arg.PDF_UNIFORM_CONT_ID, ProbabilityDistributions.class, "pdfUniformContinuous", 3, CALL_PLAIN);
+		addCall(FUNCTION3_CALLS, Function3Arg.CDF_UNIFORM_CONT_ID, ProbabilityDistributions.class, "cdfUniformContinuous", 3, CALL_PLAIN);
+		addCall(FUNCTION3_CALLS, Function3Arg.QNT_UNIFORM_CONT_ID, ProbabilityDistributions.class, "qntUniformContinuous", 3, CALL_PLAIN);
+		addCall(FUNCTION3_CALLS, Function3Arg.PDF_NORMAL_ID, ProbabilityDistributions.class, "pdfNormal", 3, CALL_PLAIN);
+		addCall(FUNCTION3_CALLS, Function3Arg.CDF_NORMAL_ID, ProbabilityDistributions.class, "cdfNormal", 3, CALL_PLAIN);
+		addCall(FUNCTION3_CALLS, Function3Arg.QNT_NORMAL_ID, ProbabilityDistributions.class, "qntNormal", 3, CALL_PLAIN);
+		addCall(OPERATOR_CALLS, operatorKey(Operator.TYPE_ID, Operator.DIVIDE_ID), MathFunctions.class, "div", 2, CALL_PLAIN);
+		addCall(OPERATOR_CALLS, operatorKey(Operator.TYPE_ID, Operator.POWER_ID), MathFunctions.class, "power", 2, CALL_PLAIN);
+		addCall(OPERATOR_CALLS, operatorKey(Operator.TYPE_ID, Operator.TETRATION_ID), MathFunctions.class, "tetration", 2, CALL_PLAIN);
+		addCall(OPERATOR_CALLS, operatorKey(Operator.TYPE_ID, Operator.MOD_ID), MathFunctions.class, "mod", 2, CALL_PLAIN);
+		addCall(OPERATOR_CALLS, operatorKey(Operator.TYPE_ID, Operator.FACT_ID), MathFunctions.class, "factorial", 1, CALL_PLAIN);
+		addCall(OPERATOR_CALLS, operatorKey(BooleanOperator.TYPE_ID, BooleanOperator.NEG_ID), BooleanAlgebra.class, "not", 1, CALL_EPSILON);
+		addCall(OPERATOR_CALLS, operatorKey(BooleanOperator.TYPE_ID, BooleanOperator.AND_ID), BooleanAlgebra.class, "and", 2, CALL_EPSILON);
+		addCall(OPERATOR_CALLS, operatorKey(BooleanOperator.TYPE_ID, BooleanOperator.OR_ID), BooleanAlgebra.class, "or", 2, CALL_EPSILON);
+		addCall(OPERATOR_CALLS, operatorKey(BooleanOperator.TYPE_ID, BooleanOperator.XOR_ID), BooleanAlgebra.class, "xor", 2, CALL_EPSILON);
+		addCall(OPERATOR_CALLS, operatorKey(BooleanOperator.TYPE_ID, BooleanOperator.NAND_ID), BooleanAlgebra.class, "nand", 2, CALL_EPSILON);
+		addCall(OPERATOR_CALLS, operatorKey(BooleanOperator.TYPE_ID, BooleanOperator.NOR_ID), BooleanAlgebra.class, "nor", 2, CALL_EPSILON);
+		addCall(OPERATOR_CALLS, operatorKey(BooleanOperator.TYPE_ID, BooleanOperator.IMP_ID), BooleanAlgebra.class, "imp", 2, CALL_EPSILON);
+		addCall(OPERATOR_CALLS, operatorKey(BooleanOperator.TYPE_ID, BooleanOperator.CIMP_ID), BooleanAlgebra.class, "cimp", 2, CALL_EPSILON);
+		addCall(OPERATOR_CALLS, operatorKey(BooleanOperator.TYPE_ID, BooleanOperator.NIMP_ID), BooleanAlgebra.class, "nimp", 2, CALL_EPSILON);
+		addCall(OPERATOR_CALLS, operatorKey(BooleanOperator.TYPE_ID, BooleanOperator.CNIMP_ID), BooleanAlgebra.class, "cnimp", 2, CALL_EPSILON);
+		addCall(OPERATOR_CALLS, operatorKey(BooleanOperator.TYPE_ID, BooleanOperator.EQV_ID), BooleanAlgebra.class, "eqv", 2, CALL_EPSILON);
+		addCall(OPERATOR_CALLS, operatorKey(BinaryRelation.TYPE_ID, BinaryRelation.EQ_ID), BinaryRelations.class, "eq", 2, CALL_EPSILON);
+		addCall(OPERATOR_CALLS, operatorKey(BinaryRelation.TYPE_ID, BinaryRelation.NEQ_ID), BinaryRelations.class, "neq", 2, CALL_EPSILON);
+		addCall(OPERATOR_CALLS, operatorKey(BinaryRelation.TYPE_ID, BinaryRelation.LT_ID), BinaryRelations.class, "lt", 2, CALL_EPSILON);
+		addCall(OPERATOR_CALLS, operatorKey(BinaryRelation.TYPE_ID, BinaryRelation.GT_ID), BinaryRelations.class, "gt", 2, CALL_EPSILON);
+		addCall(OPERATOR_CALLS, operatorKey(BinaryRelation.TYPE_ID, BinaryRelation.LEQ_ID), BinaryRelations.class, "leq", 2, CALL_EPSILON);
+		addCall(OPERATOR_CALLS, operatorKey(BinaryRelation.TYPE_ID, BinaryRelation.GEQ_ID), BinaryRelations.class, "geq", 2, CALL_EPSILON);
+	}
+	/**
+	 * Key of the operator direct call.
+	 */
+	private static int operatorKey(int typeId, int operatorId) {
+		return (typeId << 16) | operatorId;
+	}
+	/**
+	 * Registers direct call if the public static method exists, otherwise
+	 * the function is evaluated through the {@link BytecodeFunction} methods.
+	 */
+	private static void addCall(Map<Integer, Call> calls, int id, Class<?> owner, String name, int parametersNumber, int kind) {
+		List<Class<?>> types = new ArrayList<Class<?>>();
+		StringBuilder descriptor = new StringBuilder("(");
+		for (int i = 0; i < parametersNumber; i++) {
+			types.add(double.class);
+			descriptor.append('D');
+		}
+		if (kind == CALL_DEGREES_MODE) {
+			types.add(boolean.class);
+			descriptor.append('Z');
+		} else if (kind == CALL_EPSILON) {
+			types.add(boolean.class);
+			types.add(double.class);
+			descriptor.append("ZD");
+		}
+		descriptor.append(")D");
+		try {
+			Method method = owner.getMethod(name, types.toArray(new Class<?>[types.size()]));
+			if ( (Modifier.isStatic(method.getModifiers())) && (method.getReturnType() == double.class) )
+				calls.put(id, new Call(owner.getName().replace('.', '/'), name, descriptor.toString(), kind));
+		} catch (NoSuchMethodException e) {
+		}
+	}
+	/*=================================================
+	 *
+	 * Compilation
+	 *
+	 *=================================================
+	 */
+	/**
+	 * Compiles the expression into the bytecode.
+	 *
+	 * @param      expression          the expression
+	 * @param      parameters          the arguments given as parameters
+	 *                                 (null - parameter not used)
+	 *
+	 * @return     Compiled function, function evaluating the compiled
+	 *             expression tree if bytecode is not supported, or null
+	 *             if expression can not be compiled at all.
+	 */
+	static BytecodeFunction compile(Expression expression, Argument[] parameters) {
+		if (expression.getCompiledExpression() == null)
+			return null;
+		Throwable fallbackCause;
+		try {
+			return new BytecodeCompiler(expression, parameters).define();
+		} catch (UnsupportedNodeException e) {
+			fallbackCause = e;
+		} catch (LinkageError e) {
+			fallbackCause = e;
+		} catch (NoSuchMethodException e) {
+			fallbackCause = e;
+		} catch (InstantiationException e) {
+			fallbackCause = e;
+		} catch (IllegalAccessException e) {
+			fallbackCause = e;
+		} catch (InvocationTargetException e) {
+			fallbackCause = e;
+		}
+		return interpret(expression, parameters, fallbackCause);
+	}
+	/**
+	 * Function evaluating the compiled expression tree.
+	 *
+	 * @param      fallbackCause       the reason why the bytecode was not used
+	 */
+	private static BytecodeFunction interpret(Expression expression, Argument[] parameters, Throwable fallbackCause) {
+		CompiledExpression compiledExpression = CompiledExpression.share(expression);
+		if (compiledExpression == null)
+			return null;
+		int[] indexes = new int[parameters.length];
+		for (int i = 0; i < parameters.length; i++) {
+			indexes[i] = -1;
+			if (parameters[i] == null) continue;
+			boolean duplicate = false;
+			for (int j = 0; j < i; j++)
+				if (parameters[j] == parameters[i])
+					duplicate = true;
+			if (duplicate == false)
+				indexes[i] = compiledExpression.getArgumentIndex(parameters[i]);
+		}
+		return new InterpretedFunction(compiledExpression, indexes, expression.getExpressionString(), fallbackCause);
+	}
+	/**
+	 * Function evaluating the compiled expression tree
+	 * (expressions not supported by the bytecode).
+	 */
+	private static final class InterpretedFunction extends BytecodeFunction {
+		private final CompiledExpression compiledExpression;
+		private final int[] indexes;
+		private final Throwable fallbackCause;
+		/**
+		 * Evaluation context reused by the calculations in the current
+		 * thread, null while the context is in use (a nested call
+		 * from the extension creates its own context)
+		 */
+		private final ThreadLocal<EvaluationContext> contexts = new ThreadLocal<EvaluationContext>();
+		InterpretedFunction(CompiledExpression compiledExpression, int[] indexes, String expressionString, Throwable fallbackCause) {
+			super(new Argument[0], new double[0][], new FunctionExtensionPrimitive[0], indexes.length, expressionString);
+			this.compiledExpression = compiledExpression;
+			this.indexes = indexes;
+			this.fallbackCause = fallbackCause;
+		}
+		@Override
+		protected double evaluate(double[] parameters, EvaluationOptions options) {
+			EvaluationContext context = contexts.get();
+			if (context == null)
+				context = compiledExpression.createContext();
+			else {
+				contexts.set(null);
+				compiledExpression.updateContext(context);
+			}
+			try {
+				context.setOptions(options);
+				for (int i = 0; i < indexes.length; i++)
+					if (indexes[i] >= 0)
+						context.setArgumentValue(indexes[i], parameters[i]);
+				return compiledExpression.calculate(context);
+			} finally {
+				contexts.set(context);
+			}
+		}
+		@Override
+		public boolean isBytecode() {
+			return false;
+		}
+		@Override
+		public Throwable getFallbackCause() {
+			return fallbackCause;
+		}
+	}
+	/**
+	 * Class loader of the single compiled class.
+	 */
+	private static final class Loader extends ClassLoader {
+		Loader(ClassLoader parent) {
+			super(parent);
+		}
+		Class<?> define(String name, byte[] bytes) {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+	/**
+	 * Compiled expression
+	 */
+	private final Expression expression;
+	/**
+	 * Arguments given as parameters
+	 */
+	private final Argument[] parameters;
+	/**
+	 * Constant pool of the class
+	 */
+	private final ConstantPool pool = new ConstantPool();
+	/**
+	 * Arguments read from the {@link Argument} objects
+	 */
+	private final List<Argument> arguments = new ArrayList<Argument>();
+	/**
+	 * Folded sub-trees values
+	 */
+	private final List<double[]> foldedValues = new ArrayList<double[]>();
+	/**
+	 * Primitive extensions called by the function
+	 */
+	private final List<FunctionExtensionPrimitive> extensions = new ArrayList<FunctionExtensionPrimitive>();
+	/**
+	 * Expressions being inlined (recursion detection)
+	 */
+	private final List<Expression> inlined = new ArrayList<Expression>();
+	/**
+	 * Arguments bound to the parameters and local variables,
+	 * the innermost inlined function last. Value &gt;= 0 - local variable,
+	 * value &lt; 0 - index (-value - 1) of the parameters array.
+	 */
+	private final List<Map<Argument, Integer>> scopes = new ArrayList<Map<Argument, Integer>>();
+	/**
+	 * Code of the method being compiled
+	 */
+	private Code code;
+	/**
+	 * Local variable of the parameters array
+	 */
+	private int parametersSlot;
+	/**
+	 * Local variable of the evaluation options
+	 */
+	private int optionsSlot;
+	/**
+	 * Number of call sites with the parameters array
+	 */
+	private int callSitesNumber;
+	/**
+	 * Package level constructor.
+	 */
+	private BytecodeCompiler(Expression expression, Argument[] parameters) {
+		this.expression = expression;
+		this.parameters = parameters;
+	}
+	/**
+	 * Generates, loads and instantiates the class.
+	 */
+	private BytecodeFunction define() throws UnsupportedNodeException, NoSuchMethodException, InstantiationException, IllegalAccessException, InvocationTargetException {
+		String className = CLASS_NAME + classesNumber.incrementAndGet();
+		byte[] bytes = generate(className);
+		Loader loader = new Loader(BytecodeFunction.class.getClassLoader());
+		Class<?> compiledClass = loader.define(className.replace('/', '.'), bytes);
+		Constructor<?> constructor = compiledClass.getConstructor(Argument[].class, double[][].class, FunctionExtensionPrimitive[].class, int.class, String.class);
+		return (BytecodeFunction)constructor.newInstance(
+				arguments.toArray(new Argument[arguments.size()]),
+				foldedValues.toArray(new double[foldedValues.size()][]),
+				extensions.toArray(new FunctionExtensionPrimitive[extensions.size()]),
+				parameters.length, expression.getExpressionString()
+		);
+	}
+	/**
+	 * Generates the class file.
+	 */
+	private byte[] generate(String className) throws UnsupportedNodeException {
+		int thisClass = pool.classRef(className);
+		int superClass = pool.classRef(FUNCTION_CLASS);
+		List<byte[]> methods = new ArrayList<byte[]>();
+		/*
+		 * Constructor passing all the parameters to the super class
+		 */
+		code = new Code(6);
+		code.local(ALOAD, 0, 1);
+		code.local(ALOAD, 1, 1);
+		code.local(ALOAD, 2, 1);
+		code.local(ALOAD, 3, 1);
+		code.local(ILOAD, 4, 1);
+		code.local(ALOAD, 5, 1);
+		code.invoke(INVOKESPECIAL, FUNCTION_CLASS, "<init>", CONSTRUCTOR_DESCRIPTOR);
+		code.op(RETURN, 0);
+		methods.add(method(ACC_PUBLIC, "<init>", CONSTRUCTOR_DESCRIPTOR));
+		/*
+		 * Parameters array, one parameter, two parameters
+		 */
+		Map<Argument, Integer> scope = new IdentityHashMap<Argument, Integer>();
+		for (int i = parameters.length - 1; i >= 0; i--)
+			if (parameters[i] != null)
+				scope.put(parameters[i], -i - 1);
+		methods.add(evaluateMethod("([D" + OPTIONS + ")D", scope, 1, 2, 3));
+		if (parameters.length == 1) {
+			scope.clear();
+			if (parameters[0] != null)
+				scope.put(parameters[0], 1);
+			methods.add(evaluateMethod("(D" + OPTIONS + ")D", scope, -1, 3, 4));
+		} else if (parameters.length == 2) {
+			scope.clear();
+			if (parameters[1] != null)
+				scope.put(parameters[1], 3);
+			if (parameters[0] != null)
+				scope.put(parameters[0], 1);
+			methods.add(evaluateMethod("(DD" + OPTIONS + ")D", scope, -1, 5, 6));
+		}
+		Bytes classFile = new Bytes();
+		classFile.u4(0xCAFEBABE);
+		classFile.u2(0);
+		classFile.u2(CLASS_FILE_VERSION);
+		classFile.u2(pool.count);
+		classFile.bytes(pool.bytes.toArray());
+		classFile.u2(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+		classFile.u2(thisClass);
+		classFile.u2(superClass);
+		classFile.u2(0);
+		classFile.u2(0);
+		classFile.u2(methods.size());
+		for (byte[] method : methods)
+			classFile.bytes(method);
+		classFile.u2(0);
+		return classFile.toArray();
+	}
+	/**
+	 * Generates evaluate method.
+	 *
+	 * @param      descriptor          the method descriptor
+	 * @param      scope               the parameters binding
+	 * @param      parametersSlot      the parameters array local variable
+	 * @param      optionsSlot         the options local variable
+	 * @param      localsNumber        the number of the method parameters slots
+	 */
+	private byte[] evaluateMethod(String descriptor, Map<Argument, Integer> scope, int parametersSlot, int optionsSlot, int localsNumber) throws UnsupportedNodeException {
+		code = new Code(localsNumber);
+		this.parametersSlot = parametersSlot;
+		this.optionsSlot = optionsSlot;
+		callSitesNumber = 0;
+		scopes.clear();
+		scopes.add(scope);
+		inlined.clear();
+		inlined.add(expression);
+		compile(expression.getCompiledExpression().root);
+		code.op(DRETURN, -2);
+		return method(ACC_PROTECTED, "evaluate", descriptor);
+	}
+	/**
+	 * Writes method with the current code.
+	 */
+	private byte[] method(int access, String name, String descriptor) throws UnsupportedNodeException {
+		byte[] codeBytes = code.resolve();
+		Bytes method = new Bytes();
+		method.u2(access);
+		method.u2(pool.utf8(name));
+		method.u2(pool.utf8(descriptor));
+		method.u2(1);
+		method.u2(pool.utf8("Code"));
+		method.u4(12 + codeBytes.length);
+		method.u2(code.maxStack);
+		method.u2(code.maxLocals);
+		method.u4(codeBytes.length);
+		method.bytes(codeBytes);
+		method.u2(0);
+		method.u2(0);
+		return method.toArray();
+	}
+	/**
+	 * Compiles node, code leaves node value on the operand stack.
+	 */
+	private void compile(CompiledNode node) throws UnsupportedNodeException {
+		if (node instanceof CompiledNode.Number)
+			pushDouble(((CompiledNode.Number)node).value);
+		else if (node instanceof CompiledNode.FoldedValue) {
+			foldedValues.add(((CompiledNode.FoldedValue)node).values);
+			code.local(ALOAD, 0, 1);
+			code.field(GETFIELD, FUNCTION_CLASS, "foldedValues", "[[D", 0);
+			pushInt(foldedValues.size() - 1);
+			code.op(AALOAD, -1);
+			code.local(ALOAD, optionsSlot, 1);
+			code.invoke(INVOKESTATIC, FUNCTION_CLASS, "foldedValue", "([D" + OPTIONS + ")D");
+		} else if (node instanceof CompiledNode.ArgumentValue)
+			compileArgument(((CompiledNode.ArgumentValue)node).argument);
+		else if (node instanceof CompiledNode.RecursiveArgumentValue) {
+			pushArgument(((CompiledNode.RecursiveArgumentValue)node).argument);
+			code.type(CHECKCAST, RECURSIVE_ARGUMENT_CLASS, 0);
+			compile(node.children[0]);
+			code.invoke(INVOKEVIRTUAL, RECURSIVE_ARGUMENT_CLASS, "getArgumentValue", "(D)D");
+		} else if (node instanceof CompiledNode.RandomVariableValue) {
+			pushInt(((CompiledNode.RandomVariableValue)node).randomVariableId);
+			code.local(ALOAD, optionsSlot, 1);
+			code.invoke(INVOKESTATIC, FUNCTION_CLASS, "randomVariable", "(I" + OPTIONS + ")D");
+		} else if (node instanceof CompiledNode.UnaryOperator)
+			compileUnaryOperator((CompiledNode.UnaryOperator)node);
+		else if (node instanceof CompiledNode.BinaryOperator)
+			compileBinaryOperator((CompiledNode.BinaryOperator)node);
+		else if (node instanceof CompiledNode.ShortCircuit)
+			compileShortCircuit((CompiledNode.ShortCircuit)node);
+		else if (node instanceof CompiledNode.Function1)
+			compileFunction(FUNCTION1_CALLS.get(((CompiledNode.Function1)node).functionId), ((CompiledNode.Function1)node).functionId, node.children,
+					"function1", "(ID" + OPTIONS + ")D", true);
+		else if (node instanceof CompiledNode.Function2)
+			compileFunction(FUNCTION2_CALLS.get(((CompiledNode.Function2)node).functionId), ((CompiledNode.Function2)node).functionId, node.children,
+					"function2", "(IDD" + OPTIONS + ")D", true);
+		else if (node instanceof CompiledNode.Function3)
+			compileFunction(FUNCTION3_CALLS.get(((CompiledNode.Function3)node).functionId), ((CompiledNode.Function3)node).functionId, node.children,
+					"function3", "(IDDD)D", false);
+		else if (node instanceof CompiledNode.Variadic)
+			compileVariadic((CompiledNode.Variadic)node);
+		else if (node instanceof CompiledNode.SubExpression) {
+			compile(((CompiledNode.SubExpression)node).body);
+			almostIntRound();
+		} else if (node instanceof CompiledNode.If)
+			compileIf((CompiledNode.If)node);
+		else if (node instanceof CompiledNode.Iff)
+			compileIff((CompiledNode.Iff)node);
+		else if (node instanceof CompiledNode.UserFunction)
+			compileUserFunction((CompiledNode.UserFunction)node);
+		else
+			throw new UnsupportedNodeException("Not supported node: " + node.getClass().getSimpleName());
+	}
+	/**
+	 * Argument value - parameter, local variable of the inlined function,
+	 * inlined dependent argument or value read from the argument object.
+	 */
+	private void compileArgument(Argument argument) throws UnsupportedNodeException {
+		for (int i = scopes.size() - 1; i >= 0; i--) {
+			Integer source = scopes.get(i).get(argument);
+			if (source == null) continue;
+			if (source >= 0)
+				code.local(DLOAD, source, 2);
+			else {
+				code.local(ALOAD, parametersSlot, 1);
+				pushInt(-source - 1);
+				code.op(DALOAD, 0);
+			}
+			return;
+		}
+		if (argument.argumentType == Argument.DEPENDENT_ARGUMENT)
+			compileInlined(argument.argumentExpression, null);
+		else if (argument.argumentType == Argument.FREE_ARGUMENT) {
+			pushArgument(argument);
+			code.invoke(INVOKEVIRTUAL, ARGUMENT_CLASS, "getArgumentValue", "()D");
+		} else
+			throw new UnsupportedNodeException("Not supported argument: " + argument.getArgumentName());
+	}
+	/**
+	 * Pushes argument object.
+	 */
+	private void pushArgument(Argument argument) {
+		int index = -1;
+		for (int i = 0; i < arguments.size(); i++)
+			if (arguments.get(i) == argument)
+				index = i;
+		if (index < 0) {
+			index = arguments.size();
+			arguments.add(argument);
+		}
+		code.local(ALOAD, 0, 1);
+		code.field(GETFIELD, FUNCTION_CLASS, "arguments", "[L" + ARGUMENT_CLASS + ";", 0);
+		pushInt(index);
+		code.op(AALOAD, -1);
+	}
+	/**
+	 * Inlines expression (dependent argument, user defined function body),
+	 * result is rounded as the nested expression result.
+	 */
+	private void compileInlined(Expression inlinedExpression, Map<Argument, Integer> scope) throws UnsupportedNodeException {
+		if (inlined.size() > MAX_INLINING_DEPTH)
+			throw new UnsupportedNodeException("Maximum inlining depth exceeded: " + inlinedExpression.getExpressionString());
+		for (Expression e : inlined)
+			if (e == inlinedExpression)
+				throw new UnsupportedNodeException("Recursive definition: " + inlinedExpression.getExpressionString());
+		CompiledExpression compiledExpression = inlinedExpression.getCompiledExpression();
+		if (compiledExpression == null)
+			throw new UnsupportedNodeException("Not compiled expression: " + inlinedExpression.getExpressionString());
+		inlined.add(inlinedExpression);
+		if (scope != null)
+			scopes.add(scope);
+		compile(compiledExpression.root);
+		if (scope != null)
+			scopes.remove(scopes.size() - 1);
+		inlined.remove(inlined.size() - 1);
+		almostIntRound();
+	}
+	/**
+	 * User defined function call - parameters are stored in the local
+	 * variables and the function body is inlined, primitive extension
+	 * is called directly.
+	 */
+	private void compileUserFunction(CompiledNode.UserFunction node) throws UnsupportedNodeException {
+		Function function = node.function;
+		if (function.functionExtensionPrimitive != null) {
+			compileExtension(function.functionExtensionPrimitive, node.children);
+			return;
+		}
+		if ( (function.isVariadic) || (function.getFunctionBodyType() != Function.BODY_RUNTIME) || (function.getRecursiveMode()) )
+			throw new UnsupportedNodeException("Not supported user defined function: " + function.getFunctionName());
+		Map<Argument, Integer> scope = new IdentityHashMap<Argument, Integer>();
+		for (int i = 0; i < node.children.length; i++) {
+			compile(node.children[i]);
+			int slot = code.newLocal();
+			code.local(DSTORE, slot, -2);
+			if ( (i < node.parameters.length) && (!scope.containsKey(node.parameters[i])) )
+				scope.put(node.parameters[i], slot);
+		}
+		compileInlined(function.functionExpression, scope);
+	}
+	/**
+	 * Primitive extension call - parameters are passed in the array
+	 * of the call site reused by the subsequent calls.
+	 */
+	private void compileExtension(FunctionExtensionPrimitive extension, CompiledNode[] children) throws UnsupportedNodeException {
+		int index = extensions.indexOf(extension);
+		if (index < 0) {
+			index = extensions.size();
+			extensions.add(extension);
+		}
+		int[] slots = storeParameters(children);
+		code.local(ALOAD, 0, 1);
+		code.field(GETFIELD, FUNCTION_CLASS, "extensions", "[L" + EXTENSION_CLASS + ";", 0);
+		pushInt(index);
+		code.op(AALOAD, -1);
+		loadCallParameters(slots);
+		pushInt(0);
+		pushInt(slots.length);
+		code.invoke(INVOKEINTERFACE, EXTENSION_CLASS, "calculate", "([DII)D");
+	}
+	/**
+	 * Evaluates call parameters into the local variables (before the
+	 * parameters array is filled, so the nested calls do not interfere).
+	 *
+	 * @return     Local variables of the parameters values.
+	 */
+	private int[] storeParameters(CompiledNode[] children) throws UnsupportedNodeException {
+		int[] slots = new int[children.length];
+		for (int i = 0; i < children.length; i++) {
+			compile(children[i]);
+			slots[i] = code.newLocal();
+			code.local(DSTORE, slots[i], -2);
+		}
+		return slots;
+	}
+	/**
+	 * Pushes parameters array of the new call site
+	 * filled with the local variables values.
+	 */
+	private void loadCallParameters(int[] slots) {
+		code.local(ALOAD, 0, 1);
+		pushInt(callSitesNumber++);
+		pushInt(slots.length);
+		code.invoke(INVOKEVIRTUAL, FUNCTION_CLASS, "getCallParameters", "(II)[D");
+		for (int i = 0; i < slots.length; i++) {
+			code.op(DUP, 1);
+			pushInt(i);
+			code.local(DLOAD, slots[i], 2);
+			code.op(DASTORE, -4);
+		}
+	}
+	/**
+	 * Unary operator.
+	 */
+	private void compileUnaryOperator(CompiledNode.UnaryOperator node) throws UnsupportedNodeException {
+		if (node.typeId == Operator.TYPE_ID && node.operatorId == Operator.MINUS_ID) {
+			compile(node.children[0]);
+			code.op(DNEG, 0);
+		} else if (node.typeId == Operator.TYPE_ID && node.operatorId == Operator.PERC_ID) {
+			compile(node.children[0]);
+			pushDouble(Units.PERC);
+			code.op(DMUL, -2);
+		} else if (node.typeId == BitwiseOperator.TYPE_ID && node.operatorId == BitwiseOperator.COMPL_ID) {
+			compile(node.children[0]);
+			code.op(D2L, 0);
+			code.constant(LDC2_W, pool.longConstant(-1L), 2);
+			code.op(LXOR, -2);
+			code.op(L2D, 0);
+		} else {
+			Call call = OPERATOR_CALLS.get(operatorKey(node.typeId, node.operatorId));
+			if (call != null) {
+				compile(node.children[0]);
+				call(call);
+			} else {
+				pushInt(node.typeId);
+				pushInt(node.operatorId);
+				compile(node.children[0]);
+				code.local(ALOAD, optionsSlot, 1);
+				code.invoke(INVOKESTATIC, FUNCTION_CLASS, "unaryOperator", "(IID" + OPTIONS + ")D");
+			}
+		}
+	}
+	/**
+	 * Binary operator.
+	 */
+	private void compileBinaryOperator(CompiledNode.BinaryOperator node) throws UnsupportedNodeException {
+		int instruction = -1;
+		if (node.typeId == Operator.TYPE_ID) {
+			switch (node.operatorId) {
+			case Operator.PLUS_ID: instruction = DADD; break;
+			case Operator.MINUS_ID: instruction = DSUB; break;
+			case Operator.MULTIPLY_ID: instruction = DMUL; break;
+			}
+		}
+		Call call = OPERATOR_CALLS.get(operatorKey(node.typeId, node.operatorId));
+		if (instruction >= 0) {
+			compile(node.children[0]);
+			compile(node.children[1]);
+			code.op(instruction, -2);
+		} else if (call != null) {
+			compile(node.children[0]);
+			compile(node.children[1]);
+			call(call);
+		} else {
+			pushInt(node.typeId);
+			pushInt(node.operatorId);
+			compile(node.children[0]);
+			compile(node.children[1]);
+			code.local(ALOAD, optionsSlot, 1);
+			code.invoke(INVOKESTATIC, FUNCTION_CLASS, "binaryOperator", "(IIDD" + OPTIONS + ")D");
+		}
+		if (node.ulpRound) {
+			code.local(ALOAD, optionsSlot, 1);
+			code.invoke(INVOKESTATIC, FUNCTION_CLASS, "ulpRound", "(D" + OPTIONS + ")D");
+		}
+	}
+	/**
+	 * Boolean operator evaluating the right operand only if needed.
+	 */
+	private void compileShortCircuit(CompiledNode.ShortCircuit node) throws UnsupportedNodeException {
+		compile(node.children[0]);
+		int left = code.newLocal();
+		code.local(DSTORE, left, -2);
+		int stack = code.stack;
+		int evaluateRight = code.newLabel();
+		int end = code.newLabel();
+		pushInt(node.operatorId);
+		code.local(DLOAD, left, 2);
+		code.local(ALOAD, optionsSlot, 1);
+		code.invoke(INVOKESTATIC, FUNCTION_CLASS, "isDecided", "(ID" + OPTIONS + ")Z");
+		code.jump(IFEQ, evaluateRight, -1);
+		pushInt(BooleanOperator.TYPE_ID);
+		pushInt(node.operatorId);
+		code.local(DLOAD, left, 2);
+		pushDouble(BooleanAlgebra.F);
+		code.local(ALOAD, optionsSlot, 1);
+		code.invoke(INVOKESTATIC, FUNCTION_CLASS, "binaryOperator", "(IIDD" + OPTIONS + ")D");
+		code.jump(GOTO, end, 0);
+		code.mark(evaluateRight, stack);
+		pushInt(BooleanOperator.TYPE_ID);
+		pushInt(node.operatorId);
+		code.local(DLOAD, left, 2);
+		compile(node.right);
+		code.local(ALOAD, optionsSlot, 1);
+		code.invoke(INVOKESTATIC, FUNCTION_CLASS, "binaryOperator", "(IIDD" + OPTIONS + ")D");
+		code.mark(end, stack + 2);
+	}
+	/**
+	 * Function with the given number of parameters - direct call
+	 * or call through the {@link BytecodeFunction} method.
+	 */
+	private void compileFunction(Call call, int functionId, CompiledNode[] parameters, String name, String descriptor, boolean options) throws UnsupportedNodeException {
+		if (call == null)
+			pushInt(functionId);
+		for (CompiledNode parameter : parameters)
+			compile(parameter);
+		if (call != null)
+			call(call);
+		else {
+			if (options)
+				code.local(ALOAD, optionsSlot, 1);
+			code.invoke(INVOKESTATIC, FUNCTION_CLASS, name, descriptor);
+		}
+	}
+	/**
+	 * Direct call of the public static method.
+	 */
+	private void call(Call call) {
+		switch (call.kind) {
+		case CALL_DEGREES_MODE:
+			code.local(ALOAD, optionsSlot, 1);
+			code.invoke(INVOKEVIRTUAL, OPTIONS_CLASS, "checkIfDegreesMode", "()Z");
+			break;
+		case CALL_EPSILON:
+			code.local(ALOAD, optionsSlot, 1);
+			code.invoke(INVOKEVIRTUAL, OPTIONS_CLASS, "checkIfEpsilonMode", "()Z");
+			code.local(ALOAD, optionsSlot, 1);
+			code.invoke(INVOKEVIRTUAL, OPTIONS_CLASS, "getEpsilon", "()D");
+			break;
+		case CALL_SWAPPED:
+			code.op(DUP2_X2, 2);
+			code.op(POP2, -2);
+			break;
+		}
+		code.invoke(INVOKESTATIC, call.owner, call.name, call.descriptor);
+	}
+	/**
+	 * Variadic function - parameters are passed in the array
+	 * of the call site reused by the subsequent calls.
+	 */
+	private void compileVariadic(CompiledNode.Variadic node) throws UnsupportedNodeException {
+		int[] slots = storeParameters(node.children);
+		pushInt(node.functionId);
+		loadCallParameters(slots);
+		code.local(ALOAD, optionsSlot, 1);
+		code.invoke(INVOKESTATIC, FUNCTION_CLASS, "variadic", "(I[D" + OPTIONS + ")D");
+		if (node.ulpRound) {
+			code.local(ALOAD, optionsSlot, 1);
+			code.invoke(INVOKESTATIC, FUNCTION_CLASS, "ulpRound", "(D" + OPTIONS + ")D");
+		}
+	}
+	/**
+	 * If function - NaN condition gives NaN, only the selected branch is evaluated.
+	 */
+	private void compileIf(CompiledNode.If node) throws UnsupportedNodeException {
+		compile(node.condition);
+		int condition = code.newLocal();
+		code.local(DSTORE, condition, -2);
+		int stack = code.stack;
+		int ifFalse = code.newLabel();
+		int ifNaN = code.newLabel();
+		int end = code.newLabel();
+		code.local(DLOAD, condition, 2);
+		code.local(DLOAD, condition, 2);
+		code.op(DCMPL, -3);
+		code.jump(IFNE, ifNaN, -1);
+		code.local(DLOAD, condition, 2);
+		code.op(DCONST_0, 2);
+		code.op(DCMPL, -3);
+		code.jump(IFEQ, ifFalse, -1);
+		compile(node.ifTrue);
+		code.jump(GOTO, end, 0);
+		code.mark(ifFalse, stack);
+		compile(node.ifFalse);
+		code.jump(GOTO, end, 0);
+		code.mark(ifNaN, stack);
+		pushDouble(Double.NaN);
+		code.mark(end, stack + 2);
+	}
+	/**
+	 * Iff function - conditions are evaluated until the first one is true.
+	 */
+	private void compileIff(CompiledNode.Iff node) throws UnsupportedNodeException {
+		int stack = code.stack;
+		int end = code.newLabel();
+		for (int i = 0; i < node.conditions.length; i++) {
+			compile(node.conditions[i]);
+			int condition = code.newLocal();
+			code.local(DSTORE, condition, -2);
+			int next = code.newLabel();
+			code.local(DLOAD, condition, 2);
+			code.local(DLOAD, condition, 2);
+			code.op(DCMPL, -3);
+			code.jump(IFNE, next, -1);
+			code.local(DLOAD, condition, 2);
+			code.op(DCONST_0, 2);
+			code.op(DCMPL, -3);
+			code.jump(IFEQ, next, -1);
+			compile(node.branches[i]);
+			code.jump(GOTO, end, 0);
+			code.mark(next, stack);
+		}
+		pushDouble(Double.NaN);
+		code.mark(end, stack + 2);
+	}
+	/**
+	 * Almost integer rounding of the value on the stack.
+	 */
+	private void almostIntRound() {
+		code.local(ALOAD, optionsSlot, 1);
+		code.invoke(INVOKESTATIC, FUNCTION_CLASS, "almostIntRound", "(D" + OPTIONS + ")D");
+	}
+	/**
+	 * Pushes int constant.
+	 */
+	private void pushInt(int value) {
+		if ( (value >= -1) && (value <= 5) )
+			code.op(ICONST_0 + value, 1);
+		else if ( (value >= Byte.MIN_VALUE) && (value <= Byte.MAX_VALUE) ) {
+			code.op(BIPUSH, 1);
+			code.u1(value);
+		} else if ( (value >= Short.MIN_VALUE) && (value <= Short.MAX_VALUE) ) {
+			code.op(SIPUSH, 1);
+			code.u2(value);
+		} else {
+			int index = pool.integer(value);
+			if (index < 256) {
+				code.op(LDC, 1);
+				code.u1(index);
+			} else
+				code.constant(LDC_W, index, 1);
+		}
+	}
+	/**
+	 * Pushes double constant.
+	 */
+	private void pushDouble(double value) {
+		long bits = Double.doubleToRawLongBits(value);
+		if (bits == 0L)
+			code.op(DCONST_0, 2);
+		else if (bits == Double.doubleToRawLongBits(1.0))
+			code.op(DCONST_1, 2);
+		else
+			code.constant(LDC2_W, pool.doubleConstant(value), 2);
+	}
+	/*=================================================
+	 *
+	 * Class file writing
+	 *
+	 *=================================================
+	 */
+	/**
+	 * Growable array of bytes in the class file (big endian) order.
+	 */
+	private static class Bytes {
+		byte[] bytes = new byte[256];
+		int length;
+		void u1(int value) {
+			if (length == bytes.length) {
+				byte[] newBytes = new byte[2 * bytes.length];
+				System.arraycopy(bytes, 0, newBytes, 0, length);
+				bytes = newBytes;
+			}
+			bytes[length++] = (byte)value;
+		}
+		void u2(int value) {
+			u1(value >>> 8);
+			u1(value);
+		}
+		void u4(int value) {
+			u2(value >>> 16);
+			u2(value);
+		}
+		void u8(long value) {
+			u4((int)(value >>> 32));
+			u4((int)value);
+		}
+		void bytes(byte[] values) {
+			for (byte value : values)
+				u1(value);
+		}
+		byte[] toArray() {
+			byte[] result = new byte[length];
+			System.arraycopy(bytes, 0, result, 0, length);
+			return result;
+		}
+	}
+	/**
+	 * Constant pool, each constant is written once.
+	 */
+	private static final class ConstantPool {
+		static final Charset UTF_8 = Charset.forName("UTF-8");
+		final Bytes bytes = new Bytes();
+		final Map<String, Integer> entries = new HashMap<String, Integer>();
+		int count = 1;
+		private int entry(String key, int slots) {
+			int index = count;
+			entries.put(key, index);
+			count += slots;
+			return index;
+		}
+		int utf8(String value) {
+			Integer index = entries.get("U" + value);
+			if (index != null) return index;
+			byte[] utf8 = value.getBytes(UTF_8);
+			bytes.u1(1);
+			bytes.u2(utf8.length);
+			bytes.bytes(utf8);
+			return entry("U" + value, 1);
+		}
+		int classRef(String name) {
+			Integer index = entries.get("C" + name);
+			if (index != null) return index;
+			int nameIndex = utf8(name);
+			bytes.u1(7);
+			bytes.u2(nameIndex);
+			return entry("C" + name, 1);
+		}
+		int nameAndType(String name, String descriptor) {
+			String key = "N" + name + " " + descriptor;
+			Integer index = entries.get(key);
+			if (index != null) return index;
+			int nameIndex = utf8(name);
+			int descriptorIndex = utf8(descriptor);
+			bytes.u1(12);
+			bytes.u2(nameIndex);
+			bytes.u2(descriptorIndex);
+			return entry(key, 1);
+		}
+		int memberRef(int tag, String owner, String name, String descriptor) {
+			String key = "M" + tag + owner + " " + name + " " + descriptor;
+			Integer index = entries.get(key);
+			if (index != null) return index;
+			int classIndex = classRef(owner);
+			int nameAndTypeIndex = nameAndType(name, descriptor);
+			bytes.u1(tag);
+			bytes.u2(classIndex);
+			bytes.u2(nameAndTypeIndex);
+			return entry(key, 1);
+		}
+		int integer(int value) {
+			Integer index = entries.get("I" + value);
+			if (index != null) return index;
+			bytes.u1(3);
+			bytes.u4(value);
+			return entry("I" + value, 1);
+		}
+		int longConstant(long value) {
+			Integer index = entries.get("J" + value);
+			if (index != null) return index;
+			bytes.u1(5);
+			bytes.u8(value);
+			return entry("J" + value, 2);
+		}
+		int doubleConstant(double value) {
+			long bits = Double.doubleToRawLongBits(value);
+			Integer index = entries.get("D" + bits);
+			if (index != null) return index;
+			bytes.u1(6);
+			bytes.u8(bits);
+			return entry("D" + bits, 2);
+		}
+	}
+	/**
+	 * Method code with the operand stack and local variables
+	 * tracking, jumps are resolved when the code is written.
+	 */
+	private final class Code extends Bytes {
+		int stack;
+		int maxStack;
+		int maxLocals;
+		private final List<Integer> labels = new ArrayList<Integer>();
+		private final List<int[]> jumps = new ArrayList<int[]>();
+		Code(int localsNumber) {
+			maxLocals = localsNumber;
+		}
+		void change(int stackChange) {
+			stack += stackChange;
+			if (stack > maxStack)
+				maxStack = stack;
+		}
+		void op(int opcode, int stackChange) {
+			u1(opcode);
+			change(stackChange);
+		}
+		void local(int opcode, int slot, int stackChange) {
+			if (slot < 256) {
+				u1(opcode);
+				u1(slot);
+			} else {
+				u1(WIDE);
+				u1(opcode);
+				u2(slot);
+			}
+			change(stackChange);
+		}
+		void constant(int opcode, int index, int stackChange) {
+			u1(opcode);
+			u2(index);
+			change(stackChange);
+		}
+		void type(int opcode, String name, int stackChange) {
+			constant(opcode, pool.classRef(name), stackChange);
+		}
+		void field(int opcode, String owner, String name, String descriptor, int stackChange) {
+			constant(opcode, pool.memberRef(9, owner, name, descriptor), stackChange);
+		}
+		void invoke(int opcode, String owner, String name, String descriptor) {
+			int stackChange = 0;
+			int slots = 1;
+			if (opcode != INVOKESTATIC)
+				stackChange--;
+			int i = 1;
+			while (descriptor.charAt(i) != ')') {
+				char c = descriptor.charAt(i);
+				if ( (c == 'D') || (c == 'J') ) {
+					stackChange -= 2;
+					slots += 2;
+				} else {
+					stackChange--;
+					slots++;
+				}
+				while (descriptor.charAt(i) == '[')
+					i++;
+				if (descriptor.charAt(i) == 'L')
+					i = descriptor.indexOf(';', i);
+				i++;
+			}
+			char result = descriptor.charAt(i + 1);
+			if ( (result == 'D') || (result == 'J') )
+				stackChange += 2;
+			else if (result != 'V')
+				stackChange++;
+			if (opcode == INVOKEINTERFACE) {
+				constant(opcode, pool.memberRef(11, owner, name, descriptor), stackChange);
+				u1(slots);
+				u1(0);
+			} else
+				constant(opcode, pool.memberRef(10, owner, name, descriptor), stackChange);
+		}
+		int newLocal() {
+			int slot = maxLocals;
+			maxLocals += 2;
+			return slot;
+		}
+		int newLabel() {
+			labels.add(-1);
+			return labels.size() - 1;
+		}
+		void jump(int opcode, int label, int stackChange) {
+			jumps.add(new int[] {length, label});
+			u1(opcode);
+			u2(0);
+			change(stackChange);
+		}
+		void mark(int label, int stack) {
+			labels.set(label, length);
+			this.stack = stack;
+		}
+		byte[] resolve() throws UnsupportedNodeException {
+			if ( (length > MAX_CODE_LENGTH) || (maxLocals > MAX_CODE_LENGTH) )
+				throw new UnsupportedNodeException("Method code too large");
+			for (int[] jump : jumps) {
+				int offset = labels.get(jump[1]) - jump[0];
+				if ( (offset < Short.MIN_VALUE) || (offset > Short.MAX_VALUE) )
+					throw new UnsupportedNodeException("Jump offset out of range");
+				bytes[jump[0] + 1] = (byte)(offset >>> 8);
+				bytes[jump[0] + 2] = (byte)offset;
+			}
+			return super.toArray();
+		}
+	}
+}
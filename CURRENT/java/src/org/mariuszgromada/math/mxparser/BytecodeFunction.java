@@ -0,0 +1,518 @@
+/*
+ * @(#)BytecodeFunction.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser;
+
+import org.mariuszgromada.math.mxparser.mathcollection.BooleanAlgebra;
+import org.mariuszgromada.math.mxparser.mathcollection.ProbabilityDistributions;
+import org.mariuszgromada.math.mxparser.parsertokens.BooleanOperator;
+
+/**
+ * BytecodeFunction - expression or user defined function body compiled
+ * into the JVM bytecode, calculated by the unary, binary and n-ary
+ * <code>applyAsDouble</code> methods (named as the methods of the Java 8
+ * primitive functional interfaces, so they can be used as method references,
+ * while the library still runs on the older JVMs).
+ *
+ * Function is created by {@link Expression#compileToBytecode(String...)}
+ * or {@link Function#compileToBytecode()}. The checked expression is
+ * translated into a class with the straight-line code calling the
+ * mathematical functions directly, dependent arguments and user
+ * defined functions are inlined. Expressions containing elements not
+ * supported by the bytecode compiler (i.e. recursive user defined functions,
+ * variadic user defined functions parameters) are evaluated by the
+ * compiled expression tree instead (see {@link #isBytecode()}
+ * and {@link #getFallbackCause()}),
+ * with the same results.
+ *
+ * Parameters values are passed to the function directly, arguments
+ * which are not parameters are read from the {@link Argument} objects on
+ * each call. Function is a snapshot - later modifications of the expression,
+ * dependent arguments or user defined functions definitions are not visible
+ * to the function. Calculation is thread safe as long as arguments which
+ * are not parameters are not modified in the meantime.
+ *
+ * <pre>
+ * Function f = new Function("f(x, y) = sin(x) * y");
+ * BytecodeFunction b = f.compileToBytecode();
+ * double v = b.applyAsDouble(1, 2);
+ * </pre>
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ *
+ * @see Expression#compileToBytecode(String...)
+ * @see Function#compileToBytecode()
+ * @see CompiledExpression
+ */
+public abstract class BytecodeFunction {
+	/**
+	 * Arguments read by the function which are not parameters
+	 */
+	protected final Argument[] arguments;
+	/**
+	 * Values of the sub-trees folded at compile time
+	 * (ULP rounding and degrees mode variants)
+	 */
+	protected final double[][] foldedValues;
+	/**
+	 * Primitive extensions called by the function
+	 */
+	protected final FunctionExtensionPrimitive[] extensions;
+	/**
+	 * Parameters arrays of the primitive extensions and variadic
+	 * functions calls (one array per call site), separate for each thread
+	 */
+	private final ThreadLocal<double[][]> callParameters = new ThreadLocal<double[][]>();
+	/**
+	 * Number of parameters
+	 */
+	private final int parametersNumber;
+	/**
+	 * Expression string
+	 */
+	private final String expressionString;
+	/**
+	 * Evaluation options, null - global settings
+	 */
+	private volatile EvaluationOptions options;
+	/**
+	 * Snapshot of the global settings, replaced if settings were changed
+	 */
+	private static volatile EvaluationOptions globalOptions;
+	/**
+	 * Constructor used by the compiled classes.
+	 *
+	 * @param      arguments           the arguments which are not parameters
+	 * @param      foldedValues        the folded sub-trees values
+	 * @param      extensions          the primitive extensions
+	 * @param      parametersNumber    the number of parameters
+	 * @param      expressionString    the expression string
+	 */
+	protected BytecodeFunction(Argument[] arguments, double[][] foldedValues, FunctionExtensionPrimitive[] extensions, int parametersNumber, String expressionString) {
+		this.arguments = arguments;
+		this.foldedValues = foldedValues;
+		this.extensions = extensions;
+		this.parametersNumber = parametersNumber;
+		this.expressionString = expressionString;
+	}
+	/**
+	 * Evaluates the function body (before almost integer rounding).
+	 *
+	 * @param      parameters          the parameters values (at least
+	 *                                 {@link #getParametersNumber()} values)
+	 * @param      options             the evaluation options
+	 *
+	 * @return     Function value.
+	 */
+	protected abstract double evaluate(double[] parameters, EvaluationOptions options);
+	/**
+	 * Evaluates the body of the function with one parameter,
+	 * overridden by the compiled classes.
+	 *
+	 * @param      a                   the parameter value
+	 * @param      options             the evaluation options
+	 *
+	 * @return     Function value.
+	 */
+	protected double evaluate(double a, EvaluationOptions options) {
+		return evaluate(new double[] {a}, options);
+	}
+	/**
+	 * Evaluates the body of the function with two parameters,
+	 * overridden by the compiled classes.
+	 *
+	 * @param      a                   the 1st parameter value
+	 * @param      b                   the 2nd parameter value
+	 * @param      options             the evaluation options
+	 *
+	 * @return     Function value.
+	 */
+	protected double evaluate(double a, double b, EvaluationOptions options) {
+		return evaluate(new double[] {a, b}, options);
+	}
+	/**
+	 * Gets parameters array of the call site, used by the compiled
+	 * classes - the same array is returned for the subsequent calls
+	 * in the current thread.
+	 *
+	 * @param      site                the call site number
+	 * @param      length              the number of parameters
+	 *
+	 * @return     Parameters array of the given length.
+	 */
+	protected final double[] getCallParameters(int site, int length) {
+		double[][] arrays = callParameters.get();
+		if ( (arrays == null) || (site >= arrays.length) ) {
+			double[][] newArrays = new double[site + 1][];
+			if (arrays != null)
+				System.arraycopy(arrays, 0, newArrays, 0, arrays.length);
+			arrays = newArrays;
+			callParameters.set(arrays);
+		}
+		double[] array = arrays[site];
+		if ( (array == null) || (array.length != length) ) {
+			array = new double[length];
+			arrays[site] = array;
+		}
+		return array;
+	}
+	/**
+	 * Gets evaluation options of the call.
+	 *
+	 * @return     Options set by {@link #setOptions(EvaluationOptions)},
+	 *             or the snapshot of the global settings.
+	 */
+	private EvaluationOptions currentOptions() {
+		EvaluationOptions options = this.options;
+		if (options != null)
+			return options;
+		options = globalOptions;
+		if ( (options == null) || (options.checkIfGlobalOptions() == false) || (options.randomGenerator != ProbabilityDistributions.randomGenerator) ) {
+			options = new EvaluationOptions();
+			globalOptions = options;
+		}
+		return options;
+	}
+	/**
+	 * Calculates function value.
+	 *
+	 * @param      options             the evaluation options
+	 * @param      parameters          the parameters values
+	 *
+	 * @return     Function value, Double.NaN if number of values
+	 *             is lower than number of parameters.
+	 */
+	private double calculate(EvaluationOptions options, double[] parameters) {
+		if ( (parameters.length < parametersNumber) || (options.maxRecursionCalls <= 0) )
+			return Double.NaN;
+		try {
+			return CompiledNode.almostIntRound( evaluate(parameters, options), options );
+		} catch(StackOverflowError soe){
+			return Double.NaN;
+		}
+	}
+	/**
+	 * Calculates function value.
+	 *
+	 * @param      parameters          the parameters values
+	 *
+	 * @return     Function value, Double.NaN if number of values
+	 *             is lower than number of parameters.
+	 */
+	public final double calculate(double... parameters) {
+		return calculate(currentOptions(), parameters);
+	}
+	/**
+	 * Calculates value of the function with one parameter.
+	 *
+	 * @param      a                   the parameter value
+	 *
+	 * @return     Function value, Double.NaN if function
+	 *             has more parameters.
+	 */
+	public final double applyAsDouble(double a) {
+		EvaluationOptions options = currentOptions();
+		if (parametersNumber != 1)
+			return calculate(options, new double[] {a});
+		if (options.maxRecursionCalls <= 0)
+			return Double.NaN;
+		try {
+			return CompiledNode.almostIntRound( evaluate(a, options), options );
+		} catch(StackOverflowError soe){
+			return Double.NaN;
+		}
+	}
+	/**
+	 * Calculates value of the function with two parameters.
+	 *
+	 * @param      a                   the 1st parameter value
+	 * @param      b                   the 2nd parameter value
+	 *
+	 * @return     Function value, Double.NaN if function
+	 *             has more parameters.
+	 */
+	public final double applyAsDouble(double a, double b) {
+		EvaluationOptions options = currentOptions();
+		if (parametersNumber != 2)
+			return calculate(options, new double[] {a, b});
+		if (options.maxRecursionCalls <= 0)
+			return Double.NaN;
+		try {
+			return CompiledNode.almostIntRound( evaluate(a, b, options), options );
+		} catch(StackOverflowError soe){
+			return Double.NaN;
+		}
+	}
+	/**
+	 * Calculates function value.
+	 *
+	 * @param      parameters          the parameters values
+	 *
+	 * @return     Function value, Double.NaN if number of values
+	 *             is lower than number of parameters.
+	 */
+	public final double applyAsDouble(double[] parameters) {
+		return calculate(currentOptions(), parameters);
+	}
+	/**
+	 * Gets number of parameters.
+	 *
+	 * @return     Number of parameters.
+	 */
+	public int getParametersNumber() {
+		return parametersNumber;
+	}
+	/**
+	 * Gets expression string.
+	 *
+	 * @return     Expression string.
+	 */
+	public String getExpressionString() {
+		return expressionString;
+	}
+	/**
+	 * Checks whether function is calculated by the JVM bytecode.
+	 *
+	 * @return     true if function was compiled into the bytecode,
+	 *             false if the compiled expression tree is evaluated.
+	 */
+	public boolean isBytecode() {
+		return true;
+	}
+	/**
+	 * Gets the reason why the expression was not compiled into the bytecode
+	 * (the element not supported by the bytecode compiler, or the error
+	 * of the class loading).
+	 *
+	 * @return     Exception or error thrown by the bytecode compilation,
+	 *             null if function is calculated by the JVM bytecode.
+	 *
+	 * @see #isBytecode()
+	 */
+	public Throwable getFallbackCause() {
+		return null;
+	}
+	/**
+	 * Sets options applied by the calculations instead of the global settings.
+	 *
+	 * @param      options             the evaluation options,
+	 *                                 null - global settings are used
+	 */
+	public void setOptions(EvaluationOptions options) {
+		this.options = options;
+	}
+	/**
+	 * Gets options applied by the calculations.
+	 *
+	 * @return     Evaluation options, null if global settings are used.
+	 */
+	public EvaluationOptions getOptions() {
+		return options;
+	}
+	/*=================================================
+	 *
+	 * Methods called by the compiled classes
+	 *
+	 *=================================================
+	 */
+	/**
+	 * Folded sub-tree value selected by the evaluation options.
+	 *
+	 * @param      values              the folded values variants
+	 * @param      options             the evaluation options
+	 *
+	 * @return     Folded value.
+	 */
+	protected static final double foldedValue(double[] values, EvaluationOptions options) {
+		return values[CompiledNode.foldingVariant(options)];
+	}
+	/**
+	 * Intelligent ULP rounding.
+	 *
+	 * @param      number              the number
+	 * @param      options             the evaluation options
+	 *
+	 * @return     Number rounded if ULP rounding is on, otherwise number.
+	 */
+	protected static final double ulpRound(double number, EvaluationOptions options) {
+		return CompiledNode.ulpRound(number, options);
+	}
+	/**
+	 * Almost integer rounding.
+	 *
+	 * @param      number              the number
+	 * @param      options             the evaluation options
+	 *
+	 * @return     Number rounded if almost integer rounding is on
+	 *             and number is close enough to the integer.
+	 */
+	protected static final double almostIntRound(double number, EvaluationOptions options) {
+		return CompiledNode.almostIntRound(number, options);
+	}
+	/**
+	 * Unary operator value.
+	 *
+	 * @param      typeId              the operator token type id
+	 * @param      operatorId          the operator token id
+	 * @param      a                   the operand
+	 * @param      options             the evaluation options
+	 *
+	 * @return     Operator value.
+	 */
+	protected static final double unaryOperator(int typeId, int operatorId, double a, EvaluationOptions options) {
+		return CompiledNode.unaryOperatorValue(typeId, operatorId, a, options);
+	}
+	/**
+	 * Binary operator value.
+	 *
+	 * @param      typeId              the operator token type id
+	 * @param      operatorId          the operator token id
+	 * @param      a                   the left operand
+	 * @param      b                   the right operand
+	 * @param      options             the evaluation options
+	 *
+	 * @return     Operator value.
+	 */
+	protected static final double binaryOperator(int typeId, int operatorId, double a, double b, EvaluationOptions options) {
+		return CompiledNode.binaryOperatorValue(typeId, operatorId, a, b, options);
+	}
+	/**
+	 * Checks whether boolean operator result is decided by the left operand.
+	 *
+	 * @param      operatorId          the boolean operator id
+	 * @param      a                   the left operand
+	 * @param      options             the evaluation options
+	 *
+	 * @return     true if right operand can be skipped, otherwise false.
+	 */
+	protected static final boolean isDecided(int operatorId, double a, EvaluationOptions options) {
+		double ifFalse = CompiledNode.binaryOperatorValue(BooleanOperator.TYPE_ID, operatorId, a, BooleanAlgebra.F, options);
+		double ifTrue = CompiledNode.binaryOperatorValue(BooleanOperator.TYPE_ID, operatorId, a, BooleanAlgebra.T, options);
+		double ifNull = CompiledNode.binaryOperatorValue(BooleanOperator.TYPE_ID, operatorId, a, BooleanAlgebra.N, options);
+		return (ifFalse == ifTrue) && (ifTrue == ifNull);
+	}
+	/**
+	 * Unary function value.
+	 *
+	 * @param      functionId          the function id
+	 * @param      a                   the parameter
+	 * @param      options             the evaluation options
+	 *
+	 * @return     Function value.
+	 */
+	protected static final double function1(int functionId, double a, EvaluationOptions options) {
+		return CompiledNode.f1ArgValue(functionId, a, options);
+	}
+	/**
+	 * Binary function value.
+	 *
+	 * @param      functionId          the function id
+	 * @param      a                   the 1st parameter
+	 * @param      b                   the 2nd parameter
+	 * @param      options             the evaluation options
+	 *
+	 * @return     Function value.
+	 */
+	protected static final double function2(int functionId, double a, double b, EvaluationOptions options) {
+		return CompiledNode.f2ArgValue(functionId, a, b, options);
+	}
+	/**
+	 * Function with 3 arguments value.
+	 *
+	 * @param      functionId          the function id
+	 * @param      a                   the 1st parameter
+	 * @param      b                   the 2nd parameter
+	 * @param      c                   the 3rd parameter
+	 *
+	 * @return     Function value.
+	 */
+	protected static final double function3(int functionId, double a, double b, double c) {
+		return CompiledNode.f3ArgValue(functionId, a, b, c);
+	}
+	/**
+	 * Variadic function value.
+	 *
+	 * @param      functionId          the function id
+	 * @param      numbers             the parameters
+	 * @param      options             the evaluation options
+	 *
+	 * @return     Function value.
+	 */
+	protected static final double variadic(int functionId, double[] numbers, EvaluationOptions options) {
+		return CompiledNode.variadicValue(functionId, numbers, options);
+	}
+	/**
+	 * Random variable value.
+	 *
+	 * @param      randomVariableId    the random variable id
+	 * @param      options             the evaluation options
+	 *
+	 * @return     Random number.
+	 */
+	protected static final double randomVariable(int randomVariableId, EvaluationOptions options) {
+		return Expression.getRandomVariableValue(randomVariableId, options.randomGenerator);
+	}
+}
@@ -0,0 +1,437 @@
+/*
+ * @(#)CompiledExpression.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CompiledExpression - expression compiled into the tree of
+ * evaluation nodes. Compiled expression is created once per checked
+ * tokens list and is reused by all subsequent calculations of the
+ * {@link Expression}, until the expression is modified.
+ *
+ * Compiled expression returned by {@link Expression#compile()} is
+ * immutable and can be evaluated from many threads at once - arguments
+ * values are passed in the {@link EvaluationContext} (one per thread or
+ * per call) instead of {@link Argument#setArgumentValue(double)}, and
+ * no state of the expression, arguments or user defined functions is
+ * modified during the evaluation. Compiled expression is a snapshot -
+ * later modifications of the expression, its arguments definitions
+ * or functions definitions are not visible to the compiled expression.
+ * Calls to the recursive arguments are synchronized on the argument.
+ *
+ * <pre>
+ * Expression e = new Expression("x^2 + y", x, y);
+ * CompiledExpression c = e.compile();
+ * ...
+ * EvaluationContext context = c.createContext();
+ * context.setArgumentValue("x", 2);
+ * context.setArgumentValue("y", 3);
+ * double v = c.calculate(context);
+ * </pre>
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ *
+ * @see Expression#compile()
+ * @see EvaluationContext
+ */
+public final class CompiledExpression {
+	/**
+	 * Root node of the evaluation tree
+	 */
+	final CompiledNode root;
+	/**
+	 * Number of the frame slots for arguments and random variables
+	 */
+	final int valuesNumber;
+	/**
+	 * Number of the frame slots for if / iff decisions
+	 */
+	final int decisionsNumber;
+	/**
+	 * Number of the frame slots for variadic and user
+	 * defined functions parameters arrays
+	 */
+	final int arraysNumber;
+	/**
+	 * Number of the frame slots for calculus operators
+	 */
+	final int calculusNumber;
+	/**
+	 * Expression string
+	 */
+	private String expressionString;
+	/**
+	 * Expression arguments (snapshot)
+	 */
+	private Argument[] arguments;
+	/**
+	 * User defined function parameters (snapshot)
+	 */
+	double[] udfParameters;
+	/**
+	 * Compiled expressions of the dependent arguments
+	 * and user defined functions (snapshot)
+	 */
+	private Map<Expression, CompiledExpression> nestedExpressions;
+	/**
+	 * Package level constructor.
+	 *
+	 * @param      root                the root node
+	 * @param      valuesNumber        number of the frame slots for values
+	 * @param      decisionsNumber     number of the frame slots for decisions
+	 * @param      arraysNumber        number of the frame slots for parameters arrays
+	 * @param      calculusNumber      number of the frame slots for calculus operators
+	 */
+	CompiledExpression(CompiledNode root, int valuesNumber, int decisionsNumber, int arraysNumber, int calculusNumber) {
+		this.root = root;
+		this.valuesNumber = valuesNumber;
+		this.decisionsNumber = decisionsNumber;
+		this.arraysNumber = arraysNumber;
+		this.calculusNumber = calculusNumber;
+	}
+	/**
+	 * Evaluates compiled expression modifying the expression state
+	 * in the same way as the tokens rewriting does.
+	 *
+	 * @param      expression          the expression (providing
+	 *                                 the user defined function parameters)
+	 * @param      recursionCallsCounter  the current recursion calls counter
+	 *
+	 * @return     The value (before almost integer rounding).
+	 */
+	double evaluate(Expression expression, int recursionCallsCounter) {
+		EvaluationFrame frame = expression.evaluationFrame;
+		if ( (frame == null) || (frame.inUse) ) {
+			frame = new EvaluationFrame();
+			if (expression.evaluationFrame == null)
+				expression.evaluationFrame = frame;
+		}
+		frame.inUse = true;
+		try {
+			frame.init(expression, this, recursionCallsCounter);
+			frame.setOptions(null);
+			return CompiledNode.evaluateStages(root, frame);
+		} finally {
+			frame.inUse = false;
+		}
+	}
+	/**
+	 * Creates snapshot of the compiled expression which can be shared
+	 * between threads - compiles all the dependent arguments and user
+	 * defined functions used by the expression.
+	 *
+	 * @param      expression          the expression (syntax checked and compiled)
+	 *
+	 * @return     Compiled expression if all the related expressions
+	 *             are compiled, otherwise null.
+	 */
+	static CompiledExpression share(Expression expression) {
+		CompiledExpression compiledExpression = expression.getCompiledExpression();
+		if (compiledExpression == null) return null;
+		Map<Expression, CompiledExpression> nestedExpressions = new IdentityHashMap<Expression, CompiledExpression>();
+		CompiledExpression shared = compiledExpression.snapshot(expression, nestedExpressions);
+		List<Expression> expressions = new ArrayList<Expression>();
+		compiledExpression.root.collectExpressions(expressions);
+		while (expressions.size() > 0) {
+			Expression e = expressions.remove(expressions.size() - 1);
+			if (nestedExpressions.containsKey(e)) continue;
+			CompiledExpression c = e.getCompiledExpression();
+			if (c == null) return null;
+			nestedExpressions.put(e, c.snapshot(e, nestedExpressions));
+			c.root.collectExpressions(expressions);
+		}
+		return shared;
+	}
+	/**
+	 * Copy of the compiled expression with the expression properties snapshot.
+	 */
+	private CompiledExpression snapshot(Expression expression, Map<Expression, CompiledExpression> nestedExpressions) {
+		CompiledExpression snapshot = new CompiledExpression(root, valuesNumber, decisionsNumber, arraysNumber, calculusNumber);
+		snapshot.expressionString = expression.expressionString;
+		snapshot.arguments = new Argument[expression.argumentsList.size()];
+		expression.argumentsList.toArray(snapshot.arguments);
+		List<Double> params = expression.UDFVariadicParamsAtRunTime;
+		if (params == null)
+			snapshot.udfParameters = new double[0];
+		else {
+			snapshot.udfParameters = new double[params.size()];
+			for (int i = 0; i < snapshot.udfParameters.length; i++)
+				snapshot.udfParameters[i] = params.get(i);
+		}
+		snapshot.nestedExpressions = nestedExpressions;
+		return snapshot;
+	}
+	/**
+	 * Gets expression string.
+	 *
+	 * @return     Expression string.
+	 */
+	public String getExpressionString() {
+		return expressionString;
+	}
+	/**
+	 * Gets number of the expression arguments.
+	 *
+	 * @return     Number of arguments.
+	 */
+	public int getArgumentsNumber() {
+		return arguments.length;
+	}
+	/**
+	 * Gets position of the argument in the context.
+	 *
+	 * @param      argument            the argument
+	 *
+	 * @return     Argument position if found, otherwise -1.
+	 */
+	int getArgumentIndex(Argument argument) {
+		for (int i = 0; i < arguments.length; i++)
+			if (arguments[i] == argument)
+				return i;
+		return -1;
+	}
+	/**
+	 * Creates new evaluation context with the current
+	 * values of the free arguments.
+	 *
+	 * @return     New evaluation context.
+	 */
+	public EvaluationContext createContext() {
+		EvaluationContext context = new EvaluationContext(arguments, null);
+		updateContext(context);
+		return context;
+	}
+	/**
+	 * Sets current values of the free arguments in the context
+	 * (contexts reused by the subsequent calculations).
+	 *
+	 * @param      context             the evaluation context
+	 *                                 created by {@link #createContext()}
+	 */
+	void updateContext(EvaluationContext context) {
+		for (int i = 0; i < arguments.length; i++) {
+			Argument argument = arguments[i];
+			if (argument.argumentType == Argument.FREE_ARGUMENT)
+				context.setArgumentValue(i, argument.argumentValue);
+		}
+	}
+	/**
+	 * Calculates expression value, arguments values are
+	 * taken from the context. Method is thread safe
+	 * as long as the context is not shared between threads.
+	 *
+	 * @param      context             the evaluation context
+	 *                                 created by {@link #createContext()}
+	 *
+	 * @return     The expression value.
+	 */
+	public double calculate(EvaluationContext context) {
+		EvaluationFrame frame = context.acquireFrame();
+		try {
+			frame.setOptions(context.options);
+			if (frame.options.maxRecursionCalls <= 0)
+				return Double.NaN;
+			frame.init(this, context, udfParameters, udfParameters.length, nestedExpressions, 1);
+			return CompiledNode.almostIntRound( CompiledNode.evaluateStages(root, frame), frame.options );
+		} catch(StackOverflowError soe){
+			return Double.NaN;
+		} finally {
+			frame.inUse = false;
+		}
+	}
+	/**
+	 * Calculates expression values for the batch of arguments values.
+	 * Column i provides values of the i-th expression argument
+	 * (null column - value from the context is used), row r of all
+	 * the columns gives the r-th result. The evaluation frame of the context
+	 * is reused for all the rows. Method is thread safe as long as
+	 * the context and the output array are not shared between threads.
+	 *
+	 * @param      context             the evaluation context (values of
+	 *                                 arguments not given by columns)
+	 * @param      columns             the arguments values columns
+	 * @param      out                 the output array, its length
+	 *                                 defines number of rows
+	 */
+	public void calculate(EvaluationContext context, double[][] columns, double[] out) {
+		int rows = out.length;
+		int n = Math.min(columns.length, context.arguments.length);
+		EvaluationFrame frame = context.acquireFrame();
+		try {
+			frame.setOptions(context.options);
+			if (frame.options.maxRecursionCalls <= 0) {
+				for (int r = 0; r < rows; r++)
+					out[r] = Double.NaN;
+				return;
+			}
+			if (calculateKernel(frame, context, columns, out))
+				return;
+			for (int r = 0; r < rows; r++) {
+				for (int i = 0; i < n; i++) {
+					double[] column = columns[i];
+					if (column != null)
+						context.setArgumentValue(i, column[r]);
+				}
+				try {
+					frame.init(this, context, udfParameters, udfParameters.length, nestedExpressions, 1);
+					out[r] = CompiledNode.almostIntRound( CompiledNode.evaluateStages(root, frame), frame.options );
+				} catch(StackOverflowError soe){
+					out[r] = Double.NaN;
+				}
+			}
+		} finally {
+			frame.inUse = false;
+		}
+	}
+	/**
+	 * Calculates the batch by the kernel if expression is the function
+	 * having batch kernel (probability distributions) of the columns
+	 * and constants, i.e. cdfNorm(x, 0, 1).
+	 *
+	 * @param      frame               the evaluation frame (options)
+	 * @param      context             the evaluation context
+	 * @param      columns             the arguments values columns
+	 * @param      out                 the output array
+	 *
+	 * @return     true if batch was calculated, otherwise false.
+	 */
+	private boolean calculateKernel(EvaluationFrame frame, EvaluationContext context, double[][] columns, double[] out) {
+		if ( (root instanceof CompiledNode.Function3) == false ) return false;
+		int functionId = ((CompiledNode.Function3)root).functionId;
+		if (CompiledNode.hasF3ArgBatch(functionId) == false) return false;
+		int rows = out.length;
+		double[][] parameters = new double[3][];
+		double[] constants = new double[3];
+		boolean anyColumn = false;
+		for (int p = 0; p < 3; p++) {
+			CompiledNode child = root.children[p];
+			if (child.isConstant()) {
+				constants[p] = child.evaluate(frame);
+				continue;
+			}
+			if ( (child instanceof CompiledNode.ArgumentValue) == false ) return false;
+			Argument argument = ((CompiledNode.ArgumentValue)child).argument;
+			int n = Math.min(columns.length, context.arguments.length);
+			for (int i = 0; i < n; i++)
+				if (context.arguments[i] == argument) {
+					if ( (columns[i] != null) && (columns[i].length >= rows) )
+						parameters[p] = columns[i];
+					break;
+				}
+			if (parameters[p] == null) return false;
+			anyColumn = true;
+		}
+		if (anyColumn == false) return false;
+		if ( (parameters[0] != null) && (parameters[1] == null) && (parameters[2] == null) )
+			CompiledNode.f3ArgBatch(functionId, parameters[0], constants[1], constants[2], out);
+		else {
+			for (int p = 0; p < 3; p++)
+				if (parameters[p] == null) {
+					parameters[p] = new double[rows];
+					Arrays.fill(parameters[p], constants[p]);
+				}
+			CompiledNode.f3ArgBatch(functionId, parameters[0], parameters[1], parameters[2], out);
+		}
+		for (int r = 0; r < rows; r++)
+			out[r] = CompiledNode.almostIntRound(out[r], frame.options);
+		return true;
+	}
+	/**
+	 * Calculates expression values for the batch of arguments values.
+	 * Column i provides values of the i-th expression argument
+	 * (null column - current argument value is used), row r of all
+	 * the columns gives the r-th result. Method is thread safe
+	 * as long as the output array is not shared between threads.
+	 *
+	 * @param      columns             the arguments values columns
+	 * @param      out                 the output array, its length
+	 *                                 defines number of rows
+	 */
+	public void calculate(double[][] columns, double[] out) {
+		calculate(createContext(), columns, out);
+	}
+	/**
+	 * Calculates expression value for given arguments values
+	 * (in the order of the expression arguments). Method is thread safe.
+	 *
+	 * @param      argumentsValues     the arguments values
+	 *
+	 * @return     The expression value.
+	 */
+	public double calculate(double... argumentsValues) {
+		EvaluationContext context = createContext();
+		int n = Math.min(argumentsValues.length, arguments.length);
+		for (int i = 0; i < n; i++)
+			context.setArgumentValue(i, argumentsValues[i]);
+		return calculate(context);
+	}
+}
@@ -0,0 +1,1588 @@
+/*
+ * @(#)CompiledNode.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser;
+
+import java.util.AbstractList;
+import java.util.List;
+
+import org.mariuszgromada.math.mxparser.mathcollection.BinaryRelations;
+import org.mariuszgromada.math.mxparser.mathcollection.BooleanAlgebra;
+import org.mariuszgromada.math.mxparser.mathcollection.Calculus;
+import org.mariuszgromada.math.mxparser.mathcollection.MathFunctions;
+import org.mariuszgromada.math.mxparser.mathcollection.NumberTheory;
+import org.mariuszgromada.math.mxparser.mathcollection.ProbabilityDistributions;
+import org.mariuszgromada.math.mxparser.mathcollection.SpecialFunctions;
+import org.mariuszgromada.math.mxparser.mathcollection.Statistics;
+import org.mariuszgromada.math.mxparser.mathcollection.Units;
+import org.mariuszgromada.math.mxparser.parsertokens.BinaryRelation;
+import org.mariuszgromada.math.mxparser.parsertokens.BitwiseOperator;
+import org.mariuszgromada.math.mxparser.parsertokens.BooleanOperator;
+import org.mariuszgromada.math.mxparser.parsertokens.CalculusOperator;
+import org.mariuszgromada.math.mxparser.parsertokens.Function1Arg;
+import org.mariuszgromada.math.mxparser.parsertokens.Function2Arg;
+import org.mariuszgromada.math.mxparser.parsertokens.Function3Arg;
+import org.mariuszgromada.math.mxparser.parsertokens.FunctionVariadic;
+import org.mariuszgromada.math.mxparser.parsertokens.Operator;
+
+/**
+ * Package level node of the evaluation tree built by the {@link ExpressionCompiler}
+ * from the checked tokens list. Nodes are immutable - all the values
+ * depending on the particular calculation are kept in the {@link EvaluationFrame}.
+ *
+ * Each node reproduces exactly one step of the tokens rewriting
+ * done by {@link Expression#calculate()}, including the places where
+ * intelligent ULP rounding is applied. Evaluation is done in the
+ * same stages as the tokens rewriting:
+ * 1) if / iff conditions are evaluated (left to right), which decides
+ *    which branches are alive,
+ * 2) free arguments and random variables of the alive part are read,
+ * 3) dependent arguments of the alive part are calculated,
+ * 4) operators and functions are evaluated.
+ * Right operand of the boolean operator is evaluated in all the stages
+ * on demand, only if the result is not decided by the left operand.
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ *
+ * @see ExpressionCompiler
+ * @see CompiledExpression
+ * @see Expression
+ */
+abstract class CompiledNode {
+	/**
+	 * Child nodes in the tokens order
+	 */
+	final CompiledNode[] children;
+	/**
+	 * Package level constructor.
+	 *
+	 * @param      children            child nodes in the tokens order
+	 */
+	CompiledNode(CompiledNode... children) {
+		this.children = children;
+	}
+	/**
+	 * Stage 1 - evaluates if / iff conditions.
+	 *
+	 * @param      frame               the evaluation frame
+	 */
+	void resolve(EvaluationFrame frame) {
+		for (CompiledNode child : children)
+			child.resolve(frame);
+	}
+	/**
+	 * Stage 2 / 3 - reads free arguments and random variables,
+	 * or calculates dependent arguments.
+	 *
+	 * @param      frame               the evaluation frame
+	 * @param      dependent           false - free arguments and random variables,
+	 *                                 true - dependent arguments
+	 */
+	void load(EvaluationFrame frame, boolean dependent) {
+		for (CompiledNode child : children)
+			child.load(frame, dependent);
+	}
+	/**
+	 * Stage 4 - evaluates node value.
+	 *
+	 * @param      frame               the evaluation frame
+	 *
+	 * @return     Node value.
+	 */
+	abstract double evaluate(EvaluationFrame frame);
+	/**
+	 * Collects expressions evaluated by the tree (dependent arguments,
+	 * user defined functions) - used to prepare the compiled expression
+	 * shared between threads.
+	 *
+	 * @param      expressions         the list to be filled
+	 */
+	void collectExpressions(List<Expression> expressions) {
+		for (CompiledNode child : children)
+			child.collectExpressions(expressions);
+	}
+	/**
+	 * Checks whether node value is known at compile time
+	 * (number, constant, unit, folded sub-tree).
+	 *
+	 * @return     true if node is constant, otherwise false.
+	 */
+	boolean isConstant() {
+		return false;
+	}
+	/**
+	 * Checks whether node can be folded into constant if all its children
+	 * are constant - node has to be deterministic and its value can depend
+	 * only on the ULP rounding and degrees mode options.
+	 *
+	 * @return     true if node can be folded, otherwise false.
+	 */
+	boolean isFoldable() {
+		return false;
+	}
+	/**
+	 * Number of the folded constants variants
+	 * (ULP rounding on / off, degrees / radians mode).
+	 */
+	static final int FOLDING_VARIANTS = 4;
+	/**
+	 * Folded constant variant selected by the evaluation options.
+	 *
+	 * @param      options             the evaluation options
+	 *
+	 * @return     Variant index.
+	 */
+	static final int foldingVariant(EvaluationOptions options) {
+		int variant = 0;
+		if (options.ulpRounding) variant += 1;
+		if (options.degreesMode) variant += 2;
+		return variant;
+	}
+	/**
+	 * Evaluation options used to fold the constant variant.
+	 *
+	 * @param      variant             the variant index
+	 *
+	 * @return     Evaluation options.
+	 */
+	static final EvaluationOptions foldingOptions(int variant) {
+		EvaluationOptions options = new EvaluationOptions();
+		options.ulpRounding = ( (variant & 1) != 0 );
+		options.degreesMode = ( (variant & 2) != 0 );
+		return options;
+	}
+	/**
+	 * Evaluates tree in all the stages.
+	 *
+	 * @param      root                the root node
+	 * @param      frame               the evaluation frame
+	 *
+	 * @return     Value of the tree.
+	 */
+	static final double evaluateStages(CompiledNode root, EvaluationFrame frame) {
+		root.resolve(frame);
+		root.load(frame, false);
+		root.load(frame, true);
+		return root.evaluate(frame);
+	}
+	/**
+	 * Evaluates expression (dependent argument, user defined function body)
+	 * from the context of the compiled expression shared between threads.
+	 *
+	 * @param      frame               the caller frame
+	 * @param      expression          the expression
+	 * @param      context             the context to be used
+	 * @param      udfParameters       the user defined function parameters,
+	 *                                 null - parameters of the compiled snapshot
+	 * @param      udfParametersNumber the number of parameters
+	 *
+	 * @return     Expression value, Double.NaN if expression
+	 *             was not compiled or maximum recursion calls reached.
+	 */
+	static final double evaluateNested(EvaluationFrame frame, Expression expression, EvaluationContext context, double[] udfParameters, int udfParametersNumber) {
+		CompiledExpression compiledExpression = frame.nestedExpressions.get(expression);
+		if (compiledExpression == null)
+			return Double.NaN;
+		if (frame.recursionCallsCounter >= frame.options.maxRecursionCalls)
+			return Double.NaN;
+		if (udfParameters == null) {
+			udfParameters = compiledExpression.udfParameters;
+			udfParametersNumber = udfParameters.length;
+		}
+		EvaluationFrame nestedFrame = frame.getNestedFrame();
+		nestedFrame.init(compiledExpression, context, udfParameters, udfParametersNumber, frame.nestedExpressions, frame.recursionCallsCounter + 1);
+		nestedFrame.options = frame.options;
+		return almostIntRound( evaluateStages(compiledExpression.root, nestedFrame), frame.options );
+	}
+	/**
+	 * Intelligent ULP rounding, the same as in the tokens rewriting evaluation.
+	 *
+	 * @param      number              the number
+	 * @param      options             the evaluation options
+	 *
+	 * @return     Number rounded if ULP rounding is on,
+	 *             otherwise number.
+	 */
+	static final double ulpRound(double number, EvaluationOptions options) {
+		if (!options.ulpRounding) return number;
+		if ( (Double.isNaN(number) ) || (Double.isInfinite(number)) ) return number;
+		int precision = MathFunctions.ulpDecimalDigitsBefore(number);
+		if (precision >= 0)
+			return MathFunctions.round(number, precision);
+		return number;
+	}
+	/**
+	 * Almost integer rounding applied to the expression result.
+	 *
+	 * @param      result              the result
+	 *
+	 * @return     Rounded result if {@link mXparser#almostIntRounding} is on
+	 *             and result is close enough to the integer.
+	 */
+	static final double almostIntRound(double result) {
+		return almostIntRound(result, mXparser.almostIntRounding, BinaryRelations.getEpsilon());
+	}
+	/**
+	 * Almost integer rounding applied to the expression result.
+	 *
+	 * @param      result              the result
+	 * @param      options             the evaluation options
+	 *
+	 * @return     Rounded result if almost integer rounding is on
+	 *             and result is close enough to the integer.
+	 */
+	static final double almostIntRound(double result, EvaluationOptions options) {
+		return almostIntRound(result, options.almostIntRounding, options.epsilon);
+	}
+	/**
+	 * Almost integer rounding.
+	 */
+	private static double almostIntRound(double result, boolean almostIntRounding, double epsilon) {
+		if (almostIntRounding) {
+			double resultint = Math.round(result);
+			if ( Math.abs(result-resultint) <= epsilon )
+				return resultint;
+		}
+		return result;
+	}
+	/**
+	 * Unary function value.
+	 *
+	 * @param      functionId          the function id
+	 * @param      a                   the parameter
+	 * @param      options             the evaluation options
+	 *
+	 * @return     Function value.
+	 */
+	static final double f1ArgValue(int functionId, double a, EvaluationOptions options) {
+		switch (functionId) {
+		case Function1Arg.SIN_ID: return MathFunctions.sin(a, options.degreesMode);
+		case Function1Arg.COS_ID: return MathFunctions.cos(a, options.degreesMode);
+		case Function1Arg.TAN_ID: return MathFunctions.tan(a, options.degreesMode);
+		case Function1Arg.CTAN_ID: return MathFunctions.ctan(a, options.degreesMode);
+		case Function1Arg.SEC_ID: return MathFunctions.sec(a, options.degreesMode);
+		case Function1Arg.COSEC_ID: return MathFunctions.cosec(a, options.degreesMode);
+		case Function1Arg.ASIN_ID: return MathFunctions.asin(a, options.degreesMode);
+		case Function1Arg.ACOS_ID: return MathFunctions.acos(a, options.degreesMode);
+		case Function1Arg.ATAN_ID: return MathFunctions.atan(a, options.degreesMode);
+		case Function1Arg.ACTAN_ID: return MathFunctions.actan(a, options.degreesMode);
+		case Function1Arg.LN_ID: return MathFunctions.ln(a);
+		case Function1Arg.LOG2_ID: return MathFunctions.log2(a);
+		case Function1Arg.LOG10_ID: return MathFunctions.log10(a);
+		case Function1Arg.RAD_ID: return MathFunctions.rad(a);
+		case Function1Arg.EXP_ID: return MathFunctions.exp(a);
+		case Function1Arg.SQRT_ID: return MathFunctions.sqrt(a);
+		case Function1Arg.SINH_ID: return MathFunctions.sinh(a);
+		case Function1Arg.COSH_ID: return MathFunctions.cosh(a);
+		case Function1Arg.TANH_ID: return MathFunctions.tanh(a);
+		case Function1Arg.COTH_ID: return MathFunctions.coth(a);
+		case Function1Arg.SECH_ID: return MathFunctions.sech(a);
+		case Function1Arg.CSCH_ID: return MathFunctions.csch(a);
+		case Function1Arg.DEG_ID: return MathFunctions.deg(a);
+		case Function1Arg.ABS_ID: return MathFunctions.abs(a);
+		case Function1Arg.SGN_ID: return MathFunctions.sgn(a);
+		case Function1Arg.FLOOR_ID: return MathFunctions.floor(a);
+		case Function1Arg.CEIL_ID: return MathFunctions.ceil(a);
+		case Function1Arg.NOT_ID: return BooleanAlgebra.not(a, options.epsilonComparison, options.epsilon);
+		case Function1Arg.ARSINH_ID: return MathFunctions.arsinh(a);
+		case Function1Arg.ARCOSH_ID: return MathFunctions.arcosh(a);
+		case Function1Arg.ARTANH_ID: return MathFunctions.artanh(a);
+		case Function1Arg.ARCOTH_ID: return MathFunctions.arcoth(a);
+		case Function1Arg.ARSECH_ID: return MathFunctions.arsech(a);
+		case Function1Arg.ARCSCH_ID: return MathFunctions.arcsch(a);
+		case Function1Arg.SA_ID: return MathFunctions.sa(a);
+		case Function1Arg.SINC_ID: return MathFunctions.sinc(a, options.degreesMode);
+		case Function1Arg.BELL_NUMBER_ID: return MathFunctions.bellNumber(a);
+		case Function1Arg.LUCAS_NUMBER_ID: return MathFunctions.lucasNumber(a);
+		case Function1Arg.FIBONACCI_NUMBER_ID: return MathFunctions.fibonacciNumber(a);
+		case Function1Arg.HARMONIC_NUMBER_ID: return MathFunctions.harmonicNumber(a);
+		case Function1Arg.IS_PRIME_ID: return NumberTheory.primeTest(a);
+		case Function1Arg.PRIME_COUNT_ID: return NumberTheory.primeCount(a);
+		case Function1Arg.EXP_INT_ID: return SpecialFunctions.exponentialIntegralEi(a);
+		case Function1Arg.LOG_INT_ID: return SpecialFunctions.logarithmicIntegralLi(a);
+		case Function1Arg.OFF_LOG_INT_ID: return SpecialFunctions.offsetLogarithmicIntegralLi(a);
+		case Function1Arg.GAUSS_ERF_ID: return SpecialFunctions.erf(a);
+		case Function1Arg.GAUSS_ERFC_ID: return SpecialFunctions.erfc(a);
+		case Function1Arg.GAUSS_ERF_INV_ID: return SpecialFunctions.erfInv(a);
+		case Function1Arg.GAUSS_ERFC_INV_ID: return SpecialFunctions.erfcInv(a);
+		case Function1Arg.ULP_ID: return MathFunctions.ulp(a);
+		case Function1Arg.NDIG10_ID: return NumberTheory.numberOfDigits(a);
+		case Function1Arg.NFACT_ID: return NumberTheory.numberOfPrimeFactors(a);
+		case Function1Arg.ARCSEC_ID: return MathFunctions.asec(a, options.degreesMode);
+		case Function1Arg.ARCCSC_ID: return MathFunctions.acosec(a, options.degreesMode);
+		case Function1Arg.GAMMA_ID: return SpecialFunctions.gamma(a);
+		case Function1Arg.LAMBERT_W0_ID: return SpecialFunctions.lambertW(a, 0);
+		case Function1Arg.LAMBERT_W1_ID: return SpecialFunctions.lambertW(a, -1);
+		case Function1Arg.SGN_GAMMA_ID: return SpecialFunctions.sgnGamma(a);
+		case Function1Arg.LOG_GAMMA_ID: return SpecialFunctions.logGamma(a);
+		case Function1Arg.DI_GAMMA_ID: return SpecialFunctions.diGamma(a);
+		case Function1Arg.ISNAN_ID: return Double.isNaN(a) ? BooleanAlgebra.TRUE : BooleanAlgebra.FALSE;
+		}
+		return Double.NaN;
+	}
+	/**
+	 * Binary function value.
+	 *
+	 * @param      functionId          the function id
+	 * @param      a                   the 1st parameter
+	 * @param      b                   the 2nd parameter
+	 * @param      options             the evaluation options
+	 *
+	 * @return     Function value.
+	 */
+	static final double f2ArgValue(int functionId, double a, double b, EvaluationOptions options) {
+		switch (functionId) {
+		case Function2Arg.LOG_ID: return MathFunctions.log(b, a);
+		case Function2Arg.MOD_ID: return MathFunctions.mod(a, b);
+		case Function2Arg.BINOM_COEFF_ID: return MathFunctions.binomCoeff(a, b);
+		case Function2Arg.BERNOULLI_NUMBER_ID: return MathFunctions.bernoulliNumber(a, b);
+		case Function2Arg.STIRLING1_NUMBER_ID: return MathFunctions.Stirling1Number(a, b);
+		case Function2Arg.STIRLING2_NUMBER_ID: return MathFunctions.Stirling2Number(a, b);
+		case Function2Arg.WORPITZKY_NUMBER_ID: return MathFunctions.worpitzkyNumber(a, b);
+		case Function2Arg.EULER_NUMBER_ID: return MathFunctions.eulerNumber(a, b);
+		case Function2Arg.KRONECKER_DELTA_ID: return MathFunctions.kroneckerDelta(a, b);
+		case Function2Arg.EULER_POLYNOMIAL_ID: return MathFunctions.eulerPolynomial(a, b);
+		case Function2Arg.HARMONIC_NUMBER_ID: return MathFunctions.harmonicNumber(a, b);
+		case Function2Arg.RND_UNIFORM_CONT_ID: return ProbabilityDistributions.rndUniformContinuous(a, b, options.randomGenerator);
+		case Function2Arg.RND_NORMAL_ID: return ProbabilityDistributions.rndNormal(a, b, options.randomGenerator);
+		case Function2Arg.NDIG_ID: return NumberTheory.numberOfDigits(a, b);
+		case Function2Arg.DIGIT10_ID: return NumberTheory.digitAtPosition(a, b);
+		case Function2Arg.FACTVAL_ID: return NumberTheory.primeFactorValue(a, b);
+		case Function2Arg.FACTEXP_ID: return NumberTheory.primeFactorExponent(a, b);
+		case Function2Arg.ROOT_ID: return MathFunctions.root(a, b);
+		case Function2Arg.INC_GAMMA_LOWER_ID: return SpecialFunctions.incompleteGammaLower(a, b);
+		case Function2Arg.INC_GAMMA_UPPER_ID: return SpecialFunctions.incompleteGammaUpper(a, b);
+		case Function2Arg.REG_GAMMA_LOWER_ID: return SpecialFunctions.regularizedGammaLowerP(a, b);
+		case Function2Arg.REG_GAMMA_UPPER_ID: return SpecialFunctions.regularizedGammaUpperQ(a, b);
+		case Function2Arg.PERMUTATIONS_ID: return MathFunctions.numberOfPermutations(a, b);
+		case Function2Arg.BETA_ID: return SpecialFunctions.beta(a, b);
+		case Function2Arg.LOG_BETA_ID: return SpecialFunctions.logBeta(a, b);
+		case Function2Arg.RND_UNIFORM_DISCR_ID: return ProbabilityDistributions.rndInteger((int)a, (int)b, options.randomGenerator);
+		case Function2Arg.ROUND_ID: return MathFunctions.round(a, (int)b);
+		}
+		return Double.NaN;
+	}
+	/**
+	 * Function with 3 arguments value.
+	 *
+	 * @param      functionId          the function id
+	 * @param      a                   the 1st parameter
+	 * @param      b                   the 2nd parameter
+	 * @param      c                   the 3rd parameter
+	 *
+	 * @return     Function value.
+	 */
+	static final double f3ArgValue(int functionId, double a, double b, double c) {
+		switch (functionId) {
+		case Function3Arg.IF_ID: return (a != 0) ? b : c;
+		case Function3Arg.CHI_ID: return MathFunctions.chi(a, b, c);
+		case Function3Arg.CHI_LR_ID: return MathFunctions.chi_LR(a, b, c);
+		case Function3Arg.CHI_L_ID: return MathFunctions.chi_L(a, b, c);
+		case Function3Arg.CHI_R_ID: return MathFunctions.chi_R(a, b, c);
+		case Function3Arg.PDF_UNIFORM_CONT_ID: return ProbabilityDistributions.pdfUniformContinuous(a, b, c);
+		case Function3Arg.CDF_UNIFORM_CONT_ID: return ProbabilityDistributions.cdfUniformContinuous(a, b, c);
+		case Function3Arg.QNT_UNIFORM_CONT_ID: return ProbabilityDistributions.qntUniformContinuous(a, b, c);
+		case Function3Arg.PDF_NORMAL_ID: return ProbabilityDistributions.pdfNormal(a, b, c);
+		case Function3Arg.CDF_NORMAL_ID: return ProbabilityDistributions.cdfNormal(a, b, c);
+		case Function3Arg.QNT_NORMAL_ID: return ProbabilityDistributions.qntNormal(a, b, c);
+		case Function3Arg.DIGIT_ID: return NumberTheory.digitAtPosition(a, b, c);
+		case Function3Arg.INC_BETA_ID: return SpecialFunctions.incompleteBeta(b, c, a);
+		case Function3Arg.REG_BETA_ID: return SpecialFunctions.regularizedBeta(b, c, a);
+		}
+		return Double.NaN;
+	}
+	/**
+	 * Checks whether function with 3 arguments has the batch kernel
+	 * (probability distributions).
+	 *
+	 * @param      functionId          the function id
+	 *
+	 * @return     true if batch kernel is available, otherwise false.
+	 */
+	static final boolean hasF3ArgBatch(int functionId) {
+		switch (functionId) {
+		case Function3Arg.PDF_UNIFORM_CONT_ID:
+		case Function3Arg.CDF_UNIFORM_CONT_ID:
+		case Function3Arg.QNT_UNIFORM_CONT_ID:
+		case Function3Arg.PDF_NORMAL_ID:
+		case Function3Arg.CDF_NORMAL_ID:
+		case Function3Arg.QNT_NORMAL_ID:
+			return true;
+		}
+		return false;
+	}
+	/**
+	 * Function with 3 arguments values for the batch of the first
+	 * argument values (parameters are the same for all the rows).
+	 *
+	 * @param      functionId          the function id (see {@link #hasF3ArgBatch(int)})
+	 * @param      a                   the first parameter values
+	 * @param      b                   the second parameter
+	 * @param      c                   the third parameter
+	 * @param      out                 the output array
+	 */
+	static final void f3ArgBatch(int functionId, double[] a, double b, double c, double[] out) {
+		switch (functionId) {
+		case Function3Arg.PDF_UNIFORM_CONT_ID: ProbabilityDistributions.pdfUniformContinuous(a, b, c, out); break;
+		case Function3Arg.CDF_UNIFORM_CONT_ID: ProbabilityDistributions.cdfUniformContinuous(a, b, c, out); break;
+		case Function3Arg.QNT_UNIFORM_CONT_ID: ProbabilityDistributions.qntUniformContinuous(a, b, c, out); break;
+		case Function3Arg.PDF_NORMAL_ID: ProbabilityDistributions.pdfNormal(a, b, c, out); break;
+		case Function3Arg.CDF_NORMAL_ID: ProbabilityDistributions.cdfNormal(a, b, c, out); break;
+		case Function3Arg.QNT_NORMAL_ID: ProbabilityDistributions.qntNormal(a, b, c, out); break;
+		}
+	}
+	/**
+	 * Function with 3 arguments values for the batch of the arguments values.
+	 *
+	 * @param      functionId          the function id (see {@link #hasF3ArgBatch(int)})
+	 * @param      a                   the first parameter values
+	 * @param      b                   the second parameter values
+	 * @param      c                   the third parameter values
+	 * @param      out                 the output array
+	 */
+	static final void f3ArgBatch(int functionId, double[] a, double[] b, double[] c, double[] out) {
+		switch (functionId) {
+		case Function3Arg.PDF_UNIFORM_CONT_ID: ProbabilityDistributions.pdfUniformContinuous(a, b, c, out); break;
+		case Function3Arg.CDF_UNIFORM_CONT_ID: ProbabilityDistributions.cdfUniformContinuous(a, b, c, out); break;
+		case Function3Arg.QNT_UNIFORM_CONT_ID: ProbabilityDistributions.qntUniformContinuous(a, b, c, out); break;
+		case Function3Arg.PDF_NORMAL_ID: ProbabilityDistributions.pdfNormal(a, b, c, out); break;
+		case Function3Arg.CDF_NORMAL_ID: ProbabilityDistributions.cdfNormal(a, b, c, out); break;
+		case Function3Arg.QNT_NORMAL_ID: ProbabilityDistributions.qntNormal(a, b, c, out); break;
+		}
+	}
+	/**
+	 * Variadic function value.
+	 *
+	 * @param      functionId          the function id
+	 * @param      numbers             the parameters
+	 * @param      options             the evaluation options
+	 *
+	 * @return     Function value.
+	 */
+	static final double variadicValue(int functionId, double[] numbers, EvaluationOptions options) {
+		switch (functionId) {
+		case FunctionVariadic.MIN_ID: return NumberTheory.min(numbers);
+		case FunctionVariadic.MAX_ID: return NumberTheory.max(numbers);
+		case FunctionVariadic.SUM_ID: return NumberTheory.sum(numbers);
+		case FunctionVariadic.PROD_ID: return NumberTheory.prod(numbers);
+		case FunctionVariadic.AVG_ID: return Statistics.avg(numbers);
+		case FunctionVariadic.VAR_ID: return Statistics.var(numbers);
+		case FunctionVariadic.STD_ID: return Statistics.std(numbers);
+		case FunctionVariadic.CONT_FRAC_ID: return MathFunctions.continuedFraction(numbers);
+		case FunctionVariadic.CONT_POL_ID: return MathFunctions.continuedPolynomial(numbers);
+		case FunctionVariadic.GCD_ID: return NumberTheory.gcd(numbers);
+		case FunctionVariadic.LCM_ID: return NumberTheory.lcm(numbers);
+		case FunctionVariadic.RND_LIST_ID: return numbers[ProbabilityDistributions.rndIndex(numbers.length, options.randomGenerator)];
+		case FunctionVariadic.COALESCE_ID: return MathFunctions.coalesce(numbers);
+		case FunctionVariadic.OR_ID: return BooleanAlgebra.orVariadic(numbers, options.epsilonComparison, options.epsilon);
+		case FunctionVariadic.AND_ID: return BooleanAlgebra.andVariadic(numbers, options.epsilonComparison, options.epsilon);
+		case FunctionVariadic.XOR_ID: return BooleanAlgebra.xorVariadic(numbers, options.epsilonComparison, options.epsilon);
+		case FunctionVariadic.ARGMIN_ID: return NumberTheory.argmin(numbers, options.epsilonComparison, options.epsilon);
+		case FunctionVariadic.ARGMAX_ID: return NumberTheory.argmax(numbers, options.epsilonComparison, options.epsilon);
+		case FunctionVariadic.MEDIAN_ID: return Statistics.median(numbers);
+		case FunctionVariadic.MODE_ID: return Statistics.mode(numbers, options.epsilonComparison, options.epsilon);
+		case FunctionVariadic.BASE_ID: return NumberTheory.convOthBase2Decimal(numbers);
+		case FunctionVariadic.NDIST_ID: return NumberTheory.numberOfDistValues(numbers, options.epsilonComparison, options.epsilon);
+		}
+		return Double.NaN;
+	}
+	/**
+	 * Checks whether variadic function is supported by the compiled evaluation.
+	 *
+	 * @param      functionId          the function id
+	 *
+	 * @return     true if supported, otherwise false.
+	 */
+	static final boolean isVariadicSupported(int functionId) {
+		switch (functionId) {
+		case FunctionVariadic.MIN_ID:
+		case FunctionVariadic.MAX_ID:
+		case FunctionVariadic.SUM_ID:
+		case FunctionVariadic.PROD_ID:
+		case FunctionVariadic.AVG_ID:
+		case FunctionVariadic.VAR_ID:
+		case FunctionVariadic.STD_ID:
+		case FunctionVariadic.CONT_FRAC_ID:
+		case FunctionVariadic.CONT_POL_ID:
+		case FunctionVariadic.GCD_ID:
+		case FunctionVariadic.LCM_ID:
+		case FunctionVariadic.RND_LIST_ID:
+		case FunctionVariadic.COALESCE_ID:
+		case FunctionVariadic.OR_ID:
+		case FunctionVariadic.AND_ID:
+		case FunctionVariadic.XOR_ID:
+		case FunctionVariadic.ARGMIN_ID:
+		case FunctionVariadic.ARGMAX_ID:
+		case FunctionVariadic.MEDIAN_ID:
+		case FunctionVariadic.MODE_ID:
+		case FunctionVariadic.BASE_ID:
+		case FunctionVariadic.NDIST_ID:
+			return true;
+		}
+		return false;
+	}
+	/**
+	 * Checks whether variadic function result is subject to the ULP rounding.
+	 *
+	 * @param      functionId          the function id
+	 *
+	 * @return     true if ULP rounding applies, otherwise false.
+	 */
+	static final boolean isVariadicUlpRounded(int functionId) {
+		switch (functionId) {
+		case FunctionVariadic.SUM_ID:
+		case FunctionVariadic.PROD_ID:
+		case FunctionVariadic.AVG_ID:
+		case FunctionVariadic.VAR_ID:
+		case FunctionVariadic.STD_ID:
+			return true;
+		}
+		return false;
+	}
+	/**
+	 * Checks whether calculus operator with the given number
+	 * of parameters is supported by the compiled evaluation.
+	 *
+	 * @param      operatorId          the calculus operator id
+	 * @param      parametersNumber    the number of parameters
+	 *
+	 * @return     true if supported, otherwise false.
+	 */
+	static final boolean isCalculusSupported(int operatorId, int parametersNumber) {
+		switch (operatorId) {
+		case CalculusOperator.SUM_ID:
+		case CalculusOperator.PROD_ID:
+		case CalculusOperator.MIN_ID:
+		case CalculusOperator.MAX_ID:
+		case CalculusOperator.AVG_ID:
+		case CalculusOperator.VAR_ID:
+		case CalculusOperator.STD_ID:
+			return (parametersNumber == 4) || (parametersNumber == 5);
+		case CalculusOperator.DER_ID:
+		case CalculusOperator.DER_LEFT_ID:
+		case CalculusOperator.DER_RIGHT_ID:
+			return (parametersNumber >= 2) && (parametersNumber <= 5);
+		case CalculusOperator.DERN_ID:
+			return (parametersNumber == 3) || (parametersNumber == 5);
+		case CalculusOperator.INT_ID:
+		case CalculusOperator.SOLVE_ID:
+			return (parametersNumber == 4);
+		case CalculusOperator.FORW_DIFF_ID:
+		case CalculusOperator.BACKW_DIFF_ID:
+			return (parametersNumber == 2) || (parametersNumber == 3);
+		}
+		return false;
+	}
+	/**
+	 * Position of the index argument (iterative operators) or function
+	 * argument (other calculus operators) on the parameters list.
+	 *
+	 * @param      operatorId          the calculus operator id
+	 *
+	 * @return     Parameter position.
+	 */
+	static final int calculusIndexPosition(int operatorId) {
+		switch (operatorId) {
+		case CalculusOperator.SUM_ID:
+		case CalculusOperator.PROD_ID:
+		case CalculusOperator.MIN_ID:
+		case CalculusOperator.MAX_ID:
+		case CalculusOperator.AVG_ID:
+		case CalculusOperator.VAR_ID:
+		case CalculusOperator.STD_ID:
+			return 0;
+		case CalculusOperator.DERN_ID:
+			return 2;
+		}
+		return 1;
+	}
+	/**
+	 * Checks whether calculus operator parameter is the range of the
+	 * iterative operator (from, to), which keeps the ULP rounding settings.
+	 *
+	 * @param      operatorId          the calculus operator id
+	 * @param      position            the parameter position
+	 *
+	 * @return     true if parameter is the range, otherwise false.
+	 */
+	static final boolean isCalculusRange(int operatorId, int position) {
+		return (calculusIndexPosition(operatorId) == 0) && ( (position == 1) || (position == 2) );
+	}
+	/**
+	 * Checks whether calculus operator result is subject to the ULP rounding.
+	 *
+	 * @param      operatorId          the calculus operator id
+	 *
+	 * @return     true if ULP rounding applies, otherwise false.
+	 */
+	static final boolean isCalculusUlpRounded(int operatorId) {
+		switch (operatorId) {
+		case CalculusOperator.SUM_ID:
+		case CalculusOperator.PROD_ID:
+		case CalculusOperator.AVG_ID:
+		case CalculusOperator.VAR_ID:
+		case CalculusOperator.STD_ID:
+			return true;
+		}
+		return false;
+	}
+	/**
+	 * Binary operator value (arithmetic, boolean, binary relation, bitwise).
+	 *
+	 * @param      typeId              the operator token type id
+	 * @param      operatorId          the operator token id
+	 * @param      a                   the left operand
+	 * @param      b                   the right operand
+	 * @param      options             the evaluation options
+	 *
+	 * @return     Operator value.
+	 */
+	static final double binaryOperatorValue(int typeId, int operatorId, double a, double b, EvaluationOptions options) {
+		switch (typeId) {
+		case Operator.TYPE_ID:
+			switch (operatorId) {
+			case Operator.PLUS_ID: return a + b;
+			case Operator.MINUS_ID: return a - b;
+			case Operator.MULTIPLY_ID: return a * b;
+			case Operator.DIVIDE_ID: return MathFunctions.div(a, b);
+			case Operator.POWER_ID: return MathFunctions.power(a, b);
+			case Operator.TETRATION_ID: return MathFunctions.tetration(a, b);
+			case Operator.MOD_ID: return MathFunctions.mod(a, b);
+			}
+			break;
+		case BooleanOperator.TYPE_ID:
+			switch (operatorId) {
+			case BooleanOperator.AND_ID: return BooleanAlgebra.and(a, b, options.epsilonComparison, options.epsilon);
+			case BooleanOperator.CIMP_ID: return BooleanAlgebra.cimp(a, b, options.epsilonComparison, options.epsilon);
+			case BooleanOperator.CNIMP_ID: return BooleanAlgebra.cnimp(a, b, options.epsilonComparison, options.epsilon);
+			case BooleanOperator.EQV_ID: return BooleanAlgebra.eqv(a, b, options.epsilonComparison, options.epsilon);
+			case BooleanOperator.IMP_ID: return BooleanAlgebra.imp(a, b, options.epsilonComparison, options.epsilon);
+			case BooleanOperator.NAND_ID: return BooleanAlgebra.nand(a, b, options.epsilonComparison, options.epsilon);
+			case BooleanOperator.NIMP_ID: return BooleanAlgebra.nimp(a, b, options.epsilonComparison, options.epsilon);
+			case BooleanOperator.NOR_ID: return BooleanAlgebra.nor(a, b, options.epsilonComparison, options.epsilon);
+			case BooleanOperator.OR_ID: return BooleanAlgebra.or(a, b, options.epsilonComparison, options.epsilon);
+			case BooleanOperator.XOR_ID: return BooleanAlgebra.xor(a, b, options.epsilonComparison, options.epsilon);
+			}
+			break;
+		case BinaryRelation.TYPE_ID:
+			switch (operatorId) {
+			case BinaryRelation.EQ_ID: return BinaryRelations.eq(a, b, options.epsilonComparison, options.epsilon);
+			case BinaryRelation.NEQ_ID: return BinaryRelations.neq(a, b, options.epsilonComparison, options.epsilon);
+			case BinaryRelation.LT_ID: return BinaryRelations.lt(a, b, options.epsilonComparison, options.epsilon);
+			case BinaryRelation.GT_ID: return BinaryRelations.gt(a, b, options.epsilonComparison, options.epsilon);
+			case BinaryRelation.LEQ_ID: return BinaryRelations.leq(a, b, options.epsilonComparison, options.epsilon);
+			case BinaryRelation.GEQ_ID: return BinaryRelations.geq(a, b, options.epsilonComparison, options.epsilon);
+			}
+			break;
+		case BitwiseOperator.TYPE_ID:
+			switch (operatorId) {
+			case BitwiseOperator.AND_ID: return (long)a & (long)b;
+			case BitwiseOperator.OR_ID: return (long)a | (long)b;
+			case BitwiseOperator.XOR_ID: return (long)a ^ (long)b;
+			case BitwiseOperator.LEFT_SHIFT_ID: return (long)a << (int)b;
+			case BitwiseOperator.RIGHT_SHIFT_ID: return (long)a >> (int)b;
+			}
+			break;
+		}
+		return Double.NaN;
+	}
+	/**
+	 * Unary operator value (unary minus, factorial, percentage,
+	 * boolean negation, bitwise complement).
+	 *
+	 * @param      typeId              the operator token type id
+	 * @param      operatorId          the operator token id
+	 * @param      a                   the operand
+	 * @param      options             the evaluation options
+	 *
+	 * @return     Operator value.
+	 */
+	static final double unaryOperatorValue(int typeId, int operatorId, double a, EvaluationOptions options) {
+		switch (typeId) {
+		case Operator.TYPE_ID:
+			switch (operatorId) {
+			case Operator.MINUS_ID: return -a;
+			case Operator.FACT_ID: return MathFunctions.factorial(a);
+			case Operator.PERC_ID: return a * Units.PERC;
+			}
+			break;
+		case BooleanOperator.TYPE_ID:
+			if (operatorId == BooleanOperator.NEG_ID) return BooleanAlgebra.not(a, options.epsilonComparison, options.epsilon);
+			break;
+		case BitwiseOperator.TYPE_ID:
+			if (operatorId == BitwiseOperator.COMPL_ID) return ~(long)a;
+			break;
+		}
+		return Double.NaN;
+	}
+	/*=================================================
+	 *
+	 * Node types
+	 *
+	 *=================================================
+	 */
+	/**
+	 * Number literal, built-in constant, unit or user constant.
+	 */
+	static final class Number extends CompiledNode {
+		final double value;
+		Number(double value) {
+			this.value = value;
+		}
+		@Override
+		double evaluate(EvaluationFrame frame) {
+			return value;
+		}
+		@Override
+		boolean isConstant() {
+			return true;
+		}
+	}
+	/**
+	 * Sub-tree folded at compile time, which value depends on the
+	 * ULP rounding or degrees mode (see {@link #foldingVariant(EvaluationOptions)}).
+	 */
+	static final class FoldedValue extends CompiledNode {
+		final double[] values;
+		FoldedValue(double[] values) {
+			this.values = values;
+		}
+		@Override
+		double evaluate(EvaluationFrame frame) {
+			return values[foldingVariant(frame.options)];
+		}
+		@Override
+		boolean isConstant() {
+			return true;
+		}
+	}
+	/**
+	 * Argument - free arguments are read in the stage 2,
+	 * dependent arguments are calculated in the stage 3.
+	 */
+	static final class ArgumentValue extends CompiledNode {
+		final Argument argument;
+		final int slot;
+		ArgumentValue(Argument argument, int slot) {
+			this.argument = argument;
+			this.slot = slot;
+		}
+		@Override
+		void load(EvaluationFrame frame, boolean dependent) {
+			if (frame.context == null) {
+				if (dependent == false) {
+					if (argument.argumentType == Argument.FREE_ARGUMENT)
+						frame.values[slot] = argument.argumentValue;
+				} else if (argument.argumentType == Argument.DEPENDENT_ARGUMENT)
+					frame.values[slot] = argument.getArgumentValue();
+				return;
+			}
+			EvaluationContext context = frame.context.find(argument);
+			if (dependent == false) {
+				if (context != null)
+					frame.values[slot] = context.value(argument);
+				else if (argument.argumentType == Argument.FREE_ARGUMENT)
+					frame.values[slot] = argument.argumentValue;
+			} else if ( (context == null) && (argument.argumentType == Argument.DEPENDENT_ARGUMENT) )
+				frame.values[slot] = evaluateNested(frame, argument.argumentExpression, frame.context, null, 0);
+		}
+		@Override
+		void collectExpressions(List<Expression> expressions) {
+			if (argument.argumentType == Argument.DEPENDENT_ARGUMENT)
+				expressions.add(argument.argumentExpression);
+		}
+		@Override
+		double evaluate(EvaluationFrame frame) {
+			return frame.values[slot];
+		}
+	}
+	/**
+	 * Recursive argument value for a given index.
+	 */
+	static final class RecursiveArgumentValue extends CompiledNode {
+		final RecursiveArgument argument;
+		RecursiveArgumentValue(RecursiveArgument argument, CompiledNode index) {
+			super(index);
+			this.argument = argument;
+		}
+		@Override
+		double evaluate(EvaluationFrame frame) {
+			return argument.getArgumentValue(children[0].evaluate(frame));
+		}
+	}
+	/**
+	 * Random variable - drawn in the stage 2.
+	 */
+	static final class RandomVariableValue extends CompiledNode {
+		final int randomVariableId;
+		final int slot;
+		RandomVariableValue(int randomVariableId, int slot) {
+			this.randomVariableId = randomVariableId;
+			this.slot = slot;
+		}
+		@Override
+		void load(EvaluationFrame frame, boolean dependent) {
+			if (dependent == false)
+				frame.values[slot] = Expression.getRandomVariableValue(randomVariableId, frame.options.randomGenerator);
+		}
+		@Override
+		double evaluate(EvaluationFrame frame) {
+			return frame.values[slot];
+		}
+	}
+	/**
+	 * Number of user defined variadic function parameters - [npar].
+	 */
+	static final class UDFParametersNumber extends CompiledNode {
+		@Override
+		double evaluate(EvaluationFrame frame) {
+			return frame.udfParametersNumber;
+		}
+	}
+	/**
+	 * User defined variadic function parameter - par(i).
+	 */
+	static final class UDFParameter extends CompiledNode {
+		UDFParameter(CompiledNode index) {
+			super(index);
+		}
+		@Override
+		double evaluate(EvaluationFrame frame) {
+			double x = children[0].evaluate(frame);
+			double[] params = frame.udfParameters;
+			int npar = frame.udfParametersNumber;
+			if ( (Double.isNaN(x) == false ) && (x != Double.POSITIVE_INFINITY) && (x != Double.NEGATIVE_INFINITY) ) {
+				int i = (int)MathFunctions.integerPart(x);
+				if (i == 0)
+					return npar;
+				else if (Math.abs(i) <= npar) {
+					if (i >= 1)
+						return params[i - 1];
+					else if (i <= -1)
+						return params[npar + i];
+				}
+			}
+			return Double.NaN;
+		}
+	}
+	/**
+	 * Unary operator.
+	 */
+	static final class UnaryOperator extends CompiledNode {
+		final int typeId;
+		final int operatorId;
+		UnaryOperator(int typeId, int operatorId, CompiledNode operand) {
+			super(operand);
+			this.typeId = typeId;
+			this.operatorId = operatorId;
+		}
+		@Override
+		double evaluate(EvaluationFrame frame) {
+			return unaryOperatorValue(typeId, operatorId, children[0].evaluate(frame), frame.options);
+		}
+		@Override
+		boolean isFoldable() {
+			return (typeId != BooleanOperator.TYPE_ID);
+		}
+	}
+	/**
+	 * Binary operator.
+	 */
+	static final class BinaryOperator extends CompiledNode {
+		final int typeId;
+		final int operatorId;
+		final boolean ulpRound;
+		BinaryOperator(int typeId, int operatorId, CompiledNode left, CompiledNode right, boolean ulpRound) {
+			super(left, right);
+			this.typeId = typeId;
+			this.operatorId = operatorId;
+			this.ulpRound = ulpRound;
+		}
+		@Override
+		double evaluate(EvaluationFrame frame) {
+			double a = children[0].evaluate(frame);
+			double b = children[1].evaluate(frame);
+			double result = binaryOperatorValue(typeId, operatorId, a, b, frame.options);
+			if (ulpRound)
+				return ulpRound(result, frame.options);
+			return result;
+		}
+		@Override
+		boolean isFoldable() {
+			return (typeId == Operator.TYPE_ID) || (typeId == BitwiseOperator.TYPE_ID);
+		}
+	}
+	/**
+	 * Boolean operator evaluating the right operand only if the result
+	 * is not decided by the left operand (i.e. false AND b, true OR b).
+	 * Right operand is evaluated on demand in all the stages, so the
+	 * arguments, random variables and functions of the skipped operand
+	 * are not evaluated at all.
+	 */
+	static final class ShortCircuit extends CompiledNode {
+		final int operatorId;
+		final CompiledNode right;
+		ShortCircuit(int operatorId, CompiledNode left, CompiledNode right) {
+			super(left);
+			this.operatorId = operatorId;
+			this.right = right;
+		}
+		@Override
+		double evaluate(EvaluationFrame frame) {
+			double a = children[0].evaluate(frame);
+			double ifFalse = binaryOperatorValue(BooleanOperator.TYPE_ID, operatorId, a, BooleanAlgebra.F, frame.options);
+			double ifTrue = binaryOperatorValue(BooleanOperator.TYPE_ID, operatorId, a, BooleanAlgebra.T, frame.options);
+			double ifNull = binaryOperatorValue(BooleanOperator.TYPE_ID, operatorId, a, BooleanAlgebra.N, frame.options);
+			if ( (ifFalse == ifTrue) && (ifTrue == ifNull) )
+				return ifFalse;
+			double b = evaluateStages(right, frame);
+			return binaryOperatorValue(BooleanOperator.TYPE_ID, operatorId, a, b, frame.options);
+		}
+		@Override
+		void collectExpressions(List<Expression> expressions) {
+			children[0].collectExpressions(expressions);
+			right.collectExpressions(expressions);
+		}
+	}
+	/**
+	 * Checks whether boolean operator result can be decided
+	 * by the left operand only.
+	 *
+	 * @param      operatorId          the boolean operator id
+	 *
+	 * @return     true if right operand can be skipped for some left
+	 *             operand values, otherwise false.
+	 */
+	static final boolean isShortCircuit(int operatorId) {
+		switch (operatorId) {
+		case BooleanOperator.AND_ID:
+		case BooleanOperator.OR_ID:
+		case BooleanOperator.NAND_ID:
+		case BooleanOperator.NOR_ID:
+		case BooleanOperator.IMP_ID:
+		case BooleanOperator.CIMP_ID:
+		case BooleanOperator.NIMP_ID:
+		case BooleanOperator.CNIMP_ID:
+			return true;
+		}
+		return false;
+	}
+	/**
+	 * Unary function.
+	 */
+	static final class Function1 extends CompiledNode {
+		final int functionId;
+		Function1(int functionId, CompiledNode a) {
+			super(a);
+			this.functionId = functionId;
+		}
+		@Override
+		double evaluate(EvaluationFrame frame) {
+			return f1ArgValue(functionId, children[0].evaluate(frame), frame.options);
+		}
+		@Override
+		boolean isFoldable() {
+			return (functionId != Function1Arg.NOT_ID);
+		}
+	}
+	/**
+	 * Binary function.
+	 */
+	static final class Function2 extends CompiledNode {
+		final int functionId;
+		Function2(int functionId, CompiledNode a, CompiledNode b) {
+			super(a, b);
+			this.functionId = functionId;
+		}
+		@Override
+		double evaluate(EvaluationFrame frame) {
+			double a = children[0].evaluate(frame);
+			double b = children[1].evaluate(frame);
+			return f2ArgValue(functionId, a, b, frame.options);
+		}
+		@Override
+		boolean isFoldable() {
+			switch (functionId) {
+			case Function2Arg.RND_UNIFORM_CONT_ID:
+			case Function2Arg.RND_NORMAL_ID:
+			case Function2Arg.RND_UNIFORM_DISCR_ID:
+				return false;
+			}
+			return true;
+		}
+	}
+	/**
+	 * Function with 3 arguments.
+	 */
+	static final class Function3 extends CompiledNode {
+		final int functionId;
+		Function3(int functionId, CompiledNode a, CompiledNode b, CompiledNode c) {
+			super(a, b, c);
+			this.functionId = functionId;
+		}
+		@Override
+		double evaluate(EvaluationFrame frame) {
+			double a = children[0].evaluate(frame);
+			double b = children[1].evaluate(frame);
+			double c = children[2].evaluate(frame);
+			return f3ArgValue(functionId, a, b, c);
+		}
+		@Override
+		boolean isFoldable() {
+			return true;
+		}
+	}
+	/**
+	 * Variadic function.
+	 */
+	static final class Variadic extends CompiledNode {
+		final int functionId;
+		final boolean ulpRound;
+		final int slot;
+		Variadic(int functionId, CompiledNode[] parameters, boolean ulpRound, int slot) {
+			super(parameters);
+			this.functionId = functionId;
+			this.ulpRound = ulpRound;
+			this.slot = slot;
+		}
+		@Override
+		double evaluate(EvaluationFrame frame) {
+			int n = children.length;
+			double[] numbers = frame.getArray(slot, n);
+			for (int i = 0; i < n; i++)
+				numbers[i] = children[i].evaluate(frame);
+			double result = variadicValue(functionId, numbers, frame.options);
+			if (ulpRound)
+				return ulpRound(result, frame.options);
+			return result;
+		}
+		@Override
+		boolean isFoldable() {
+			switch (functionId) {
+			case FunctionVariadic.SUM_ID:
+			case FunctionVariadic.PROD_ID:
+			case FunctionVariadic.AVG_ID:
+			case FunctionVariadic.VAR_ID:
+			case FunctionVariadic.STD_ID:
+			case FunctionVariadic.CONT_FRAC_ID:
+			case FunctionVariadic.CONT_POL_ID:
+			case FunctionVariadic.GCD_ID:
+			case FunctionVariadic.LCM_ID:
+			case FunctionVariadic.COALESCE_ID:
+			case FunctionVariadic.BASE_ID:
+				return true;
+			}
+			return false;
+		}
+	}
+	/**
+	 * Sub-expression evaluated in the same way as the internal
+	 * expression created from the tokens sub-list (if / iff
+	 * conditions): all the stages on its own, own recursion
+	 * calls counter and almost integer rounding of the result.
+	 */
+	static final class SubExpression extends CompiledNode {
+		final CompiledNode body;
+		SubExpression(CompiledNode body) {
+			this.body = body;
+		}
+		@Override
+		double evaluate(EvaluationFrame frame) {
+			if (frame.options.maxRecursionCalls <= 0)
+				return Double.NaN;
+			int recursionCallsCounter = frame.recursionCallsCounter;
+			frame.recursionCallsCounter = 1;
+			double result = evaluateStages(body, frame);
+			frame.recursionCallsCounter = recursionCallsCounter;
+			return almostIntRound(result, frame.options);
+		}
+		@Override
+		void collectExpressions(List<Expression> expressions) {
+			body.collectExpressions(expressions);
+		}
+	}
+	/**
+	 * If function - condition is evaluated in the stage 1,
+	 * only the selected branch is evaluated.
+	 */
+	static final class If extends CompiledNode {
+		final CompiledNode condition;
+		final CompiledNode ifTrue;
+		final CompiledNode ifFalse;
+		final int slot;
+		If(CompiledNode condition, CompiledNode ifTrue, CompiledNode ifFalse, int slot) {
+			this.condition = condition;
+			this.ifTrue = ifTrue;
+			this.ifFalse = ifFalse;
+			this.slot = slot;
+		}
+		private CompiledNode branch(EvaluationFrame frame) {
+			switch (frame.decisions[slot]) {
+			case 1: return ifTrue;
+			case 0: return ifFalse;
+			}
+			return null;
+		}
+		@Override
+		void resolve(EvaluationFrame frame) {
+			double ifCondition = condition.evaluate(frame);
+			if (Double.isNaN(ifCondition))
+				frame.decisions[slot] = -1;
+			else if (ifCondition != 0)
+				frame.decisions[slot] = 1;
+			else
+				frame.decisions[slot] = 0;
+			CompiledNode branch = branch(frame);
+			if (branch != null)
+				branch.resolve(frame);
+		}
+		@Override
+		void load(EvaluationFrame frame, boolean dependent) {
+			CompiledNode branch = branch(frame);
+			if (branch != null)
+				branch.load(frame, dependent);
+		}
+		@Override
+		double evaluate(EvaluationFrame frame) {
+			CompiledNode branch = branch(frame);
+			if (branch != null)
+				return branch.evaluate(frame);
+			return Double.NaN;
+		}
+		@Override
+		void collectExpressions(List<Expression> expressions) {
+			condition.collectExpressions(expressions);
+			ifTrue.collectExpressions(expressions);
+			ifFalse.collectExpressions(expressions);
+		}
+	}
+	/**
+	 * Iff function - conditions are evaluated in the stage 1 one
+	 * after another until the first one is true, only the related
+	 * branch is evaluated.
+	 */
+	static final class Iff extends CompiledNode {
+		final CompiledNode[] conditions;
+		final CompiledNode[] branches;
+		final int slot;
+		Iff(CompiledNode[] conditions, CompiledNode[] branches, int slot) {
+			this.conditions = conditions;
+			this.branches = branches;
+			this.slot = slot;
+		}
+		@Override
+		void resolve(EvaluationFrame frame) {
+			frame.decisions[slot] = -1;
+			for (int i = 0; i < conditions.length; i++) {
+				double iffValue = conditions[i].evaluate(frame);
+				if ( (iffValue != 0) && (!Double.isNaN(iffValue)) ) {
+					frame.decisions[slot] = i;
+					branches[i].resolve(frame);
+					return;
+				}
+			}
+		}
+		@Override
+		void load(EvaluationFrame frame, boolean dependent) {
+			int i = frame.decisions[slot];
+			if (i >= 0)
+				branches[i].load(frame, dependent);
+		}
+		@Override
+		double evaluate(EvaluationFrame frame) {
+			int i = frame.decisions[slot];
+			if (i >= 0)
+				return branches[i].evaluate(frame);
+			return Double.NaN;
+		}
+		@Override
+		void collectExpressions(List<Expression> expressions) {
+			for (int i = 0; i < conditions.length; i++) {
+				conditions[i].collectExpressions(expressions);
+				branches[i].collectExpressions(expressions);
+			}
+		}
+	}
+	/**
+	 * Calculus operator - parameters are evaluated as separate sub-expressions,
+	 * the function is evaluated by the calculus algorithms through the
+	 * {@link CalculusFunction} adapter. With the context the index argument
+	 * value is given by the context pushed for the time of the calculation
+	 * (arguments are not modified, the frame options are applied to the
+	 * function). Without the context the index argument is modified
+	 * and restored as in the tokens rewriting.
+	 */
+	static final class CalculusOperation extends CompiledNode {
+		/**
+		 * Default derivative epsilon and maximum steps
+		 */
+		private static final double DER_EPS = 1E-8;
+		private static final int DER_MAX_STEPS = 20;
+		/**
+		 * Default n-th derivative epsilon and maximum steps
+		 */
+		private static final double DERN_EPS = 1E-6;
+		private static final int DERN_MAX_STEPS = 20;
+		/**
+		 * Default integral epsilon
+		 */
+		private static final double INT_EPS = 1E-6;
+		/**
+		 * Default solve epsilon and maximum steps
+		 */
+		private static final double SOLVE_EPS = 1E-9;
+		private static final int SOLVE_MAX_STEPS = 100;
+		final int operatorId;
+		final Argument index;
+		/**
+		 * Parameters in the tokens order, the index parameter
+		 * gives the current value of the index argument
+		 */
+		final CompiledNode[] parameters;
+		final CompiledNode function;
+		final boolean ulpRound;
+		final int slot;
+		CalculusOperation(int operatorId, Argument index, CompiledNode[] parameters, boolean ulpRound, int slot) {
+			this.operatorId = operatorId;
+			this.index = index;
+			this.parameters = parameters;
+			if (calculusIndexPosition(operatorId) == 0)
+				function = parameters[3];
+			else
+				function = parameters[0];
+			this.ulpRound = ulpRound;
+			this.slot = slot;
+		}
+		@Override
+		double evaluate(EvaluationFrame frame) {
+			CalculusFunction f = frame.getCalculusFunction(slot, this);
+			EvaluationContext context = frame.context;
+			double result;
+			if (context != null) {
+				f.context.reset(f.arguments, context);
+				frame.context = f.context;
+				try {
+					result = calculate(frame, f, f.carrier);
+				} finally {
+					frame.context = context;
+				}
+			} else {
+				double initialValue = index.argumentValue;
+				int initialType = index.argumentType;
+				index.argumentValue = index.getArgumentValue();
+				index.argumentType = Argument.FREE_ARGUMENT;
+				index.valueVersion++;
+				try {
+					result = calculate(frame, f, index);
+				} finally {
+					index.argumentValue = initialValue;
+					index.argumentType = initialType;
+					index.valueVersion++;
+				}
+			}
+			if (ulpRound)
+				return ulpRound(result, frame.options);
+			return result;
+		}
+		/**
+		 * Calculates the operator, function is evaluated for the
+		 * values of the argument x set by the calculus algorithms.
+		 */
+		private double calculate(EvaluationFrame frame, CalculusFunction f, Argument x) {
+			int n = parameters.length;
+			switch (operatorId) {
+			case CalculusOperator.SUM_ID:
+			case CalculusOperator.PROD_ID:
+			case CalculusOperator.MIN_ID:
+			case CalculusOperator.MAX_ID:
+			case CalculusOperator.AVG_ID:
+			case CalculusOperator.VAR_ID:
+			case CalculusOperator.STD_ID:
+				double from = parameters[1].evaluate(frame);
+				double to = parameters[2].evaluate(frame);
+				double delta = 1.0;
+				if (to < from) delta = -1.0;
+				if (n == 5)
+					delta = parameters[4].evaluate(frame);
+				return IterativeOperators.calculate(operatorId, f, x, from, to, delta);
+			case CalculusOperator.DER_ID:
+			case CalculusOperator.DER_LEFT_ID:
+			case CalculusOperator.DER_RIGHT_ID:
+				double x0;
+				if ( (n == 2) || (n == 4) )
+					x0 = parameters[1].evaluate(frame);
+				else
+					x0 = parameters[2].evaluate(frame);
+				double eps = DER_EPS;
+				int maxSteps = DER_MAX_STEPS;
+				if (n >= 4) {
+					eps = parameters[n-2].evaluate(frame);
+					maxSteps = (int)Math.round(parameters[n-1].evaluate(frame));
+				}
+				int derivativeType = Calculus.GENERAL_DERIVATIVE;
+				if (operatorId == CalculusOperator.DER_LEFT_ID)
+					derivativeType = Calculus.LEFT_DERIVATIVE;
+				else if (operatorId == CalculusOperator.DER_RIGHT_ID)
+					derivativeType = Calculus.RIGHT_DERIVATIVE;
+				return Calculus.derivative(f, x, x0, derivativeType, eps, maxSteps);
+			case CalculusOperator.DERN_ID:
+				double order = parameters[1].evaluate(frame);
+				double xn = parameters[2].evaluate(frame);
+				double epsn = DERN_EPS;
+				int maxStepsn = DERN_MAX_STEPS;
+				if (n == 5) {
+					epsn = parameters[3].evaluate(frame);
+					maxStepsn = (int)Math.round(parameters[4].evaluate(frame));
+				}
+				double left = Calculus.derivativeNth(f, order, x, xn, Calculus.LEFT_DERIVATIVE, epsn, maxStepsn);
+				double right = Calculus.derivativeNth(f, order, x, xn, Calculus.RIGHT_DERIVATIVE, epsn, maxStepsn);
+				return (left + right) / 2.0;
+			case CalculusOperator.INT_ID:
+				double a = parameters[2].evaluate(frame);
+				double b = parameters[3].evaluate(frame);
+				return AdaptiveIntegration.integrate(f, x, a, b, INT_EPS);
+			case CalculusOperator.SOLVE_ID:
+				double sa = parameters[2].evaluate(frame);
+				double sb = parameters[3].evaluate(frame);
+				return Calculus.solveBrent(f, x, sa, sb, SOLVE_EPS, SOLVE_MAX_STEPS);
+			case CalculusOperator.FORW_DIFF_ID:
+			case CalculusOperator.BACKW_DIFF_ID:
+				x.setArgumentValue( parameters[1].evaluate(frame) );
+				double h = 1;
+				if (n == 3)
+					h = parameters[2].evaluate(frame);
+				if (operatorId == CalculusOperator.FORW_DIFF_ID)
+					return Calculus.forwardDifference(f, h, x);
+				return Calculus.backwardDifference(f, h, x);
+			}
+			return Double.NaN;
+		}
+		@Override
+		void collectExpressions(List<Expression> expressions) {
+			for (CompiledNode parameter : parameters)
+				parameter.collectExpressions(expressions);
+		}
+	}
+	/**
+	 * Function of the calculus operator passed to the calculus algorithms -
+	 * expression calculating the compiled function in the frame, with the
+	 * index argument value taken from the carrier argument set by the
+	 * algorithm. Adapter is kept by the frame (one per operator slot), it has
+	 * no compiled form of its own, so the algorithms evaluate it serially.
+	 */
+	static final class CalculusFunction extends Expression {
+		final CalculusOperation node;
+		/**
+		 * Context binding the index argument (evaluation with the context)
+		 */
+		final Argument[] arguments;
+		final EvaluationContext context;
+		/**
+		 * Argument set by the calculus algorithms (evaluation with the context)
+		 */
+		final Argument carrier;
+		EvaluationFrame frame;
+		CalculusFunction(CalculusOperation node) {
+			this.node = node;
+			arguments = new Argument[] { node.index };
+			context = new EvaluationContext(arguments, null);
+			carrier = new Argument(node.index.getArgumentName());
+		}
+		@Override
+		public double calculate() {
+			if (frame.context == context)
+				context.setArgumentValue(0, carrier.argumentValue);
+			return node.function.evaluate(frame);
+		}
+		@Override
+		CompiledExpression getCompiledExpression() {
+			return null;
+		}
+	}
+	/**
+	 * User defined function call.
+	 */
+	/**
+	 * Parameters values of the user defined function call passed to the
+	 * function expression (par(i), [npar]), list view of the parameters
+	 * array kept by the frame (one per function call slot). The frame
+	 * reads the values from the array without boxing.
+	 */
+	static final class ParametersList extends AbstractList<Double> {
+		final UserFunction node;
+		double[] values;
+		ParametersList(UserFunction node) {
+			this.node = node;
+		}
+		@Override
+		public Double get(int index) {
+			if ( (index < 0) || (index >= values.length) )
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + values.length);
+			return values[index];
+		}
+		@Override
+		public int size() {
+			return values.length;
+		}
+	}
+	static final class UserFunction extends CompiledNode {
+		final Function function;
+		final int argsNumber;
+		final int slot;
+		/**
+		 * Function arguments bound in the shared evaluation
+		 */
+		final Argument[] parameters;
+		UserFunction(Function function, CompiledNode[] parameters, int argsNumber, int slot) {
+			super(parameters);
+			this.function = function;
+			this.argsNumber = argsNumber;
+			this.slot = slot;
+			if ( (function.isVariadic) || (function.getFunctionBodyType() != Function.BODY_RUNTIME) )
+				this.parameters = new Argument[0];
+			else {
+				this.parameters = new Argument[argsNumber];
+				for (int argIdx = 0; argIdx < argsNumber; argIdx++)
+					this.parameters[argIdx] = function.functionExpression.argumentsList.get(argIdx);
+			}
+		}
+		@Override
+		double evaluate(EvaluationFrame frame) {
+			int n = children.length;
+			double[] numbers = frame.getArray(slot, n);
+			for (int i = 0; i < n; i++)
+				numbers[i] = children[i].evaluate(frame);
+			/*
+			 * Memoized function - cached result is used without
+			 * calculating the function, options must be global
+			 */
+			FunctionResultsCache resultsCache = function.getResultsCache();
+			if (resultsCache != null) {
+				if (frame.options.checkIfGlobalOptions() == false)
+					resultsCache = null;
+				else {
+					double value = resultsCache.get(numbers);
+					if (!Double.isNaN(value))
+						return value;
+				}
+			}
+			double value;
+			if (function.functionExtensionPrimitive != null)
+				value = function.calculateExtensionPrimitive(numbers, n);
+			else if (frame.context != null)
+				value = evaluateShared(frame, numbers);
+			else
+				value = evaluateFunction(frame, numbers);
+			if (resultsCache != null)
+				resultsCache.put(numbers, value);
+			return value;
+		}
+		/**
+		 * Function call modifying function state (parameters values).
+		 */
+		private double evaluateFunction(EvaluationFrame frame, double[] numbers) {
+			ParametersList params = frame.getParametersList(slot, this, numbers);
+			Function function;
+			if (this.function.getRecursiveMode() == true) {
+				function = this.function.clone();
+				function.functionExpression.recursionCallsCounter = frame.recursionCallsCounter;
+			} else
+				function = this.function;
+			function.functionExpression.UDFVariadicParamsAtRunTime = params;
+			if (function.isVariadic == false)
+				for (int argIdx = 0; argIdx < argsNumber; argIdx++)
+					function.setArgumentValue(argIdx, numbers[argIdx]);
+			try {
+				return function.calculate();
+			} catch(StackOverflowError soe){
+				frame.expression.errorMessage = soe.getMessage();
+				return Double.NaN;
+			}
+		}
+		/**
+		 * Function call without modifying function state - parameters
+		 * values are passed in the context reused by the nested frame.
+		 */
+		private double evaluateShared(EvaluationFrame frame, double[] numbers) {
+			try {
+				if (function.getFunctionBodyType() == Function.BODY_EXTENDED)
+					return function.calculateExtension(numbers);
+				EvaluationContext context = frame.getNestedFrame().getParametersContext(parameters, frame.context);
+				for (int argIdx = 0; argIdx < parameters.length; argIdx++)
+					context.setArgumentValue(argIdx, numbers[argIdx]);
+				return evaluateNested(frame, function.functionExpression, context, numbers, numbers.length);
+			} catch(StackOverflowError soe){
+				return Double.NaN;
+			}
+		}
+		@Override
+		void collectExpressions(List<Expression> expressions) {
+			if (function.getFunctionBodyType() == Function.BODY_RUNTIME)
+				expressions.add(function.functionExpression);
+			super.collectExpressions(expressions);
+		}
+	}
+}
@@ -0,0 +1,344 @@
+/*
+ * @(#)DependentArgumentCache.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.mariuszgromada.math.mxparser.parsertokens.ConstantValue;
+import org.mariuszgromada.math.mxparser.parsertokens.Function1Arg;
+import org.mariuszgromada.math.mxparser.parsertokens.Function2Arg;
+import org.mariuszgromada.math.mxparser.parsertokens.FunctionVariadic;
+import org.mariuszgromada.math.mxparser.parsertokens.RandomVariable;
+import org.mariuszgromada.math.mxparser.parsertokens.Token;
+
+/**
+ * DependentArgumentCache - value of the dependent argument remembered
+ * together with the versions of everything the value was calculated from.
+ *
+ * Inputs of the dependent argument are the arguments used by its expression
+ * and by the bodies of the user defined functions called (parameters
+ * of the functions excluded). Each argument keeps the version of its value,
+ * increased when the value or type is changed, dependent argument increases
+ * its version only when the recalculated value differs. While reading the
+ * dependent argument value the inputs are checked recursively (dependent
+ * inputs first), and the expression is calculated again only if the version
+ * of any input, the definitions (expression modifications) or the global
+ * settings have changed. Changing one free argument causes recalculation
+ * of the dependent arguments downstream of it only.
+ *
+ * Value is not cached if the expression (or function called) uses random
+ * functions or random variables, recursive arguments, function extensions,
+ * user defined function parameters, or if the expression is in the verbose
+ * mode or has own evaluation options.
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ *
+ * @see Argument#getArgumentValue()
+ */
+final class DependentArgumentCache {
+	/**
+	 * Number of the dependent arguments validation passes,
+	 * inputs shared by many arguments are checked once per pass
+	 */
+	private static final AtomicLong validationPass = new AtomicLong(0);
+	/**
+	 * The dependent argument
+	 */
+	private final Argument argument;
+	/**
+	 * Indicator whether cached value can be used
+	 */
+	private boolean valid;
+	/**
+	 * Cached value
+	 */
+	private double value;
+	/**
+	 * Input arguments and their versions
+	 */
+	private Argument[] inputs;
+	private int[] inputsVersions;
+	/**
+	 * Expressions (argument expression, functions bodies)
+	 * and the number of their modifications
+	 */
+	private Expression[] expressions;
+	private int[] expressionsModifications;
+	/**
+	 * Global settings and mXparser options changeset
+	 */
+	private EvaluationOptions options;
+	private int optionsChangesetNumber;
+	/**
+	 * Last validation pass
+	 */
+	private long checkedPass;
+	/**
+	 * Indicator whether argument is being validated or calculated
+	 */
+	private boolean checking;
+	/**
+	 * Package level constructor.
+	 *
+	 * @param      argument            the dependent argument
+	 */
+	DependentArgumentCache(Argument argument) {
+		this.argument = argument;
+		valid = false;
+		value = Double.NaN;
+		checkedPass = 0;
+		checking = false;
+	}
+	/**
+	 * Gets dependent argument value, calculates it only if inputs
+	 * have changed since the last calculation.
+	 *
+	 * @return     Dependent argument value.
+	 */
+	double getValue() {
+		/*
+		 * Cyclic definitions - calculation as without cache,
+		 * recursion calls limit applies.
+		 */
+		if (checking)
+			return argument.argumentExpression.calculate();
+		validate(validationPass.incrementAndGet());
+		return value;
+	}
+	/**
+	 * Validates cached value (recalculates if needed).
+	 *
+	 * @param      pass                the validation pass
+	 */
+	private void validate(long pass) {
+		if (checkedPass == pass) return;
+		checking = true;
+		try {
+			if (!isUpToDate(pass))
+				recalculate();
+		} finally {
+			checking = false;
+		}
+		checkedPass = pass;
+	}
+	/**
+	 * Checks whether cached value is up to date, validates
+	 * the dependent inputs.
+	 *
+	 * @param      pass                the validation pass
+	 *
+	 * @return     true if cached value can be used, otherwise false.
+	 */
+	private boolean isUpToDate(long pass) {
+		if (!valid) return false;
+		if (!areInputsUpToDate()) return false;
+		for (int i = 0; i < inputs.length; i++) {
+			Argument input = inputs[i];
+			if (input.argumentType == Argument.DEPENDENT_ARGUMENT) {
+				DependentArgumentCache inputCache = input.getValueCache();
+				if (inputCache.checking) return false;
+				inputCache.validate(pass);
+			}
+			if (input.valueVersion != inputsVersions[i])
+				return false;
+		}
+		return true;
+	}
+	/**
+	 * Checks whether collected inputs are up to date - expressions
+	 * were not modified and options were not changed.
+	 *
+	 * @return     true if inputs are up to date, otherwise false.
+	 */
+	private boolean areInputsUpToDate() {
+		Expression argumentExpression = argument.argumentExpression;
+		if ( (argumentExpression.getVerboseMode()) || (argumentExpression.getEvaluationOptions() != null) )
+			return false;
+		if (optionsChangesetNumber != mXparser.optionsChangesetNumber) return false;
+		if (!options.checkIfGlobalOptions()) return false;
+		for (int i = 0; i < expressions.length; i++)
+			if (expressions[i].modificationsNumber != expressionsModifications[i])
+				return false;
+		return true;
+	}
+	/**
+	 * Calculates the argument expression and collects the inputs,
+	 * inputs which are up to date are reused (only their versions
+	 * are updated).
+	 */
+	private void recalculate() {
+		boolean wasValid = valid;
+		valid = false;
+		double newValue = argument.argumentExpression.calculate();
+		if ( (wasValid) && (areInputsUpToDate()) ) {
+			for (int i = 0; i < inputs.length; i++)
+				inputsVersions[i] = inputs[i].valueVersion;
+			valid = true;
+		} else
+			valid = collectInputs();
+		if ( (!wasValid) || (!valid) || (Double.doubleToLongBits(newValue) != Double.doubleToLongBits(value)) )
+			argument.valueVersion++;
+		value = newValue;
+	}
+	/**
+	 * Collects inputs of the calculated argument expression.
+	 *
+	 * @return     true if value can be cached, otherwise false.
+	 */
+	private boolean collectInputs() {
+		Expression argumentExpression = argument.argumentExpression;
+		if ( (argumentExpression.getVerboseMode()) || (argumentExpression.getEvaluationOptions() != null) )
+			return false;
+		List<Argument> inputsList = new ArrayList<Argument>();
+		List<Expression> expressionsList = new ArrayList<Expression>();
+		if (!collectInputs(argumentExpression, false, 0, inputsList, expressionsList))
+			return false;
+		int n = inputsList.size();
+		inputs = new Argument[n];
+		inputsVersions = new int[n];
+		for (int i = 0; i < n; i++) {
+			Argument input = inputsList.get(i);
+			if ( (input == argument) || (input.argumentType == RecursiveArgument.RECURSIVE_ARGUMENT) )
+				return false;
+			inputs[i] = input;
+			inputsVersions[i] = input.valueVersion;
+		}
+		n = expressionsList.size();
+		expressions = new Expression[n];
+		expressionsModifications = new int[n];
+		for (int i = 0; i < n; i++) {
+			expressions[i] = expressionsList.get(i);
+			expressionsModifications[i] = expressions[i].modificationsNumber;
+		}
+		options = new EvaluationOptions();
+		optionsChangesetNumber = mXparser.optionsChangesetNumber;
+		return true;
+	}
+	/**
+	 * Collects inputs used by the expression tokens.
+	 *
+	 * @param      expression          the expression (argument expression, function body)
+	 * @param      functionBody        true if expression is the function body
+	 * @param      parametersNumber    the number of function parameters (not inputs)
+	 * @param      inputsList          the list of inputs to be filled
+	 * @param      expressionsList     the list of expressions to be filled
+	 *
+	 * @return     true if value can be cached, otherwise false.
+	 */
+	static boolean collectInputs(Expression expression, boolean functionBody, int parametersNumber, List<Argument> inputsList, List<Expression> expressionsList) {
+		if (expressionsList.contains(expression)) return true;
+		if (expression.getSyntaxStatus() != Expression.NO_SYNTAX_ERRORS) return false;
+		List<Token> tokens = expression.getInitialTokens();
+		if (tokens == null) return false;
+		expressionsList.add(expression);
+		for (Token token : tokens) {
+			switch (token.tokenTypeId) {
+			case Argument.TYPE_ID:
+				if (token.tokenId >= expression.argumentsList.size()) return false;
+				if (token.tokenId >= parametersNumber) {
+					Argument input = expression.argumentsList.get(token.tokenId);
+					if (!inputsList.contains(input))
+						inputsList.add(input);
+				}
+				break;
+			case RecursiveArgument.TYPE_ID_RECURSIVE:
+			case RandomVariable.TYPE_ID:
+				return false;
+			case ConstantValue.TYPE_ID:
+				if ( (token.tokenId == ConstantValue.NPAR_ID) && (!functionBody) ) return false;
+				break;
+			case Function1Arg.TYPE_ID:
+				if ( (token.tokenId == Function1Arg.PARAM_ID) && (!functionBody) ) return false;
+				break;
+			case Function2Arg.TYPE_ID:
+				switch (token.tokenId) {
+				case Function2Arg.RND_UNIFORM_CONT_ID:
+				case Function2Arg.RND_UNIFORM_DISCR_ID:
+				case Function2Arg.RND_NORMAL_ID:
+					return false;
+				}
+				break;
+			case FunctionVariadic.TYPE_ID:
+				if (token.tokenId == FunctionVariadic.RND_LIST_ID) return false;
+				break;
+			case Function.TYPE_ID:
+				if (token.tokenId >= expression.functionsList.size()) return false;
+				Function function = expression.functionsList.get(token.tokenId);
+				if (function.getFunctionBodyType() != Function.BODY_RUNTIME) return false;
+				int functionParametersNumber = 0;
+				if (!function.isVariadic)
+					functionParametersNumber = function.getParametersNumber();
+				if (!collectInputs(function.functionExpression, true, functionParametersNumber, inputsList, expressionsList))
+					return false;
+				break;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,282 @@
+/*
+ * @(#)EvaluationContext.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser;
+
+/**
+ * EvaluationContext - values of the arguments used in a single
+ * {@link CompiledExpression#calculate(EvaluationContext)} call.
+ *
+ * Context replaces {@link Argument#setArgumentValue(double)} when
+ * compiled expression is shared between threads - arguments values
+ * are passed in the context, and the {@link Argument} objects are not
+ * modified. Context is created by {@link CompiledExpression#createContext()}
+ * and initially contains current values of the free arguments.
+ * Context is not thread safe itself, each thread should use its own
+ * context (contexts are cheap). Context keeps also the evaluation
+ * buffers, calculations reusing the same context do not allocate
+ * memory in the steady state.
+ *
+ * Setting value of the dependent argument in the context makes this
+ * argument free in the context (like {@link Argument#setArgumentValue(double)}).
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ *
+ * @see CompiledExpression
+ * @see Expression#compile()
+ */
+public final class EvaluationContext {
+	/**
+	 * Arguments bound by the context
+	 */
+	Argument[] arguments;
+	/**
+	 * Arguments values
+	 */
+	double[] values;
+	/**
+	 * Indicator whether argument value is given by the context
+	 */
+	boolean[] bound;
+	/**
+	 * Context of the caller (user defined function calls),
+	 * null for the top level context
+	 */
+	EvaluationContext parent;
+	/**
+	 * Evaluation frame reused by the calculations with this context
+	 */
+	EvaluationFrame frame;
+	/**
+	 * Evaluation options, null - global settings
+	 */
+	EvaluationOptions options;
+	/**
+	 * Package level constructor.
+	 *
+	 * @param      arguments           the arguments bound by the context
+	 * @param      parent              the caller context
+	 */
+	EvaluationContext(Argument[] arguments, EvaluationContext parent) {
+		this.arguments = arguments;
+		this.parent = parent;
+		int n = arguments.length;
+		values = new double[n];
+		bound = new boolean[n];
+	}
+	/**
+	 * Rebinds context to other arguments (reused contexts of the user
+	 * defined function parameters), arrays are allocated only
+	 * if the current ones are too short.
+	 *
+	 * @param      arguments           the arguments bound by the context
+	 * @param      parent              the caller context
+	 */
+	void reset(Argument[] arguments, EvaluationContext parent) {
+		this.arguments = arguments;
+		this.parent = parent;
+		int n = arguments.length;
+		if (values.length < n) {
+			values = new double[n];
+			bound = new boolean[n];
+		} else
+			for (int i = 0; i < n; i++)
+				bound[i] = false;
+	}
+	/**
+	 * Gets evaluation frame for the calculation with this context,
+	 * frame of the context is reused unless it is already in use.
+	 *
+	 * @return     Evaluation frame.
+	 */
+	EvaluationFrame acquireFrame() {
+		if (frame == null)
+			frame = new EvaluationFrame();
+		if (frame.inUse)
+			return new EvaluationFrame();
+		frame.inUse = true;
+		return frame;
+	}
+	/**
+	 * Gets number of arguments in the context.
+	 *
+	 * @return     Number of arguments.
+	 */
+	public int getArgumentsNumber() {
+		return arguments.length;
+	}
+	/**
+	 * Gets argument index.
+	 *
+	 * @param      argumentName        the argument name
+	 *
+	 * @return     Argument index if argument was found,
+	 *             otherwise returns -1.
+	 */
+	public int getArgumentIndex(String argumentName) {
+		for (int i = 0; i < arguments.length; i++)
+			if (arguments[i].getArgumentName().equals(argumentName))
+				return i;
+		return -1;
+	}
+	/**
+	 * Sets argument value.
+	 *
+	 * @param      argumentIndex       the argument index (as in the expression)
+	 * @param      argumentValue       the argument value
+	 */
+	public void setArgumentValue(int argumentIndex, double argumentValue) {
+		if ( (argumentIndex >= 0) && (argumentIndex < arguments.length) ) {
+			values[argumentIndex] = argumentValue;
+			bound[argumentIndex] = true;
+		}
+	}
+	/**
+	 * Sets argument value.
+	 *
+	 * @param      argumentName        the argument name
+	 * @param      argumentValue       the argument value
+	 */
+	public void setArgumentValue(String argumentName, double argumentValue) {
+		setArgumentValue(getArgumentIndex(argumentName), argumentValue);
+	}
+	/**
+	 * Gets argument value given by the context.
+	 *
+	 * @param      argumentIndex       the argument index
+	 *
+	 * @return     Argument value if argument was found and value
+	 *             is given by the context, otherwise returns Double.NaN.
+	 */
+	public double getArgumentValue(int argumentIndex) {
+		if ( (argumentIndex >= 0) && (argumentIndex < arguments.length) && (bound[argumentIndex]) )
+			return values[argumentIndex];
+		return Double.NaN;
+	}
+	/**
+	 * Gets argument value given by the context.
+	 *
+	 * @param      argumentName        the argument name
+	 *
+	 * @return     Argument value if argument was found and value
+	 *             is given by the context, otherwise returns Double.NaN.
+	 */
+	public double getArgumentValue(String argumentName) {
+		return getArgumentValue(getArgumentIndex(argumentName));
+	}
+	/**
+	 * Sets options applied by the calculations with this context
+	 * instead of the global settings.
+	 *
+	 * @param      options             the evaluation options,
+	 *                                 null - global settings are used
+	 */
+	public void setOptions(EvaluationOptions options) {
+		this.options = options;
+	}
+	/**
+	 * Gets options applied by the calculations with this context.
+	 *
+	 * @return     Evaluation options, null if global settings are used.
+	 */
+	public EvaluationOptions getOptions() {
+		return options;
+	}
+	/**
+	 * Finds the context giving the argument value.
+	 *
+	 * @param      argument            the argument
+	 *
+	 * @return     Context (this or one of the callers contexts) giving
+	 *             the argument value, or null if there is no such context.
+	 */
+	EvaluationContext find(Argument argument) {
+		for (EvaluationContext context = this; context != null; context = context.parent) {
+			Argument[] arguments = context.arguments;
+			for (int i = 0; i < arguments.length; i++)
+				if (arguments[i] == argument) {
+					if (context.bound[i])
+						return context;
+					break;
+				}
+		}
+		return null;
+	}
+	/**
+	 * Gets argument value given by the context.
+	 *
+	 * @param      argument            the argument
+	 *
+	 * @return     Argument value, Double.NaN if not bound.
+	 */
+	double value(Argument argument) {
+		Argument[] arguments = this.arguments;
+		for (int i = 0; i < arguments.length; i++)
+			if (arguments[i] == argument)
+				return values[i];
+		return Double.NaN;
+	}
+}
@@ -0,0 +1,326 @@
+/*
+ * @(#)EvaluationOptions.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser;
+
+import java.util.Random;
+
+import org.mariuszgromada.math.mxparser.mathcollection.BinaryRelations;
+import org.mariuszgromada.math.mxparser.mathcollection.ProbabilityDistributions;
+
+/**
+ * EvaluationOptions - calculation settings applied to a single evaluation
+ * instead of the global settings of the {@link mXparser} class: ULP rounding,
+ * almost integer rounding, degrees / radians mode, maximum recursion depth,
+ * binary relations comparison mode and epsilon, and the random generator.
+ *
+ * Options are passed in the {@link EvaluationContext#setOptions(EvaluationOptions)}
+ * or attached to the expression by {@link Expression#setEvaluationOptions(EvaluationOptions)}.
+ * This way calculations using different settings can run in one JVM at
+ * the same time, without modifying the global settings. Options are applied
+ * by the compiled evaluation (see {@link CompiledExpression}), including
+ * dependent arguments, user defined functions and functions of the calculus
+ * operators called by the expression. The comparison mode and epsilon are
+ * applied also to the boolean operators and to the functions comparing
+ * values internally (argmin, argmax, mode, ndist).
+ *
+ * New options object takes the current global settings. Options can be
+ * shared between threads, but should not be modified while used by
+ * the calculations.
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ *
+ * @see mXparser
+ * @see EvaluationContext
+ */
+public final class EvaluationOptions {
+	/**
+	 * ULP rounding
+	 */
+	boolean ulpRounding;
+	/**
+	 * Almost integer rounding of the result
+	 */
+	boolean almostIntRounding;
+	/**
+	 * Degrees mode for trigonometric functions
+	 */
+	boolean degreesMode;
+	/**
+	 * Maximum allowed recursion depth
+	 */
+	int maxRecursionCalls;
+	/**
+	 * Binary relations epsilon comparison mode
+	 */
+	boolean epsilonComparison;
+	/**
+	 * Binary relations and almost integer rounding epsilon
+	 */
+	double epsilon;
+	/**
+	 * Random generator used by random functions and random variables
+	 */
+	Random randomGenerator;
+	/**
+	 * Creates options with the current global settings.
+	 */
+	public EvaluationOptions() {
+		loadGlobalOptions();
+	}
+	/**
+	 * Copies the current global settings.
+	 *
+	 * @return     This options object.
+	 */
+	EvaluationOptions loadGlobalOptions() {
+		ulpRounding = mXparser.ulpRounding;
+		almostIntRounding = mXparser.almostIntRounding;
+		degreesMode = mXparser.degreesMode;
+		maxRecursionCalls = mXparser.MAX_RECURSION_CALLS;
+		epsilonComparison = BinaryRelations.checkIfEpsilonMode();
+		epsilon = BinaryRelations.getEpsilon();
+		randomGenerator = ProbabilityDistributions.randomGenerator;
+		return this;
+	}
+	/**
+	 * Checks whether options are equal to the current global settings
+	 * (random generator excluded).
+	 *
+	 * @return     true if options are equal to the global settings,
+	 *             otherwise false.
+	 */
+	boolean checkIfGlobalOptions() {
+		return (ulpRounding == mXparser.ulpRounding)
+			&& (almostIntRounding == mXparser.almostIntRounding)
+			&& (degreesMode == mXparser.degreesMode)
+			&& (maxRecursionCalls == mXparser.MAX_RECURSION_CALLS)
+			&& (epsilonComparison == BinaryRelations.checkIfEpsilonMode())
+			&& (Double.doubleToLongBits(epsilon) == Double.doubleToLongBits(BinaryRelations.getEpsilon()));
+	}
+	/**
+	 * Enables ULP rounding.
+	 *
+	 * @see mXparser#enableUlpRounding()
+	 */
+	public void enableUlpRounding() {
+		ulpRounding = true;
+	}
+	/**
+	 * Disables ULP rounding.
+	 *
+	 * @see mXparser#disableUlpRounding()
+	 */
+	public void disableUlpRounding() {
+		ulpRounding = false;
+	}
+	/**
+	 * Checks whether ULP rounding is enabled.
+	 *
+	 * @return     True if ULP rounding is enabled, otherwise false.
+	 */
+	public boolean checkIfUlpRounding() {
+		return ulpRounding;
+	}
+	/**
+	 * Enables almost integer rounding of the result.
+	 *
+	 * @see mXparser#enableAlmostIntRounding()
+	 */
+	public void enableAlmostIntRounding() {
+		almostIntRounding = true;
+	}
+	/**
+	 * Disables almost integer rounding of the result.
+	 *
+	 * @see mXparser#disableAlmostIntRounding()
+	 */
+	public void disableAlmostIntRounding() {
+		almostIntRounding = false;
+	}
+	/**
+	 * Checks whether almost integer rounding is enabled.
+	 *
+	 * @return     True if almost integer rounding is enabled, otherwise false.
+	 */
+	public boolean checkIfAlmostIntRounding() {
+		return almostIntRounding;
+	}
+	/**
+	 * Sets maximum allowed recursion depth.
+	 *
+	 * @param      maxAllowedRecursionDepth  Maximum number of allowed recursion calls
+	 *
+	 * @see mXparser#setMaxAllowedRecursionDepth(int)
+	 */
+	public void setMaxAllowedRecursionDepth(int maxAllowedRecursionDepth) {
+		maxRecursionCalls = maxAllowedRecursionDepth;
+	}
+	/**
+	 * Gets maximum allowed recursion depth.
+	 *
+	 * @return     Max allowed recursion calls.
+	 */
+	public int getMaxAllowedRecursionDepth() {
+		return maxRecursionCalls;
+	}
+	/**
+	 * Sets radians mode for trigonometric functions.
+	 */
+	public void setRadiansMode() {
+		degreesMode = false;
+	}
+	/**
+	 * Sets degrees mode for trigonometric functions.
+	 */
+	public void setDegreesMode() {
+		degreesMode = true;
+	}
+	/**
+	 * Checks whether radians mode is set.
+	 *
+	 * @return     true - if radians mode, false - otherwise
+	 */
+	public boolean checkIfRadiansMode() {
+		return !degreesMode;
+	}
+	/**
+	 * Checks whether degrees mode is set.
+	 *
+	 * @return     true - if degrees mode, false - otherwise
+	 */
+	public boolean checkIfDegreesMode() {
+		return degreesMode;
+	}
+	/**
+	 * Sets epsilon comparison mode of the binary relations.
+	 *
+	 * @see mXparser#setEpsilonComparison()
+	 */
+	public void setEpsilonComparison() {
+		epsilonComparison = true;
+	}
+	/**
+	 * Sets exact comparison mode of the binary relations.
+	 *
+	 * @see mXparser#setExactComparison()
+	 */
+	public void setExactComparison() {
+		epsilonComparison = false;
+	}
+	/**
+	 * Checks whether epsilon comparison mode is set.
+	 *
+	 * @return     True if epsilon comparison mode, otherwise false.
+	 */
+	public boolean checkIfEpsilonMode() {
+		return epsilonComparison;
+	}
+	/**
+	 * Checks whether exact comparison mode is set.
+	 *
+	 * @return     True if exact comparison mode, otherwise false.
+	 */
+	public boolean checkIfExactMode() {
+		return !epsilonComparison;
+	}
+	/**
+	 * Sets epsilon used by the binary relations and almost integer rounding.
+	 *
+	 * @param      epsilon             the epsilon value (greater than 0)
+	 *
+	 * @see mXparser#setEpsilon(double)
+	 */
+	public void setEpsilon(double epsilon) {
+		if (epsilon > 0) this.epsilon = epsilon;
+	}
+	/**
+	 * Gets epsilon used by the binary relations and almost integer rounding.
+	 *
+	 * @return     Epsilon value.
+	 */
+	public double getEpsilon() {
+		return epsilon;
+	}
+	/**
+	 * Sets random generator used by random functions and random variables.
+	 *
+	 * @param      randomGenerator     the random generator (ignored if null)
+	 *
+	 * @see mXparser#setRandomGenerator(Random)
+	 */
+	public void setRandomGenerator(Random randomGenerator) {
+		if (randomGenerator != null) this.randomGenerator = randomGenerator;
+	}
+	/**
+	 * Gets random generator used by random functions and random variables.
+	 *
+	 * @return     Random generator.
+	 */
+	public Random getRandomGenerator() {
+		return randomGenerator;
+	}
+}
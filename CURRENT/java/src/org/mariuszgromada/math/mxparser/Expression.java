@@ -55,7 +55,14 @@ package org.mariuszgromada.math.mxparser;
 import java.io.ByteArrayInputStream;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
 import java.util.Stack;
+import java.util.regex.Matcher;
 
 import org.mariuszgromada.math.mxparser.mathcollection.AstronomicalConstants;
 import org.mariuszgromada.math.mxparser.mathcollection.BinaryRelations;
@@ -168,8 +175,28 @@ public class Expression {
 	List<Constant> constantsList;
 	/**
 	 * List of key words known by the parser
+	 * (help content)
 	 */
 	private List<KeyWord> keyWordsList;
+	/**
+	 * Built-in key words known by the parser
+	 * (shared between expressions)
+	 */
+	private KeyWordsTrie builtinKeyWords;
+	/**
+	 * User defined key words known by the parser
+	 */
+	private KeyWordsTrie userKeyWords;
+	/**
+	 * Names of user defined tokens overriding built-in key words,
+	 * null if built-in key words are not overridden
+	 */
+	private Set<String> overridingNames;
+	/**
+	 * Built-in key words tries for each key words variant
+	 * (parser key words only, user defined function expression)
+	 */
+	private static final KeyWordsTrie[] builtinKeyWordsTries = new KeyWordsTrie[4];
 	/**
 	 * List of expression tokens (words).
 	 * Token class defines all needed
@@ -218,6 +245,12 @@ public class Expression {
 	 * (the initialTokens list needs to be updated)
 	 */
 	private boolean expressionWasModified;
+	/**
+	 * Number of the expression modifications
+	 *
+	 * @see DependentArgumentCache
+	 */
+	int modificationsNumber = 0;
 	/**
 	 * If recursive mode is on the recursive calls are permitted.
 	 * It means there will be no null pointer exceptions
@@ -247,7 +280,7 @@ public class Expression {
 	/**
 	 * Message after checking the syntax
 	 */
-	private String errorMessage;
+	String errorMessage;
 	/**
 	 * Flag used internally to mark started recursion
 	 * call on the current object, necessary to
@@ -274,7 +307,7 @@ public class Expression {
 	 * f.addDefinitions(g);
 	 * g.addDefinitions(f);
 	 */
-	private int recursionCallsCounter;
+	int recursionCallsCounter;
 	/**
 	 * Internal indicator for tokenization process
 	 * if true, then keywords such as constants
@@ -317,6 +350,38 @@ public class Expression {
 	 * used in checkSyntax() method
 	 */
 	private int optionsChangesetNumber = -1;
+	/**
+	 * Initial tokens compiled into the evaluation tree,
+	 * and the compiled tree itself (null if initial tokens
+	 * are not supported by the compiled evaluation).
+	 * Both are reset on every modification, as cached initial
+	 * tokens can be reused for replaced (same name) elements.
+	 *
+	 * @see ExpressionCompiler
+	 */
+	private List<Token> compiledTokens;
+	private CompiledExpression compiledExpression;
+	/**
+	 * Internal expressions (if / iff conditions, parameters of the calculus
+	 * operators) created from the initial tokens given below, reused by
+	 * the tokens rewriting evaluation until the expression is modified.
+	 * Arguments created for the calculus operators (i.e. summation index
+	 * not present on the arguments list) are reused as well, so the
+	 * compiled internal expressions stay bound to them.
+	 */
+	private Map<String, Expression> internalExpressions;
+	private Map<String, Argument> parameterArguments;
+	private List<Token> internalExpressionsTokens;
+	/**
+	 * Evaluation frame reused by the compiled evaluation
+	 * of this expression (not shared by clones).
+	 */
+	EvaluationFrame evaluationFrame;
+	/**
+	 * Evaluation options attached to the expression,
+	 * null - global settings are used.
+	 */
+	private EvaluationOptions evaluationOptions;
 	/*=================================================
 	 *
 	 * Related expressions handling
@@ -399,6 +464,10 @@ public class Expression {
 			recursionCallsCounter = 0;
 			internalClone = false;
 			expressionWasModified = true;
+			modificationsNumber++;
+			compiledTokens = null;
+			compiledExpression = null;
+			internalExpressions = null;
 			syntaxStatus = SYNTAX_ERROR_OR_STATUS_UNKNOWN;
 			errorMessage = "Syntax status unknown.";
 			for (Expression e : relatedExpressionsList)
@@ -566,6 +635,9 @@ public class Expression {
 		functionsList = expression.functionsList;
 		constantsList = expression.constantsList;
 		keyWordsList = expression.keyWordsList;
+		builtinKeyWords = expression.builtinKeyWords;
+		userKeyWords = expression.userKeyWords;
+		overridingNames = expression.overridingNames;
 		relatedExpressionsList = expression.relatedExpressionsList;
 		computingTime = 0;
 		expressionWasModified = expression.expressionWasModified;
@@ -577,6 +649,7 @@ public class Expression {
 		recursionCallsCounter = expression.recursionCallsCounter;
 		parserKeyWordsOnly = expression.parserKeyWordsOnly;
 		disableUlpRounding = expression.disableUlpRounding;
+		evaluationOptions = expression.evaluationOptions;
 		UDFExpression = expression.UDFExpression;
 		UDFVariadicParamsAtRunTime = expression.UDFVariadicParamsAtRunTime;
 		internalClone = true;
@@ -1690,7 +1763,7 @@ public class Expression {
 		argParam.argument = getArgument(argParam.index);
 		argParam.presence = FOUND;
 		if (argParam.argument == null) {
-			argParam.argument = new Argument(argumentName);
+			argParam.argument = getParameterArgument(argumentName);
 			argumentsList.add(argParam.argument);
 			argParam.index = argumentsList.size()-1;
 			argParam.presence = NOT_FOUND;
@@ -1699,9 +1772,73 @@ public class Expression {
 			argParam.initialType = argParam.argument.argumentType;
 			argParam.argument.argumentValue = argParam.argument.getArgumentValue();
 			argParam.argument.argumentType = Argument.FREE_ARGUMENT;
+			argParam.argument.valueVersion++;
 		}
 		return argParam;
 	}
+	/**
+	 * Resets internal expressions and parameter arguments
+	 * if the expression was modified or initial tokens have changed.
+	 */
+	private void checkInternalExpressions() {
+		if ( (internalExpressions == null) || (internalExpressionsTokens != initialTokens) ) {
+			internalExpressions = new HashMap<String, Expression>();
+			parameterArguments = new HashMap<String, Argument>();
+			internalExpressionsTokens = initialTokens;
+		}
+	}
+	/**
+	 * Gets argument created for the parameter not present on the arguments
+	 * list, the same argument object is returned for the same name.
+	 *
+	 * @param      argumentName        the argument name
+	 *
+	 * @return     Argument with initial value.
+	 */
+	private Argument getParameterArgument(String argumentName) {
+		checkInternalExpressions();
+		Argument argument = parameterArguments.get(argumentName);
+		if (argument == null) {
+			argument = new Argument(argumentName);
+			parameterArguments.put(argumentName, argument);
+		}
+		argument.argumentValue = Argument.ARGUMENT_INITIAL_VALUE;
+		argument.valueVersion++;
+		return argument;
+	}
+	/**
+	 * Gets internal expression of the function parameter (if / iff condition,
+	 * calculus operator parameter). Internal expression is created once (and
+	 * compiled once) and then reused, new expression is created only if the
+	 * cached one is being calculated (recursive calls).
+	 *
+	 * @param      param               the function parameter
+	 * @param      disableUlpRounding  the ULP rounding setting
+	 * @param      binding             the calculus operator argument the parameter
+	 *                                 tokens are bound to, null if none
+	 *
+	 * @return     Internal expression.
+	 */
+	private Expression getInternalExpression(FunctionParameter param, boolean disableUlpRounding, ArgumentParameter binding) {
+		checkInternalExpressions();
+		String key = (disableUlpRounding ? "d" : "k");
+		if (binding != null)
+			key = key + binding.presence + "." + binding.index;
+		key = key + ":" + param.paramStr;
+		Expression internalExp = internalExpressions.get(key);
+		if ( (internalExp == null) || (internalExp.recursionCallsCounter > 0) ) {
+			Expression newInternalExp = new Expression(param.paramStr, param.tokens, argumentsList, functionsList, constantsList, disableUlpRounding, UDFExpression, UDFVariadicParamsAtRunTime);
+			if (internalExp == null)
+				internalExpressions.put(key, newInternalExp);
+			internalExp = newInternalExp;
+		}
+		internalExp.UDFVariadicParamsAtRunTime = UDFVariadicParamsAtRunTime;
+		if (verboseMode == true)
+			internalExp.setVerboseMode();
+		else
+			internalExp.setSilentMode();
+		return internalExp;
+	}
 	/**
 	 * Clears argument parameter.
 	 *
@@ -1713,6 +1850,7 @@ public class Expression {
 		else {
 			argParam.argument.argumentValue = argParam.initialValue;
 			argParam.argument.argumentType = argParam.initialType;
+			argParam.argument.valueVersion++;
 		}
 	}
 	/*=================================================
@@ -1776,6 +1914,55 @@ public class Expression {
 	private void USER_FUNCTION(int pos) {
 		Function function;
 		Function fun = functionsList.get( tokensList.get(pos).tokenId );
+		/*
+		 * Memoized function - cached result is used
+		 * without calculating (and cloning) the function
+		 */
+		FunctionResultsCache resultsCache = fun.getResultsCache();
+		double[] parameters = null;
+		if (resultsCache != null) {
+			parameters = new double[resultsCache.parametersNumber];
+			for (int argIdx = 0; argIdx < parameters.length; argIdx++)
+				parameters[argIdx] = tokensList.get(pos + argIdx + 1).tokenValue;
+			double value = resultsCache.get(parameters);
+			if (!Double.isNaN(value)) {
+				setToNumber(pos, value);
+				tokensList.get(pos).tokenLevel--;
+				for (int argIdx = parameters.length; argIdx > 0 ; argIdx--)
+					tokensList.remove(pos+argIdx);
+				return;
+			}
+		}
+		/*
+		 * Primitive extension - parameters are read directly
+		 * from the tokens list, without function cloning
+		 * and without the runtime parameters list
+		 */
+		FunctionExtensionPrimitive extension = fun.functionExtensionPrimitive;
+		if (extension != null) {
+			int argsNumber;
+			if (fun.isVariadic) {
+				argsNumber = 0;
+				int lastIndex = tokensList.size() - 1;
+				for (int pn = pos + 1; pn <= lastIndex; pn++) {
+					Token t = tokensList.get(pn);
+					if ( (t.tokenTypeId != ParserSymbol.NUMBER_TYPE_ID) || (t.tokenId != ParserSymbol.NUMBER_ID) )
+						break;
+					argsNumber++;
+				}
+			} else argsNumber = fun.getParametersNumber();
+			double[] values = fun.getExtensionCallParameters(argsNumber);
+			for (int argIdx = 0; argIdx < argsNumber; argIdx++)
+				values[argIdx] = tokensList.get(pos + argIdx + 1).tokenValue;
+			double value = extension.calculate(values, 0, argsNumber);
+			if (resultsCache != null)
+				resultsCache.put(parameters, value);
+			setToNumber(pos, value);
+			tokensList.get(pos).tokenLevel--;
+			for (int argIdx = argsNumber; argIdx > 0 ; argIdx--)
+				tokensList.remove(pos+argIdx);
+			return;
+		}
 		if (fun.getRecursiveMode() == true) {
 			function = fun.clone();
 			function.functionExpression.recursionCallsCounter = recursionCallsCounter;
@@ -1807,6 +1994,8 @@ public class Expression {
 			value = Double.NaN;
 			errorMessage = soe.getMessage();
 		}
+		if (resultsCache != null)
+			resultsCache.put(parameters, value);
 		int tokensListSizeAfter = tokensList.size();
 		if (tokensListSizeBefore == tokensListSizeAfter) {
 			Token tokenAfter = tokensList.get(pos);
@@ -1851,8 +2040,25 @@ public class Expression {
 	 * @param      pos                 the token position
 	 */
 	private void CONSTANT(int pos) {
+		int constantId = tokensList.get(pos).tokenId;
+		if (constantId == ConstantValue.NPAR_ID)
+			setToNumber(pos, UDFVariadicParamsAtRunTime.size());
+		else
+			setToNumber(pos, getBuiltinConstantValue(constantId));
+	}
+	/**
+	 * Returns value of the built-in constant. Number of user function
+	 * parameters ([npar]) depends on the runtime call and is handled
+	 * separately by the callers.
+	 *
+	 * @param      constantId          the constant id
+	 *
+	 * @return     Constant value if constant id is known,
+	 *             otherwise returns Double.NaN.
+	 */
+	static double getBuiltinConstantValue(int constantId) {
 		double constValue = Double.NaN;
-		switch (tokensList.get(pos).tokenId) {
+		switch (constantId) {
 		case ConstantValue.PI_ID:
 			constValue = MathConstants.PI;
 			break;
@@ -2120,20 +2326,28 @@ public class Expression {
 		case ConstantValue.NAN_ID:
 			constValue = MathConstants.NOT_A_NUMBER;
 			break;
-		case ConstantValue.NPAR_ID:
-			constValue = UDFVariadicParamsAtRunTime.size();
-			break;
 		}
-		setToNumber(pos, constValue);
+		return constValue;
 	}
 	/**
-	 * Constants handling.
+	 * Units handling.
 	 *
 	 * @param      pos                 the token position
 	 */
 	private void UNIT(int pos) {
+		setToNumber(pos, getUnitValue(tokensList.get(pos).tokenId));
+	}
+	/**
+	 * Returns value of the unit.
+	 *
+	 * @param      unitId              the unit id
+	 *
+	 * @return     Unit value if unit id is known,
+	 *             otherwise returns Double.NaN.
+	 */
+	static double getUnitValue(int unitId) {
 		double unitValue = Double.NaN;
-		switch (tokensList.get(pos).tokenId) {
+		switch (unitId) {
 		/* Ratio, Fraction */
 		case Unit.PERC_ID:
 			unitValue = Units.PERC;
@@ -2432,7 +2646,7 @@ public class Expression {
 			unitValue = Units.SECOND_ARC;
 			break;
 		}
-		setToNumber(pos, unitValue);
+		return unitValue;
 	}
 	/**
 	 * Random Variables handling.
@@ -2440,106 +2654,129 @@ public class Expression {
 	 * @param      pos                 the token position
 	 */
 	private void RANDOM_VARIABLE(int pos) {
+		setToNumber(pos, getRandomVariableValue(tokensList.get(pos).tokenId));
+	}
+	/**
+	 * Draws the random variable value.
+	 *
+	 * @param      randomVariableId    the random variable id
+	 *
+	 * @return     Random value if random variable id is known,
+	 *             otherwise returns Double.NaN.
+	 */
+	static double getRandomVariableValue(int randomVariableId) {
+		return getRandomVariableValue(randomVariableId, ProbabilityDistributions.randomGenerator);
+	}
+	/**
+	 * Draws the random variable value.
+	 *
+	 * @param      randomVariableId    the random variable id
+	 * @param      randomGenerator     the random generator
+	 *
+	 * @return     Random value if random variable id is known,
+	 *             otherwise returns Double.NaN.
+	 */
+	static double getRandomVariableValue(int randomVariableId, Random randomGenerator) {
 		double rndVar = Double.NaN;
-		switch (tokensList.get(pos).tokenId) {
+		switch (randomVariableId) {
 		case RandomVariable.UNIFORM_ID:
-			rndVar = ProbabilityDistributions.rndUniformContinuous(ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndUniformContinuous(randomGenerator);
 			break;
 		case RandomVariable.INT_ID:
-			rndVar = ProbabilityDistributions.rndInteger(ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(randomGenerator);
 			break;
 		case RandomVariable.INT1_ID:
-			rndVar = ProbabilityDistributions.rndInteger(-10, 10, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(-10, 10, randomGenerator);
 			break;
 		case RandomVariable.INT2_ID:
-			rndVar = ProbabilityDistributions.rndInteger(-100, 100, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(-100, 100, randomGenerator);
 			break;
 		case RandomVariable.INT3_ID:
-			rndVar = ProbabilityDistributions.rndInteger(-1000, 1000, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(-1000, 1000, randomGenerator);
 			break;
 		case RandomVariable.INT4_ID:
-			rndVar = ProbabilityDistributions.rndInteger(-10000, 10000, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(-10000, 10000, randomGenerator);
 			break;
 		case RandomVariable.INT5_ID:
-			rndVar = ProbabilityDistributions.rndInteger(-100000, 100000, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(-100000, 100000, randomGenerator);
 			break;
 		case RandomVariable.INT6_ID:
-			rndVar = ProbabilityDistributions.rndInteger(-1000000, 1000000, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(-1000000, 1000000, randomGenerator);
 			break;
 		case RandomVariable.INT7_ID:
-			rndVar = ProbabilityDistributions.rndInteger(-10000000, 10000000, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(-10000000, 10000000, randomGenerator);
 			break;
 		case RandomVariable.INT8_ID:
-			rndVar = ProbabilityDistributions.rndInteger(-100000000, 100000000, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(-100000000, 100000000, randomGenerator);
 			break;
 		case RandomVariable.INT9_ID:
-			rndVar = ProbabilityDistributions.rndInteger(-1000000000, 1000000000, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(-1000000000, 1000000000, randomGenerator);
 			break;
 		case RandomVariable.NAT0_ID:
-			rndVar = ProbabilityDistributions.rndInteger(0, 2147483646, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(0, 2147483646, randomGenerator);
 			break;
 		case RandomVariable.NAT0_1_ID:
-			rndVar = ProbabilityDistributions.rndInteger(0, 10, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(0, 10, randomGenerator);
 			break;
 		case RandomVariable.NAT0_2_ID:
-			rndVar = ProbabilityDistributions.rndInteger(0, 100, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(0, 100, randomGenerator);
 			break;
 		case RandomVariable.NAT0_3_ID:
-			rndVar = ProbabilityDistributions.rndInteger(0, 1000, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(0, 1000, randomGenerator);
 			break;
 		case RandomVariable.NAT0_4_ID:
-			rndVar = ProbabilityDistributions.rndInteger(0, 10000, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(0, 10000, randomGenerator);
 			break;
 		case RandomVariable.NAT0_5_ID:
-			rndVar = ProbabilityDistributions.rndInteger(0, 100000, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(0, 100000, randomGenerator);
 			break;
 		case RandomVariable.NAT0_6_ID:
-			rndVar = ProbabilityDistributions.rndInteger(0, 1000000, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(0, 1000000, randomGenerator);
 			break;
 		case RandomVariable.NAT0_7_ID:
-			rndVar = ProbabilityDistributions.rndInteger(0, 10000000, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(0, 10000000, randomGenerator);
 			break;
 		case RandomVariable.NAT0_8_ID:
-			rndVar = ProbabilityDistributions.rndInteger(0, 100000000, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(0, 100000000, randomGenerator);
 			break;
 		case RandomVariable.NAT0_9_ID:
-			rndVar = ProbabilityDistributions.rndInteger(0, 1000000000, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(0, 1000000000, randomGenerator);
 			break;
 		case RandomVariable.NAT1_ID:
-			rndVar = ProbabilityDistributions.rndInteger(1, 2147483646, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(1, 2147483646, randomGenerator);
 			break;
 		case RandomVariable.NAT1_1_ID:
-			rndVar = ProbabilityDistributions.rndInteger(1, 10, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(1, 10, randomGenerator);
 			break;
 		case RandomVariable.NAT1_2_ID:
-			rndVar = ProbabilityDistributions.rndInteger(1, 100, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(1, 100, randomGenerator);
 			break;
 		case RandomVariable.NAT1_3_ID:
-			rndVar = ProbabilityDistributions.rndInteger(1, 1000, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(1, 1000, randomGenerator);
 			break;
 		case RandomVariable.NAT1_4_ID:
-			rndVar = ProbabilityDistributions.rndInteger(1, 10000, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(1, 10000, randomGenerator);
 			break;
 		case RandomVariable.NAT1_5_ID:
-			rndVar = ProbabilityDistributions.rndInteger(1, 100000, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(1, 100000, randomGenerator);
 			break;
 		case RandomVariable.NAT1_6_ID:
-			rndVar = ProbabilityDistributions.rndInteger(1, 1000000, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(1, 1000000, randomGenerator);
 			break;
 		case RandomVariable.NAT1_7_ID:
-			rndVar = ProbabilityDistributions.rndInteger(1, 10000000, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(1, 10000000, randomGenerator);
 			break;
 		case RandomVariable.NAT1_8_ID:
-			rndVar = ProbabilityDistributions.rndInteger(1, 100000000, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(1, 100000000, randomGenerator);
 			break;
 		case RandomVariable.NAT1_9_ID:
-			rndVar = ProbabilityDistributions.rndInteger(1, 1000000000, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndInteger(1, 1000000000, randomGenerator);
 			break;
 		case RandomVariable.NOR_ID:
-			rndVar = ProbabilityDistributions.rndNormal(0.0, 1.0, ProbabilityDistributions.randomGenerator);
+			rndVar = ProbabilityDistributions.rndNormal(0.0, 1.0, randomGenerator);
 			break;
 		}
-		setToNumber(pos, rndVar);
+		return rndVar;
 	}
 	/**
 	 * Gets token value
@@ -3831,9 +4068,7 @@ public class Expression {
 		 */
 		List<FunctionParameter> ifParams = getFunctionParameters(pos, tokensList);
 		FunctionParameter ifParam = ifParams.get(0);
-		Expression ifExp = new Expression(ifParam.paramStr, ifParam.tokens, argumentsList, functionsList, constantsList, KEEP_ULP_ROUNDING_SETTINGS, UDFExpression, UDFVariadicParamsAtRunTime);
-		if (verboseMode == true)
-			ifExp.setVerboseMode();
+		Expression ifExp = getInternalExpression(ifParam, KEEP_ULP_ROUNDING_SETTINGS, null);
 		ifSetRemove(pos, ifExp.calculate());
 	}
 	/**
@@ -3856,9 +4091,7 @@ public class Expression {
 		double iffValue = 0;
 		boolean iffCon = true;
 		do {
-			iffExp = new Expression(iffParam.paramStr, iffParam.tokens, argumentsList, functionsList, constantsList, KEEP_ULP_ROUNDING_SETTINGS, UDFExpression, UDFVariadicParamsAtRunTime);
-			if (verboseMode == true)
-				iffExp.setVerboseMode();
+			iffExp = getInternalExpression(iffParam, KEEP_ULP_ROUNDING_SETTINGS, null);
 			iffCon = true;
 			iffValue = iffExp.calculate();
 			if ( (iffValue == 0) || (Double.isNaN(iffValue)) ) {
@@ -4105,15 +4338,10 @@ public class Expression {
 		 *    expressions will use the same arguments list
 		 *    as used in the main expression (this.argumentsList)
 		 */
-		iterParams.fromExp = new Expression(iterParams.fromParam.paramStr, iterParams.fromParam.tokens, argumentsList, functionsList, constantsList, KEEP_ULP_ROUNDING_SETTINGS, UDFExpression, UDFVariadicParamsAtRunTime);
-		iterParams.toExp = new Expression(iterParams.toParam.paramStr, iterParams.toParam.tokens, argumentsList, functionsList, constantsList, KEEP_ULP_ROUNDING_SETTINGS, UDFExpression, UDFVariadicParamsAtRunTime);
-		iterParams.funExp = new Expression(iterParams.funParam.paramStr, iterParams.funParam.tokens, argumentsList, functionsList, constantsList, DISABLE_ULP_ROUNDING, UDFExpression, UDFVariadicParamsAtRunTime);
+		iterParams.fromExp = getInternalExpression(iterParams.fromParam, KEEP_ULP_ROUNDING_SETTINGS, index);
+		iterParams.toExp = getInternalExpression(iterParams.toParam, KEEP_ULP_ROUNDING_SETTINGS, index);
+		iterParams.funExp = getInternalExpression(iterParams.funParam, DISABLE_ULP_ROUNDING, index);
 		iterParams.deltaExp = null;
-		if (verboseMode == true) {
-			iterParams.fromExp.setVerboseMode();
-			iterParams.toExp.setVerboseMode();
-			iterParams.funExp.setVerboseMode();
-		}
 		/*
 		 * Evaluate range
 		 */
@@ -4122,12 +4350,10 @@ public class Expression {
 		iterParams.delta = 1.0;
 		if (iterParams.to < iterParams.from) iterParams.delta = -1.0;
 		if (iterParams.withDelta == true) {
-			iterParams.deltaExp = new Expression(iterParams.deltaParam.paramStr, iterParams.deltaParam.tokens, argumentsList, functionsList, constantsList, DISABLE_ULP_ROUNDING, UDFExpression, UDFVariadicParamsAtRunTime);
 			if (index.presence == Argument.NOT_FOUND) {
 				updateMissingTokens(iterParams.deltaParam.tokens, iterParams.indexParam.paramStr, index.index, Argument.TYPE_ID );
 			}
-			if (verboseMode == true)
-				iterParams.deltaExp.setVerboseMode();
+			iterParams.deltaExp = getInternalExpression(iterParams.deltaParam, DISABLE_ULP_ROUNDING, index);
 			iterParams.delta = iterParams.deltaExp.calculate();
 		}
 	}
@@ -4146,7 +4372,7 @@ public class Expression {
 		ArgumentParameter index = getParamArgument(iterParams.indexParam.paramStr);
 		updateMissingTokens(index, iterParams);
 		evalFromToDeltaParameters(index, iterParams);
-		double sigma = NumberTheory.sigmaSummation(iterParams.funExp, index.argument, iterParams.from, iterParams.to, iterParams.delta);
+		double sigma = IterativeOperators.calculate(CalculusOperator.SUM_ID, iterParams.funExp, index.argument, iterParams.from, iterParams.to, iterParams.delta);
 		clearParamArgument(index);
 		calcSetDecreaseRemove(pos, sigma, true);
 	}
@@ -4165,7 +4391,7 @@ public class Expression {
 		ArgumentParameter index = getParamArgument(iterParams.indexParam.paramStr);
 		updateMissingTokens(index, iterParams);
 		evalFromToDeltaParameters(index, iterParams);
-		double product = NumberTheory.piProduct(iterParams.funExp, index.argument, iterParams.from, iterParams.to, iterParams.delta);
+		double product = IterativeOperators.calculate(CalculusOperator.PROD_ID, iterParams.funExp, index.argument, iterParams.from, iterParams.to, iterParams.delta);
 		clearParamArgument(index);
 		calcSetDecreaseRemove(pos, product, true);
 	}
@@ -4184,7 +4410,7 @@ public class Expression {
 		ArgumentParameter index = getParamArgument(iterParams.indexParam.paramStr);
 		updateMissingTokens(index, iterParams);
 		evalFromToDeltaParameters(index, iterParams);
-		double min = NumberTheory.min(iterParams.funExp, index.argument, iterParams.from, iterParams.to, iterParams.delta);
+		double min = IterativeOperators.calculate(CalculusOperator.MIN_ID, iterParams.funExp, index.argument, iterParams.from, iterParams.to, iterParams.delta);
 		clearParamArgument(index);
 		calcSetDecreaseRemove(pos, min);
 	}
@@ -4203,7 +4429,7 @@ public class Expression {
 		ArgumentParameter index = getParamArgument(iterParams.indexParam.paramStr);
 		updateMissingTokens(index, iterParams);
 		evalFromToDeltaParameters(index, iterParams);
-		double max = NumberTheory.max(iterParams.funExp, index.argument, iterParams.from, iterParams.to, iterParams.delta);
+		double max = IterativeOperators.calculate(CalculusOperator.MAX_ID, iterParams.funExp, index.argument, iterParams.from, iterParams.to, iterParams.delta);
 		clearParamArgument(index);
 		calcSetDecreaseRemove(pos, max);
 	}
@@ -4222,7 +4448,7 @@ public class Expression {
 		ArgumentParameter index = getParamArgument(iterParams.indexParam.paramStr);
 		updateMissingTokens(index, iterParams);
 		evalFromToDeltaParameters(index, iterParams);
-		double avg = Statistics.avg(iterParams.funExp, index.argument, iterParams.from, iterParams.to, iterParams.delta);
+		double avg = IterativeOperators.calculate(CalculusOperator.AVG_ID, iterParams.funExp, index.argument, iterParams.from, iterParams.to, iterParams.delta);
 		clearParamArgument(index);
 		calcSetDecreaseRemove(pos, avg, true);
 	}
@@ -4241,7 +4467,7 @@ public class Expression {
 		ArgumentParameter index = getParamArgument(iterParams.indexParam.paramStr);
 		updateMissingTokens(index, iterParams);
 		evalFromToDeltaParameters(index, iterParams);
-		double var = Statistics.var(iterParams.funExp, index.argument, iterParams.from, iterParams.to, iterParams.delta);
+		double var = IterativeOperators.calculate(CalculusOperator.VAR_ID, iterParams.funExp, index.argument, iterParams.from, iterParams.to, iterParams.delta);
 		clearParamArgument(index);
 		calcSetDecreaseRemove(pos, var, true);
 	}
@@ -4260,7 +4486,7 @@ public class Expression {
 		ArgumentParameter index = getParamArgument(iterParams.indexParam.paramStr);
 		updateMissingTokens(index, iterParams);
 		evalFromToDeltaParameters(index, iterParams);
-		double std = Statistics.std(iterParams.funExp, index.argument, iterParams.from, iterParams.to, iterParams.delta);
+		double std = IterativeOperators.calculate(CalculusOperator.STD_ID, iterParams.funExp, index.argument, iterParams.from, iterParams.to, iterParams.delta);
 		clearParamArgument(index);
 		calcSetDecreaseRemove(pos, std, true);
 	}
@@ -4301,7 +4527,7 @@ public class Expression {
 			updateMissingTokens(xParam.tokens, xParam.paramStr, x.index, Argument.TYPE_ID );
 			updateMissingTokens(funParam.tokens, xParam.paramStr, x.index, Argument.TYPE_ID );
 		}
-		Expression funExp = new Expression(funParam.paramStr, funParam.tokens, argumentsList, functionsList, constantsList, DISABLE_ULP_ROUNDING, UDFExpression, UDFVariadicParamsAtRunTime);
+		Expression funExp = getInternalExpression(funParam, DISABLE_ULP_ROUNDING, x);
 		double x0 = Double.NaN;
 		/*
 		 * der( f(x), x )
@@ -4317,7 +4543,7 @@ public class Expression {
 			FunctionParameter x0Param = derParams.get(2);
 			if (x.presence == Argument.NOT_FOUND)
 				updateMissingTokens(x0Param.tokens, xParam.paramStr, x.index, Argument.TYPE_ID );
-			Expression x0Expr = new Expression(x0Param.paramStr, x0Param.tokens, argumentsList, functionsList, constantsList, DISABLE_ULP_ROUNDING, UDFExpression, UDFVariadicParamsAtRunTime);
+			Expression x0Expr = getInternalExpression(x0Param, DISABLE_ULP_ROUNDING, x);
 			x0 = x0Expr.calculate();
 		}
 		double eps = DEF_EPS;
@@ -4340,8 +4566,8 @@ public class Expression {
 				updateMissingTokens(epsParam.tokens, xParam.paramStr, x.index, Argument.TYPE_ID );
 				updateMissingTokens(maxStepsParam.tokens, xParam.paramStr, x.index, Argument.TYPE_ID );
 			}
-			Expression epsExpr = new Expression(epsParam.paramStr, epsParam.tokens, argumentsList, functionsList, constantsList, DISABLE_ULP_ROUNDING, UDFExpression, UDFVariadicParamsAtRunTime);
-			Expression maxStepsExp = new Expression(maxStepsParam.paramStr, maxStepsParam.tokens, argumentsList, functionsList, constantsList, DISABLE_ULP_ROUNDING, UDFExpression, UDFVariadicParamsAtRunTime);
+			Expression epsExpr = getInternalExpression(epsParam, DISABLE_ULP_ROUNDING, x);
+			Expression maxStepsExp = getInternalExpression(maxStepsParam, DISABLE_ULP_ROUNDING, x);
 			eps = epsExpr.calculate();
 			maxSteps = (int)Math.round(maxStepsExp.calculate());
 		}
@@ -4391,8 +4617,8 @@ public class Expression {
 			updateMissingTokens(funParam.tokens, xParam.paramStr, x.index, Argument.TYPE_ID );
 			updateMissingTokens(nParam.tokens, xParam.paramStr, x.index, Argument.TYPE_ID );
 		}
-		Expression funExp = new Expression(funParam.paramStr, funParam.tokens, argumentsList, functionsList, constantsList, DISABLE_ULP_ROUNDING, UDFExpression, UDFVariadicParamsAtRunTime);
-		Expression nExp = new Expression(nParam.paramStr, nParam.tokens, argumentsList, functionsList, constantsList, DISABLE_ULP_ROUNDING, UDFExpression, UDFVariadicParamsAtRunTime);
+		Expression funExp = getInternalExpression(funParam, DISABLE_ULP_ROUNDING, x);
+		Expression nExp = getInternalExpression(nParam, DISABLE_ULP_ROUNDING, x);
 		double n = nExp.calculate();
 		double x0 = x.argument.getArgumentValue();
 		double eps = DEF_EPS;
@@ -4404,8 +4630,8 @@ public class Expression {
 				updateMissingTokens(epsParam.tokens, xParam.paramStr, x.index, Argument.TYPE_ID );
 				updateMissingTokens(maxStepsParam.tokens, xParam.paramStr, x.index, Argument.TYPE_ID );
 			}
-			Expression epsExpr = new Expression(epsParam.paramStr, epsParam.tokens, argumentsList, functionsList, constantsList, DISABLE_ULP_ROUNDING, UDFExpression, UDFVariadicParamsAtRunTime);
-			Expression maxStepsExp = new Expression(maxStepsParam.paramStr, maxStepsParam.tokens, argumentsList, functionsList, constantsList, DISABLE_ULP_ROUNDING, UDFExpression, UDFVariadicParamsAtRunTime);
+			Expression epsExpr = getInternalExpression(epsParam, DISABLE_ULP_ROUNDING, x);
+			Expression maxStepsExp = getInternalExpression(maxStepsParam, DISABLE_ULP_ROUNDING, x);
 			eps = epsExpr.calculate();
 			maxSteps = (int)Math.round(maxStepsExp.calculate());
 		}
@@ -4432,10 +4658,6 @@ public class Expression {
 		 * Default epsilon
 		 */
 		final double DEF_EPS		= 1E-6;
-		/*
-		 * Default max number of steps
-		 */
-		final int DEF_MAX_STEPS		= 20;
 		List<FunctionParameter> intParams = getFunctionParameters(pos, tokensList);
 		/*
 		 * Get internal function strinng
@@ -4460,12 +4682,11 @@ public class Expression {
 			updateMissingTokens(aParam.tokens, xParam.paramStr, x.index, Argument.TYPE_ID );
 			updateMissingTokens(bParam.tokens, xParam.paramStr, x.index, Argument.TYPE_ID );
 		}
-		Expression funExp = new Expression(funParam.paramStr, funParam.tokens, argumentsList, functionsList, constantsList, DISABLE_ULP_ROUNDING, UDFExpression, UDFVariadicParamsAtRunTime);
-		Expression aExp = new Expression(aParam.paramStr, aParam.tokens, argumentsList, functionsList, constantsList, DISABLE_ULP_ROUNDING, UDFExpression, UDFVariadicParamsAtRunTime);
-		Expression bExp = new Expression(bParam.paramStr, bParam.tokens, argumentsList, functionsList, constantsList, DISABLE_ULP_ROUNDING, UDFExpression, UDFVariadicParamsAtRunTime);
+		Expression funExp = getInternalExpression(funParam, DISABLE_ULP_ROUNDING, x);
+		Expression aExp = getInternalExpression(aParam, DISABLE_ULP_ROUNDING, x);
+		Expression bExp = getInternalExpression(bParam, DISABLE_ULP_ROUNDING, x);
 		double eps = DEF_EPS;
-		int maxSteps = DEF_MAX_STEPS;
-		calcSetDecreaseRemove(pos, Calculus.integralTrapezoid(funExp, x.argument, aExp.calculate(), bExp.calculate(), eps, maxSteps) );
+		calcSetDecreaseRemove(pos, AdaptiveIntegration.integrate(funExp, x.argument, aExp.calculate(), bExp.calculate(), eps) );
 		clearParamArgument(x);
 	}
 	/**
@@ -4506,9 +4727,9 @@ public class Expression {
 			updateMissingTokens(aParam.tokens, xParam.paramStr, x.index, Argument.TYPE_ID );
 			updateMissingTokens(bParam.tokens, xParam.paramStr, x.index, Argument.TYPE_ID );
 		}
-		Expression funExp = new Expression(funParam.paramStr, funParam.tokens, argumentsList, functionsList, constantsList, DISABLE_ULP_ROUNDING, UDFExpression, UDFVariadicParamsAtRunTime);
-		Expression aExp = new Expression(aParam.paramStr, aParam.tokens, argumentsList, functionsList, constantsList, DISABLE_ULP_ROUNDING, UDFExpression, UDFVariadicParamsAtRunTime);
-		Expression bExp = new Expression(bParam.paramStr, bParam.tokens, argumentsList, functionsList, constantsList, DISABLE_ULP_ROUNDING, UDFExpression, UDFVariadicParamsAtRunTime);
+		Expression funExp = getInternalExpression(funParam, DISABLE_ULP_ROUNDING, x);
+		Expression aExp = getInternalExpression(aParam, DISABLE_ULP_ROUNDING, x);
+		Expression bExp = getInternalExpression(bParam, DISABLE_ULP_ROUNDING, x);
 		double eps = DEF_EPS;
 		int maxSteps = DEF_MAX_STEPS;
 		calcSetDecreaseRemove(pos, Calculus.solveBrent(funExp, x.argument, aExp.calculate(), bExp.calculate(), eps, maxSteps) );
@@ -4524,13 +4745,13 @@ public class Expression {
 		FunctionParameter funParam = params.get(0);
 		FunctionParameter xParam = params.get(1);
 		ArgumentParameter x = getParamArgument(xParam.paramStr);
-		Expression funExp = new Expression(funParam.paramStr, funParam.tokens, argumentsList, functionsList, constantsList, DISABLE_ULP_ROUNDING, UDFExpression, UDFVariadicParamsAtRunTime);
+		Expression funExp = getInternalExpression(funParam, DISABLE_ULP_ROUNDING, x);
 		if (verboseMode == true)
 			funExp.setVerboseMode();
 		double h = 1;
 		if (params.size() == 3) {
 			FunctionParameter hParam = params.get(2);
-			Expression hExp = new Expression(hParam.paramStr, hParam.tokens, argumentsList, functionsList, constantsList, DISABLE_ULP_ROUNDING, UDFExpression, UDFVariadicParamsAtRunTime);
+			Expression hExp = getInternalExpression(hParam, DISABLE_ULP_ROUNDING, x);
 			if (verboseMode == true)
 				hExp.setVerboseMode();
 			h = hExp.calculate();
@@ -4548,13 +4769,13 @@ public class Expression {
 		FunctionParameter funParam = params.get(0);
 		FunctionParameter xParam = params.get(1);
 		ArgumentParameter x = getParamArgument(xParam.paramStr);
-		Expression funExp = new Expression(funParam.paramStr, funParam.tokens, argumentsList, functionsList, constantsList, DISABLE_ULP_ROUNDING, UDFExpression, UDFVariadicParamsAtRunTime);
+		Expression funExp = getInternalExpression(funParam, DISABLE_ULP_ROUNDING, x);
 		if (verboseMode == true)
 			funExp.setVerboseMode();
 		double h = 1;
 		if (params.size() == 3) {
 			FunctionParameter hParam = params.get(2);
-			Expression hExp = new Expression(hParam.paramStr, hParam.tokens, argumentsList, functionsList, constantsList, DISABLE_ULP_ROUNDING, UDFExpression, UDFVariadicParamsAtRunTime);
+			Expression hExp = getInternalExpression(hParam, DISABLE_ULP_ROUNDING, x);
 			if (verboseMode == true)
 				hExp.setVerboseMode();
 			h = hExp.calculate();
@@ -4825,9 +5046,96 @@ public class Expression {
 	 * @return     true if syntax is ok
 	 */
 	public boolean checkSyntax() {
+		if ( (ExpressionsCache.isEnabled() == false) || (recursionCallPending == true) ||
+				( (expressionWasModified == false) && (syntaxStatus == NO_SYNTAX_ERRORS) && (optionsChangesetNumber == mXparser.optionsChangesetNumber) ) )
+			return checkSyntax("[" + expressionString + "] ", false);
+		/*
+		 * Expressions cache - the same expression string with the same
+		 * definitions was already checked and tokenized
+		 */
+		int changesetNumber = mXparser.optionsChangesetNumber;
+		String cacheKey = getCacheKey(changesetNumber);
+		ExpressionsCache.Entry entry = ExpressionsCache.get(cacheKey);
+		if (entry != null) {
+			initialTokens = entry.initialTokens;
+			errorMessage = entry.errorMessage;
+			optionsChangesetNumber = changesetNumber;
+			expressionWasModified = false;
+			syntaxStatus = NO_SYNTAX_ERRORS;
+			return NO_SYNTAX_ERRORS;
+		}
 		boolean syntax = checkSyntax("[" + expressionString + "] ", false);
+		if ( (syntax == NO_SYNTAX_ERRORS) && (initialTokens != null) && (changesetNumber == mXparser.optionsChangesetNumber) )
+			ExpressionsCache.put(cacheKey, initialTokens, errorMessage);
 		return syntax;
 	}
+	/**
+	 * Builds the expressions cache key - expression string,
+	 * options changeset and signatures of all the definitions
+	 * the syntax checking depends on (including definitions
+	 * of dependent arguments and user functions).
+	 *
+	 * @param      changesetNumber     the mXparser options changeset number
+	 *
+	 * @return     Cache key.
+	 */
+	private String getCacheKey(int changesetNumber) {
+		StringBuilder key = new StringBuilder();
+		key.append(changesetNumber);
+		appendCacheKey(key, new IdentityHashMap<Expression, Integer>());
+		return key.toString();
+	}
+	/**
+	 * Appends expression signature to the cache key.
+	 *
+	 * @param      key                 the cache key
+	 * @param      visited             the expressions already appended
+	 */
+	private void appendCacheKey(StringBuilder key, IdentityHashMap<Expression, Integer> visited) {
+		Integer id = visited.get(this);
+		if (id != null) {
+			key.append('@').append(id.intValue());
+			return;
+		}
+		visited.put(this, visited.size());
+		key.append('{');
+		appendCacheKeyName(key, expressionString);
+		if (parserKeyWordsOnly) key.append('P');
+		if (UDFExpression) key.append('U');
+		for (Argument arg : argumentsList) {
+			key.append('A').append(arg.argumentType).append(':');
+			appendCacheKeyName(key, arg.getArgumentName());
+			if ( (arg.argumentType != Argument.FREE_ARGUMENT) && (arg.argumentExpression != null) )
+				arg.argumentExpression.appendCacheKey(key, visited);
+		}
+		for (Function fun : functionsList) {
+			key.append('F').append(fun.getFunctionBodyType()).append(':');
+			if (fun.isVariadic) key.append('V');
+			else key.append(fun.getParametersNumber());
+			key.append(':');
+			appendCacheKeyName(key, fun.getFunctionName());
+			if (fun.getFunctionBodyType() == Function.BODY_RUNTIME)
+				fun.functionExpression.appendCacheKey(key, visited);
+		}
+		for (Constant cons : constantsList) {
+			key.append('C');
+			appendCacheKeyName(key, cons.getConstantName());
+		}
+		key.append('}');
+	}
+	/**
+	 * Appends name to the cache key.
+	 *
+	 * @param      key                 the cache key
+	 * @param      name                the name (possibly null)
+	 */
+	private static void appendCacheKeyName(StringBuilder key, String name) {
+		if (name == null) {
+			key.append('-');
+			return;
+		}
+		key.append(name.length()).append(':').append(name);
+	}
 	/**
 	 * Checks syntax of the calculus parameter
 	 *
@@ -4835,10 +5143,12 @@ public class Expression {
 	 */
 	private int checkCalculusParameter(String param) {
 		int errors = 0;
-		for (KeyWord kw : keyWordsList)
+		for (KeyWord kw : builtinKeyWords.find(param))
+			if ( (kw.wordTypeId != Argument.TYPE_ID) && (!isOverridden(kw)) )
+				errors++;
+		for (KeyWord kw : userKeyWords.find(param))
 			if (kw.wordTypeId != Argument.TYPE_ID)
-				if ( param.equals(kw.wordString) )
-					errors++;
+				errors++;
 		return errors;
 	}
 	/**
@@ -4915,16 +5225,9 @@ public class Expression {
 			/*
 			 * Duplicated tokens?
 			 */
-			String kw1;
-			String kw2;
-			java.util.Collections.sort(keyWordsList, new KwStrComparator() );
-			for (int kwId = 1; kwId < keyWordsList.size(); kwId++) {
-				kw1 = keyWordsList.get(kwId-1).wordString;
-				kw2 = keyWordsList.get(kwId).wordString;
-				if ( kw1.equals(kw2) ) {
-					syntax = SYNTAX_ERROR_OR_STATUS_UNKNOWN;
-					errorMessage = errorMessage + level + "(" + kw1 + ") Duplicated <KEYWORD>.\n";
-				}
+			for (String kwStr : getDuplicatedKeyWords()) {
+				syntax = SYNTAX_ERROR_OR_STATUS_UNKNOWN;
+				errorMessage = errorMessage + level + "(" + kwStr + ") Duplicated <KEYWORD>.\n";
 			}
 			int tokensNumber = initialTokens.size();
 			Stack<SyntaxStackElement> syntaxStack = new Stack<SyntaxStackElement>();
@@ -5233,6 +5536,20 @@ public class Expression {
 			recursionCallsCounter = 0;
 			return Double.NaN;
 		}
+		/*
+		 * Compiled evaluation - initial tokens are compiled once
+		 * into the evaluation tree, which is then reused
+		 * until the expression is modified. Calculus operators
+		 * are calculated by the tokens rewriting, where the
+		 * large iterative operators are calculated in parallel.
+		 */
+		if (evaluationOptions != null)
+			return calculateWithOptions(startTime);
+		if (verboseMode == false) {
+			compileInitialTokens();
+			if ( (compiledExpression != null) && (compiledExpression.calculusNumber == 0) )
+				return calculateCompiled(startTime);
+		}
 		/*
 		 * Building initial tokens only if this is first recursion call
 		 * or we have expression clone, helps to solve problem with
@@ -5700,6 +6017,177 @@ public class Expression {
 		}
 		return result;
 	}
+	/**
+	 * Calculates the expression values for the batch of arguments values.
+	 * Column i provides values of the i-th expression argument
+	 * (null column - current argument value is used), row r of all
+	 * the columns gives the r-th result. Expression is compiled once
+	 * per batch, and arguments are not modified. If the expression is
+	 * not supported by the compiled evaluation (see {@link #compile()})
+	 * all the results are Double.NaN and the error message is set.
+	 *
+	 * @param      columns             the arguments values columns
+	 * @param      out                 the output array, its length
+	 *                                 defines number of rows
+	 *
+	 * @see #compile()
+	 * @see CompiledExpression#calculate(double[][], double[])
+	 */
+	public void calculate(double[][] columns, double[] out) {
+		CompiledExpression compiledExpression = compile();
+		if (compiledExpression == null) {
+			this.errorMessage = errorMessage + "\n" + "[" + description + "][" + expressionString + "] " + "Batch calculation is supported only by the compiled evaluation.\n";
+			for (int r = 0; r < out.length; r++)
+				out[r] = Double.NaN;
+			return;
+		}
+		compiledExpression.calculate(columns, out);
+	}
+	/**
+	 * Compiles initial tokens into the evaluation tree
+	 * if this was not done for the current initial tokens.
+	 */
+	private void compileInitialTokens() {
+		if (compiledTokens != initialTokens) {
+			compiledExpression = ExpressionCompiler.compile(this, initialTokens);
+			compiledTokens = initialTokens;
+		}
+	}
+	/**
+	 * Checks syntax if needed and gets the evaluation tree.
+	 *
+	 * @return     Compiled expression if syntax is correct and
+	 *             expression is supported by the compiled evaluation,
+	 *             otherwise null.
+	 */
+	CompiledExpression getCompiledExpression() {
+		if ( (expressionWasModified == true) || (syntaxStatus != NO_SYNTAX_ERRORS) )
+			syntaxStatus = checkSyntax();
+		if ( syntaxStatus == SYNTAX_ERROR_OR_STATUS_UNKNOWN)
+			return null;
+		compileInitialTokens();
+		return compiledExpression;
+	}
+	/**
+	 * Compiles the expression into the immutable form which can be
+	 * evaluated from many threads at once, with arguments values passed
+	 * in the {@link EvaluationContext}. Dependent arguments and user
+	 * defined functions used by the expression are compiled as well.
+	 * Calculus operators (sum, prod, avg, der, int, solve, ...) are
+	 * compiled with their parameters as internal sub-expressions,
+	 * iterative operators of the compiled expression are always
+	 * calculated in the calling thread.
+	 *
+	 * @return     Compiled expression if syntax is correct and
+	 *             expression (including dependent arguments and user
+	 *             defined functions) is supported by the compiled
+	 *             evaluation, otherwise null.
+	 *
+	 * @see CompiledExpression
+	 */
+	public CompiledExpression compile() {
+		return CompiledExpression.share(this);
+	}
+	/**
+	 * Compiles the expression into the JVM bytecode exposed as the
+	 * unary, binary or n-ary function of the given arguments. Dependent
+	 * arguments and user defined functions used by the expression are
+	 * inlined, other arguments values are read on each call.
+	 * If the expression is not supported by the bytecode compiler
+	 * the returned function evaluates the compiled expression
+	 * (see {@link BytecodeFunction#isBytecode()}).
+	 *
+	 * @param      parametersNames     the names of the arguments passed
+	 *                                 as the function parameters (in the order
+	 *                                 of parameters), no names - all the
+	 *                                 expression arguments
+	 *
+	 * @return     Compiled function if syntax is correct and expression is
+	 *             supported by the compiled evaluation (see {@link #compile()}),
+	 *             otherwise null.
+	 *
+	 * @see BytecodeFunction
+	 */
+	public BytecodeFunction compileToBytecode(String... parametersNames) {
+		Argument[] parameters;
+		if (parametersNames.length == 0)
+			parameters = argumentsList.toArray(new Argument[argumentsList.size()]);
+		else {
+			parameters = new Argument[parametersNames.length];
+			for (int i = 0; i < parametersNames.length; i++)
+				parameters[i] = getArgument(parametersNames[i]);
+		}
+		return BytecodeCompiler.compile(this, parameters);
+	}
+	/**
+	 * Attaches evaluation options to the expression - options are
+	 * applied by the {@link #calculate()} instead of the global settings.
+	 * Calculation with options uses the compiled evaluation, where
+	 * the arguments are not modified (see {@link #compile()}) and the
+	 * options are applied also to the functions of the calculus operators,
+	 * expressions not supported by the compiled evaluation are
+	 * calculated to Double.NaN.
+	 *
+	 * For repeated calculations it is more efficient to compile the
+	 * expression once and to pass the options in the evaluation context.
+	 *
+	 * @param      evaluationOptions   the evaluation options,
+	 *                                 null - global settings are used
+	 *
+	 * @see EvaluationOptions
+	 * @see EvaluationContext#setOptions(EvaluationOptions)
+	 */
+	public void setEvaluationOptions(EvaluationOptions evaluationOptions) {
+		this.evaluationOptions = evaluationOptions;
+	}
+	/**
+	 * Gets evaluation options attached to the expression.
+	 *
+	 * @return     Evaluation options, null if global settings are used.
+	 */
+	public EvaluationOptions getEvaluationOptions() {
+		return evaluationOptions;
+	}
+	/**
+	 * Calculates the expression value with the attached evaluation options.
+	 *
+	 * @param      startTime           the calculation start time
+	 *
+	 * @return     The expression value.
+	 */
+	private double calculateWithOptions(long startTime) {
+		CompiledExpression compiledExpression = compile();
+		if (compiledExpression == null) {
+			this.errorMessage = errorMessage + "\n" + "[" + description + "][" + expressionString + "] " + "Evaluation options are supported only by the compiled evaluation.\n";
+			return Double.NaN;
+		}
+		EvaluationContext context = compiledExpression.createContext();
+		context.setOptions(evaluationOptions);
+		double result = compiledExpression.calculate(context);
+		long endTime = System.currentTimeMillis();
+		computingTime = (endTime - startTime)/1000.0;
+		return result;
+	}
+	/**
+	 * Calculates the expression value using the compiled evaluation tree.
+	 *
+	 * @param      startTime           the calculation start time
+	 *
+	 * @return     The expression value.
+	 */
+	private double calculateCompiled(long startTime) {
+		if (recursionCallsCounter >= mXparser.MAX_RECURSION_CALLS) {
+			recursionCallsCounter = 0;
+			this.errorMessage = errorMessage + "\n" + "[" + description + "][" + expressionString + "] " + "Maximum recursion calls reached.\n";
+			return Double.NaN;
+		}
+		recursionCallsCounter++;
+		double result = compiledExpression.evaluate(this, recursionCallsCounter);
+		long endTime = System.currentTimeMillis();
+		computingTime = (endTime - startTime)/1000.0;
+		recursionCallsCounter = 0;
+		return CompiledNode.almostIntRound(result);
+	}
 	/**
 	 * Calculates unary function
 	 * @param pos    token position
@@ -6705,56 +7193,214 @@ public class Expression {
 				checkFraction(token);
 		}
 	}
+	/**
+	 * Gets built-in key words trie shared by expressions
+	 * of the same key words variant.
+	 *
+	 * @return     Built-in key words trie.
+	 */
+	private KeyWordsTrie getBuiltinKeyWordsTrie() {
+		int variant = 0;
+		if (parserKeyWordsOnly) variant += 1;
+		if (UDFExpression) variant += 2;
+		synchronized (builtinKeyWordsTries) {
+			KeyWordsTrie trie = builtinKeyWordsTries[variant];
+			if ( (trie != null) && (trie.optionsChangesetNumber == mXparser.optionsChangesetNumber) )
+				return trie;
+			keyWordsList = new ArrayList<KeyWord>();
+			addParserKeyWords();
+			trie = new KeyWordsTrie(keyWordsList);
+			trie.optionsChangesetNumber = mXparser.optionsChangesetNumber;
+			for (KeyWord kw : keyWordsList) {
+				if (kw.wordTypeId == ParserSymbol.NUMBER_TYPE_ID)
+					trie.numberKeyWord = kw;
+				if (kw.wordTypeId == Operator.TYPE_ID) {
+					if (kw.wordId == Operator.PLUS_ID)
+						trie.plusKeyWord = kw;
+					if (kw.wordId == Operator.MINUS_ID)
+						trie.minusKeyWord = kw;
+				}
+			}
+			List<KeyWord> sortedKeyWords = new ArrayList<KeyWord>(keyWordsList);
+			java.util.Collections.sort(sortedKeyWords, new KwStrComparator() );
+			for (int kwId = 1; kwId < sortedKeyWords.size(); kwId++)
+				if ( sortedKeyWords.get(kwId-1).wordString.equals(sortedKeyWords.get(kwId).wordString) )
+					trie.duplicatedKeyWords.add(sortedKeyWords.get(kwId).wordString);
+			keyWordsList = null;
+			builtinKeyWordsTries[variant] = trie;
+			return trie;
+		}
+	}
+	/**
+	 * Gets names of the user defined tokens overriding
+	 * built-in key words.
+	 *
+	 * @return     Set of names, or null if built-in key words
+	 *             are not overridden.
+	 */
+	private Set<String> getOverridingNames() {
+		if (mXparser.overrideBuiltinTokens == false) return null;
+		Set<String> userDefinedTokens = new HashSet<String>();
+		for (Argument arg : argumentsList)
+			userDefinedTokens.add( arg.getArgumentName() );
+		for (Function fun : functionsList)
+			userDefinedTokens.add( fun.getFunctionName() );
+		for (Constant cons : constantsList)
+			userDefinedTokens.add( cons.getConstantName() );
+		if (userDefinedTokens.isEmpty()) return null;
+		return userDefinedTokens;
+	}
+	/**
+	 * Checks whether built-in key word is overridden
+	 * by user defined token.
+	 *
+	 * @param      kw                  the built-in key word
+	 *
+	 * @return     true if key word is overridden, otherwise false.
+	 */
+	private boolean isOverridden(KeyWord kw) {
+		if (overridingNames == null) return false;
+		return overridingNames.contains(kw.wordString);
+	}
+	/**
+	 * Checks whether character can precede or follow
+	 * key word in the form of identifier.
+	 *
+	 * @param      c                   the character
+	 *
+	 * @return     true if character separates key words, otherwise false.
+	 */
+	private static boolean isKeyWordSeparator(char c) {
+		switch (c) {
+			case ' ': case ',': case ';': case '|': case '&': case '+': case '-':
+			case '*': case '\\': case '/': case '(': case ')': case '=': case '>':
+			case '<': case '~': case '^': case '#': case '%': case '@': case '!':
+				return true;
+			default:
+				return false;
+		}
+	}
+	/**
+	 * Checks whether key word matched at the given position
+	 * is properly separated from preceding and following words.
+	 *
+	 * @param      str                 the expression string
+	 * @param      pos                 the key word position
+	 * @param      kw                  the key word
+	 *
+	 * @return     true if key word can be accepted, otherwise false.
+	 */
+	private static boolean isKeyWordSeparated(String str, int pos, KeyWord kw) {
+		/*
+		 * Only key words in the form of identifier
+		 * require separation
+		 */
+		if (	(kw.wordTypeId != Argument.TYPE_ID) &&
+				(kw.wordTypeId != RecursiveArgument.TYPE_ID_RECURSIVE) &&
+				(kw.wordTypeId != Function1Arg.TYPE_ID) &&
+				(kw.wordTypeId != Function2Arg.TYPE_ID) &&
+				(kw.wordTypeId != Function3Arg.TYPE_ID) &&
+				(kw.wordTypeId != FunctionVariadic.TYPE_ID) &&
+				(kw.wordTypeId != ConstantValue.TYPE_ID) &&
+				(kw.wordTypeId != Constant.TYPE_ID) &&
+				(kw.wordTypeId != RandomVariable.TYPE_ID) &&
+				(kw.wordTypeId != Unit.TYPE_ID) &&
+				(kw.wordTypeId != Function.TYPE_ID) &&
+				(kw.wordTypeId != CalculusOperator.TYPE_ID)	) return true;
+		if ( (pos > 0) && (!isKeyWordSeparator(str.charAt(pos-1))) )
+			return false;
+		int end = pos + kw.wordString.length();
+		if ( (end < str.length()) && (!isKeyWordSeparator(str.charAt(end))) )
+			return false;
+		return true;
+	}
+	/**
+	 * Finds the best key word match at the given position -
+	 * the longest key word properly separated from other words,
+	 * built-in key words first if key words are of the same length.
+	 *
+	 * @param      str                 the expression string
+	 * @param      pos                 the current position
+	 * @param      builtinPath         the path buffer for built-in key words
+	 * @param      userPath            the path buffer for user defined key words
+	 *
+	 * @return     Key word if found, otherwise null.
+	 */
+	private KeyWord matchKeyWord(String str, int pos, KeyWordsTrie.Node[] builtinPath, KeyWordsTrie.Node[] userPath) {
+		int builtinDepth = builtinKeyWords.walk(str, pos, builtinPath);
+		int userDepth = userKeyWords.walk(str, pos, userPath);
+		for (int len = Math.max(builtinDepth, userDepth); len > 0; len--) {
+			if (len <= builtinDepth)
+				for (KeyWord kw : builtinPath[len-1].keyWords)
+					if ( (!isOverridden(kw)) && (isKeyWordSeparated(str, pos, kw)) )
+						return kw;
+			if (len <= userDepth)
+				for (KeyWord kw : userPath[len-1].keyWords)
+					if (isKeyWordSeparated(str, pos, kw))
+						return kw;
+		}
+		return null;
+	}
+	/**
+	 * Gets duplicated key words (one entry for each duplicate),
+	 * sorted by key word string.
+	 *
+	 * @return     List of duplicated key words strings.
+	 */
+	private List<String> getDuplicatedKeyWords() {
+		List<String> duplicated = new ArrayList<String>();
+		for (String kwStr : builtinKeyWords.duplicatedKeyWords)
+			if ( (overridingNames == null) || (!overridingNames.contains(kwStr)) )
+				duplicated.add(kwStr);
+		for (KeyWord kw : userKeyWords.keyWordsList) {
+			KeyWord[] same = userKeyWords.find(kw.wordString);
+			if (same[0] != kw) continue;
+			int n = same.length - 1;
+			for (KeyWord builtinKw : builtinKeyWords.find(kw.wordString))
+				if (!isOverridden(builtinKw)) n++;
+			for (int i = 0; i < n; i++)
+				duplicated.add(kw.wordString);
+		}
+		java.util.Collections.sort(duplicated);
+		return duplicated;
+	}
 	/**
 	 * Tokenizing expression string
 	 */
 	private void tokenizeExpressionString() {
 		/*
-		 * Add parser and argument key words
+		 * Built-in key words are shared, user defined
+		 * key words are collected for each tokenization
 		 */
+		builtinKeyWords = getBuiltinKeyWordsTrie();
+		overridingNames = getOverridingNames();
 		keyWordsList = new ArrayList<KeyWord>();
-		addParserKeyWords();
-		validateParserKeyWords();
 		if (parserKeyWordsOnly == false) {
 			addArgumentsKeyWords();
 			addFunctionsKeyWords();
 			addConstantsKeyWords();
 		}
-		java.util.Collections.sort(keyWordsList, new DescKwLenComparator());
+		userKeyWords = new KeyWordsTrie(keyWordsList);
+		keyWordsList = null;
 		/*
-		 * Evaluate position after sorting for the following keywords types
-		 *    number
-		 *    plus operator
-		 *    minus operator
-		 *
-		 * Above mentioned information is required
-		 * when distinguishing between numbers (regexp) and operators
+		 * Key words used when distinguishing between
+		 * numbers (regexp) and operators
 		 *
 		 * For example
 		 *
 		 * 1-2 : two numbers and one operator, but -2 is also a valid number
 		 * (-2)+3 : two number and one operator
 		 */
-		int numberKwId = ConstantValue.NaN;
-		int plusKwId = ConstantValue.NaN;
-		int minusKwId = ConstantValue.NaN;
-		for (int kwId = 0; kwId < keyWordsList.size(); kwId++) {
-			if ( keyWordsList.get(kwId).wordTypeId == ParserSymbol.NUMBER_TYPE_ID)
-				numberKwId = kwId;
-			if ( keyWordsList.get(kwId).wordTypeId == Operator.TYPE_ID) {
-				if (keyWordsList.get(kwId).wordId == Operator.PLUS_ID)
-					plusKwId = kwId;
-				if (keyWordsList.get(kwId).wordId == Operator.MINUS_ID)
-					minusKwId = kwId;
-			}
-		}
+		KeyWord numberKw = builtinKeyWords.numberKeyWord;
+		KeyWord plusKw = builtinKeyWords.plusKeyWord;
+		KeyWord minusKw = builtinKeyWords.minusKeyWord;
 		initialTokens = new ArrayList<Token>();
 		int expLen = expressionString.length();
 		if (expLen == 0) return;
 		/*
 		 * Clearing expression string from spaces
 		 */
-		String newExpressionString = "";
+		StringBuilder expressionStringBuilder = new StringBuilder(expLen);
 		char c;
 		int blankCnt = 0;
 		int newExpLen = 0;
@@ -6763,14 +7409,15 @@ public class Expression {
 			if ( (c == ' ') || (c == '\n') || (c == '\r') || (c == '\t') || (c == '\f') ) {
 				blankCnt++;
 			} else if (blankCnt > 0) {
-				if (newExpLen > 0) newExpressionString = newExpressionString + " ";
+				if (newExpLen > 0) expressionStringBuilder.append(' ');
 				blankCnt = 0;
 			}
 			if (blankCnt == 0) {
-				newExpressionString = newExpressionString + c;
+				expressionStringBuilder.append(c);
 				newExpLen++;
 			}
 		}
+		String newExpressionString = expressionStringBuilder.toString();
 		/*
 		 * words list and tokens list
 		 */
@@ -6781,11 +7428,13 @@ public class Expression {
 		int matchStatusPrev = NOT_FOUND; /* unknown key word (previous) */
 		int matchStatus = NOT_FOUND; /* unknown key word (current) */
 		KeyWord kw = null;
-		String sub = "";
 		String kwStr = "";
 		char precedingChar;
 		char followingChar;
 		char firstChar;
+		Matcher numberMatcher = mXparser.getPattern(ParserSymbol.DECIMAL_REG_EXP).matcher(newExpressionString);
+		KeyWordsTrie.Node[] builtinPath = new KeyWordsTrie.Node[builtinKeyWords.maxLength];
+		KeyWordsTrie.Node[] userPath = new KeyWordsTrie.Node[userKeyWords.maxLength];
 		/*
 		 * Check all available positions in the expression tokens list
 		 */
@@ -6841,8 +7490,8 @@ public class Expression {
 					/*
 					 * Checking if substring represents number
 					 */
-					String str = newExpressionString.substring(pos, i+1);
-					if ( mXparser.regexMatch(str, ParserSymbol.DECIMAL_REG_EXP) )
+					numberMatcher.region(pos, i+1);
+					if ( numberMatcher.matches() )
 						numEnd = i;
 				}
 			}
@@ -6950,16 +7599,16 @@ public class Expression {
 					 * Add leading operator to the tokens list
 					 */
 					if (firstChar == '-')
-						addToken("-", keyWordsList.get(minusKwId));
+						addToken("-", minusKw);
 					if (firstChar == '+')
-						addToken("+", keyWordsList.get(plusKwId));
+						addToken("+", plusKw);
 					pos++;
 				}
 				/*
 				 * Add found number to the tokens list
 				 */
 				tokenStr = newExpressionString.substring(pos, numEnd+1);
-				addToken(tokenStr, keyWordsList.get(numberKwId));
+				addToken(tokenStr, numberKw);
 				/*
 				 * change current position (just after the number ends)
 				 */
@@ -6975,96 +7624,11 @@ public class Expression {
 				 * If there is no number which starts with current position
 				 * Check for known key words
 				 */
-				int kwId = -1;
-				matchStatus = NOT_FOUND;
-				do {
-					kwId++;
-					kw = keyWordsList.get(kwId);
+				kw = matchKeyWord(newExpressionString, pos, builtinPath, userPath);
+				if (kw != null) {
+					matchStatus = FOUND;
 					kwStr = kw.wordString;
-					if (pos + kwStr.length() <= newExpressionString.length()) {
-						sub = newExpressionString.substring(pos, pos + kwStr.length() );
-						if (sub.equals(kwStr))
-							matchStatus = FOUND;
-						/*
-						 * If key word is known by the parser
-						 */
-						if (matchStatus == FOUND) {
-							/*
-							 * If key word is in the form of identifier
-							 * then check preceding and following characters
-							 */
-							if (	(kw.wordTypeId == Argument.TYPE_ID) ||
-									(kw.wordTypeId == RecursiveArgument.TYPE_ID_RECURSIVE) ||
-									(kw.wordTypeId == Function1Arg.TYPE_ID) ||
-									(kw.wordTypeId == Function2Arg.TYPE_ID) ||
-									(kw.wordTypeId == Function3Arg.TYPE_ID) ||
-									(kw.wordTypeId == FunctionVariadic.TYPE_ID) ||
-									(kw.wordTypeId == ConstantValue.TYPE_ID) ||
-									(kw.wordTypeId == Constant.TYPE_ID) ||
-									(kw.wordTypeId == RandomVariable.TYPE_ID) ||
-									(kw.wordTypeId == Unit.TYPE_ID) ||
-									(kw.wordTypeId == Function.TYPE_ID) ||
-									(kw.wordTypeId == CalculusOperator.TYPE_ID)	) {
-								/*
-								 * Checking preceding character
-								 */
-								if (pos > 0) {
-									precedingChar = newExpressionString.charAt(pos-1);
-									if (
-											( precedingChar != ' ' ) &&
-											( precedingChar != ',' ) &&
-											( precedingChar != ';' ) &&
-											( precedingChar != '|' ) &&
-											( precedingChar != '&' ) &&
-											( precedingChar != '+' ) &&
-											( precedingChar != '-' ) &&
-											( precedingChar != '*' ) &&
-											( precedingChar != '\\' ) &&
-											( precedingChar != '/' ) &&
-											( precedingChar != '(' ) &&
-											( precedingChar != ')' ) &&
-											( precedingChar != '=' ) &&
-											( precedingChar != '>' ) &&
-											( precedingChar != '<' ) &&
-											( precedingChar != '~' ) &&
-											( precedingChar != '^' ) &&
-											( precedingChar != '#' ) &&
-											( precedingChar != '%' ) &&
-											( precedingChar != '@' ) &&
-											( precedingChar != '!' ) ) matchStatus = NOT_FOUND;
-								}
-								/*
-								 * Checking following character
-								 */
-								if ( (matchStatus == FOUND) && ( pos + kwStr.length() < newExpressionString.length() ) ) {
-									followingChar = newExpressionString.charAt(pos + kwStr.length());
-									if (
-											( followingChar != ' ' ) &&
-											( followingChar != ',' ) &&
-											( followingChar != ';' ) &&
-											( followingChar != '|' ) &&
-											( followingChar != '&' ) &&
-											( followingChar != '+' ) &&
-											( followingChar != '-' ) &&
-											( followingChar != '*' ) &&
-											( followingChar != '\\' ) &&
-											( followingChar != '/' ) &&
-											( followingChar != '(' ) &&
-											( followingChar != ')' ) &&
-											( followingChar != '=' ) &&
-											( followingChar != '>' ) &&
-											( followingChar != '<' ) &&
-											( followingChar != '~' ) &&
-											( followingChar != '^' ) &&
-											( followingChar != '#' ) &&
-											( followingChar != '%' ) &&
-											( followingChar != '@' ) &&
-											( followingChar != '!' ) ) matchStatus = NOT_FOUND;
-								}
-							}
-						}
-					}
-				} while ( (kwId < keyWordsList.size()-1) && (matchStatus == NOT_FOUND) );
+				} else matchStatus = NOT_FOUND;
 				/*
 				 * If key word known by the parser was found
 				 */
@@ -7305,6 +7869,13 @@ public class Expression {
 	 * shows known keywords
 	 */
 	void showKeyWords() {
+		List<KeyWord> keyWordsList = new ArrayList<KeyWord>();
+		if (builtinKeyWords != null) {
+			for (KeyWord kw : builtinKeyWords.keyWordsList)
+				if (!isOverridden(kw))
+					keyWordsList.add(kw);
+			keyWordsList.addAll(userKeyWords.keyWordsList);
+		}
 		int keyWordsNumber = keyWordsList.size();
 		String maxStr = "KEY_WORD";
 		mXparser.consolePrintln("KEY WORDS:");
@@ -7519,6 +8090,10 @@ public class Expression {
 		Expression newExp = new Expression(this);
 		if ( (initialTokens != null) && (initialTokens.size() > 0) )
 			newExp.initialTokens = createInitialTokens(0, initialTokens.size()-1, initialTokens);
+		if ( (compiledTokens != null) && (compiledTokens == initialTokens) ) {
+			newExp.compiledExpression = compiledExpression;
+			newExp.compiledTokens = newExp.initialTokens;
+		}
 		return newExp;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,732 @@
+/*
+ * @(#)ExpressionCompiler.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mariuszgromada.math.mxparser.parsertokens.BinaryRelation;
+import org.mariuszgromada.math.mxparser.parsertokens.BitwiseOperator;
+import org.mariuszgromada.math.mxparser.parsertokens.BooleanOperator;
+import org.mariuszgromada.math.mxparser.parsertokens.CalculusOperator;
+import org.mariuszgromada.math.mxparser.parsertokens.ConstantValue;
+import org.mariuszgromada.math.mxparser.parsertokens.Function1Arg;
+import org.mariuszgromada.math.mxparser.parsertokens.Function2Arg;
+import org.mariuszgromada.math.mxparser.parsertokens.Function3Arg;
+import org.mariuszgromada.math.mxparser.parsertokens.FunctionVariadic;
+import org.mariuszgromada.math.mxparser.parsertokens.Operator;
+import org.mariuszgromada.math.mxparser.parsertokens.ParserSymbol;
+import org.mariuszgromada.math.mxparser.parsertokens.RandomVariable;
+import org.mariuszgromada.math.mxparser.parsertokens.Token;
+import org.mariuszgromada.math.mxparser.parsertokens.Unit;
+
+/**
+ * Package level compiler translating the checked tokens list
+ * of the expression into the tree of {@link CompiledNode}.
+ *
+ * Compilation replays the tokens rewriting loop of the
+ * {@link Expression#calculate()} method (the same precedence
+ * rules, the same order of operations, the same places where
+ * ULP rounding is applied), but instead of computing values
+ * it builds nodes. In this way the tree is evaluated
+ * exactly as the tokens list would be, while the tokens
+ * are not copied and scanned on each calculation.
+ * Each if / iff function, argument and random variable
+ * occurrence receives its own slot in the {@link EvaluationFrame}.
+ *
+ * Parameters of the calculus operators are compiled as separate
+ * sub-expressions (as the internal expressions of the tokens
+ * rewriting), the summation index or the function argument not
+ * present on the expression arguments list is replaced by the
+ * argument private to the compiled operator.
+ *
+ * If the tokens list contains elements not supported by
+ * the compiled evaluation the compiler returns null and
+ * the expression is calculated in the standard way.
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ *
+ * @see CompiledNode
+ * @see CompiledExpression
+ * @see Expression
+ */
+final class ExpressionCompiler {
+	/**
+	 * Element of the list being compiled - token or already compiled node.
+	 */
+	private static final class Item {
+		int typeId;
+		int tokenId;
+		int level;
+		String tokenStr;
+		CompiledNode node;
+		Item(Token token) {
+			typeId = token.tokenTypeId;
+			tokenId = token.tokenId;
+			level = token.tokenLevel;
+			tokenStr = token.tokenStr;
+			if (typeId == ParserSymbol.NUMBER_TYPE_ID)
+				node = new CompiledNode.Number(token.tokenValue);
+		}
+		Item(Item item) {
+			typeId = item.typeId;
+			tokenId = item.tokenId;
+			level = item.level;
+			tokenStr = item.tokenStr;
+			node = item.node;
+		}
+		Item(CompiledNode node, int level) {
+			this.typeId = ParserSymbol.NUMBER_TYPE_ID;
+			this.tokenId = ParserSymbol.NUMBER_ID;
+			this.level = level;
+			this.node = node;
+		}
+		void setNode(CompiledNode node) {
+			this.typeId = ParserSymbol.NUMBER_TYPE_ID;
+			this.tokenId = ParserSymbol.NUMBER_ID;
+			this.node = node;
+		}
+	}
+	/**
+	 * Signals that the tokens list can not be compiled.
+	 */
+	private static final class NotCompilable extends Exception {
+		private static final long serialVersionUID = 1L;
+	}
+	private static final NotCompilable NOT_COMPILABLE = new NotCompilable();
+	/**
+	 * Expression being compiled
+	 */
+	private final Expression expression;
+	/**
+	 * Number of the frame slots for arguments and random variables
+	 */
+	private int valuesNumber;
+	/**
+	 * Number of the frame slots for if / iff decisions
+	 */
+	private int decisionsNumber;
+	/**
+	 * Number of the frame slots for parameters arrays
+	 */
+	private int arraysNumber;
+	/**
+	 * Number of the frame slots for calculus operators
+	 */
+	private int calculusNumber;
+	/**
+	 * Frames used to evaluate constant sub-trees,
+	 * one per folding variant
+	 */
+	private EvaluationFrame[] foldingFrames;
+	/**
+	 * Private constructor.
+	 *
+	 * @param      expression          the expression
+	 */
+	private ExpressionCompiler(Expression expression) {
+		this.expression = expression;
+		valuesNumber = 0;
+		decisionsNumber = 0;
+		arraysNumber = 0;
+		calculusNumber = 0;
+	}
+	/**
+	 * Compiles the tokens list of the expression.
+	 *
+	 * @param      expression          the expression (syntax checked)
+	 * @param      tokens              the initial tokens list
+	 *
+	 * @return     Compiled expression if tokens list is supported
+	 *             by the compiled evaluation, otherwise null.
+	 */
+	static CompiledExpression compile(Expression expression, List<Token> tokens) {
+		if (tokens == null) return null;
+		if (tokens.size() == 0) return null;
+		ExpressionCompiler compiler = new ExpressionCompiler(expression);
+		List<Item> items = new ArrayList<Item>(tokens.size());
+		for (Token token : tokens)
+			items.add( new Item(token) );
+		CompiledNode root;
+		try {
+			root = compiler.compileItems(items, expression.disableUlpRounding);
+		} catch (NotCompilable e) {
+			return null;
+		} catch (IndexOutOfBoundsException e) {
+			return null;
+		}
+		return new CompiledExpression(root, compiler.valuesNumber, compiler.decisionsNumber, compiler.arraysNumber, compiler.calculusNumber);
+	}
+	/**
+	 * Compiled node of the item, fails if item is not compiled.
+	 *
+	 * @param      items               the items list
+	 * @param      pos                 the item position
+	 *
+	 * @return     Compiled node.
+	 *
+	 * @throws     NotCompilable       if item is not compiled
+	 */
+	private static CompiledNode nodeAt(List<Item> items, int pos) throws NotCompilable {
+		CompiledNode node = items.get(pos).node;
+		if (node == null) throw NOT_COMPILABLE;
+		return node;
+	}
+	private static boolean isNumber(List<Item> items, int pos) {
+		if (pos < 0) return false;
+		if (pos >= items.size()) return false;
+		return items.get(pos).node != null;
+	}
+	/**
+	 * Numbers directly following the position (see Expression.getNumbers()).
+	 */
+	private static List<CompiledNode> getNumbers(List<Item> items, int pos) {
+		List<CompiledNode> numbers = new ArrayList<CompiledNode>();
+		for (int p = pos + 1; p < items.size(); p++) {
+			CompiledNode node = items.get(p).node;
+			if (node == null) break;
+			numbers.add(node);
+		}
+		return numbers;
+	}
+	private static CompiledNode[] toArray(List<CompiledNode> nodes) {
+		CompiledNode[] array = new CompiledNode[nodes.size()];
+		return nodes.toArray(array);
+	}
+	/**
+	 * Function parameters (see Expression.getFunctionParameters()).
+	 *
+	 * @param      items               the items list
+	 * @param      pos                 the function position
+	 * @param      parameters          the list to be filled with parameters items
+	 *
+	 * @return     Position of the function closing parenthesis.
+	 */
+	private static int getFunctionParameters(List<Item> items, int pos, List<List<Item>> parameters) {
+		int cPos = pos + 2;
+		int parLevel = items.get(pos+1).level;
+		List<Item> parameter = new ArrayList<Item>();
+		while (true) {
+			Item item = items.get(cPos);
+			boolean paren = false;
+			boolean comma = false;
+			if ( (item.level == parLevel) && (item.typeId == ParserSymbol.TYPE_ID) ) {
+				if (item.tokenId == ParserSymbol.RIGHT_PARENTHESES_ID)
+					paren = true;
+				else if (item.tokenId == ParserSymbol.COMMA_ID)
+					comma = true;
+			}
+			if (paren || comma) {
+				if (cPos > pos + 2) {
+					parameters.add(parameter);
+					parameter = new ArrayList<Item>();
+				}
+			} else
+				parameter.add( new Item(item) );
+			if (paren)
+				return cPos;
+			cPos++;
+		}
+	}
+	/**
+	 * Replaces items from - to (inclusive) with single compiled item.
+	 */
+	private static void replace(List<Item> items, int from, int to, CompiledNode node, int level) {
+		for (int p = to; p > from; p--)
+			items.remove(p);
+		items.set(from, new Item(node, level) );
+	}
+	/**
+	 * If function - condition is compiled as separate sub-expression,
+	 * only the selected branch will be evaluated.
+	 */
+	private void compileIf(List<Item> items, int pos, boolean disableUlpRounding) throws NotCompilable {
+		List<List<Item>> parameters = new ArrayList<List<Item>>();
+		int rPos = getFunctionParameters(items, pos, parameters);
+		if (parameters.size() != 3) throw NOT_COMPILABLE;
+		CompiledNode condition = new CompiledNode.SubExpression( compileItems(parameters.get(0), Expression.KEEP_ULP_ROUNDING_SETTINGS) );
+		CompiledNode ifTrue = compileItems(parameters.get(1), disableUlpRounding);
+		CompiledNode ifFalse = compileItems(parameters.get(2), disableUlpRounding);
+		replace(items, pos, rPos, new CompiledNode.If(condition, ifTrue, ifFalse, decisionsNumber++), items.get(pos).level - 1);
+	}
+	/**
+	 * Iff function - conditions are compiled as separate sub-expressions,
+	 * only the selected branch will be evaluated.
+	 */
+	private void compileIff(List<Item> items, int pos, boolean disableUlpRounding) throws NotCompilable {
+		List<List<Item>> parameters = new ArrayList<List<Item>>();
+		int rPos = getFunctionParameters(items, pos, parameters);
+		int n = parameters.size() / 2;
+		CompiledNode[] conditions = new CompiledNode[n];
+		CompiledNode[] branches = new CompiledNode[n];
+		for (int i = 0; i < n; i++) {
+			conditions[i] = new CompiledNode.SubExpression( compileItems(parameters.get(2*i), Expression.KEEP_ULP_ROUNDING_SETTINGS) );
+			branches[i] = compileItems(parameters.get(2*i+1), disableUlpRounding);
+		}
+		replace(items, pos, rPos, new CompiledNode.Iff(conditions, branches, decisionsNumber++), items.get(pos).level - 1);
+	}
+	/**
+	 * Calculus operator - parameters are compiled as separate sub-expressions
+	 * (range of the iterative operators keeps the ULP rounding settings, other
+	 * parameters are compiled with ULP rounding disabled). Index argument
+	 * not present on the arguments list is replaced in all the parameters
+	 * by the new argument private to the node (see Expression.getParamArgument()).
+	 */
+	private void compileCalculus(List<Item> items, int pos, boolean disableUlpRounding) throws NotCompilable {
+		int operatorId = items.get(pos).tokenId;
+		List<List<Item>> parameters = new ArrayList<List<Item>>();
+		int rPos = getFunctionParameters(items, pos, parameters);
+		int n = parameters.size();
+		if (!CompiledNode.isCalculusSupported(operatorId, n)) throw NOT_COMPILABLE;
+		List<Item> indexParameter = parameters.get(CompiledNode.calculusIndexPosition(operatorId));
+		if (indexParameter.size() != 1) throw NOT_COMPILABLE;
+		Item indexItem = indexParameter.get(0);
+		Argument index;
+		if (indexItem.typeId == Argument.TYPE_ID)
+			index = expression.argumentsList.get(indexItem.tokenId);
+		else if (indexItem.node instanceof CompiledNode.ArgumentValue)
+			index = ((CompiledNode.ArgumentValue)indexItem.node).argument;
+		else if ( (indexItem.typeId == ConstantValue.NaN) && (indexItem.node == null) ) {
+			index = new Argument(indexItem.tokenStr);
+			for (List<Item> parameter : parameters)
+				for (Item item : parameter)
+					if ( (item.typeId == ConstantValue.NaN) && (item.node == null) && (item.tokenStr.equals(indexItem.tokenStr)) )
+						item.setNode( new CompiledNode.ArgumentValue(index, valuesNumber++) );
+		} else
+			throw NOT_COMPILABLE;
+		CompiledNode[] nodes = new CompiledNode[n];
+		for (int i = 0; i < n; i++) {
+			boolean disableParameterUlpRounding = Expression.DISABLE_ULP_ROUNDING;
+			if (CompiledNode.isCalculusRange(operatorId, i))
+				disableParameterUlpRounding = Expression.KEEP_ULP_ROUNDING_SETTINGS;
+			nodes[i] = new CompiledNode.SubExpression( compileItems(parameters.get(i), disableParameterUlpRounding) );
+		}
+		boolean ulpRound = (!disableUlpRounding) && CompiledNode.isCalculusUlpRounded(operatorId);
+		replace(items, pos, rPos, new CompiledNode.CalculusOperation(operatorId, index, nodes, ulpRound, calculusNumber++), items.get(pos).level - 1);
+	}
+	/**
+	 * Leaves - arguments, constants, units, random variables.
+	 */
+	private void compileLeaf(Item item) throws NotCompilable {
+		switch (item.typeId) {
+		case Argument.TYPE_ID:
+			Argument argument = expression.argumentsList.get(item.tokenId);
+			item.setNode( new CompiledNode.ArgumentValue(argument, valuesNumber++) );
+			break;
+		case ConstantValue.TYPE_ID:
+			if (item.tokenId == ConstantValue.NPAR_ID)
+				item.setNode( new CompiledNode.UDFParametersNumber() );
+			else
+				item.setNode( new CompiledNode.Number(Expression.getBuiltinConstantValue(item.tokenId)) );
+			break;
+		case Unit.TYPE_ID:
+			item.setNode( new CompiledNode.Number(Expression.getUnitValue(item.tokenId)) );
+			break;
+		case Constant.TYPE_ID:
+			item.setNode( new CompiledNode.Number(expression.constantsList.get(item.tokenId).getConstantValue()) );
+			break;
+		case RandomVariable.TYPE_ID:
+			item.setNode( new CompiledNode.RandomVariableValue(item.tokenId, valuesNumber++) );
+			break;
+		}
+	}
+	/**
+	 * Constant folding - node with all the children constant is evaluated
+	 * once at compile time. Values of all folding variants are calculated
+	 * (ULP rounding and degrees mode), so result of the compiled expression
+	 * does not depend on the settings at the moment of compilation.
+	 *
+	 * @param      node                the node
+	 *
+	 * @return     Folded constant node if node can be folded,
+	 *             otherwise the node itself.
+	 */
+	private CompiledNode fold(CompiledNode node) {
+		if (!node.isFoldable()) return node;
+		for (CompiledNode child : node.children)
+			if (!child.isConstant()) return node;
+		if (foldingFrames == null) {
+			foldingFrames = new EvaluationFrame[CompiledNode.FOLDING_VARIANTS];
+			for (int variant = 0; variant < CompiledNode.FOLDING_VARIANTS; variant++)
+				foldingFrames[variant] = new EvaluationFrame();
+		}
+		double[] values = new double[CompiledNode.FOLDING_VARIANTS];
+		boolean variantsEqual = true;
+		for (int variant = 0; variant < CompiledNode.FOLDING_VARIANTS; variant++) {
+			EvaluationFrame frame = foldingFrames[variant];
+			frame.initFolding(CompiledNode.foldingOptions(variant), arraysNumber);
+			values[variant] = node.evaluate(frame);
+			if (Double.doubleToLongBits(values[variant]) != Double.doubleToLongBits(values[0]))
+				variantsEqual = false;
+		}
+		if (variantsEqual)
+			return new CompiledNode.Number(values[0]);
+		return new CompiledNode.FoldedValue(values);
+	}
+	/**
+	 * Unary operator with operand on the right side.
+	 */
+	private void unaryRight(List<Item> items, int pos) throws NotCompilable {
+		Item item = items.get(pos);
+		item.setNode( fold(new CompiledNode.UnaryOperator(item.typeId, item.tokenId, nodeAt(items, pos+1))) );
+		items.remove(pos+1);
+	}
+	/**
+	 * Unary operator with operand on the left side.
+	 */
+	private void unaryLeft(List<Item> items, int pos) throws NotCompilable {
+		Item item = items.get(pos);
+		item.setNode( fold(new CompiledNode.UnaryOperator(item.typeId, item.tokenId, nodeAt(items, pos-1))) );
+		items.remove(pos-1);
+	}
+	/**
+	 * Binary operator.
+	 */
+	private void binary(List<Item> items, int pos, boolean ulpRound) throws NotCompilable {
+		Item item = items.get(pos);
+		item.setNode( fold(new CompiledNode.BinaryOperator(item.typeId, item.tokenId, nodeAt(items, pos-1), nodeAt(items, pos+1), ulpRound)) );
+		items.remove(pos+1);
+		items.remove(pos-1);
+	}
+	/**
+	 * Boolean operator with the right operand evaluated on demand.
+	 */
+	private void shortCircuit(List<Item> items, int pos) throws NotCompilable {
+		Item item = items.get(pos);
+		item.setNode( new CompiledNode.ShortCircuit(item.tokenId, nodeAt(items, pos-1), nodeAt(items, pos+1)) );
+		items.remove(pos+1);
+		items.remove(pos-1);
+	}
+	/**
+	 * Function - sets node, decreases level, removes parameters.
+	 */
+	private void function(List<Item> items, int pos, CompiledNode node, int parametersNumber) {
+		Item item = items.get(pos);
+		item.setNode( fold(node) );
+		item.level--;
+		for (int p = pos + parametersNumber; p > pos; p--)
+			items.remove(p);
+	}
+	private void compileVariadic(List<Item> items, int pos, boolean disableUlpRounding) throws NotCompilable {
+		int functionId = items.get(pos).tokenId;
+		if (!CompiledNode.isVariadicSupported(functionId)) throw NOT_COMPILABLE;
+		List<CompiledNode> numbers = getNumbers(items, pos);
+		boolean ulpRound = (!disableUlpRounding) && CompiledNode.isVariadicUlpRounded(functionId);
+		function(items, pos, new CompiledNode.Variadic(functionId, toArray(numbers), ulpRound, arraysNumber++), numbers.size());
+	}
+	private void compileUserFunction(List<Item> items, int pos) throws NotCompilable {
+		Function function = expression.functionsList.get(items.get(pos).tokenId);
+		List<CompiledNode> numbers = getNumbers(items, pos);
+		int argsNumber;
+		if (function.isVariadic)
+			argsNumber = numbers.size();
+		else
+			argsNumber = function.getParametersNumber();
+		if (argsNumber != numbers.size()) throw NOT_COMPILABLE;
+		function(items, pos, new CompiledNode.UserFunction(function, toArray(numbers), argsNumber, arraysNumber++), argsNumber);
+	}
+	/**
+	 * Replays the tokens rewriting loop of the {@link Expression#calculate()}
+	 * building the tree of compiled nodes.
+	 *
+	 * @param      items               the items list (modified)
+	 * @param      disableUlpRounding  the ULP rounding setting of the scope
+	 *
+	 * @return     Root node.
+	 *
+	 * @throws     NotCompilable       if items can not be compiled
+	 */
+	private CompiledNode compileItems(List<Item> items, boolean disableUlpRounding) throws NotCompilable {
+		if (items.size() == 0) throw NOT_COMPILABLE;
+		boolean ulpRound = !disableUlpRounding;
+		do {
+			int itemsNumber = items.size();
+			/* calculus or if or iff operations ... */
+			boolean found = false;
+			for (int p = 0; p < itemsNumber; p++) {
+				Item item = items.get(p);
+				if (item.typeId == CalculusOperator.TYPE_ID) {
+					compileCalculus(items, p, disableUlpRounding);
+					found = true;
+					break;
+				}
+				if ( (item.typeId == Function3Arg.TYPE_ID) && (item.tokenId == Function3Arg.IF_CONDITION_ID) ) {
+					compileIf(items, p, disableUlpRounding);
+					found = true;
+					break;
+				}
+				if ( (item.typeId == FunctionVariadic.TYPE_ID) && (item.tokenId == FunctionVariadic.IFF_ID) ) {
+					compileIff(items, p, disableUlpRounding);
+					found = true;
+					break;
+				}
+			}
+			if (found) continue;
+			/* leaves and start index of the items with the highest level */
+			int maxPartLevel = -1;
+			int lPos = -1;
+			for (int p = 0; p < itemsNumber; p++) {
+				Item item = items.get(p);
+				if (item.level > maxPartLevel) {
+					maxPartLevel = item.level;
+					lPos = p;
+				}
+				if (item.node == null)
+					compileLeaf(item);
+			}
+			int rPos = lPos;
+			while ( (rPos < itemsNumber) && (items.get(rPos).level == maxPartLevel) )
+				rPos++;
+			rPos--;
+			int recArgPos = -1;
+			int variadicFunPos = -1;
+			int f3ArgPos = -1;
+			int f2ArgPos = -1;
+			int f1ArgPos = -1;
+			int userFunPos = -1;
+			int plusPos = -1;
+			int minusPos = -1;
+			int multiplyPos = -1;
+			int dividePos = -1;
+			int powerPos = -1;
+			int tetrationPos = -1;
+			int powerNum = 0;
+			int factPos = -1;
+			int modPos = -1;
+			int percPos = -1;
+			int negPos = -1;
+			int bolPos = -1;
+			int eqPos = -1;
+			int neqPos = -1;
+			int ltPos = -1;
+			int gtPos = -1;
+			int leqPos = -1;
+			int geqPos = -1;
+			int lParPos = -1;
+			int rParPos = -1;
+			int bitwisePos = -1;
+			int bitwiseComplPos = -1;
+			List<Integer> commas = new ArrayList<Integer>();
+			for (int pos = lPos; pos <= rPos; pos++) {
+				Item item = items.get(pos);
+				boolean leftIsNumber = isNumber(items, pos-1);
+				boolean rigthIsNumber = isNumber(items, pos+1);
+				if ((item.typeId == RecursiveArgument.TYPE_ID_RECURSIVE) && (recArgPos < 0))
+					recArgPos = pos;
+				else if ((item.typeId == FunctionVariadic.TYPE_ID) && (variadicFunPos < 0))
+					variadicFunPos = pos;
+				else if ((item.typeId == Function3Arg.TYPE_ID) && (f3ArgPos < 0))
+					f3ArgPos = pos;
+				else if ((item.typeId == Function2Arg.TYPE_ID) && (f2ArgPos < 0))
+					f2ArgPos = pos;
+				else if ((item.typeId == Function1Arg.TYPE_ID) && (f1ArgPos < 0))
+					f1ArgPos = pos;
+				else if ((item.typeId == Function.TYPE_ID) && (userFunPos < 0))
+					userFunPos = pos;
+				else if (item.typeId == Operator.TYPE_ID) {
+					if ( (item.tokenId == Operator.POWER_ID) && (leftIsNumber && rigthIsNumber) ) {
+						powerPos = pos;
+						powerNum++;
+					} else if ( (item.tokenId == Operator.TETRATION_ID) && (leftIsNumber && rigthIsNumber) )
+						tetrationPos = pos;
+					else if ( (item.tokenId == Operator.FACT_ID) && (factPos < 0) && (leftIsNumber) )
+						factPos = pos;
+					else if ( (item.tokenId == Operator.PERC_ID) && (percPos < 0) && (leftIsNumber) )
+						percPos = pos;
+					else if ( (item.tokenId == Operator.MOD_ID) && (modPos < 0) && (leftIsNumber && rigthIsNumber) )
+						modPos = pos;
+					else if ( (item.tokenId == Operator.PLUS_ID) && (plusPos < 0) && (leftIsNumber && rigthIsNumber) )
+						plusPos = pos;
+					else if ( (item.tokenId == Operator.MINUS_ID) && (minusPos < 0) && (rigthIsNumber) )
+						minusPos = pos;
+					else if ( (item.tokenId == Operator.MULTIPLY_ID) && (multiplyPos < 0) && (leftIsNumber && rigthIsNumber) )
+						multiplyPos = pos;
+					else if ( (item.tokenId == Operator.DIVIDE_ID) && (dividePos < 0) && (leftIsNumber && rigthIsNumber) )
+						dividePos = pos;
+				} else if ( (item.typeId == BooleanOperator.TYPE_ID) && (item.tokenId == BooleanOperator.NEG_ID) && (negPos < 0) && (rigthIsNumber) )
+					negPos = pos;
+				else if ( (item.typeId == BooleanOperator.TYPE_ID) && (bolPos < 0) && (leftIsNumber && rigthIsNumber) )
+					bolPos = pos;
+				else if (item.typeId == BinaryRelation.TYPE_ID) {
+					if ( (item.tokenId == BinaryRelation.EQ_ID) && (eqPos < 0) && (leftIsNumber && rigthIsNumber) )
+						eqPos = pos;
+					else if ( (item.tokenId == BinaryRelation.NEQ_ID) && (neqPos < 0) && (leftIsNumber && rigthIsNumber) )
+						neqPos = pos;
+					else if ( (item.tokenId == BinaryRelation.LT_ID) && (ltPos < 0) && (leftIsNumber && rigthIsNumber) )
+						ltPos = pos;
+					else if ( (item.tokenId == BinaryRelation.GT_ID) && (gtPos < 0) && (leftIsNumber && rigthIsNumber) )
+						gtPos = pos;
+					else if ( (item.tokenId == BinaryRelation.LEQ_ID) && (leqPos < 0) && (leftIsNumber && rigthIsNumber) )
+						leqPos = pos;
+					else if ( (item.tokenId == BinaryRelation.GEQ_ID) && (geqPos < 0) && (leftIsNumber && rigthIsNumber) )
+						geqPos = pos;
+				} else if (item.typeId == BitwiseOperator.TYPE_ID) {
+					if ( (item.tokenId == BitwiseOperator.COMPL_ID) && (bitwiseComplPos < 0) && (rigthIsNumber) )
+						bitwiseComplPos = pos;
+					else if ( (bitwisePos < 0) && (leftIsNumber && rigthIsNumber) )
+						bitwisePos = pos;
+				} else if (item.typeId == ParserSymbol.TYPE_ID) {
+					if (item.tokenId == ParserSymbol.COMMA_ID)
+						commas.add(pos);
+					else if ( (item.tokenId == ParserSymbol.LEFT_PARENTHESES_ID) && (lParPos < 0) )
+						lParPos = pos;
+					else if ( (item.tokenId == ParserSymbol.RIGHT_PARENTHESES_ID) && (rParPos < 0) )
+						rParPos = pos;
+				}
+			}
+			/* powering should be done using backwards sequence */
+			if (powerNum > 1) {
+				powerPos = -1;
+				int p = rPos + 1;
+				do {
+					p--;
+					Item item = items.get(p);
+					if ( (item.typeId == Operator.TYPE_ID) && (item.tokenId == Operator.POWER_ID) )
+						powerPos = p;
+				} while ( (p > lPos) && (powerPos == -1) );
+			}
+			if (recArgPos >= 0) {
+				RecursiveArgument argument = (RecursiveArgument)expression.argumentsList.get(items.get(recArgPos).tokenId);
+				function(items, recArgPos, new CompiledNode.RecursiveArgumentValue(argument, nodeAt(items, recArgPos+1)), 1);
+			} else if (variadicFunPos >= 0)
+				compileVariadic(items, variadicFunPos, disableUlpRounding);
+			else if (f3ArgPos >= 0)
+				function(items, f3ArgPos, new CompiledNode.Function3(items.get(f3ArgPos).tokenId, nodeAt(items, f3ArgPos+1), nodeAt(items, f3ArgPos+2), nodeAt(items, f3ArgPos+3)), 3);
+			else if (f2ArgPos >= 0)
+				function(items, f2ArgPos, new CompiledNode.Function2(items.get(f2ArgPos).tokenId, nodeAt(items, f2ArgPos+1), nodeAt(items, f2ArgPos+2)), 2);
+			else if (f1ArgPos >= 0) {
+				int functionId = items.get(f1ArgPos).tokenId;
+				CompiledNode node;
+				if (functionId == Function1Arg.PARAM_ID)
+					node = new CompiledNode.UDFParameter(nodeAt(items, f1ArgPos+1));
+				else
+					node = new CompiledNode.Function1(functionId, nodeAt(items, f1ArgPos+1));
+				function(items, f1ArgPos, node, 1);
+			} else if (userFunPos >= 0)
+				compileUserFunction(items, userFunPos);
+			else if (tetrationPos >= 0)
+				binary(items, tetrationPos, ulpRound);
+			else if (powerPos >= 0)
+				binary(items, powerPos, ulpRound);
+			else if (factPos >= 0)
+				unaryLeft(items, factPos);
+			else if (percPos >= 0)
+				unaryLeft(items, percPos);
+			else if (modPos >= 0)
+				binary(items, modPos, false);
+			else if (negPos >= 0)
+				unaryRight(items, negPos);
+			else if (bitwiseComplPos >= 0)
+				unaryRight(items, bitwiseComplPos);
+			else if ( (multiplyPos >= 0) || (dividePos >= 0) ) {
+				if ( (multiplyPos >= 0) && ( (dividePos < 0) || (multiplyPos <= dividePos) ) )
+					binary(items, multiplyPos, ulpRound);
+				else
+					binary(items, dividePos, ulpRound);
+			} else if ( (minusPos >= 0) || (plusPos >= 0) ) {
+				if ( (minusPos >= 0) && ( (plusPos < 0) || (minusPos <= plusPos) ) ) {
+					if ( (minusPos > 0) && isNumber(items, minusPos-1) )
+						binary(items, minusPos, ulpRound);
+					else
+						unaryRight(items, minusPos);
+				} else
+					binary(items, plusPos, ulpRound);
+			} else if (neqPos >= 0)
+				binary(items, neqPos, false);
+			else if (eqPos >= 0)
+				binary(items, eqPos, false);
+			else if (ltPos >= 0)
+				binary(items, ltPos, false);
+			else if (gtPos >= 0)
+				binary(items, gtPos, false);
+			else if (leqPos >= 0)
+				binary(items, leqPos, false);
+			else if (geqPos >= 0)
+				binary(items, geqPos, false);
+			else if (commas.size() > 0) {
+				for (int i = commas.size()-1; i >= 0; i--)
+					items.remove( commas.get(i).intValue() );
+			} else if (bolPos >= 0) {
+				if (items.get(bolPos).tokenId == BooleanOperator.NEG_ID) throw NOT_COMPILABLE;
+				if (CompiledNode.isShortCircuit(items.get(bolPos).tokenId))
+					shortCircuit(items, bolPos);
+				else
+					binary(items, bolPos, false);
+			} else if (bitwisePos >= 0) {
+				if (items.get(bitwisePos).tokenId == BitwiseOperator.COMPL_ID) throw NOT_COMPILABLE;
+				binary(items, bitwisePos, false);
+			} else if ( (lParPos >= 0) && (rParPos > lParPos) ) {
+				for (int p = lParPos; p <= rParPos; p++)
+					items.get(p).level--;
+				items.remove(rParPos);
+				items.remove(lParPos);
+			} else if (items.size() > 1)
+				throw NOT_COMPILABLE;
+		} while (items.size() > 1);
+		return nodeAt(items, 0);
+	}
+}
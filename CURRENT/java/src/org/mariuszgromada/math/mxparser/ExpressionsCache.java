@@ -0,0 +1,243 @@
+/*
+ * @(#)ExpressionsCache.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.mariuszgromada.math.mxparser.parsertokens.Token;
+
+/**
+ * ExpressionsCache - global, bounded cache of the syntax checking
+ * and tokenization results, shared by all expressions.
+ *
+ * Cache key consists of the expression string, mXparser options
+ * changeset number and signatures of the definitions the expression
+ * depends on (arguments, functions, constants - including definitions
+ * used by the dependent arguments and user functions). Cached template
+ * is the list of initial tokens, which refers to the definitions by
+ * index only, therefore it is bound to any expression with the same key
+ * without copying. Only expressions without syntax errors are cached.
+ *
+ * Cache is bounded by the number of entries and by the weight
+ * (total number of cached tokens), least recently used entries
+ * are evicted first.
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ *
+ * @see mXparser#setExpressionsCacheLimits(int, int)
+ * @see Expression#checkSyntax()
+ */
+final class ExpressionsCache {
+	/**
+	 * Default maximum number of entries
+	 */
+	static final int DEFAULT_MAX_ENTRIES = 1000;
+	/**
+	 * Default maximum weight (total number of cached tokens)
+	 */
+	static final int DEFAULT_MAX_WEIGHT = 100000;
+	/**
+	 * Cache entry
+	 */
+	static final class Entry {
+		/**
+		 * Initial tokens (shared, not modified)
+		 */
+		final List<Token> initialTokens;
+		/**
+		 * Syntax checking message
+		 */
+		final String errorMessage;
+		/**
+		 * Entry weight
+		 */
+		final int weight;
+		/**
+		 * Creates cache entry.
+		 *
+		 * @param      initialTokens       the initial tokens
+		 * @param      errorMessage        the syntax checking message
+		 */
+		Entry(List<Token> initialTokens, String errorMessage) {
+			this.initialTokens = initialTokens;
+			this.errorMessage = errorMessage;
+			weight = initialTokens.size() + 1;
+		}
+	}
+	/**
+	 * Cache entries in the access order
+	 */
+	private static final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+	/**
+	 * Maximum number of entries, 0 - cache disabled
+	 */
+	private static volatile int maxEntries = DEFAULT_MAX_ENTRIES;
+	/**
+	 * Maximum weight
+	 */
+	private static int maxWeight = DEFAULT_MAX_WEIGHT;
+	/**
+	 * Current weight
+	 */
+	private static int weight = 0;
+	/**
+	 * Number of cache hits
+	 */
+	private static long hits = 0;
+	/**
+	 * Number of cache misses
+	 */
+	private static long misses = 0;
+	/**
+	 * Number of evicted entries
+	 */
+	private static long evictions = 0;
+	/**
+	 * Checks whether cache is enabled.
+	 *
+	 * @return     true if cache is enabled, otherwise false.
+	 */
+	static boolean isEnabled() {
+		return maxEntries > 0;
+	}
+	/**
+	 * Gets cache entry.
+	 *
+	 * @param      key                 the cache key
+	 *
+	 * @return     Cache entry if found, otherwise null.
+	 */
+	static synchronized Entry get(String key) {
+		Entry entry = entries.get(key);
+		if (entry != null) hits++;
+		else misses++;
+		return entry;
+	}
+	/**
+	 * Puts cache entry, evicts least recently used entries
+	 * if limits are exceeded.
+	 *
+	 * @param      key                 the cache key
+	 * @param      initialTokens       the initial tokens
+	 * @param      errorMessage        the syntax checking message
+	 */
+	static synchronized void put(String key, List<Token> initialTokens, String errorMessage) {
+		if (maxEntries <= 0) return;
+		Entry entry = new Entry(initialTokens, errorMessage);
+		if (entry.weight > maxWeight) return;
+		Entry previous = entries.put(key, entry);
+		if (previous != null) weight -= previous.weight;
+		weight += entry.weight;
+		evict();
+	}
+	/**
+	 * Evicts least recently used entries until limits are met.
+	 */
+	private static void evict() {
+		Iterator<Entry> iterator = entries.values().iterator();
+		while ( ( (entries.size() > maxEntries) || (weight > maxWeight) ) && (iterator.hasNext()) ) {
+			Entry entry = iterator.next();
+			iterator.remove();
+			weight -= entry.weight;
+			evictions++;
+		}
+	}
+	/**
+	 * Sets cache limits.
+	 *
+	 * @param      maxEntries          the maximum number of entries,
+	 *                                 0 disables the cache
+	 * @param      maxWeight           the maximum total number of cached tokens
+	 */
+	static synchronized void setLimits(int maxEntries, int maxWeight) {
+		if (maxEntries < 0) maxEntries = 0;
+		if (maxWeight < 0) maxWeight = 0;
+		ExpressionsCache.maxEntries = maxEntries;
+		ExpressionsCache.maxWeight = maxWeight;
+		evict();
+	}
+	/**
+	 * Removes all entries and resets statistics.
+	 */
+	static synchronized void clear() {
+		entries.clear();
+		weight = 0;
+		hits = 0;
+		misses = 0;
+		evictions = 0;
+	}
+	/**
+	 * Gets statistics.
+	 *
+	 * @return     Array: hits, misses, evictions, entries number, weight.
+	 */
+	static synchronized long[] getStatistics() {
+		return new long[] { hits, misses, evictions, entries.size(), weight };
+	}
+}
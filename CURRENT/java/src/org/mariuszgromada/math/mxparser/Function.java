@@ -160,6 +160,14 @@ public class Function extends PrimitiveElement {
 	 * The number of function parameters
 	 */
 	private int parametersNumber;
+	/**
+	 * Memoization - maximum number of cached results (0 - disabled)
+	 * and cached results.
+	 *
+	 * @see Function#enableMemoization(int)
+	 */
+	private int memoizationMaxEntries = 0;
+	private FunctionResultsCache resultsCache = null;
 	/**
 	 * Function extension (body based in code)
 	 *
@@ -176,6 +184,21 @@ public class Function extends PrimitiveElement {
 	 * @see Function#Function(String, FunctionExtension)
 	 */
 	private FunctionExtensionVariadic functionExtensionVariadic;
+	/**
+	 * Function extension with primitive parameters (stateless,
+	 * shared by the function clones) and parameters values
+	 * set by {@link #setArgumentValue(int, double)}.
+	 *
+	 * @see FunctionExtensionPrimitive
+	 * @see Function#Function(String, FunctionExtensionPrimitive)
+	 */
+	FunctionExtensionPrimitive functionExtensionPrimitive;
+	private double[] extensionParameters;
+	/**
+	 * Parameters array of the primitive extension calls
+	 * reused by the tokens rewriting and by the variadic calls
+	 */
+	private double[] extensionCallParameters;
 	/*=================================================
 	 *
 	 * Constructors
@@ -351,6 +374,40 @@ public class Function extends PrimitiveElement {
 			functionExpression.setSyntaxStatus(SYNTAX_ERROR_OR_STATUS_UNKNOWN, "[" + functionName + "]" + "Invalid function name, pattern not matches: " + ParserSymbol.nameTokenRegExp);
 		}
 	}
+	/**
+	 * Constructor for function definition based on
+	 * your own source code - this is via implementation
+	 * of FunctionExtensionPrimitive interface. Function is
+	 * variadic if extension parameters number is negative.
+	 *
+	 * @param functionName       Function name
+	 * @param functionExtensionPrimitive  Your own source code
+	 */
+	public Function(String functionName, FunctionExtensionPrimitive functionExtensionPrimitive) {
+		super(Function.TYPE_ID);
+		if ( mXparser.regexMatch(functionName, ParserSymbol.nameOnlyTokenRegExp) ) {
+			this.functionName = functionName;
+			int n = functionExtensionPrimitive.getParametersNumber();
+			if (n >= 0) {
+				functionExpression = new Expression("{body-ext}");
+				isVariadic = false;
+				parametersNumber = n;
+				extensionParameters = new double[n];
+			} else {
+				functionExpression = new Expression("{body-ext-var}");
+				isVariadic = true;
+				parametersNumber = -1;
+			}
+			description = "";
+			this.functionExtensionPrimitive = functionExtensionPrimitive;
+			functionBodyType = BODY_EXTENDED;
+		} else {
+			parametersNumber = 0;
+			description = "";
+			functionExpression = new Expression("");
+			functionExpression.setSyntaxStatus(SYNTAX_ERROR_OR_STATUS_UNKNOWN, "[" + functionName + "]" + "Invalid function name, pattern not matches: " + ParserSymbol.nameTokenRegExp);
+		}
+	}
 	/**
 	 * Private constructor used for function cloning.
 	 *
@@ -368,6 +425,8 @@ public class Function extends PrimitiveElement {
 		if (functionBodyType == BODY_EXTENDED) {
 			if (function.functionExtension != null) functionExtension = function.functionExtension.clone();
 			if (function.functionExtensionVariadic != null) functionExtensionVariadic = function.functionExtensionVariadic.clone();
+			functionExtensionPrimitive = function.functionExtensionPrimitive;
+			if (function.extensionParameters != null) extensionParameters = function.extensionParameters.clone();
 		}
 	}
 	/**
@@ -422,9 +481,13 @@ public class Function extends PrimitiveElement {
 	 */
 	public void setArgumentValue(int argumentIndex, double argumentValue) {
 		if (isVariadic == false)
-			if (functionBodyType == BODY_RUNTIME)
-				functionExpression.argumentsList.get(argumentIndex).argumentValue = argumentValue;
-			else if (isVariadic == false)
+			if (functionBodyType == BODY_RUNTIME) {
+				Argument argument = functionExpression.argumentsList.get(argumentIndex);
+				argument.argumentValue = argumentValue;
+				argument.valueVersion++;
+			} else if (functionExtensionPrimitive != null)
+				extensionParameters[argumentIndex] = argumentValue;
+			else
 				functionExtension.setParameterValue(argumentIndex, argumentValue);
 	}
 	/**
@@ -472,19 +535,67 @@ public class Function extends PrimitiveElement {
 		if (functionBodyType == BODY_RUNTIME)
 			return functionExpression.calculate();
 		else
-			if (isVariadic == false)
+			if (isVariadic == false) {
+				if (functionExtensionPrimitive != null)
+					return calculateExtensionPrimitive(extensionParameters, parametersNumber);
 				return functionExtension.calculate();
-			else {
+			} else {
 				List<Double> paramsList = functionExpression.UDFVariadicParamsAtRunTime;
 				if (paramsList != null) {
 					int n = paramsList.size();
-					double[] parameters = new double[n];
+					double[] parameters = (functionExtensionPrimitive != null) ? getExtensionCallParameters(n) : new double[n];
 					for (int i = 0; i < n; i++)
 						parameters[i] = paramsList.get(i);
+					if (functionExtensionPrimitive != null)
+						return calculateExtensionPrimitive(parameters, n);
 					return functionExtensionVariadic.calculate(parameters);
 				} else return Double.NaN;
 			}
 	}
+	/**
+	 * Calculates primitive extension value.
+	 *
+	 * @param      parameters              the function parameters values
+	 * @param      length                  the number of parameters
+	 *
+	 * @return     function value as double.
+	 */
+	double calculateExtensionPrimitive(double[] parameters, int length) {
+		return functionExtensionPrimitive.calculate(parameters, 0, length);
+	}
+	/**
+	 * Gets parameters array of the primitive extension call,
+	 * the same array is returned by the subsequent calls.
+	 *
+	 * @param      length                  the number of parameters
+	 *
+	 * @return     array of at least length elements.
+	 */
+	double[] getExtensionCallParameters(int length) {
+		if ( (extensionCallParameters == null) || (extensionCallParameters.length < length) )
+			extensionCallParameters = new double[length];
+		return extensionCallParameters;
+	}
+	/**
+	 * Calculates extended function body value without modifying
+	 * the function state - used by the {@link CompiledExpression}
+	 * shared between threads. Function extension is cloned
+	 * before setting parameters values.
+	 *
+	 * @param      parameters              the function parameters values
+	 *
+	 * @return     function value as double.
+	 */
+	double calculateExtension(double[] parameters) {
+		if (functionExtensionPrimitive != null)
+			return calculateExtensionPrimitive(parameters, parameters.length);
+		if (isVariadic)
+			return functionExtensionVariadic.calculate(parameters);
+		FunctionExtension extension = functionExtension.clone();
+		for (int p = 0; p < parameters.length; p++)
+			extension.setParameterValue(p, parameters[p]);
+		return extension.calculate();
+	}
 	/**
 	 * Calculates function value
 	 *
@@ -493,26 +604,46 @@ public class Function extends PrimitiveElement {
 	 * @return     function value as double.
 	 */
 	public double calculate(double... parameters) {
-		if (parameters.length > 0) {
+		if (parameters.length == 0)
+			return Double.NaN;
+		/*
+		 * Primitive extension is called without
+		 * the parameters list
+		 */
+		if (functionExtensionPrimitive == null) {
 			functionExpression.UDFVariadicParamsAtRunTime = new ArrayList<Double>();
 			for (double x : parameters)
 				functionExpression.UDFVariadicParamsAtRunTime.add(x);
-		} else return Double.NaN;
+		}
 		if (isVariadic) {
 			if (functionBodyType == BODY_RUNTIME)
 				return functionExpression.calculate();
+			else if (functionExtensionPrimitive != null)
+				return calculateExtensionPrimitive(parameters, parameters.length);
 			else
 				return functionExtensionVariadic.calculate(parameters);
 		} else if (parameters.length == this.getParametersNumber()) {
+			FunctionResultsCache resultsCache = getResultsCache();
+			if (resultsCache != null) {
+				double value = resultsCache.get(parameters);
+				if (!Double.isNaN(value))
+					return value;
+			}
+			double value;
 			if (functionBodyType == BODY_RUNTIME) {
 				for (int p = 0; p < parameters.length; p++)
 					setArgumentValue(p, parameters[p]);
-				return functionExpression.calculate();
-			} else {
+				value = functionExpression.calculate();
+			} else if (functionExtensionPrimitive != null)
+				value = calculateExtensionPrimitive(parameters, parameters.length);
+			else {
 				for (int p = 0; p < parameters.length; p++)
 					functionExtension.setParameterValue(p, parameters[p]);
-				return functionExtension.calculate();
+				value = functionExtension.calculate();
 			}
+			if (resultsCache != null)
+				resultsCache.put(parameters, value);
+			return value;
 		}
 		else {
 			this.functionExpression.setSyntaxStatus(SYNTAX_ERROR_OR_STATUS_UNKNOWN, "[" + functionName + "] incorrect number of function parameters (expecting " + getParametersNumber() + ", provided " + parameters.length + ")!");
@@ -541,6 +672,8 @@ public class Function extends PrimitiveElement {
 		if (isVariadic) {
 			if (functionBodyType == BODY_RUNTIME)
 				return functionExpression.calculate();
+			else if (functionExtensionPrimitive != null)
+				return calculateExtensionPrimitive(parameters, parameters.length);
 			else
 				return functionExtensionVariadic.calculate(parameters);
 		} else if (arguments.length == this.getParametersNumber()) {
@@ -548,7 +681,9 @@ public class Function extends PrimitiveElement {
 				for (int p = 0; p < arguments.length; p++)
 					setArgumentValue(p, arguments[p].getArgumentValue());
 				return functionExpression.calculate();
-			} else {
+			} else if (functionExtensionPrimitive != null)
+				return calculateExtensionPrimitive(parameters, parameters.length);
+			else {
 				for (int p = 0; p < arguments.length; p++)
 					functionExtension.setParameterValue(p, arguments[p].getArgumentValue());
 				return functionExtension.calculate();
@@ -738,6 +873,7 @@ public class Function extends PrimitiveElement {
 		if (parameterIndex < 0) return "";
 		if (parameterIndex >= parametersNumber) return "";
 		if (functionBodyType == BODY_RUNTIME) return getArgument(parameterIndex).getArgumentName();
+		if (functionExtensionPrimitive != null) return functionExtensionPrimitive.getParameterName(parameterIndex);
 		if (functionBodyType == BODY_EXTENDED) return this.functionExtension.getParameterName(parameterIndex);
 		return "";
 	}
@@ -1133,6 +1269,106 @@ public class Function extends PrimitiveElement {
 	public double getComputingTime() {
 		return functionExpression.getComputingTime();
 	}
+	/**
+	 * Compiles the function body into the JVM bytecode exposed as the
+	 * unary, binary or n-ary function of the function parameters.
+	 * If the body is not supported by the bytecode compiler
+	 * the returned function evaluates the compiled expression
+	 * (see {@link BytecodeFunction#isBytecode()}).
+	 *
+	 * @return     Compiled function if syntax is correct and function body
+	 *             is supported by the compiled evaluation, null for variadic
+	 *             functions and functions defined by the extension.
+	 *
+	 * @see BytecodeFunction
+	 * @see Expression#compileToBytecode(String...)
+	 */
+	public BytecodeFunction compileToBytecode() {
+		if ( (isVariadic) || (functionBodyType != BODY_RUNTIME) )
+			return null;
+		Argument[] parameters = new Argument[parametersNumber];
+		int n = Math.min(parametersNumber, functionExpression.argumentsList.size());
+		for (int i = 0; i < n; i++)
+			parameters[i] = functionExpression.argumentsList.get(i);
+		return BytecodeCompiler.compile(functionExpression, parameters);
+	}
+	/**
+	 * Enables memoization with the default maximum number
+	 * of cached results.
+	 *
+	 * @see #enableMemoization(int)
+	 */
+	public void enableMemoization() {
+		enableMemoization(FunctionResultsCache.DEFAULT_MAX_ENTRIES);
+	}
+	/**
+	 * Enables memoization - function results are cached and reused
+	 * for the same parameters values (also by the recursive calls,
+	 * which are not calculated again). Cache is cleared if the function
+	 * definition, global settings or values of the arguments used
+	 * by the function body are changed. Results are not cached if the body
+	 * uses random functions or random variables, recursive arguments
+	 * or function extensions. Variadic functions are not memoized.
+	 * Function with the extension body should be memoized only
+	 * if its value depends on the parameters only.
+	 *
+	 * @param      maxEntries          the maximum number of cached results
+	 *                                 (limited to 2^24), 0 disables memoization
+	 */
+	public void enableMemoization(int maxEntries) {
+		if (maxEntries < 0) maxEntries = 0;
+		if (maxEntries > FunctionResultsCache.MAX_ENTRIES_LIMIT) maxEntries = FunctionResultsCache.MAX_ENTRIES_LIMIT;
+		memoizationMaxEntries = maxEntries;
+		resultsCache = null;
+	}
+	/**
+	 * Disables memoization and removes cached results.
+	 */
+	public void disableMemoization() {
+		enableMemoization(0);
+	}
+	/**
+	 * Checks whether memoization is enabled.
+	 *
+	 * @return     true if memoization is enabled, otherwise false.
+	 */
+	public boolean checkIfMemoizationEnabled() {
+		return memoizationMaxEntries > 0;
+	}
+	/**
+	 * Removes cached results and resets memoization statistics.
+	 */
+	public void clearMemoizationCache() {
+		if (resultsCache != null)
+			resultsCache.clear();
+	}
+	/**
+	 * Gets memoization statistics.
+	 *
+	 * @return     Array: hits, misses, evictions, number of cached results.
+	 */
+	public long[] getMemoizationStatistics() {
+		if (resultsCache != null)
+			return resultsCache.getStatistics();
+		return new long[] { 0, 0, 0, 0 };
+	}
+	/**
+	 * Gets cache of the function results.
+	 *
+	 * @return     Results cache if memoization is enabled
+	 *             and function is not variadic, otherwise null.
+	 */
+	FunctionResultsCache getResultsCache() {
+		if ( (memoizationMaxEntries == 0) || (isVariadic) )
+			return null;
+		FunctionResultsCache cache = resultsCache;
+		boolean runtimeBody = (functionBodyType == BODY_RUNTIME);
+		if ( (cache == null) || (cache.parametersNumber != parametersNumber) || (cache.runtimeBody != runtimeBody) ) {
+			cache = new FunctionResultsCache(functionExpression, runtimeBody, parametersNumber, memoizationMaxEntries);
+			resultsCache = cache;
+		}
+		return cache;
+	}
 	/**
 	 * Adds related expression.
 	 *
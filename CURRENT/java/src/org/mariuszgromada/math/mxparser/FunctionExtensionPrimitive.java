@@ -0,0 +1,126 @@
+/*
+ * @(#)FunctionExtensionPrimitive.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser;
+
+/**
+ * FunctionExtensionPrimitive provides stateless interface for function
+ * algorithm definition. Differently from {@link FunctionExtension}
+ * parameters values are passed directly to the calculate method
+ * (array, offset and the number of parameters), so the extension is not cloned
+ * and the same object can be used by many functions, expressions
+ * and threads at once. Variadic function is defined by the extension
+ * returning negative number of parameters. Parameters array is reused
+ * by the evaluator - the extension should read parameters values before
+ * calculating other expressions, and should not keep the reference
+ * to the array or modify it.
+ * Functions with 1 to 4 parameters can be defined by the
+ * {@link FunctionExtensionPrimitiveAdapter}.
+ *
+ * <pre>
+ * Function f = new Function("f", new FunctionExtensionPrimitive() {
+ *     public int getParametersNumber() { return 2; }
+ *     public String getParameterName(int parameterIndex) { return (parameterIndex == 0) ? "x" : "y"; }
+ *     public double calculate(double[] parameters, int offset, int length) {
+ *         return parameters[offset] * parameters[offset + 1];
+ *     }
+ * });
+ * </pre>
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ *
+ * @see FunctionExtension
+ * @see FunctionExtensionVariadic
+ * @see FunctionExtensionPrimitiveAdapter
+ * @see Function#Function(String, FunctionExtensionPrimitive)
+ *
+ */
+public interface FunctionExtensionPrimitive {
+	/**
+	 * Gets parameters number.
+	 *
+	 * @return Returns parameters number, negative value
+	 *         for the variadic function.
+	 */
+	public int getParametersNumber();
+	/**
+	 * Gets parameter name
+	 *
+	 * @param parameterIndex    - parameter index (from 0 to n-1)
+	 * @return Returns parameter name
+	 */
+	public String getParameterName(int parameterIndex);
+	/**
+	 * Actual algorithm implementation.
+	 *
+	 * @param parameters        - array containing parameters values
+	 * @param offset            - index of the first parameter
+	 * @param length            - number of parameters
+	 *
+	 * @return Function Extension value.
+	 */
+	public double calculate(double[] parameters, int offset, int length);
+}
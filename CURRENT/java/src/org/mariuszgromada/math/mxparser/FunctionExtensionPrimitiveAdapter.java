@@ -0,0 +1,161 @@
+/*
+ * @(#)FunctionExtensionPrimitiveAdapter.java        4.2.0    2026-10-19
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser;
+
+/**
+ * FunctionExtensionPrimitiveAdapter - base class of the
+ * {@link FunctionExtensionPrimitive} with the fixed number of parameters
+ * (from 1 to 4), where the function algorithm is defined by the
+ * calculate method with the parameters values passed one by one.
+ * The array form of the calculate method dispatches to the method
+ * with the same number of parameters (the evaluator passes parameters
+ * in the reused array, so calls do not allocate memory).
+ *
+ * <pre>
+ * Function f = new Function("f", new FunctionExtensionPrimitiveAdapter() {
+ *     public int getParametersNumber() { return 2; }
+ *     public String getParameterName(int parameterIndex) { return (parameterIndex == 0) ? "x" : "y"; }
+ *     public double calculate(double x, double y) {
+ *         return x * y;
+ *     }
+ * });
+ * </pre>
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ *
+ * @see FunctionExtensionPrimitive
+ * @see Function#Function(String, FunctionExtensionPrimitive)
+ *
+ */
+public abstract class FunctionExtensionPrimitiveAdapter implements FunctionExtensionPrimitive {
+	/**
+	 * Algorithm of the function with one parameter.
+	 *
+	 * @param x                 - 1st parameter value
+	 *
+	 * @return Function Extension value, Double.NaN if not overridden.
+	 */
+	public double calculate(double x) {
+		return Double.NaN;
+	}
+	/**
+	 * Algorithm of the function with two parameters.
+	 *
+	 * @param x                 - 1st parameter value
+	 * @param y                 - 2nd parameter value
+	 *
+	 * @return Function Extension value, Double.NaN if not overridden.
+	 */
+	public double calculate(double x, double y) {
+		return Double.NaN;
+	}
+	/**
+	 * Algorithm of the function with three parameters.
+	 *
+	 * @param x                 - 1st parameter value
+	 * @param y                 - 2nd parameter value
+	 * @param z                 - 3rd parameter value
+	 *
+	 * @return Function Extension value, Double.NaN if not overridden.
+	 */
+	public double calculate(double x, double y, double z) {
+		return Double.NaN;
+	}
+	/**
+	 * Algorithm of the function with four parameters.
+	 *
+	 * @param x                 - 1st parameter value
+	 * @param y                 - 2nd parameter value
+	 * @param z                 - 3rd parameter value
+	 * @param w                 - 4th parameter value
+	 *
+	 * @return Function Extension value, Double.NaN if not overridden.
+	 */
+	public double calculate(double x, double y, double z, double w) {
+		return Double.NaN;
+	}
+	/**
+	 * Dispatches to the calculate method with the same
+	 * number of parameters.
+	 *
+	 * @param parameters        - array containing parameters values
+	 * @param offset            - index of the first parameter
+	 * @param length            - number of parameters
+	 *
+	 * @return Function Extension value, Double.NaN if number
+	 *         of parameters is not between 1 and 4.
+	 */
+	public double calculate(double[] parameters, int offset, int length) {
+		switch (length) {
+		case 1: return calculate(parameters[offset]);
+		case 2: return calculate(parameters[offset], parameters[offset + 1]);
+		case 3: return calculate(parameters[offset], parameters[offset + 1], parameters[offset + 2]);
+		case 4: return calculate(parameters[offset], parameters[offset + 1], parameters[offset + 2], parameters[offset + 3]);
+		}
+		return Double.NaN;
+	}
+}
@@ -0,0 +1,477 @@
+/*
+ * @(#)FunctionResultsCache.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FunctionResultsCache - bounded cache of the user defined function
+ * results (memoization), keyed by the function parameters values.
+ *
+ * Cache is a set associative table (two entries per set) of primitive
+ * keys and values, the least recently used entry of the set is evicted
+ * if the set is full. Tables start small and the number of sets (power
+ * of 2) is doubled when the sets are filling up, up to the number needed
+ * for the maximum number of entries. The number of cached results is
+ * limited to the maximum number of entries (when reached, new result
+ * replaces entry of its set, or it is not cached if its set is empty).
+ * Double.NaN results are not cached (i.e. results of the calculations
+ * stopped by the recursion calls limit). Cache
+ * is cleared if the function definition or global settings
+ * have changed.
+ *
+ * Inputs of the function body (arguments other than the function parameters,
+ * also used by the bodies of the user defined functions called) are collected
+ * as in the dependent argument cache, and the cache is cleared if the version
+ * of any input or the definition of any function called has changed.
+ * Results are not cached if the body uses random functions or random
+ * variables, recursive arguments or function extensions. Purity
+ * of the function extension body is not checked.
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ *
+ * @see Function#enableMemoization(int)
+ */
+final class FunctionResultsCache {
+	/**
+	 * Default maximum number of entries
+	 */
+	static final int DEFAULT_MAX_ENTRIES = 4096;
+	/**
+	 * Upper limit of the maximum number of entries
+	 */
+	static final int MAX_ENTRIES_LIMIT = 1 << 24;
+	/**
+	 * Initial number of sets
+	 */
+	private static final int INITIAL_SETS_NUMBER = 16;
+	/**
+	 * Upper limit of the keys table length
+	 */
+	private static final long MAX_KEYS_LENGTH = 1L << 28;
+	/**
+	 * Number of the function parameters (key length)
+	 */
+	final int parametersNumber;
+	/**
+	 * Maximum number of entries
+	 */
+	private final int maxEntries;
+	/**
+	 * Current and maximum number of sets (power of 2),
+	 * each set has two entries
+	 */
+	private int setsNumber;
+	private final int maxSetsNumber;
+	/**
+	 * Keys (parameters values bits), values and entries usage
+	 */
+	private long[] keys;
+	private double[] values;
+	private boolean[] used;
+	/**
+	 * Least recently used entry of each set
+	 */
+	private byte[] leastRecentlyUsed;
+	/**
+	 * Function expression and the number of its modifications
+	 */
+	private final Expression functionExpression;
+	private int modificationsNumber;
+	/**
+	 * Indicator whether the function body is defined at run time
+	 * (inputs are checked), and the inputs state: not collected yet,
+	 * collected, or results can not be cached
+	 */
+	final boolean runtimeBody;
+	private static final int INPUTS_UNKNOWN = 0;
+	private static final int INPUTS_COLLECTED = 1;
+	private static final int INPUTS_IMPURE = 2;
+	private int inputsState;
+	/**
+	 * Input arguments and their versions
+	 */
+	private Argument[] inputs;
+	private int[] inputsVersions;
+	/**
+	 * Expressions (bodies of the functions called)
+	 * and the number of their modifications
+	 */
+	private Expression[] expressions;
+	private int[] expressionsModifications;
+	/**
+	 * Indicator whether inputs are being validated
+	 */
+	private boolean validating = false;
+	/**
+	 * Global settings and mXparser options changeset
+	 */
+	private EvaluationOptions options;
+	private int optionsChangesetNumber;
+	/**
+	 * Statistics
+	 */
+	private int entriesNumber = 0;
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+	/**
+	 * Package level constructor.
+	 *
+	 * @param      functionExpression  the function expression
+	 * @param      runtimeBody         true if the function body is defined at run time
+	 * @param      parametersNumber    the number of the function parameters
+	 * @param      maxEntries          the maximum number of entries
+	 */
+	FunctionResultsCache(Expression functionExpression, boolean runtimeBody, int parametersNumber, int maxEntries) {
+		this.functionExpression = functionExpression;
+		this.runtimeBody = runtimeBody;
+		this.parametersNumber = parametersNumber;
+		this.maxEntries = Math.min(maxEntries, MAX_ENTRIES_LIMIT);
+		long keyLength = Math.max(parametersNumber, 1);
+		int sets = 1;
+		while ( (2L * sets < this.maxEntries) && (4L * sets * keyLength <= MAX_KEYS_LENGTH) )
+			sets <<= 1;
+		maxSetsNumber = sets;
+		allocate(Math.min(sets, INITIAL_SETS_NUMBER));
+		snapshot();
+	}
+	/**
+	 * Allocates empty tables.
+	 *
+	 * @param      sets                the number of sets
+	 */
+	private void allocate(int sets) {
+		setsNumber = sets;
+		keys = new long[2 * sets * parametersNumber];
+		values = new double[2 * sets];
+		used = new boolean[2 * sets];
+		leastRecentlyUsed = new byte[sets];
+	}
+	/**
+	 * Doubles the number of sets, entries are moved to their new sets
+	 * (entries of one set are split between two sets, nothing is evicted).
+	 */
+	private void grow() {
+		long[] oldKeys = keys;
+		double[] oldValues = values;
+		boolean[] oldUsed = used;
+		byte[] oldLeastRecentlyUsed = leastRecentlyUsed;
+		allocate(2 * setsNumber);
+		double[] parameters = new double[parametersNumber];
+		for (int entry = 0; entry < oldUsed.length; entry++) {
+			/*
+			 * More recently used entry of the old set is moved last
+			 */
+			int oldEntry = (entry & ~1) | ( (entry & 1) ^ oldLeastRecentlyUsed[entry >> 1] );
+			if (oldUsed[oldEntry] == false) continue;
+			int offset = oldEntry * parametersNumber;
+			for (int i = 0; i < parametersNumber; i++)
+				parameters[i] = Double.longBitsToDouble(oldKeys[offset + i]);
+			int set = setIndex(parameters);
+			int way = (used[2 * set] == false) ? 0 : 1;
+			int newEntry = 2 * set + way;
+			used[newEntry] = true;
+			values[newEntry] = oldValues[oldEntry];
+			System.arraycopy(oldKeys, offset, keys, newEntry * parametersNumber, parametersNumber);
+			leastRecentlyUsed[set] = (byte)(1 - way);
+		}
+	}
+	/**
+	 * Remembers current function definition and global settings.
+	 */
+	private void snapshot() {
+		modificationsNumber = functionExpression.modificationsNumber;
+		optionsChangesetNumber = mXparser.optionsChangesetNumber;
+		options = new EvaluationOptions();
+		inputsState = (runtimeBody) ? INPUTS_UNKNOWN : INPUTS_COLLECTED;
+		inputs = null;
+		expressions = null;
+	}
+	/**
+	 * Clears the cache if function definition, global settings
+	 * or inputs have changed.
+	 *
+	 * @return     true if cached results can be used, otherwise false.
+	 */
+	private boolean validate() {
+		if ( (modificationsNumber != functionExpression.modificationsNumber)
+				|| (optionsChangesetNumber != mXparser.optionsChangesetNumber)
+				|| (!options.checkIfGlobalOptions())
+				|| (!inputsUpToDate()) ) {
+			removeEntries();
+			snapshot();
+		}
+		return inputsState == INPUTS_COLLECTED;
+	}
+	/**
+	 * Checks whether versions of the inputs and definitions
+	 * of the functions called have not changed, validates
+	 * the dependent inputs.
+	 *
+	 * @return     true if inputs have not changed, otherwise false.
+	 */
+	private boolean inputsUpToDate() {
+		if (inputs == null) return true;
+		/*
+		 * Cyclic definitions (dependent input calling the function)
+		 */
+		if (validating) return false;
+		for (int i = 0; i < expressions.length; i++)
+			if (expressions[i].modificationsNumber != expressionsModifications[i])
+				return false;
+		validating = true;
+		try {
+			for (int i = 0; i < inputs.length; i++) {
+				Argument input = inputs[i];
+				if (input.argumentType == Argument.DEPENDENT_ARGUMENT)
+					input.getArgumentValue();
+				if (input.valueVersion != inputsVersions[i])
+					return false;
+			}
+		} finally {
+			validating = false;
+		}
+		return true;
+	}
+	/**
+	 * Collects inputs of the function body (after its calculation,
+	 * when the body tokens are known).
+	 */
+	private void collectInputs() {
+		if (functionExpression.getSyntaxStatus() != Expression.NO_SYNTAX_ERRORS) return;
+		List<Argument> inputsList = new ArrayList<Argument>();
+		List<Expression> expressionsList = new ArrayList<Expression>();
+		if (!DependentArgumentCache.collectInputs(functionExpression, true, parametersNumber, inputsList, expressionsList)) {
+			inputsState = INPUTS_IMPURE;
+			return;
+		}
+		int n = inputsList.size();
+		Argument[] inputs = new Argument[n];
+		int[] inputsVersions = new int[n];
+		for (int i = 0; i < n; i++) {
+			Argument input = inputsList.get(i);
+			if (input.argumentType == RecursiveArgument.RECURSIVE_ARGUMENT) {
+				inputsState = INPUTS_IMPURE;
+				return;
+			}
+			if (input.argumentType == Argument.DEPENDENT_ARGUMENT)
+				input.getArgumentValue();
+			inputs[i] = input;
+			inputsVersions[i] = input.valueVersion;
+		}
+		n = expressionsList.size();
+		Expression[] expressions = new Expression[n];
+		int[] expressionsModifications = new int[n];
+		for (int i = 0; i < n; i++) {
+			expressions[i] = expressionsList.get(i);
+			expressionsModifications[i] = expressions[i].modificationsNumber;
+		}
+		this.inputsVersions = inputsVersions;
+		this.inputs = inputs;
+		this.expressionsModifications = expressionsModifications;
+		this.expressions = expressions;
+		inputsState = INPUTS_COLLECTED;
+	}
+	/**
+	 * Gets set index for the parameters values.
+	 *
+	 * @param      parameters          the parameters values
+	 *
+	 * @return     Set index.
+	 */
+	private int setIndex(double[] parameters) {
+		long h = parametersNumber;
+		for (int i = 0; i < parametersNumber; i++)
+			h = (h ^ Double.doubleToLongBits(parameters[i])) * 0x9E3779B97F4A7C15L;
+		h ^= (h >>> 33);
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= (h >>> 33);
+		return (int)h & (setsNumber - 1);
+	}
+	/**
+	 * Checks whether entry key is equal to the parameters values.
+	 *
+	 * @param      entry               the entry index
+	 * @param      parameters          the parameters values
+	 *
+	 * @return     true if key is equal, otherwise false.
+	 */
+	private boolean keyEquals(int entry, double[] parameters) {
+		if (used[entry] == false) return false;
+		int offset = entry * parametersNumber;
+		for (int i = 0; i < parametersNumber; i++)
+			if (keys[offset + i] != Double.doubleToLongBits(parameters[i]))
+				return false;
+		return true;
+	}
+	/**
+	 * Gets cached function result.
+	 *
+	 * @param      parameters          the parameters values
+	 *
+	 * @return     Cached result if found, otherwise Double.NaN.
+	 */
+	synchronized double get(double[] parameters) {
+		if (!validate()) {
+			misses++;
+			return Double.NaN;
+		}
+		int set = setIndex(parameters);
+		for (int way = 0; way < 2; way++) {
+			int entry = 2 * set + way;
+			if (keyEquals(entry, parameters)) {
+				leastRecentlyUsed[set] = (byte)(1 - way);
+				hits++;
+				return values[entry];
+			}
+		}
+		misses++;
+		return Double.NaN;
+	}
+	/**
+	 * Puts function result, evicts the least recently used entry
+	 * of the set if the set is full, or the other entry of the set
+	 * if the maximum number of entries was reached.
+	 *
+	 * @param      parameters          the parameters values
+	 * @param      value               the function result
+	 */
+	synchronized void put(double[] parameters, double value) {
+		if (Double.isNaN(value)) return;
+		validate();
+		if (inputsState == INPUTS_UNKNOWN)
+			collectInputs();
+		if (inputsState != INPUTS_COLLECTED) return;
+		int set = setIndex(parameters);
+		/*
+		 * Set is full - tables are grown instead of the eviction
+		 * (until the maximum number of sets; above the default
+		 * size only if at least 1/8 of the entries is used)
+		 */
+		if ( (keyEquals(2 * set, parameters) == false) && (keyEquals(2 * set + 1, parameters) == false) )
+			while ( (setsNumber < maxSetsNumber) && ( (2 * setsNumber < DEFAULT_MAX_ENTRIES) || (4 * entriesNumber >= setsNumber) )
+					&& (used[2 * set] == true) && (used[2 * set + 1] == true) ) {
+				grow();
+				set = setIndex(parameters);
+			}
+		int way;
+		if (keyEquals(2 * set, parameters)) way = 0;
+		else if (keyEquals(2 * set + 1, parameters)) way = 1;
+		else if ( (entriesNumber < maxEntries) && (used[2 * set] == false) ) way = 0;
+		else if ( (entriesNumber < maxEntries) && (used[2 * set + 1] == false) ) way = 1;
+		else {
+			if (used[2 * set] == false) {
+				if (used[2 * set + 1] == false) return;
+				way = 1;
+			} else if (used[2 * set + 1] == false) way = 0;
+			else way = leastRecentlyUsed[set];
+			used[2 * set + way] = false;
+			entriesNumber--;
+			evictions++;
+		}
+		int entry = 2 * set + way;
+		if (used[entry] == false) {
+			used[entry] = true;
+			entriesNumber++;
+			int offset = entry * parametersNumber;
+			for (int i = 0; i < parametersNumber; i++)
+				keys[offset + i] = Double.doubleToLongBits(parameters[i]);
+		}
+		values[entry] = value;
+		leastRecentlyUsed[set] = (byte)(1 - way);
+	}
+	/**
+	 * Removes all entries.
+	 */
+	private void removeEntries() {
+		if (setsNumber > INITIAL_SETS_NUMBER)
+			allocate(INITIAL_SETS_NUMBER);
+		else
+			for (int i = 0; i < used.length; i++)
+				used[i] = false;
+		entriesNumber = 0;
+	}
+	/**
+	 * Removes all entries and resets statistics.
+	 */
+	synchronized void clear() {
+		removeEntries();
+		hits = 0;
+		misses = 0;
+		evictions = 0;
+	}
+	/**
+	 * Gets statistics.
+	 *
+	 * @return     Array: hits, misses, evictions, entries number.
+	 */
+	synchronized long[] getStatistics() {
+		return new long[] { hits, misses, evictions, entriesNumber };
+	}
+}
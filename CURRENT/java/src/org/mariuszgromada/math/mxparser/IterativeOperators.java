@@ -0,0 +1,392 @@
+/*
+ * @(#)IterativeOperators.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.mariuszgromada.math.mxparser.mathcollection.StatisticsAccumulator;
+import org.mariuszgromada.math.mxparser.parsertokens.CalculusOperator;
+
+/**
+ * IterativeOperators - evaluation of the iterative operators
+ * (SUM, PROD, MIN, MAX, AVG, VAR, STD) splitting large ranges
+ * across the threads pool sized by {@link mXparser#getThreadsNumber()}.
+ *
+ * The range is divided into chunks of the fixed size (independent
+ * of the threads number), index values are generated exactly as in the
+ * serial loop. Each chunk is evaluated by the thread safe compiled copy
+ * of the function, with its own evaluation context binding the index
+ * argument (the index {@link Argument} object is not modified).
+ * Partial results are combined in the chunk order by
+ * {@link StatisticsAccumulator} (sums with the Kahan summation, variance
+ * with the Chan et al. pairwise update), therefore result does not
+ * depend on threads number or scheduling.
+ *
+ * Small ranges, single thread setting, verbose mode or functions not
+ * supported by the compiled evaluation are calculated serially, chunk
+ * by chunk, with the same partial results combined in the same order.
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ *
+ * @see mXparser#setThreadsNumber(int)
+ * @see CompiledExpression
+ */
+final class IterativeOperators {
+	/**
+	 * Number of iterations evaluated by one task
+	 */
+	static final int CHUNK_SIZE = 4096;
+	/**
+	 * Minimum number of iterations evaluated in parallel
+	 */
+	static final int PARALLEL_MIN_ITERATIONS = 4 * CHUNK_SIZE;
+	/**
+	 * Idle time (in seconds) after which pool threads are terminated
+	 */
+	static final long KEEP_ALIVE_SECONDS = 60;
+	/**
+	 * Threads pool - pool replaced after the threads number change
+	 * is not shut down (it can be still used by other threads),
+	 * its idle threads are terminated after the keep alive time.
+	 */
+	private static ThreadPoolExecutor pool = null;
+	/**
+	 * Threads number of the current pool
+	 */
+	private static int poolThreadsNumber = 0;
+	/**
+	 * Pool thread (daemon)
+	 */
+	static final class PoolThread extends Thread {
+		/**
+		 * Creates pool thread.
+		 *
+		 * @param      task                the thread task
+		 */
+		PoolThread(Runnable task) {
+			super(task, "mXparser-worker");
+			setDaemon(true);
+		}
+	}
+	/**
+	 * Evaluation of the range chunk
+	 */
+	static final class Chunk implements Callable<StatisticsAccumulator> {
+		/**
+		 * Function
+		 */
+		private final CompiledExpression f;
+		/**
+		 * Index argument position in the function arguments
+		 */
+		private final int indexPos;
+		/**
+		 * First index value
+		 */
+		private final double start;
+		/**
+		 * Index step
+		 */
+		private final double delta;
+		/**
+		 * Number of iterations
+		 */
+		private final int iterations;
+		/**
+		 * Creates range chunk.
+		 *
+		 * @param      f                   the compiled function
+		 * @param      indexPos            the index argument position
+		 * @param      start               the first index value
+		 * @param      delta               the index step
+		 * @param      iterations          the number of iterations
+		 */
+		Chunk(CompiledExpression f, int indexPos, double start, double delta, int iterations) {
+			this.f = f;
+			this.indexPos = indexPos;
+			this.start = start;
+			this.delta = delta;
+			this.iterations = iterations;
+		}
+		/**
+		 * Evaluates function for the chunk index values.
+		 *
+		 * @return     Partial result.
+		 */
+		public StatisticsAccumulator call() {
+			EvaluationContext context = f.createContext();
+			StatisticsAccumulator a = new StatisticsAccumulator();
+			double i = start;
+			for (int k = 0; k < iterations; k++) {
+				context.setArgumentValue(indexPos, i);
+				a.add( f.calculate(context) );
+				i += delta;
+			}
+			return a;
+		}
+	}
+	/**
+	 * Gets threads pool sized by the current threads number setting.
+	 *
+	 * @return     Threads pool.
+	 */
+	static synchronized ExecutorService getPool() {
+		int threadsNumber = mXparser.getThreadsNumber();
+		if ( (pool == null) || (poolThreadsNumber != threadsNumber) ) {
+			pool = new ThreadPoolExecutor(threadsNumber, threadsNumber, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(),
+					new ThreadFactory() {
+						public Thread newThread(Runnable task) {
+							return new PoolThread(task);
+						}
+					});
+			pool.allowCoreThreadTimeOut(true);
+			poolThreadsNumber = threadsNumber;
+		}
+		return pool;
+	}
+	/**
+	 * Evaluates tasks by the threads pool.
+	 *
+	 * @param      tasks               the tasks
+	 *
+	 * @return     Tasks results in the tasks order, or null if tasks
+	 *             were not evaluated (called from the pool thread,
+	 *             interrupted, failed or rejected) - caller should
+	 *             evaluate them serially.
+	 */
+	static <T> List<T> invokeAll(List<? extends Callable<T>> tasks) {
+		if (Thread.currentThread() instanceof PoolThread) return null;
+		List<T> results = new ArrayList<T>(tasks.size());
+		try {
+			for (Future<T> task : getPool().invokeAll(tasks))
+				results.add(task.get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (ExecutionException e) {
+			return null;
+		} catch (RejectedExecutionException e) {
+			return null;
+		}
+		return results;
+	}
+	/**
+	 * Iterative operator value.
+	 *
+	 * @param      operatorId          the calculus operator id (SUM, PROD,
+	 *                                 MIN, MAX, AVG, VAR, STD)
+	 * @param      f                   the function expression
+	 * @param      index               the index argument
+	 * @param      from                FROM index = form
+	 * @param      to                  TO index = to
+	 * @param      delta               BY delta
+	 *
+	 * @return     Operator value.
+	 */
+	static double calculate(int operatorId, Expression f, Argument index, double from, double to, double delta) {
+		if ( (Double.isNaN(delta) ) || (Double.isNaN(from) ) || (Double.isNaN(to) ) || (delta == 0) )
+			return Double.NaN;
+		boolean positive;
+		if ( (to >= from) && (delta > 0) ) positive = true;
+		else if ( (to <= from) && (delta < 0) ) positive = false;
+		else return getResult(operatorId, new StatisticsAccumulator());
+		/*
+		 * Index values exactly as in the serial loop,
+		 * first index value of each chunk is remembered
+		 */
+		double[] starts = new double[16];
+		int chunks = 0;
+		long iterations = 0;
+		double i = from;
+		while ( (positive && (i < to)) || ( (!positive) && (i > to) ) ) {
+			if (iterations % CHUNK_SIZE == 0) {
+				if (chunks == starts.length) {
+					double[] newStarts = new double[2 * chunks];
+					System.arraycopy(starts, 0, newStarts, 0, chunks);
+					starts = newStarts;
+				}
+				starts[chunks++] = i;
+			}
+			iterations++;
+			i += delta;
+		}
+		boolean includeTo;
+		switch (operatorId) {
+		case CalculusOperator.SUM_ID:
+		case CalculusOperator.PROD_ID:
+		case CalculusOperator.AVG_ID:
+			if (positive) includeTo = ( delta - (i - to) > 0.5 * delta );
+			else includeTo = ( -delta - (to - i) > -0.5 * delta );
+			break;
+		default:
+			includeTo = true;
+		}
+		List<StatisticsAccumulator> partials = null;
+		if (iterations >= PARALLEL_MIN_ITERATIONS)
+			partials = calculateParallel(f, index, starts, chunks, iterations, delta);
+		StatisticsAccumulator result = new StatisticsAccumulator();
+		if (partials != null) {
+			for (StatisticsAccumulator partial : partials)
+				result.merge(partial);
+		} else {
+			for (int c = 0; c < chunks; c++)
+				result.merge( calculateSerial(f, index, starts[c], delta, getChunkIterations(iterations, c)) );
+		}
+		if (includeTo)
+			result.add( mXparser.getFunctionValue(f, index, to) );
+		return getResult(operatorId, result);
+	}
+	/**
+	 * Gets operator result.
+	 *
+	 * @param      operatorId          the calculus operator id
+	 * @param      a                   the accumulated function values
+	 *
+	 * @return     Operator result.
+	 */
+	private static double getResult(int operatorId, StatisticsAccumulator a) {
+		switch (operatorId) {
+		case CalculusOperator.SUM_ID: return a.getSum();
+		case CalculusOperator.PROD_ID: return a.getProduct();
+		case CalculusOperator.MIN_ID: return a.getMin();
+		case CalculusOperator.MAX_ID: return a.getMax();
+		case CalculusOperator.AVG_ID: return a.getAvg();
+		case CalculusOperator.VAR_ID: return a.getVar();
+		case CalculusOperator.STD_ID: return a.getStd();
+		}
+		return Double.NaN;
+	}
+	/**
+	 * Number of iterations of the chunk.
+	 *
+	 * @param      iterations          the number of iterations of the range
+	 * @param      c                   the chunk number
+	 *
+	 * @return     Number of iterations of the chunk.
+	 */
+	private static int getChunkIterations(long iterations, int c) {
+		long chunkIterations = iterations - (long)c * CHUNK_SIZE;
+		if (chunkIterations > CHUNK_SIZE) chunkIterations = CHUNK_SIZE;
+		return (int)chunkIterations;
+	}
+	/**
+	 * Serial evaluation of the range chunk by the function expression.
+	 *
+	 * @param      f                   the function expression
+	 * @param      index               the index argument
+	 * @param      start               the first index value
+	 * @param      delta               the index step
+	 * @param      iterations          the number of iterations
+	 *
+	 * @return     Partial result.
+	 */
+	private static StatisticsAccumulator calculateSerial(Expression f, Argument index, double start, double delta, int iterations) {
+		StatisticsAccumulator a = new StatisticsAccumulator();
+		double i = start;
+		for (int k = 0; k < iterations; k++) {
+			a.add( mXparser.getFunctionValue(f, index, i) );
+			i += delta;
+		}
+		return a;
+	}
+	/**
+	 * Parallel evaluation of the range chunks.
+	 *
+	 * @param      f                   the function expression
+	 * @param      index               the index argument
+	 * @param      starts              the first index values of the chunks
+	 * @param      chunks              the number of chunks
+	 * @param      iterations          the number of iterations of the range
+	 * @param      delta               BY delta
+	 *
+	 * @return     Partial results in the chunks order, or null if
+	 *             chunks should be evaluated serially.
+	 */
+	private static List<StatisticsAccumulator> calculateParallel(Expression f, Argument index, double[] starts, int chunks, long iterations, double delta) {
+		if (mXparser.getThreadsNumber() < 2) return null;
+		if (f.getVerboseMode()) return null;
+		CompiledExpression compiled = CompiledExpression.share(f);
+		if (compiled == null) return null;
+		int indexPos = compiled.getArgumentIndex(index);
+		if (indexPos < 0) return null;
+		List<Chunk> tasks = new ArrayList<Chunk>(chunks);
+		for (int c = 0; c < chunks; c++)
+			tasks.add( new Chunk(compiled, indexPos, starts[c], delta, getChunkIterations(iterations, c)) );
+		return invokeAll(tasks);
+	}
+}
@@ -0,0 +1,251 @@
+/*
+ * @(#)KeyWordsTrie.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.mariuszgromada.math.mxparser.parsertokens.KeyWord;
+
+/**
+ * KeyWordsTrie - prefix tree of the key words known by the parser,
+ * used while tokenizing the expression string.
+ *
+ * Built-in key words are stored in the tries shared by all expressions
+ * (one trie for each key words variant, rebuilt only when mXparser
+ * options are changed), user defined key words (arguments, functions,
+ * constants) are stored in the small trie built by the expression.
+ * Key words ending in the same node are kept in the order of adding,
+ * which gives the same best match as sorting the key words list
+ * by descending length.
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ *
+ * @see Expression
+ * @see KeyWord
+ */
+final class KeyWordsTrie {
+	/**
+	 * Empty key words array
+	 */
+	private static final KeyWord[] NO_KEY_WORDS = new KeyWord[0];
+	/**
+	 * Trie node
+	 */
+	static final class Node {
+		/**
+		 * Characters of the child nodes (sorted)
+		 */
+		char[] chars = new char[0];
+		/**
+		 * Child nodes
+		 */
+		Node[] nodes = new Node[0];
+		/**
+		 * Key words ending in this node
+		 */
+		KeyWord[] keyWords = NO_KEY_WORDS;
+		/**
+		 * Gets child node.
+		 *
+		 * @param      c                   the character
+		 *
+		 * @return     Child node if exists, otherwise returns null.
+		 */
+		Node get(char c) {
+			int i = Arrays.binarySearch(chars, c);
+			if (i < 0) return null;
+			return nodes[i];
+		}
+		/**
+		 * Gets child node, creates the node if does not exist.
+		 *
+		 * @param      c                   the character
+		 *
+		 * @return     Child node.
+		 */
+		Node getOrAdd(char c) {
+			int i = Arrays.binarySearch(chars, c);
+			if (i >= 0) return nodes[i];
+			i = -i - 1;
+			int n = chars.length;
+			char[] newChars = new char[n + 1];
+			Node[] newNodes = new Node[n + 1];
+			System.arraycopy(chars, 0, newChars, 0, i);
+			System.arraycopy(nodes, 0, newNodes, 0, i);
+			System.arraycopy(chars, i, newChars, i + 1, n - i);
+			System.arraycopy(nodes, i, newNodes, i + 1, n - i);
+			Node node = new Node();
+			newChars[i] = c;
+			newNodes[i] = node;
+			chars = newChars;
+			nodes = newNodes;
+			return node;
+		}
+	}
+	/**
+	 * Root node
+	 */
+	private final Node root = new Node();
+	/**
+	 * Key words in the order of adding
+	 */
+	final List<KeyWord> keyWordsList = new ArrayList<KeyWord>();
+	/**
+	 * Length of the longest key word
+	 */
+	int maxLength = 0;
+	/**
+	 * mXparser options changeset number for which the trie was built
+	 * (built-in key words only)
+	 */
+	int optionsChangesetNumber = -1;
+	/**
+	 * Duplicated key words strings, one entry for each
+	 * duplicate (built-in key words only)
+	 */
+	final List<String> duplicatedKeyWords = new ArrayList<String>();
+	/**
+	 * Number key word (built-in key words only)
+	 */
+	KeyWord numberKeyWord = null;
+	/**
+	 * Plus operator key word (built-in key words only)
+	 */
+	KeyWord plusKeyWord = null;
+	/**
+	 * Minus operator key word (built-in key words only)
+	 */
+	KeyWord minusKeyWord = null;
+	/**
+	 * Creates trie of the given key words.
+	 *
+	 * @param      keyWordsList        the key words
+	 */
+	KeyWordsTrie(List<KeyWord> keyWordsList) {
+		for (KeyWord kw : keyWordsList)
+			add(kw);
+	}
+	/**
+	 * Adds key word to the trie.
+	 *
+	 * @param      kw                  the key word
+	 */
+	void add(KeyWord kw) {
+		String str = kw.wordString;
+		Node node = root;
+		for (int i = 0; i < str.length(); i++)
+			node = node.getOrAdd(str.charAt(i));
+		int n = node.keyWords.length;
+		KeyWord[] keyWords = new KeyWord[n + 1];
+		System.arraycopy(node.keyWords, 0, keyWords, 0, n);
+		keyWords[n] = kw;
+		node.keyWords = keyWords;
+		keyWordsList.add(kw);
+		if (str.length() > maxLength)
+			maxLength = str.length();
+	}
+	/**
+	 * Walks the trie along the string starting at given position.
+	 *
+	 * @param      str                 the string
+	 * @param      pos                 the starting position
+	 * @param      path                the path buffer (at least maxLength long),
+	 *                                 path[i] is the node reached after
+	 *                                 i+1 characters
+	 *
+	 * @return     Number of nodes reached.
+	 */
+	int walk(String str, int pos, Node[] path) {
+		Node node = root;
+		int depth = 0;
+		int length = str.length();
+		while (pos + depth < length) {
+			node = node.get(str.charAt(pos + depth));
+			if (node == null) break;
+			path[depth] = node;
+			depth++;
+		}
+		return depth;
+	}
+	/**
+	 * Gets key words equal to the given string.
+	 *
+	 * @param      str                 the string
+	 *
+	 * @return     Key words equal to the string (possibly empty array).
+	 */
+	KeyWord[] find(String str) {
+		Node node = root;
+		for (int i = 0; i < str.length(); i++) {
+			node = node.get(str.charAt(i));
+			if (node == null) return NO_KEY_WORDS;
+		}
+		return node.keyWords;
+	}
+}
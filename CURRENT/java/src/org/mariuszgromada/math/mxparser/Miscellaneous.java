@@ -53,6 +53,7 @@
 package org.mariuszgromada.math.mxparser;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Comparator;
 
 import org.mariuszgromada.math.mxparser.parsertokens.ConstantValue;
@@ -271,4 +272,170 @@ class TokenModification {
 	String currentToken;
 	String newToken;
 	String newTokenDescription;
-}
\ No newline at end of file
+}
+/**
+ * Package level class holding the state of a single evaluation
+ * of the compiled expression: values of the arguments and random
+ * variables, decisions taken by if / iff functions, parameters
+ * arrays of the variadic and user defined functions and the
+ * recursion calls counter. If the evaluation context is given
+ * arguments values are taken from the context and no expression
+ * state is modified.
+ *
+ * Frames are reused between evaluations (frame of the expression,
+ * frame of the evaluation context) - arrays are allocated only when
+ * the compiled expression requires more slots than the frame has.
+ * Nested evaluations (dependent arguments, user defined functions)
+ * use the nested frame owned by the caller frame, together with the
+ * parameters context owned by the nested frame, therefore in the
+ * steady state evaluation does not allocate memory.
+ */
+class EvaluationFrame {
+	private static final double[] NO_VALUES = new double[0];
+	private static final int[] NO_DECISIONS = new int[0];
+	private static final double[][] NO_ARRAYS = new double[0][];
+	private static final CompiledNode.CalculusFunction[] NO_CALCULUS_FUNCTIONS = new CompiledNode.CalculusFunction[0];
+	private static final CompiledNode.ParametersList[] NO_PARAMETERS_LISTS = new CompiledNode.ParametersList[0];
+	Expression expression;
+	EvaluationContext context;
+	double[] udfParameters = NO_VALUES;
+	int udfParametersNumber;
+	Map<Expression, CompiledExpression> nestedExpressions;
+	double[] values = NO_VALUES;
+	int[] decisions = NO_DECISIONS;
+	double[][] arrays = NO_ARRAYS;
+	CompiledNode.CalculusFunction[] calculusFunctions = NO_CALCULUS_FUNCTIONS;
+	CompiledNode.ParametersList[] parametersLists = NO_PARAMETERS_LISTS;
+	int recursionCallsCounter;
+	EvaluationOptions options;
+	boolean inUse = false;
+	private EvaluationFrame nestedFrame;
+	private EvaluationContext parametersContext;
+	private double[] ownParameters = NO_VALUES;
+	private EvaluationOptions globalOptions;
+	/**
+	 * Prepares frame for the evaluation of the compiled expression.
+	 */
+	void init(CompiledExpression compiledExpression, int recursionCallsCounter) {
+		if (values.length < compiledExpression.valuesNumber)
+			values = new double[compiledExpression.valuesNumber];
+		if (decisions.length < compiledExpression.decisionsNumber)
+			decisions = new int[compiledExpression.decisionsNumber];
+		if (arrays.length < compiledExpression.arraysNumber)
+			arrays = new double[compiledExpression.arraysNumber][];
+		if (calculusFunctions.length < compiledExpression.calculusNumber)
+			calculusFunctions = new CompiledNode.CalculusFunction[compiledExpression.calculusNumber];
+		if (parametersLists.length < compiledExpression.arraysNumber)
+			parametersLists = new CompiledNode.ParametersList[compiledExpression.arraysNumber];
+		this.recursionCallsCounter = recursionCallsCounter;
+	}
+	/**
+	 * Prepares frame for the evaluation modifying the expression state.
+	 */
+	void init(Expression expression, CompiledExpression compiledExpression, int recursionCallsCounter) {
+		init(compiledExpression, recursionCallsCounter);
+		this.expression = expression;
+		context = null;
+		nestedExpressions = null;
+		List<Double> params = expression.UDFVariadicParamsAtRunTime;
+		udfParametersNumber = 0;
+		if (params == null) return;
+		int n = params.size();
+		if (ownParameters.length < n)
+			ownParameters = new double[n];
+		if (params instanceof CompiledNode.ParametersList)
+			System.arraycopy(((CompiledNode.ParametersList)params).values, 0, ownParameters, 0, n);
+		else
+			for (int i = 0; i < n; i++)
+				ownParameters[i] = params.get(i);
+		udfParameters = ownParameters;
+		udfParametersNumber = n;
+	}
+	/**
+	 * Prepares frame for the evaluation with the context.
+	 */
+	void init(CompiledExpression compiledExpression, EvaluationContext context, double[] udfParameters, int udfParametersNumber,
+			Map<Expression, CompiledExpression> nestedExpressions, int recursionCallsCounter) {
+		init(compiledExpression, recursionCallsCounter);
+		expression = null;
+		this.context = context;
+		this.udfParameters = udfParameters;
+		this.udfParametersNumber = udfParametersNumber;
+		this.nestedExpressions = nestedExpressions;
+	}
+	/**
+	 * Prepares frame for the compile time evaluation of the constant sub-tree.
+	 */
+	void initFolding(EvaluationOptions options, int arraysNumber) {
+		if (arrays.length < arraysNumber)
+			arrays = new double[arraysNumber][];
+		this.options = options;
+	}
+	/**
+	 * Sets options of the evaluation, null - current global settings.
+	 */
+	void setOptions(EvaluationOptions options) {
+		if (options == null) {
+			if (globalOptions == null)
+				globalOptions = new EvaluationOptions();
+			else
+				globalOptions.loadGlobalOptions();
+			options = globalOptions;
+		}
+		this.options = options;
+	}
+	/**
+	 * Gets parameters array of the given slot and length.
+	 */
+	double[] getArray(int slot, int length) {
+		double[] array = arrays[slot];
+		if ( (array == null) || (array.length != length) ) {
+			array = new double[length];
+			arrays[slot] = array;
+		}
+		return array;
+	}
+	/**
+	 * Gets parameters list of the user defined function call
+	 * of the given slot, backed by the given parameters array.
+	 */
+	CompiledNode.ParametersList getParametersList(int slot, CompiledNode.UserFunction node, double[] values) {
+		CompiledNode.ParametersList list = parametersLists[slot];
+		if ( (list == null) || (list.node != node) ) {
+			list = new CompiledNode.ParametersList(node);
+			parametersLists[slot] = list;
+		}
+		list.values = values;
+		return list;
+	}
+	/**
+	 * Gets function of the calculus operator of the given slot.
+	 */
+	CompiledNode.CalculusFunction getCalculusFunction(int slot, CompiledNode.CalculusOperation node) {
+		CompiledNode.CalculusFunction function = calculusFunctions[slot];
+		if ( (function == null) || (function.node != node) ) {
+			function = new CompiledNode.CalculusFunction(node);
+			calculusFunctions[slot] = function;
+		}
+		function.frame = this;
+		return function;
+	}
+	/**
+	 * Gets frame for the nested evaluation.
+	 */
+	EvaluationFrame getNestedFrame() {
+		if (nestedFrame == null)
+			nestedFrame = new EvaluationFrame();
+		return nestedFrame;
+	}
+	/**
+	 * Gets context for the user defined function parameters.
+	 */
+	EvaluationContext getParametersContext(Argument[] parameters, EvaluationContext parent) {
+		if (parametersContext == null)
+			parametersContext = new EvaluationContext(parameters, parent);
+		else
+			parametersContext.reset(parameters, parent);
+		return parametersContext;
+	}
+}
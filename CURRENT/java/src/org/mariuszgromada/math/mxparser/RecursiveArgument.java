@@ -53,8 +53,11 @@
 package org.mariuszgromada.math.mxparser;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import org.mariuszgromada.math.mxparser.parsertokens.Operator;
 import org.mariuszgromada.math.mxparser.parsertokens.ParserSymbol;
+import org.mariuszgromada.math.mxparser.parsertokens.Token;
 /**
  * RecursiveArgument class enables to declare the argument
  * (variable) which is defined in a recursive way. Such an argument
@@ -84,6 +87,11 @@ import org.mariuszgromada.math.mxparser.parsertokens.ParserSymbol;
  * <li>For negative 'n' you will get Double.NaN.
  *
  * </ul>
+ * <p>
+ * Calculated elements are remembered. If all recursive calls refer to the preceding
+ * elements in the form 'a(n-k)' (k - positive integer) the elements are calculated
+ * iteratively, starting from the lowest unknown one, without deep recursive calls.
+ * Value calculation is synchronized on the argument.
  *
  * @author         <b>Mariusz Gromada</b><br>
  *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
@@ -113,14 +121,32 @@ public class RecursiveArgument extends Argument {
 	public static final int TYPE_ID_RECURSIVE		= 102;
 	public static final String TYPE_DESC_RECURSIVE			= "User defined recursive argument";
 	/**
-	 * Base values
+	 * Base values and values already calculated (Double.NaN - value
+	 * not known), the number of the values remembered.
 	 */
-	private List<Double> baseValues;
+	private double[] baseValues;
+	private int baseValuesNumber;
 	/**
 	 * To avoid never ending loops
 	 */
 	private int recursiveCounter;
 	private int startingIndex;
+	/**
+	 * Expressions calculating the recursive step, one for each
+	 * level of recursive calls, created once and then reused.
+	 */
+	private List<Expression> stepExpressions;
+	/**
+	 * Number of the argument expression modifications
+	 * the step expressions were created for.
+	 */
+	private int stepExpressionsModifications;
+	/**
+	 * Indicator whether the recursive calls refer only to the preceding
+	 * elements, i.e. 'a(n) = a(n-1) + a(n-2)' - such sequence is calculated
+	 * iteratively from the lowest unknown element up to the requested one.
+	 */
+	private boolean linearRecurrence;
 	/**
 	 * Constructor - creates recursive argument.
 	 *
@@ -132,7 +158,7 @@ public class RecursiveArgument extends Argument {
 		super(argumentName, recursiveExpressionString);
 		if (argumentName.equals(this.getArgumentName())) {
 			this.argumentType = RECURSIVE_ARGUMENT;
-			baseValues = new ArrayList<Double>();
+			baseValues = new double[0];
 			this.n = new Argument(indexName);
 			super.argumentExpression.addArguments(n);
 			super.argumentExpression.addArguments(this);
@@ -156,7 +182,7 @@ public class RecursiveArgument extends Argument {
 		super(argumentName, recursiveExpressionString);
 		if (argumentName.equals(this.getArgumentName())) {
 			this.argumentType = RECURSIVE_ARGUMENT;
-			baseValues = new ArrayList<Double>();
+			baseValues = new double[0];
 			this.n = n;
 			super.argumentExpression.addArguments(n);
 			super.argumentExpression.addArguments(this);
@@ -188,7 +214,7 @@ public class RecursiveArgument extends Argument {
 		super(argumentDefinitionString);
 		if ( mXparser.regexMatch(argumentDefinitionString, ParserSymbol.function1ArgDefStrRegExp) ) {
 			this.argumentType = RECURSIVE_ARGUMENT;
-			baseValues = new ArrayList<Double>();
+			baseValues = new double[0];
 			recursiveCounter = -1;
 			super.argumentExpression.addArguments(super.n);
 			super.argumentExpression.addArguments(this);
@@ -205,23 +231,24 @@ public class RecursiveArgument extends Argument {
 	 * @param      index               the base case index
 	 * @param      value               the base case value
 	 */
-	public void addBaseCase(int index, double value) {
-		int recSize = baseValues.size();
-		if (index > recSize-1) {
+	public synchronized void addBaseCase(int index, double value) {
+		if (index > baseValuesNumber-1) {
 			/*
 			 * Expand base values array if necessary
 			 */
-			for (int i = recSize; i < index; i++)
-				baseValues.add( new Double(Double.NaN) );
-			baseValues.add( new Double(value) );
-		} else
-			baseValues.set(index, new Double(value));
+			if (index >= baseValues.length)
+				baseValues = Arrays.copyOf(baseValues, Math.max(index + 1, 2 * baseValues.length));
+			for (int i = baseValuesNumber; i < index; i++)
+				baseValues[i] = Double.NaN;
+			baseValuesNumber = index + 1;
+		}
+		baseValues[index] = value;
 	}
 	/**
 	 * Clears all based cases and stored calculated values
 	 */
-	public void resetAllCases() {
-		baseValues.clear();
+	public synchronized void resetAllCases() {
+		baseValuesNumber = 0;
 		recursiveCounter = -1;
 	}
 	/**
@@ -231,13 +258,15 @@ public class RecursiveArgument extends Argument {
 	 *
 	 * @return     value as double
 	 */
-	public double getArgumentValue(double index) {
+	public synchronized double getArgumentValue(double index) {
 		/*
 		 * Remember starting index
 		 */
-		if (recursiveCounter == -1)
+		if (recursiveCounter == -1) {
 			startingIndex = (int)Math.round(index);
-		int recSize = baseValues.size();
+			calculateIteratively(startingIndex);
+		}
+		int recSize = baseValuesNumber;
 		int idx = (int)Math.round(index);
 		/*
 		 * Count recursive calls
@@ -248,14 +277,14 @@ public class RecursiveArgument extends Argument {
 			 * if recursive counter is still lower than starting index
 			 * and current index is not increasing
 			 */
-			if ((idx >= 0) && (idx < recSize) && (!Double.isNaN(baseValues.get(idx).doubleValue())) ) {
+			if ((idx >= 0) && (idx < recSize) && (!Double.isNaN(baseValues[idx])) ) {
 				/*
 				 * decrease recursive counter and return value
 				 * if recursive value for the current index was already
 				 * calculated and remembered in the base values table
 				 */
 				recursiveCounter--;
-				return baseValues.get(idx).doubleValue();
+				return baseValues[idx];
 			}
 			else if (idx >= 0) {
 				/*
@@ -266,23 +295,10 @@ public class RecursiveArgument extends Argument {
 				 */
 				n.setArgumentValue(idx);
 				/*
-				 * create new expression
-				 */
-				Expression newExp = new Expression(
-						super.argumentExpression.expressionString
-						,super.argumentExpression.argumentsList
-						,super.argumentExpression.functionsList
-						,super.argumentExpression.constantsList
-						,Expression.INTERNAL
-						,super.argumentExpression.UDFExpression
-						,super.argumentExpression.UDFVariadicParamsAtRunTime);
-				newExp.setDescription(super.getArgumentName());
-				if (super.getVerboseMode() == true)
-					newExp.setVerboseMode();
-				/*
-				 * perform recursive call
+				 * perform recursive call, expression of the current
+				 * recursion level is reused
 				 */
-				double value = newExp.calculate();
+				double value = getStepExpression(recursiveCounter).calculate();
 				/*
 				 * remember calculated in the base values array
 				 */
@@ -309,4 +325,129 @@ public class RecursiveArgument extends Argument {
 			return Double.NaN;
 		}
 	}
-}
\ No newline at end of file
+	/**
+	 * Calculates linear recurrence iteratively - unknown elements
+	 * preceding the requested one are calculated and remembered
+	 * starting from the lowest one, so each step refers to the values
+	 * already known and no deep recursive calls are needed.
+	 *
+	 * @param      index               the requested index
+	 */
+	private void calculateIteratively(int index) {
+		if ( (index < 0) || ( (index < baseValuesNumber) && (!Double.isNaN(baseValues[index])) ) )
+			return;
+		prepareStepExpressions();
+		if (linearRecurrence == false)
+			return;
+		int lowestIndex = index;
+		while ( (lowestIndex > 0) && ( (lowestIndex > baseValuesNumber) || (Double.isNaN(baseValues[lowestIndex-1])) ) )
+			lowestIndex--;
+		Expression stepExpression = getStepExpression(0);
+		for (int i = lowestIndex; i <= index; i++) {
+			startingIndex = i;
+			recursiveCounter = 0;
+			n.setArgumentValue(i);
+			double value = stepExpression.calculate();
+			recursiveCounter = -1;
+			addBaseCase(i, value);
+		}
+		startingIndex = index;
+	}
+	/**
+	 * Creates step expressions list again if the argument
+	 * expression was modified.
+	 */
+	private void prepareStepExpressions() {
+		if ( (stepExpressions != null) && (stepExpressionsModifications == super.argumentExpression.modificationsNumber) )
+			return;
+		stepExpressions = new ArrayList<Expression>();
+		stepExpressionsModifications = super.argumentExpression.modificationsNumber;
+		Expression stepExpression = createStepExpression();
+		stepExpressions.add(stepExpression);
+		linearRecurrence = checkIfLinearRecurrence(stepExpression);
+	}
+	/**
+	 * Gets expression calculating the recursive step
+	 * on the given level of recursive calls.
+	 *
+	 * @param      level               the recursion level
+	 *
+	 * @return     Step expression.
+	 */
+	private Expression getStepExpression(int level) {
+		prepareStepExpressions();
+		while (stepExpressions.size() <= level)
+			stepExpressions.add( createStepExpression() );
+		Expression stepExpression = stepExpressions.get(level);
+		if (super.getVerboseMode() == true)
+			stepExpression.setVerboseMode();
+		else
+			stepExpression.setSilentMode();
+		return stepExpression;
+	}
+	/**
+	 * Creates expression calculating the recursive step.
+	 *
+	 * @return     New step expression.
+	 */
+	private Expression createStepExpression() {
+		Expression stepExpression = new Expression(
+				super.argumentExpression.expressionString
+				,super.argumentExpression.argumentsList
+				,super.argumentExpression.functionsList
+				,super.argumentExpression.constantsList
+				,Expression.INTERNAL
+				,super.argumentExpression.UDFExpression
+				,super.argumentExpression.UDFVariadicParamsAtRunTime);
+		stepExpression.setDescription(super.getArgumentName());
+		return stepExpression;
+	}
+	/**
+	 * Checks whether all recursive calls refer to the preceding
+	 * elements given as 'a(n-k)', where k is a positive integer.
+	 *
+	 * @param      stepExpression      the step expression
+	 *
+	 * @return     true if recurrence is linear, otherwise false.
+	 */
+	private boolean checkIfLinearRecurrence(Expression stepExpression) {
+		if (stepExpression.checkSyntax() != Expression.NO_SYNTAX_ERRORS)
+			return false;
+		List<Token> tokens = stepExpression.getInitialTokens();
+		if (tokens == null)
+			return false;
+		List<Argument> argumentsList = stepExpression.argumentsList;
+		int recursiveCalls = 0;
+		for (int i = 0; i < tokens.size(); i++) {
+			Token token = tokens.get(i);
+			if ( (token.tokenTypeId != TYPE_ID_RECURSIVE) || (argumentsList.get(token.tokenId) != this) )
+				continue;
+			if (i + 5 >= tokens.size())
+				return false;
+			Token indexToken = tokens.get(i+2);
+			Token shiftToken = tokens.get(i+4);
+			if ( (isToken(tokens.get(i+1), ParserSymbol.TYPE_ID, ParserSymbol.LEFT_PARENTHESES_ID) == false)
+					|| (indexToken.tokenTypeId != Argument.TYPE_ID) || (argumentsList.get(indexToken.tokenId) != n)
+					|| (isToken(tokens.get(i+3), Operator.TYPE_ID, Operator.MINUS_ID) == false)
+					|| (shiftToken.tokenTypeId != ParserSymbol.NUMBER_TYPE_ID)
+					|| (shiftToken.tokenValue < 1) || (shiftToken.tokenValue != Math.floor(shiftToken.tokenValue))
+					|| (isToken(tokens.get(i+5), ParserSymbol.TYPE_ID, ParserSymbol.RIGHT_PARENTHESES_ID) == false) )
+				return false;
+			recursiveCalls++;
+		}
+		return (recursiveCalls > 0);
+	}
+	/**
+	 * Checks token type and identifier.
+	 *
+	 * @param      token               the token
+	 * @param      tokenTypeId         the token type identifier
+	 * @param      tokenId             the token identifier
+	 *
+	 * @return     true if token is of the given type and identifier,
+	 *             otherwise false.
+	 */
+	private static boolean isToken(Token token, int tokenTypeId, int tokenId) {
+		return (token.tokenTypeId == tokenTypeId) && (token.tokenId == tokenId);
+	}
+}
@@ -54,7 +54,9 @@ package org.mariuszgromada.math.mxparser;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import org.mariuszgromada.math.mxparser.mathcollection.BinaryRelations;
@@ -125,7 +127,7 @@ public final class mXparser {
 	/**
 	 * Prime numbers cache
 	 */
-	public static PrimesCache primesCache;
+	public static volatile PrimesCache primesCache;
 	public static final int PRIMES_CACHE_NOT_INITIALIZED = -1;
 	/**
 	 * Threads number settings
@@ -190,6 +192,16 @@ public final class mXparser {
 	 * Options changeset
 	 */
 	static int optionsChangesetNumber = 0;
+	/**
+	 * Maximum number of compiled patterns kept in the cache
+	 */
+	private static final int PATTERNS_CACHE_SIZE = 256;
+	/**
+	 * Compiled patterns cache
+	 *
+	 * @see mXparser#regexMatch(String, String)
+	 */
+	private static final Map<String, Pattern> patterns = new ConcurrentHashMap<String, Pattern>();
 	/**
 	 * Initialization of prime numbers cache.
 	 * Cache size according to {@link PrimesCache#DEFAULT_MAX_NUM_IN_CACHE}
@@ -207,6 +219,18 @@ public final class mXparser {
 	public static final void initPrimesCache(int mximumNumberInCache) {
 		primesCache = new PrimesCache(mximumNumberInCache);
 	}
+	/**
+	 * Initialization of prime numbers cache extended on demand.
+	 * @param mximumNumberInCache The maximum integer number that
+	 *                            will be stored in cache initially.
+	 * @param maximumNumberInCacheLimit The maximum integer number that
+	 *                            can be stored in cache by the extension
+	 *                            on demand.
+	 * @see PrimesCache#PrimesCache(int, int)
+	 */
+	public static final void initPrimesCache(int mximumNumberInCache, int maximumNumberInCacheLimit) {
+		primesCache = new PrimesCache(mximumNumberInCache, maximumNumberInCacheLimit);
+	}
 	/**
 	 * Initialization of prime numbers cache.
 	 * @param primesCache The primes cache object
@@ -227,6 +251,7 @@ public final class mXparser {
 	 * primes cache, otherwise {@link mXparser#PRIMES_CACHE_NOT_INITIALIZED}
 	 */
 	public static final int getMaxNumInPrimesCache() {
+		PrimesCache primesCache = mXparser.primesCache;
 		if ( primesCache != null )
 			return primesCache.getMaxNumInCache();
 		else
@@ -254,6 +279,32 @@ public final class mXparser {
 	public static final void setThreadsNumber(int threadsNumber) {
 		if (threadsNumber > 0) THREADS_NUMBER = threadsNumber;
 	}
+	/**
+	 * Gets maximum number of integrand evaluations of the int(...) operator.
+	 *
+	 * @return Maximum number of integrand evaluations.
+	 */
+	public static final int getIntegrationMaxEvaluations() {
+		return AdaptiveIntegration.getMaxEvaluations();
+	}
+	/**
+	 * Sets default maximum number of integrand evaluations
+	 * of the int(...) operator.
+	 */
+	public static final void setDefaultIntegrationMaxEvaluations() {
+		AdaptiveIntegration.setMaxEvaluations(AdaptiveIntegration.DEFAULT_MAX_EVALUATIONS);
+	}
+	/**
+	 * Sets maximum number of integrand evaluations of the int(...) operator
+	 * (work budget of the adaptive integration). If the budget is exhausted
+	 * the current integral estimate is returned.
+	 *
+	 * @param maxEvaluations  Maximum number of integrand evaluations,
+	 *                        values lower than 15 are ignored.
+	 */
+	public static final void setIntegrationMaxEvaluations(int maxEvaluations) {
+		AdaptiveIntegration.setMaxEvaluations(maxEvaluations);
+	}
 	/**
 	 * Calculates function f(x0) (given as expression) assigning Argument x = x0;
 	 *
@@ -743,6 +794,60 @@ public final class mXparser {
 	public static final boolean checkIfsetToOverrideBuiltinTokens() {
 		return overrideBuiltinTokens;
 	}
+	/**
+	 * Sets limits of the expressions cache. Cache keeps results of the
+	 * syntax checking and tokenization for expressions with the same
+	 * expression string and the same definitions (arguments, functions,
+	 * constants), so repeated parsing costs only a hash lookup.
+	 * Least recently used entries are evicted first.
+	 *
+	 * @param maxEntries   Maximum number of cached expressions,
+	 *                     0 disables the cache.
+	 * @param maxTokens    Maximum total number of cached tokens.
+	 */
+	public static final void setExpressionsCacheLimits(int maxEntries, int maxTokens) {
+		ExpressionsCache.setLimits(maxEntries, maxTokens);
+	}
+	/**
+	 * Sets default limits of the expressions cache.
+	 *
+	 * @see #setExpressionsCacheLimits(int, int)
+	 */
+	public static final void setDefaultExpressionsCacheLimits() {
+		ExpressionsCache.setLimits(ExpressionsCache.DEFAULT_MAX_ENTRIES, ExpressionsCache.DEFAULT_MAX_WEIGHT);
+	}
+	/**
+	 * Disables the expressions cache (removes all cached expressions).
+	 *
+	 * @see #setExpressionsCacheLimits(int, int)
+	 */
+	public static final void disableExpressionsCache() {
+		ExpressionsCache.setLimits(0, 0);
+	}
+	/**
+	 * Checks whether expressions cache is enabled.
+	 *
+	 * @return True if expressions cache is enabled, otherwise false.
+	 */
+	public static final boolean checkIfExpressionsCacheEnabled() {
+		return ExpressionsCache.isEnabled();
+	}
+	/**
+	 * Removes all cached expressions and resets cache statistics.
+	 */
+	public static final void clearExpressionsCache() {
+		ExpressionsCache.clear();
+	}
+	/**
+	 * Returns expressions cache statistics.
+	 *
+	 * @return long[0] - number of hits, long[1] - number of misses,
+	 *         long[2] - number of evicted entries, long[3] - number of
+	 *         cached expressions, long[4] - total number of cached tokens.
+	 */
+	public static final long[] getExpressionsCacheStatistics() {
+		return ExpressionsCache.getStatistics();
+	}
 	/**
 	 * Returns token type description.
 	 *
@@ -1198,8 +1303,24 @@ public final class mXparser {
 	 * @return            True if pattern matches entirely, False otherwise
 	 */
     public static final boolean regexMatch(String str, String pattern){
-        return Pattern.matches(pattern, str);
+        return getPattern(pattern).matcher(str).matches();
     }
+	/**
+	 * Gets compiled pattern, patterns used by the parser
+	 * are compiled once and cached.
+	 *
+	 * @param regex       Pattern (regexp)
+	 *
+	 * @return            Compiled pattern.
+	 */
+	static final Pattern getPattern(String regex) {
+		Pattern pattern = patterns.get(regex);
+		if (pattern != null) return pattern;
+		pattern = Pattern.compile(regex);
+		if (patterns.size() < PATTERNS_CACHE_SIZE)
+			patterns.put(regex, pattern);
+		return pattern;
+	}
     /**
      * Prints tokens to the console.
      * @param tokens   Tokens list.
@@ -152,6 +152,21 @@ public final class BinaryRelations {
 	 *             otherwise return 0.
 	 */
 	public static final double eq(double a, double b) {
+		return eq(a, b, epsilonComparison, epsilon);
+	}
+	/**
+	 * Equality relation.
+	 *
+	 * @param      a                   the a number (a = b)
+	 * @param      b                   the b number (a = b)
+	 * @param      epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param      epsilon             the epsilon used by the epsilon comparison
+	 *
+	 * @return     if a = Double.NaN or b = Double.NaN return Double.NaN,
+	 *             else if a = b return 1,
+	 *             otherwise return 0.
+	 */
+	public static final double eq(double a, double b, boolean epsilonComparison, double epsilon) {
 		if ( ( Double.isNaN(a) ) || ( Double.isNaN(b) ) ) return Double.NaN;
 		double eps = NumberTheory.max(epsilon, MathFunctions.ulp(b) );
 		if ( Double.isInfinite(a) || Double.isInfinite(b) ) eps = 0;
@@ -172,6 +187,21 @@ public final class BinaryRelations {
 	 *             otherwise return 0.
 	 */
 	public static final double neq(double a, double b) {
+		return neq(a, b, epsilonComparison, epsilon);
+	}
+	/**
+	 * Inequality relation.
+	 *
+	 * @param      a                   the a number (a &lt;&gt; b)
+	 * @param      b                   the b number (a &lt;&gt; b)
+	 * @param      epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param      epsilon             the epsilon used by the epsilon comparison
+	 *
+	 * @return     if a = Double.NaN or b = Double.NaN return Double.NaN,
+	 *             else if a &lt;&gt; b return 1,
+	 *             otherwise return 0.
+	 */
+	public static final double neq(double a, double b, boolean epsilonComparison, double epsilon) {
 		if ( ( Double.isNaN(a) ) || ( Double.isNaN(b) ) ) return Double.NaN;
 		double eps = NumberTheory.max(epsilon, MathFunctions.ulp(b) );
 		if ( Double.isInfinite(a) || Double.isInfinite(b) ) eps = 0;
@@ -192,6 +222,21 @@ public final class BinaryRelations {
 	 *             otherwise return 0.
 	 */
 	public static final double lt(double a, double b) {
+		return lt(a, b, epsilonComparison, epsilon);
+	}
+	/**
+	 * Lower than relation.
+	 *
+	 * @param      a                   the a number (a &lt; b)
+	 * @param      b                   the b number (a &lt; b)
+	 * @param      epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param      epsilon             the epsilon used by the epsilon comparison
+	 *
+	 * @return     if a = Double.NaN or b = Double.NaN return Double.NaN,
+	 *             else if a &lt; b return 1,
+	 *             otherwise return 0.
+	 */
+	public static final double lt(double a, double b, boolean epsilonComparison, double epsilon) {
 		if ( ( Double.isNaN(a) ) || ( Double.isNaN(b) ) ) return Double.NaN;
 		double eps = NumberTheory.max(epsilon, MathFunctions.ulp(b) );
 		if ( Double.isInfinite(a) || Double.isInfinite(b) ) eps = 0;
@@ -212,6 +257,21 @@ public final class BinaryRelations {
 	 *             otherwise return 0.
 	 */
 	public static final double gt(double a, double b) {
+		return gt(a, b, epsilonComparison, epsilon);
+	}
+	/**
+	 * Greater than relation.
+	 *
+	 * @param      a                   the a number (a &gt; b)
+	 * @param      b                   the b number (a &gt; b)
+	 * @param      epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param      epsilon             the epsilon used by the epsilon comparison
+	 *
+	 * @return     if a = Double.NaN or b = Double.NaN return Double.NaN,
+	 *             else if a &gt; b return 1,
+	 *             otherwise return 0.
+	 */
+	public static final double gt(double a, double b, boolean epsilonComparison, double epsilon) {
 		if ( ( Double.isNaN(a) ) || ( Double.isNaN(b) ) ) return Double.NaN;
 		double eps = NumberTheory.max(epsilon, MathFunctions.ulp(b) );
 		if ( Double.isInfinite(a) || Double.isInfinite(b) ) eps = 0;
@@ -232,6 +292,21 @@ public final class BinaryRelations {
 	 *             otherwise return 0.
 	 */
 	public static final double leq(double a, double b) {
+		return leq(a, b, epsilonComparison, epsilon);
+	}
+	/**
+	 * Lower or equal relation.
+	 *
+	 * @param      a                   the a number (a &lt;= b)
+	 * @param      b                   the b number (a &lt;= b)
+	 * @param      epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param      epsilon             the epsilon used by the epsilon comparison
+	 *
+	 * @return     if a = Double.NaN or b = Double.NaN return Double.NaN,
+	 *             else if a &lt;= b return 1,
+	 *             otherwise return 0.
+	 */
+	public static final double leq(double a, double b, boolean epsilonComparison, double epsilon) {
 		if ( ( Double.isNaN(a) ) || ( Double.isNaN(b) ) ) return Double.NaN;
 		double eps = NumberTheory.max(epsilon, MathFunctions.ulp(b) );
 		if ( Double.isInfinite(a) || Double.isInfinite(b) ) eps = 0;
@@ -252,6 +327,21 @@ public final class BinaryRelations {
 	 *             otherwise return 0.
 	 */
 	public static final double geq(double a, double b) {
+		return geq(a, b, epsilonComparison, epsilon);
+	}
+	/**
+	 * Greater or equal relation.
+	 *
+	 * @param      a                   the a number (a &gt;= b)
+	 * @param      b                   the b number (a &gt;= b)
+	 * @param      epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param      epsilon             the epsilon used by the epsilon comparison
+	 *
+	 * @return     if a = Double.NaN or b = Double.NaN return Double.NaN,
+	 *             else if a &gt;= b return 1,
+	 *             otherwise return 0.
+	 */
+	public static final double geq(double a, double b, boolean epsilonComparison, double epsilon) {
 		if ( ( Double.isNaN(a) ) || ( Double.isNaN(b) ) ) return Double.NaN;
 		double eps = NumberTheory.max(epsilon, MathFunctions.ulp(b) );
 		if ( Double.isInfinite(a) || Double.isInfinite(b) ) eps = 0;
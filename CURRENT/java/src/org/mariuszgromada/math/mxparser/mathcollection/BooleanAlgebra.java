@@ -212,11 +212,25 @@ public final class BooleanAlgebra {
 	 *             else return FALSE.
 	 */
 	public static final int double2IntBoolean(double a) {
+		return double2IntBoolean(a, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Double to integer boolean translation
+	 *
+	 * @param      a                   the double number
+	 * @param      epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param      epsilon             the epsilon used by the epsilon comparison
+	 *
+	 * @return     If a = Double.NaN return NULL,
+	 *             else if a &lt;&gt; 0 return TRUE,
+	 *             else return FALSE.
+	 */
+	public static final int double2IntBoolean(double a, boolean epsilonComparison, double epsilon) {
 		if ( Double.isNaN(a) )
 			return NULL;
-		if ( BinaryRelations.epsilonComparison ) {
+		if ( epsilonComparison ) {
 			/* Epsilon comparison mode */
-			if ( MathFunctions.abs(a) > BinaryRelations.epsilon )
+			if ( MathFunctions.abs(a) > epsilon )
 				return TRUE;
 			else
 				return FALSE;
@@ -237,8 +251,22 @@ public final class BooleanAlgebra {
 	 * @return     Truth table element AND[A][B] where A = double2IntBoolean(a), B = double2IntBoolean(b)
 	 */
 	public static final double and(double a, double b) {
-		int A = double2IntBoolean(a);
-		int B = double2IntBoolean(b);
+		return and(a, b, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Boolean AND
+	 *
+	 * @param      a                   the a number (a AND b)
+	 * @param      b                   the b number (a AND b)
+	 * @param      epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param      epsilon             the epsilon used by the epsilon comparison
+	 *
+	 * @return     Truth table element AND[A][B] where A = double2IntBoolean(a, epsilonComparison, epsilon),
+	 *             B = double2IntBoolean(b, epsilonComparison, epsilon)
+	 */
+	public static final double and(double a, double b, boolean epsilonComparison, double epsilon) {
+		int A = double2IntBoolean(a, epsilonComparison, epsilon);
+		int B = double2IntBoolean(b, epsilonComparison, epsilon);
 		return AND_TRUTH_TABLE[A][B];
 	}
 	/**
@@ -251,8 +279,23 @@ public final class BooleanAlgebra {
 	 *             where A = double2IntBoolean(a), B = double2IntBoolean(b)
 	 */
 	public static final double or(double a, double b) {
-		int A = double2IntBoolean(a);
-		int B = double2IntBoolean(b);
+		return or(a, b, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Boolean OR
+	 *
+	 * @param      a                   the a number (a OR b)
+	 * @param      b                   the b number (a OR b)
+	 * @param      epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param      epsilon             the epsilon used by the epsilon comparison
+	 *
+	 * @return     Truth table element OR[A][B]
+	 *             where A = double2IntBoolean(a, epsilonComparison, epsilon),
+	 *             B = double2IntBoolean(b, epsilonComparison, epsilon)
+	 */
+	public static final double or(double a, double b, boolean epsilonComparison, double epsilon) {
+		int A = double2IntBoolean(a, epsilonComparison, epsilon);
+		int B = double2IntBoolean(b, epsilonComparison, epsilon);
 		return OR_TRUTH_TABLE[A][B];
 	}
 	/**
@@ -265,8 +308,23 @@ public final class BooleanAlgebra {
 	 *             where A = double2IntBoolean(a), B = double2IntBoolean(b)
 	 */
 	public static final double xor(double a, double b) {
-		int A = double2IntBoolean(a);
-		int B = double2IntBoolean(b);
+		return xor(a, b, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Boolean XOR
+	 *
+	 * @param      a                   the a number (a XOR b)
+	 * @param      b                   the b number (a XOR b)
+	 * @param      epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param      epsilon             the epsilon used by the epsilon comparison
+	 *
+	 * @return     Truth table element XOR[A][B]
+	 *             where A = double2IntBoolean(a, epsilonComparison, epsilon),
+	 *             B = double2IntBoolean(b, epsilonComparison, epsilon)
+	 */
+	public static final double xor(double a, double b, boolean epsilonComparison, double epsilon) {
+		int A = double2IntBoolean(a, epsilonComparison, epsilon);
+		int B = double2IntBoolean(b, epsilonComparison, epsilon);
 		return XOR_TRUTH_TABLE[A][B];
 	}
 	/**
@@ -279,8 +337,23 @@ public final class BooleanAlgebra {
 	 *             where A = double2IntBoolean(a), B = double2IntBoolean(b)
 	 */
 	public static final double nand(double a, double b) {
-		int A = double2IntBoolean(a);
-		int B = double2IntBoolean(b);
+		return nand(a, b, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Boolean NAND
+	 *
+	 * @param      a                   the a number (a NAND b)
+	 * @param      b                   the b number (a NAND b)
+	 * @param      epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param      epsilon             the epsilon used by the epsilon comparison
+	 *
+	 * @return     Truth table element NAND[A][B]
+	 *             where A = double2IntBoolean(a, epsilonComparison, epsilon),
+	 *             B = double2IntBoolean(b, epsilonComparison, epsilon)
+	 */
+	public static final double nand(double a, double b, boolean epsilonComparison, double epsilon) {
+		int A = double2IntBoolean(a, epsilonComparison, epsilon);
+		int B = double2IntBoolean(b, epsilonComparison, epsilon);
 		return NAND_TRUTH_TABLE[A][B];
 	}
 	/**
@@ -293,8 +366,23 @@ public final class BooleanAlgebra {
 	 *             where A = double2IntBoolean(a), B = double2IntBoolean(b)
 	 */
 	public static final double nor(double a, double b) {
-		int A = double2IntBoolean(a);
-		int B = double2IntBoolean(b);
+		return nor(a, b, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Boolean NOR
+	 *
+	 * @param      a                   the a number (a NOR b)
+	 * @param      b                   the b number (a NOR b)
+	 * @param      epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param      epsilon             the epsilon used by the epsilon comparison
+	 *
+	 * @return     Truth table element NOR[A][B]
+	 *             where A = double2IntBoolean(a, epsilonComparison, epsilon),
+	 *             B = double2IntBoolean(b, epsilonComparison, epsilon)
+	 */
+	public static final double nor(double a, double b, boolean epsilonComparison, double epsilon) {
+		int A = double2IntBoolean(a, epsilonComparison, epsilon);
+		int B = double2IntBoolean(b, epsilonComparison, epsilon);
 		return NOR_TRUTH_TABLE[A][B];
 	}
 	/**
@@ -307,8 +395,23 @@ public final class BooleanAlgebra {
 	 *             where A = double2IntBoolean(a), B = double2IntBoolean(b)
 	 */
 	public static final double xnor(double a, double b) {
-		int A = double2IntBoolean(a);
-		int B = double2IntBoolean(b);
+		return xnor(a, b, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Boolean XNOR
+	 *
+	 * @param      a                   the a number (a XNOR b)
+	 * @param      b                   the b number (a XNOR b)
+	 * @param      epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param      epsilon             the epsilon used by the epsilon comparison
+	 *
+	 * @return     Truth table element XNOR[A][B]
+	 *             where A = double2IntBoolean(a, epsilonComparison, epsilon),
+	 *             B = double2IntBoolean(b, epsilonComparison, epsilon)
+	 */
+	public static final double xnor(double a, double b, boolean epsilonComparison, double epsilon) {
+		int A = double2IntBoolean(a, epsilonComparison, epsilon);
+		int B = double2IntBoolean(b, epsilonComparison, epsilon);
 		return XNOR_TRUTH_TABLE[A][B];
 	}
 	/**
@@ -321,8 +424,23 @@ public final class BooleanAlgebra {
 	 *             where A = double2IntBoolean(a), B = double2IntBoolean(b)
 	 */
 	public static final double imp(double a, double b) {
-		int A = double2IntBoolean(a);
-		int B = double2IntBoolean(b);
+		return imp(a, b, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Boolean IMP
+	 *
+	 * @param      a                   the a number (a IMP b)
+	 * @param      b                   the b number (a IMP b)
+	 * @param      epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param      epsilon             the epsilon used by the epsilon comparison
+	 *
+	 * @return     Truth table element IMP[A][B]
+	 *             where A = double2IntBoolean(a, epsilonComparison, epsilon),
+	 *             B = double2IntBoolean(b, epsilonComparison, epsilon)
+	 */
+	public static final double imp(double a, double b, boolean epsilonComparison, double epsilon) {
+		int A = double2IntBoolean(a, epsilonComparison, epsilon);
+		int B = double2IntBoolean(b, epsilonComparison, epsilon);
 		return IMP_TRUTH_TABLE[A][B];
 	}
 	/**
@@ -335,8 +453,23 @@ public final class BooleanAlgebra {
 	 *             where A = double2IntBoolean(a), B = double2IntBoolean(b)
 	 */
 	public static final double eqv(double a, double b) {
-		int A = double2IntBoolean(a);
-		int B = double2IntBoolean(b);
+		return eqv(a, b, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Boolean EQV
+	 *
+	 * @param      a                   the a number (a EQV b)
+	 * @param      b                   the b number (a EQV b)
+	 * @param      epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param      epsilon             the epsilon used by the epsilon comparison
+	 *
+	 * @return     Truth table element EQV[A][B]
+	 *             where A = double2IntBoolean(a, epsilonComparison, epsilon),
+	 *             B = double2IntBoolean(b, epsilonComparison, epsilon)
+	 */
+	public static final double eqv(double a, double b, boolean epsilonComparison, double epsilon) {
+		int A = double2IntBoolean(a, epsilonComparison, epsilon);
+		int B = double2IntBoolean(b, epsilonComparison, epsilon);
 		return EQV_TRUTH_TABLE[A][B];
 	}
 	/**
@@ -348,7 +481,20 @@ public final class BooleanAlgebra {
 	 *             where A = double2IntBoolean(a)
 	 */
 	public static final double not(double a) {
-		int A = double2IntBoolean(a);
+		return not(a, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Boolean NOT
+	 *
+	 * @param      a                   the a number (NOT a)
+	 * @param      epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param      epsilon             the epsilon used by the epsilon comparison
+	 *
+	 * @return     Truth table element NOT[A]
+	 *             where A = double2IntBoolean(a, epsilonComparison, epsilon)
+	 */
+	public static final double not(double a, boolean epsilonComparison, double epsilon) {
+		int A = double2IntBoolean(a, epsilonComparison, epsilon);
 		return NOT_TRUTH_TABLE[A];
 	}
 	/**
@@ -361,8 +507,23 @@ public final class BooleanAlgebra {
 	 *             where A = double2IntBoolean(a), B = double2IntBoolean(b)
 	 */
 	public static final double cimp(double a, double b) {
-		int A = double2IntBoolean(a);
-		int B = double2IntBoolean(b);
+		return cimp(a, b, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Boolean CIMP
+	 *
+	 * @param      a                   the a number (a CIMP b)
+	 * @param      b                   the b number (a CIMP b)
+	 * @param      epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param      epsilon             the epsilon used by the epsilon comparison
+	 *
+	 * @return     Truth table element CIMP[A][B]
+	 *             where A = double2IntBoolean(a, epsilonComparison, epsilon),
+	 *             B = double2IntBoolean(b, epsilonComparison, epsilon)
+	 */
+	public static final double cimp(double a, double b, boolean epsilonComparison, double epsilon) {
+		int A = double2IntBoolean(a, epsilonComparison, epsilon);
+		int B = double2IntBoolean(b, epsilonComparison, epsilon);
 		return CIMP_TRUTH_TABLE[A][B];
 	}
 	/**
@@ -375,8 +536,23 @@ public final class BooleanAlgebra {
 	 *             where A = double2IntBoolean(a), B = double2IntBoolean(b)
 	 */
 	public static final double nimp(double a, double b) {
-		int A = double2IntBoolean(a);
-		int B = double2IntBoolean(b);
+		return nimp(a, b, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Boolean NIMP
+	 *
+	 * @param      a                   the a number (a NIMP b)
+	 * @param      b                   the b number (a NIMP b)
+	 * @param      epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param      epsilon             the epsilon used by the epsilon comparison
+	 *
+	 * @return     Truth table element NIMP[A][B]
+	 *             where A = double2IntBoolean(a, epsilonComparison, epsilon),
+	 *             B = double2IntBoolean(b, epsilonComparison, epsilon)
+	 */
+	public static final double nimp(double a, double b, boolean epsilonComparison, double epsilon) {
+		int A = double2IntBoolean(a, epsilonComparison, epsilon);
+		int B = double2IntBoolean(b, epsilonComparison, epsilon);
 		return NIMP_TRUTH_TABLE[A][B];
 	}
 	/**
@@ -389,8 +565,23 @@ public final class BooleanAlgebra {
 	 *             where A = double2IntBoolean(a), B = double2IntBoolean(b)
 	 */
 	public static final double cnimp(double a, double b) {
-		int A = double2IntBoolean(a);
-		int B = double2IntBoolean(b);
+		return cnimp(a, b, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Boolean CNIMP
+	 *
+	 * @param      a                   the a number (a CNIMP b)
+	 * @param      b                   the b number (a CNIMP b)
+	 * @param      epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param      epsilon             the epsilon used by the epsilon comparison
+	 *
+	 * @return     Truth table element CNIMP[A][B]
+	 *             where A = double2IntBoolean(a, epsilonComparison, epsilon),
+	 *             B = double2IntBoolean(b, epsilonComparison, epsilon)
+	 */
+	public static final double cnimp(double a, double b, boolean epsilonComparison, double epsilon) {
+		int A = double2IntBoolean(a, epsilonComparison, epsilon);
+		int B = double2IntBoolean(b, epsilonComparison, epsilon);
 		return CNIMP_TRUTH_TABLE[A][B];
 	}
 	/**
@@ -401,12 +592,24 @@ public final class BooleanAlgebra {
 	 *           otherwise returns BooleanAlgebra.FALSE
 	 */
 	public static final double andVariadic(double[] values) {
+		return andVariadic(values, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Boolean AND variadic
+	 *
+	 * @param values   List of values
+	 * @param epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param epsilon             the epsilon used by the epsilon comparison
+	 * @return   Returns BooleanAlgebra.TRUE if all values on the list are BooleanAlgebra.TURE,
+	 *           otherwise returns BooleanAlgebra.FALSE
+	 */
+	public static final double andVariadic(double[] values, boolean epsilonComparison, double epsilon) {
 		if (values == null) return Double.NaN;
 		if (values.length == 0) return Double.NaN;
 		int cntTrue = 0;
 		int bv;
 		for (double v : values) {
-			bv = double2IntBoolean(v);
+			bv = double2IntBoolean(v, epsilonComparison, epsilon);
 			if (bv == FALSE) return FALSE;
 			if (bv == TRUE) cntTrue++;
 		}
@@ -421,12 +624,24 @@ public final class BooleanAlgebra {
 	 *           otherwise returns BooleanAlgebra.FALSE
 	 */
 	public static final double orVariadic(double[] values) {
+		return orVariadic(values, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Boolean OR variadic
+	 *
+	 * @param values   List of values
+	 * @param epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param epsilon             the epsilon used by the epsilon comparison
+	 * @return   Returns BooleanAlgebra.TRUE if at least one value on the list is BooleanAlgebra.TURE,
+	 *           otherwise returns BooleanAlgebra.FALSE
+	 */
+	public static final double orVariadic(double[] values, boolean epsilonComparison, double epsilon) {
 		if (values == null) return Double.NaN;
 		if (values.length == 0) return Double.NaN;
 		int cntFalse = 0;
 		int bv;
 		for (double v : values) {
-			bv = double2IntBoolean(v);
+			bv = double2IntBoolean(v, epsilonComparison, epsilon);
 			if (bv == TRUE) return TRUE;
 			if (bv == FALSE) cntFalse++;
 		}
@@ -441,12 +656,24 @@ public final class BooleanAlgebra {
 	 *           otherwise returns BooleanAlgebra.FALSE
 	 */
 	public static final double xorVariadic(double[] values) {
+		return xorVariadic(values, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Boolean XOR variadic
+	 *
+	 * @param values   List of values
+	 * @param epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param epsilon             the epsilon used by the epsilon comparison
+	 * @return   Returns BooleanAlgebra.TRUE if exactly one value on the list is BooleanAlgebra.TURE,
+	 *           otherwise returns BooleanAlgebra.FALSE
+	 */
+	public static final double xorVariadic(double[] values, boolean epsilonComparison, double epsilon) {
 		if (values == null) return Double.NaN;
 		if (values.length == 0) return Double.NaN;
 		int cntTrue = 0;
 		int bv;
 		for (double v : values) {
-			bv = double2IntBoolean(v);
+			bv = double2IntBoolean(v, epsilonComparison, epsilon);
 			if (bv == TRUE) {
 				cntTrue++;
 				if (cntTrue > 1) return FALSE;
@@ -0,0 +1,315 @@
+/*
+ * @(#)CombinatorialNumbers.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser.mathcollection;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Arrays;
+
+/**
+ * Tables of the combinatorial numbers (Stirling numbers of the first
+ * and second kind, Euler, Worpitzky, Bell and Bernoulli numbers).
+ * Triangles rows are calculated exactly (BigInteger recurrences)
+ * and stored as doubles. Tables are shared by all the threads,
+ * grown on demand up to {@link #MAX_ROWS} rows (reading threads do
+ * not lock), numbers above the limit are calculated by the double
+ * recurrence without storing.
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ *
+ * @see MathFunctions
+ */
+final class CombinatorialNumbers {
+	/**
+	 * Maximum number of rows stored in the table
+	 * (about 1 MB of doubles per triangle)
+	 */
+	static final int MAX_ROWS = 512;
+	/*
+	 * Triangles recurrences:
+	 * T(n,k) = a(n,k) * T(n-1,k) + b(n,k) * T(n-1,k-1)
+	 */
+	private static final int STIRLING1 = 0;
+	private static final int STIRLING2 = 1;
+	private static final int EULER = 2;
+	private static final int WORPITZKY = 3;
+	/**
+	 * Triangles
+	 */
+	private static final Triangle stirling1Table = new Triangle(STIRLING1);
+	private static final Triangle stirling2Table = new Triangle(STIRLING2);
+	private static final Triangle eulerTable = new Triangle(EULER);
+	private static final Triangle worpitzkyTable = new Triangle(WORPITZKY);
+	/**
+	 * Bell numbers - sums of the Stirling numbers
+	 * of the second kind rows
+	 */
+	private static final Triangle bellTable = new Triangle(STIRLING2) {
+		@Override
+		double[] values(BigInteger[] row, int n) {
+			BigInteger sum = BigInteger.ZERO;
+			for (BigInteger value : row)
+				sum = sum.add(value);
+			return new double[] { sum.doubleValue() };
+		}
+	};
+	/**
+	 * Bernoulli numbers (B1 = -1/2) - alternating sums of the
+	 * Worpitzky numbers rows: B(n) = sum( (-1)^k * W(n,k) / (k+1) )
+	 */
+	private static final Triangle bernoulliTable = new Triangle(WORPITZKY) {
+		@Override
+		double[] values(BigInteger[] row, int n) {
+			if (n == 1)
+				return new double[] { -0.5 };
+			BigInteger lcm = BigInteger.ONE;
+			for (int k = 2; k <= n + 1; k++) {
+				BigInteger d = BigInteger.valueOf(k);
+				lcm = lcm.multiply(d).divide(lcm.gcd(d));
+			}
+			BigInteger numerator = BigInteger.ZERO;
+			for (int k = 0; k <= n; k++) {
+				BigInteger term = row[k].multiply(lcm.divide(BigInteger.valueOf(k + 1)));
+				if (k % 2 == 0)
+					numerator = numerator.add(term);
+				else
+					numerator = numerator.subtract(term);
+			}
+			double value = new BigDecimal(numerator).divide(new BigDecimal(lcm), MathContext.DECIMAL128).doubleValue();
+			return new double[] { value };
+		}
+	};
+	/**
+	 * Triangle of numbers grown on demand, rows are replaced
+	 * atomically so reading threads do not lock.
+	 */
+	private static class Triangle {
+		private final int recurrence;
+		/**
+		 * Stored rows
+		 */
+		private volatile double[][] rows = new double[0][];
+		/**
+		 * Last exact row, the next row is calculated from it
+		 */
+		private BigInteger[] lastRow;
+		Triangle(int recurrence) {
+			this.recurrence = recurrence;
+		}
+		/**
+		 * Gets table value, 0 &lt;= n &lt; MAX_ROWS, 0 &lt;= k &lt; row length.
+		 */
+		final double get(int n, int k) {
+			double[][] current = rows;
+			if (n >= current.length)
+				current = grow(n);
+			return current[n][k];
+		}
+		/**
+		 * Calculates missing rows up to n.
+		 */
+		private synchronized double[][] grow(int n) {
+			double[][] current = rows;
+			if (n < current.length)
+				return current;
+			double[][] grown = Arrays.copyOf(current, n + 1);
+			for (int r = current.length; r <= n; r++) {
+				lastRow = nextRow(recurrence, lastRow, r);
+				grown[r] = values(lastRow, r);
+			}
+			rows = grown;
+			return grown;
+		}
+		/**
+		 * Row values stored in the table.
+		 */
+		double[] values(BigInteger[] row, int n) {
+			double[] values = new double[row.length];
+			for (int k = 0; k < row.length; k++)
+				values[k] = row[k].doubleValue();
+			return values;
+		}
+	}
+	/**
+	 * Recurrence coefficient of T(n-1,k).
+	 */
+	private static long a(int recurrence, int n, int k) {
+		switch (recurrence) {
+		case STIRLING1: return n - 1;
+		case STIRLING2: return k;
+		default: return k + 1;
+		}
+	}
+	/**
+	 * Recurrence coefficient of T(n-1,k-1).
+	 */
+	private static long b(int recurrence, int n, int k) {
+		switch (recurrence) {
+		case EULER: return n - k;
+		case WORPITZKY: return k;
+		default: return 1;
+		}
+	}
+	/**
+	 * Exact triangle row n.
+	 */
+	private static BigInteger[] nextRow(int recurrence, BigInteger[] previous, int n) {
+		BigInteger[] row = new BigInteger[n + 1];
+		if (n == 0) {
+			row[0] = BigInteger.ONE;
+			return row;
+		}
+		for (int k = 0; k <= n; k++) {
+			BigInteger value = BigInteger.ZERO;
+			if (k < n)
+				value = previous[k].multiply(BigInteger.valueOf(a(recurrence, n, k)));
+			if (k > 0)
+				value = value.add(previous[k - 1].multiply(BigInteger.valueOf(b(recurrence, n, k))));
+			row[k] = value;
+		}
+		return row;
+	}
+	/**
+	 * Triangle values T(n,0) ... T(n,k) calculated by the double recurrence
+	 * (numbers not stored in the table).
+	 */
+	private static double[] calculateRow(int recurrence, int n, int k) {
+		double[] row = new double[k + 1];
+		row[0] = 1;
+		for (int r = 1; r <= n; r++)
+			for (int j = Math.min(r, k); j >= 0; j--) {
+				double value = 0;
+				if (j < r)
+					value = a(recurrence, r, j) * row[j];
+				if (j > 0)
+					value += b(recurrence, r, j) * row[j - 1];
+				row[j] = value;
+			}
+		return row;
+	}
+	/**
+	 * Triangle value, 0 &lt;= k &lt;= n.
+	 */
+	private static double value(Triangle table, int n, int k) {
+		if (n < MAX_ROWS)
+			return table.get(n, k);
+		return calculateRow(table.recurrence, n, k)[k];
+	}
+	/**
+	 * Stirling number of the first kind (unsigned), 0 &lt;= k &lt;= n.
+	 */
+	static double stirling1(int n, int k) {
+		return value(stirling1Table, n, k);
+	}
+	/**
+	 * Stirling number of the second kind, 0 &lt;= k &lt;= n.
+	 */
+	static double stirling2(int n, int k) {
+		return value(stirling2Table, n, k);
+	}
+	/**
+	 * Euler number, 0 &lt;= k &lt;= n.
+	 */
+	static double euler(int n, int k) {
+		return value(eulerTable, n, k);
+	}
+	/**
+	 * Worpitzky number, 0 &lt;= k &lt;= n.
+	 */
+	static double worpitzky(int n, int k) {
+		return value(worpitzkyTable, n, k);
+	}
+	/**
+	 * Bell number, n &gt;= 0.
+	 */
+	static double bell(int n) {
+		if (n < MAX_ROWS)
+			return bellTable.get(n, 0);
+		double sum = 0;
+		for (double value : calculateRow(STIRLING2, n, n))
+			sum += value;
+		return sum;
+	}
+	/**
+	 * Bernoulli number (B1 = -1/2), n &gt;= 0.
+	 */
+	static double bernoulli(int n) {
+		if (n < MAX_ROWS)
+			return bernoulliTable.get(n, 0);
+		/*
+		 * Odd numbers are 0, even numbers above the
+		 * table limit exceed double range
+		 */
+		if (n % 2 == 1)
+			return 0;
+		if ((n / 2) % 2 == 1)
+			return Double.POSITIVE_INFINITY;
+		else
+			return Double.NEGATIVE_INFINITY;
+	}
+}
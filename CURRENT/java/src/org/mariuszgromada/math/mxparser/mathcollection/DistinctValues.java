@@ -0,0 +1,208 @@
+/*
+ * @(#)DistinctValues.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser.mathcollection;
+
+import java.util.Arrays;
+
+/**
+ * Distinct values of the numbers list with the values counts and the
+ * first positions, counted by the open addressing hash map of primitive
+ * doubles (no sorting of the whole list, no boxing). In the epsilon
+ * comparison mode only the distinct values are sorted, if any of them
+ * are equal within epsilon the values are grouped by
+ * {@link NumberTheory#getDistValues(double[], boolean, boolean, double)}.
+ * Infinities of the same sign are always one distinct value (as in the
+ * exact comparison mode), while the epsilon comparison of the
+ * previous versions counted each infinity separately.
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ *
+ * @see Statistics#mode(double...)
+ * @see NumberTheory#numberOfDistValues(double...)
+ */
+final class DistinctValues {
+	/**
+	 * Distinct values, values counts and minimal positions
+	 * in the numbers list
+	 */
+	final double[] values;
+	final int[] counts;
+	final int[] firstPositions;
+	/**
+	 * Number of distinct values
+	 */
+	final int size;
+	/**
+	 * Empty key marker (bits of the NaN, numbers do not contain NaN)
+	 */
+	private static final long EMPTY = Double.doubleToRawLongBits(Double.NaN);
+	private DistinctValues(double[] values, int[] counts, int[] firstPositions, int size) {
+		this.values = values;
+		this.counts = counts;
+		this.firstPositions = firstPositions;
+		this.size = size;
+	}
+	/**
+	 * Mixes key bits (MurmurHash3 finalizer).
+	 */
+	private static int hash(long bits) {
+		bits ^= bits >>> 33;
+		bits *= 0xff51afd7ed558ccdL;
+		bits ^= bits >>> 33;
+		bits *= 0xc4ceb9fe1a85ec53L;
+		bits ^= bits >>> 33;
+		return (int)bits;
+	}
+	/**
+	 * Counts distinct values of the numbers list.
+	 *
+	 * @param numbers             The list of numbers (without Double.NaN)
+	 * @param epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param epsilon             the epsilon used by the epsilon comparison
+	 * @return                    Distinct values in the order of the first appearance,
+	 *                            or ascending if grouped within epsilon.
+	 */
+	static DistinctValues of(double[] numbers, boolean epsilonComparison, double epsilon) {
+		int capacity = Integer.highestOneBit(Math.max(2 * numbers.length - 1, 1)) << 1;
+		int mask = capacity - 1;
+		long[] keys = new long[capacity];
+		Arrays.fill(keys, EMPTY);
+		int[] slots = new int[capacity];
+		double[] values = new double[numbers.length];
+		int[] counts = new int[numbers.length];
+		int[] firstPositions = new int[numbers.length];
+		int size = 0;
+		for (int i = 0; i < numbers.length; i++) {
+			double x = numbers[i];
+			/*
+			 * -0.0 == 0.0
+			 */
+			if (x == 0) x = 0;
+			long bits = Double.doubleToRawLongBits(x);
+			int slot = hash(bits) & mask;
+			while ( (keys[slot] != EMPTY) && (keys[slot] != bits) )
+				slot = (slot + 1) & mask;
+			if (keys[slot] == EMPTY) {
+				keys[slot] = bits;
+				slots[slot] = size;
+				values[size] = x;
+				counts[size] = 1;
+				firstPositions[size] = i;
+				size++;
+			} else
+				counts[slots[slot]]++;
+		}
+		if ( (epsilonComparison == false) || (size == 1) )
+			return new DistinctValues(values, counts, firstPositions, size);
+		/*
+		 * Epsilon comparison - if any two distinct values are equal
+		 * within epsilon, grouping depends on the sorting order, then
+		 * the values are grouped exactly as by NumberTheory.getDistValues
+		 */
+		double[] sorted = Arrays.copyOf(values, size);
+		Arrays.sort(sorted);
+		for (int i = 1; i < size; i++)
+			if (BinaryRelations.eq(sorted[i - 1], sorted[i], epsilonComparison, epsilon) == BooleanAlgebra.TRUE)
+				return ofSorted(numbers, epsilonComparison, epsilon);
+		return new DistinctValues(values, counts, firstPositions, size);
+	}
+	/**
+	 * Distinct values grouped by NumberTheory.getDistValues (sorting
+	 * of the copy of the numbers list), equal infinities
+	 * (adjacent after sorting) are merged.
+	 */
+	private static DistinctValues ofSorted(double[] numbers, boolean epsilonComparison, double epsilon) {
+		double[][] dist = NumberTheory.getDistValues(numbers.clone(), false, epsilonComparison, epsilon);
+		double[] values = new double[dist.length];
+		int[] counts = new int[dist.length];
+		int[] firstPositions = new int[dist.length];
+		int size = 0;
+		for (int i = 0; i < dist.length; i++) {
+			if ( (size > 0) && (Double.isInfinite(dist[i][0])) && (values[size - 1] == dist[i][0]) ) {
+				counts[size - 1] += (int)dist[i][1];
+				firstPositions[size - 1] = Math.min(firstPositions[size - 1], (int)dist[i][2]);
+			} else {
+				values[size] = dist[i][0];
+				counts[size] = (int)dist[i][1];
+				firstPositions[size] = (int)dist[i][2];
+				size++;
+			}
+		}
+		return new DistinctValues(values, counts, firstPositions, size);
+	}
+	/**
+	 * Most frequent value, the first appearing value
+	 * in case of equal counts.
+	 */
+	double mode() {
+		int best = 0;
+		for (int i = 1; i < size; i++)
+			if ( (counts[i] > counts[best]) || ( (counts[i] == counts[best]) && (firstPositions[i] < firstPositions[best]) ) )
+				best = i;
+		return values[best];
+	}
+}
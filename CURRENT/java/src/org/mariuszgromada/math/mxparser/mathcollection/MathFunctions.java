@@ -88,24 +88,13 @@ public final class MathFunctions {
 	 *
 	 * @return     if n &gt;= 0 returns Bell numbers,
 	 *             otherwise returns Double.NaN.
+	 *
+	 * @see CombinatorialNumbers
 	 */
 	public static final double bellNumber(int n) {
-		double result = Double.NaN;
-		if (n > 1) {
-			n -= 1;
-			long[][] bellTriangle = new long[n+1][n+1];
-			bellTriangle[0][0] = 1;
-			bellTriangle[1][0] = 1;
-			for (int r = 1; r <= n; r++) {
-				for (int k = 0; k < r; k++)
-					bellTriangle[r][k+1] = bellTriangle[r-1][k] + bellTriangle[r][k];
-				if (r < n)
-					bellTriangle[r+1][0] = bellTriangle[r][r];
-			}
-			result = bellTriangle[n][n];
-		} else if (n >= 0)
-			result = 1;
-		return result;
+		if (n < 0)
+			return Double.NaN;
+		return CombinatorialNumbers.bell(n);
 	}
 	/**
 	 * Bell number
@@ -127,18 +116,15 @@ public final class MathFunctions {
 	 *
 	 * @return     if n &gt;=0 returns Euler number,
 	 *             otherwise return Double.NaN.
+	 *
+	 * @see CombinatorialNumbers
 	 */
 	public static final double eulerNumber(int n, int k) {
 		if ( n < 0)
 			return Double.NaN;
-		if (k < 0)
+		if ( (k < 0) || (k > n) )
 			return 0;
-		if (n == 0)
-			if (k == 0)
-				return 1;
-			else
-				return 0;
-		return (k+1) * eulerNumber(n-1, k) + (n-k) * eulerNumber(n-1, k-1);
+		return CombinatorialNumbers.euler(n, k);
 	}
 	/**
 	 * Euler numbers
@@ -271,16 +257,35 @@ public final class MathFunctions {
 	 *
 	 * @return     if n, m &gt;= 0 returns Bernoulli number,
 	 *             otherwise returns Double.NaN.
+	 *
+	 * @see CombinatorialNumbers
 	 */
 	public static final double bernoulliNumber(int m, int n) {
-		double result = Double.NaN;
-		if ( (m >= 0) && (n >= 0) ) {
-			result = 0;
-			for (int k = 0; k <= m; k++)
-				for (int v = 0; v <= k; v++)
-					result += Math.pow(-1, v) * binomCoeff(k, v)
-						* ( Math.pow(n + v, m) / (k + 1) )
-						;
+		if ( (m < 0) || (n < 0) )
+			return Double.NaN;
+		double result = CombinatorialNumbers.bernoulli(m);
+		if ( (n == 0) || (m == 0) )
+			return result;
+		if (n <= m) {
+			/*
+			 * B(m, n) = B(m) + m * sum( i^(m-1), i = 0 ... n-1 )
+			 */
+			double sum = 0;
+			for (int i = 0; i < n; i++)
+				sum += Math.pow(i, m - 1);
+			return result + m * sum;
+		}
+		/*
+		 * B(m, n) = sum( C(m, j) * B(j) * n^(m-j), j = 0 ... m ),
+		 * the leading term dominates for n > m
+		 */
+		result = 0;
+		double coeff = 1;
+		for (int j = 0; j <= m; j++) {
+			double bernoulli = CombinatorialNumbers.bernoulli(j);
+			if (bernoulli != 0)
+				result += coeff * bernoulli * Math.pow(n, m - j);
+			coeff = coeff * (m - j) / (j + 1);
 		}
 		return result;
 	}
@@ -305,21 +310,15 @@ public final class MathFunctions {
 	 * @param      k                   the k function parameter
 	 *
 	 * @return     Stirling numbers of the first kind
+	 *
+	 * @see CombinatorialNumbers
 	 */
 	public static final double Stirling1Number(int n, int k) {
-		if (k > n)
+		if ( (k > n) || (k < 0) )
 			return 0;
-		if (n == 0)
-			if (k == 0)
-				return 1;
-			else
-				return 0;
-		if (k == 0)
-			if (n == 0)
-				return 1;
-			else
-				return 0;
-		return (n-1) * Stirling1Number(n-1, k) + Stirling1Number(n-1, k-1);
+		if (n < 0)
+			return Double.NaN;
+		return CombinatorialNumbers.stirling1(n, k);
 	}
 	/**
 	 * Stirling numbers of the first kind
@@ -342,21 +341,15 @@ public final class MathFunctions {
 	 * @param      k                   the k function parameter
 	 *
 	 * @return     Stirling numbers of the second kind
+	 *
+	 * @see CombinatorialNumbers
 	 */
 	public static final double Stirling2Number(int n, int k) {
-		if (k > n)
+		if ( (k > n) || (k < 0) )
 			return 0;
-		if (n == 0)
-			if (k == 0)
-				return 1;
-			else
-				return 0;
-		if (k == 0)
-			if (n == 0)
-				return 1;
-			else
-				return 0;
-		return k * Stirling2Number(n-1, k) + Stirling2Number(n-1, k-1);
+		if (n < 0)
+			return Double.NaN;
+		return CombinatorialNumbers.stirling2(n, k);
 	}
 	/**
 	 * Stirling numbers of the second kind
@@ -380,15 +373,13 @@ public final class MathFunctions {
 	 *
 	 * @return     if n,k &gt;= 0 and k &lt;= n return Worpitzky number,
 	 *             otherwise return Double.NaN.
+	 *
+	 * @see CombinatorialNumbers
 	 */
 	public static final double worpitzkyNumber(int n, int k) {
-		double result = Double.NaN;
-		if ( (n >= 0) && (k >= 0) && (k <= n) ){
-			result = 0;
-			for (int v = 0; v <= k; v++)
-				result += Math.pow(-1, v+k) * Math.pow(v+1, n) * binomCoeff(k, v);
-		}
-		return result;
+		if ( (n >= 0) && (k >= 0) && (k <= n) )
+			return CombinatorialNumbers.worpitzky(n, k);
+		return Double.NaN;
 	}
 	/**
 	 * Worpitzky numbers
@@ -911,9 +902,21 @@ public final class MathFunctions {
 	 *             otherwise return Double.NaN.
 	 */
 	public static final double sin(double a) {
+		return sin(a, mXparser.checkIfDegreesMode());
+	}
+	/**
+	 * Sine trigonometric function
+	 *
+	 * @param      a                   the a function parameter
+	 * @param      degreesMode         true - angles in degrees, false - angles in radians
+	 *
+	 * @return     if a &lt;&gt; Double.NaN return Math.sin(a),
+	 *             otherwise return Double.NaN.
+	 */
+	public static final double sin(double a, boolean degreesMode) {
 		if (Double.isNaN(a))
 			return Double.NaN;
-		if (mXparser.checkIfDegreesMode())
+		if (degreesMode)
 			a = a * Units.DEGREE_ARC;
 		return Math.sin(a);
 	}
@@ -926,9 +929,21 @@ public final class MathFunctions {
 	 *             otherwise returns Double.NaN.
 	 */
 	public static final double cos(double a) {
+		return cos(a, mXparser.checkIfDegreesMode());
+	}
+	/**
+	 * Cosine trigonometric function
+	 *
+	 * @param      a                   the a function parameter
+	 * @param      degreesMode         true - angles in degrees, false - angles in radians
+	 *
+	 * @return     if a &lt;&gt; Double.NaN returns Math.cos(a),
+	 *             otherwise returns Double.NaN.
+	 */
+	public static final double cos(double a, boolean degreesMode) {
 		if (Double.isNaN(a))
 			return Double.NaN;
-		if (mXparser.checkIfDegreesMode())
+		if (degreesMode)
 			a = a * Units.DEGREE_ARC;
 		return Math.cos(a);
 	}
@@ -941,9 +956,21 @@ public final class MathFunctions {
 	 *             otherwise returns Double.NaN.
 	 */
 	public static final double tan(double a) {
+		return tan(a, mXparser.checkIfDegreesMode());
+	}
+	/**
+	 * Tangent trigonometric function
+	 *
+	 * @param      a                   the a function parameter
+	 * @param      degreesMode         true - angles in degrees, false - angles in radians
+	 *
+	 * @return     if a &lt;&gt; Double.NaN returns Math.tan(a),
+	 *             otherwise returns Double.NaN.
+	 */
+	public static final double tan(double a, boolean degreesMode) {
 		if (Double.isNaN(a))
 			return Double.NaN;
-		if (mXparser.checkIfDegreesMode())
+		if (degreesMode)
 			a = a * Units.DEGREE_ARC;
 		return Math.tan(a);
 	}
@@ -956,9 +983,21 @@ public final class MathFunctions {
 	 *             otherwise returns Double.NaN.
 	 */
 	public static final double ctan(double a) {
+		return ctan(a, mXparser.checkIfDegreesMode());
+	}
+	/**
+	 * Cotangent trigonometric function
+	 *
+	 * @param      a                   the a function parameter
+	 * @param      degreesMode         true - angles in degrees, false - angles in radians
+	 *
+	 * @return     if a &lt;&gt; Double.NaN and tan(a) &lt;&gt; 0 returns 1 / Math.tan(a),
+	 *             otherwise returns Double.NaN.
+	 */
+	public static final double ctan(double a, boolean degreesMode) {
 		if (Double.isNaN(a))
 			return Double.NaN;
-		if (mXparser.checkIfDegreesMode())
+		if (degreesMode)
 			a = a * Units.DEGREE_ARC;
 		double result = Double.NaN;
 		double tg = Math.tan(a);
@@ -975,9 +1014,21 @@ public final class MathFunctions {
 	 *             otherwise returns Double.NaN.
 	 */
 	public static final double sec(double a) {
+		return sec(a, mXparser.checkIfDegreesMode());
+	}
+	/**
+	 * Secant trigonometric function
+	 *
+	 * @param      a                   the a function parameter
+	 * @param      degreesMode         true - angles in degrees, false - angles in radians
+	 *
+	 * @return     if a &lt;&gt; Double.NaN and cos(a) &lt;&gt; 0 returns 1 / Math.cos(a),
+	 *             otherwise returns Double.NaN.
+	 */
+	public static final double sec(double a, boolean degreesMode) {
 		if (Double.isNaN(a))
 			return Double.NaN;
-		if (mXparser.checkIfDegreesMode())
+		if (degreesMode)
 			a = a * Units.DEGREE_ARC;
 		double result = Double.NaN;
 		double cos = Math.cos(a);
@@ -994,9 +1045,21 @@ public final class MathFunctions {
 	 *             otherwise returns Double.NaN.
 	 */
 	public static final double cosec(double a) {
+		return cosec(a, mXparser.checkIfDegreesMode());
+	}
+	/**
+	 * Cosecant trigonometric function
+	 *
+	 * @param      a                   the a function parameter
+	 * @param      degreesMode         true - angles in degrees, false - angles in radians
+	 *
+	 * @return     if a &lt;&gt; Double.NaN and sin(a) &lt;&gt; 0 returns 1 / Math.sin(a),
+	 *             otherwise returns Double.NaN.
+	 */
+	public static final double cosec(double a, boolean degreesMode) {
 		if (Double.isNaN(a))
 			return Double.NaN;
-		if (mXparser.checkIfDegreesMode())
+		if (degreesMode)
 			a = a * Units.DEGREE_ARC;
 		double result = Double.NaN;
 		double sin = Math.sin(a);
@@ -1013,10 +1076,22 @@ public final class MathFunctions {
 	 *             otherwise returns Double.NaN.
 	 */
 	public static final double asin(double a) {
+		return asin(a, mXparser.checkIfDegreesMode());
+	}
+	/**
+	 * Arcus sine - inverse trigonometric sine function
+	 *
+	 * @param      a                   the a function parameter
+	 * @param      degreesMode         true - angles in degrees, false - angles in radians
+	 *
+	 * @return     if a &lt;&gt; Double.NaN returns Math.asin(a),
+	 *             otherwise returns Double.NaN.
+	 */
+	public static final double asin(double a, boolean degreesMode) {
 		if (Double.isNaN(a))
 			return Double.NaN;
 		double r =  Math.asin(a);
-		if (mXparser.checkIfDegreesMode())
+		if (degreesMode)
 			return r / Units.DEGREE_ARC;
 		else
 			return r;
@@ -1030,10 +1105,22 @@ public final class MathFunctions {
 	 *             otherwise returns Double.NaN.
 	 */
 	public static final double acos(double a) {
+		return acos(a, mXparser.checkIfDegreesMode());
+	}
+	/**
+	 * Arcus cosine - inverse trigonometric cosine function
+	 *
+	 * @param      a                   the a function parameter
+	 * @param      degreesMode         true - angles in degrees, false - angles in radians
+	 *
+	 * @return     if a &lt;&gt; Double.NaN returns Math.acos(a),
+	 *             otherwise returns Double.NaN.
+	 */
+	public static final double acos(double a, boolean degreesMode) {
 		if (Double.isNaN(a))
 			return Double.NaN;
 		double r = Math.acos(a);
-		if (mXparser.checkIfDegreesMode())
+		if (degreesMode)
 			return r / Units.DEGREE_ARC;
 		else
 			return r;
@@ -1047,10 +1134,22 @@ public final class MathFunctions {
 	 *             otherwise returns Double.NaN.
 	 */
 	public static final double atan(double a) {
+		return atan(a, mXparser.checkIfDegreesMode());
+	}
+	/**
+	 * Arcus tangent - inverse trigonometric tangent function
+	 *
+	 * @param      a                   the a function parameter
+	 * @param      degreesMode         true - angles in degrees, false - angles in radians
+	 *
+	 * @return     if a &lt;&gt; Double.NaN returns Math.atan(a),
+	 *             otherwise returns Double.NaN.
+	 */
+	public static final double atan(double a, boolean degreesMode) {
 		if (Double.isNaN(a))
 			return Double.NaN;
 		double r = Math.atan(a);
-		if (mXparser.checkIfDegreesMode())
+		if (degreesMode)
 			return r / Units.DEGREE_ARC;
 		else
 			return r;
@@ -1064,10 +1163,22 @@ public final class MathFunctions {
 	 *             otherwise returns Double.NaN.
 	 */
 	public static final double actan(double a) {
+		return actan(a, mXparser.checkIfDegreesMode());
+	}
+	/**
+	 * Arcus cotangent - inverse trigonometric cotangent function
+	 *
+	 * @param      a                   the a function parameter
+	 * @param      degreesMode         true - angles in degrees, false - angles in radians
+	 *
+	 * @return     if a &lt;&gt; Double.NaN and a &lt;&gt; 0 returns Math.atan(1/a),
+	 *             otherwise returns Double.NaN.
+	 */
+	public static final double actan(double a, boolean degreesMode) {
 		if (Double.isNaN(a))
 			return Double.NaN;
 		double r = Math.atan(1/a);
-		if (mXparser.checkIfDegreesMode())
+		if (degreesMode)
 			return r / Units.DEGREE_ARC;
 		else
 			return r;
@@ -1079,10 +1190,20 @@ public final class MathFunctions {
 	 * @return     Inverse trigonometric secant function
 	 */
 	public static final double asec(double a) {
+		return asec(a, mXparser.checkIfDegreesMode());
+	}
+	/**
+	 * Arcus secant - inverse trigonometric secant function
+	 *
+	 * @param      a                   the a function parameter
+	 * @param      degreesMode         true - angles in degrees, false - angles in radians
+	 * @return     Inverse trigonometric secant function
+	 */
+	public static final double asec(double a, boolean degreesMode) {
 		if (Double.isNaN(a))
 			return Double.NaN;
 		double r = Math.acos(1/a);
-		if (mXparser.checkIfDegreesMode())
+		if (degreesMode)
 			return r / Units.DEGREE_ARC;
 		else
 			return r;
@@ -1094,10 +1215,20 @@ public final class MathFunctions {
 	 * @return     Inverse trigonometric cosecant function
 	 */
 	public static final double acosec(double a) {
+		return acosec(a, mXparser.checkIfDegreesMode());
+	}
+	/**
+	 * Arcus cosecant - inverse trigonometric cosecant function
+	 *
+	 * @param      a                   the a function parameter
+	 * @param      degreesMode         true - angles in degrees, false - angles in radians
+	 * @return     Inverse trigonometric cosecant function
+	 */
+	public static final double acosec(double a, boolean degreesMode) {
 		if (Double.isNaN(a))
 			return Double.NaN;
 		double r = Math.asin(1/a);
-		if (mXparser.checkIfDegreesMode())
+		if (degreesMode)
 			return r / Units.DEGREE_ARC;
 		else
 			return r;
@@ -1453,11 +1584,23 @@ public final class MathFunctions {
 	 *             otherwise returns Double.NaN.
 	 */
 	public static final double sinc(double a) {
+		return sinc(a, mXparser.checkIfDegreesMode());
+	}
+	/**
+	 * Sinc function.
+	 *
+	 * @param      a                   the a function parameter
+	 * @param      degreesMode         true - angles in degrees, false - angles in radians
+	 *
+	 * @return     if a &lt;&gt; Double.NaN and a &lt;&gt; 0 returns Math.sin(a) / (a),
+	 *             otherwise returns Double.NaN.
+	 */
+	public static final double sinc(double a, boolean degreesMode) {
 		if (Double.isNaN(a))
 			return Double.NaN;
 		double result = Double.NaN;
 		if (a != 0)
-			if (mXparser.checkIfDegreesMode())
+			if (degreesMode)
 				result = Math.sin(a * Units.DEGREE_ARC) / (a);
 			else
 				result = Math.sin(a) / (a);
@@ -1484,7 +1627,97 @@ public final class MathFunctions {
 		return result;
 	}
 	/**
-	 * Double rounding
+	 * Decimal representation buffer of the rounding (one per thread)
+	 */
+	private static final ThreadLocal<StringBuilder> decimalBuffer = new ThreadLocal<StringBuilder>();
+	/**
+	 * Powers of ten exactly representable by double
+	 */
+	private static final double[] DOUBLE_POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	/**
+	 * Powers of ten in the long range
+	 */
+	private static final long[] LONG_POWERS_OF_TEN = {
+		1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L,
+		1000000000L, 10000000000L, 100000000000L, 1000000000000L, 10000000000000L,
+		100000000000000L, 1000000000000000L, 10000000000000000L, 100000000000000000L,
+		1000000000000000000L
+	};
+	/**
+	 * Half up rounding of the decimal digits given by Double.toString(value),
+	 * done without allocations in the reused buffer. The rounded decimal
+	 * is converted exactly as by BigDecimal.doubleValue() if the digits
+	 * and the power of ten are exactly representable by double.
+	 *
+	 * @param value    double value to be rounded (finite, non zero)
+	 * @param places   decimal places
+	 * @return         Rounded value, or Double.NaN if the rounded decimal
+	 *                 can not be converted this way.
+	 */
+	private static final double roundDecimal(double value, int places) {
+		StringBuilder decimal = decimalBuffer.get();
+		if (decimal == null) {
+			decimal = new StringBuilder(32);
+			decimalBuffer.set(decimal);
+		}
+		decimal.setLength(0);
+		decimal.append(value);
+		int length = decimal.length();
+		boolean negative = (decimal.charAt(0) == '-');
+		long digits = 0;
+		int digitsNumber = 0;
+		int fractionDigits = 0;
+		boolean fraction = false;
+		int i = negative ? 1 : 0;
+		for (; i < length; i++) {
+			char c = decimal.charAt(i);
+			if (c == '.')
+				fraction = true;
+			else if (c == 'E')
+				break;
+			else {
+				if (digitsNumber == LONG_POWERS_OF_TEN.length - 1) return Double.NaN;
+				digits = digits * 10 + (c - '0');
+				if (digits > 0) digitsNumber++;
+				if (fraction) fractionDigits++;
+			}
+		}
+		if (i < length) {
+			boolean negativeExponent = (decimal.charAt(++i) == '-');
+			if (negativeExponent) i++;
+			int exponent = 0;
+			for (; i < length; i++)
+				exponent = exponent * 10 + (decimal.charAt(i) - '0');
+			fractionDigits += negativeExponent ? exponent : -exponent;
+		}
+		/*
+		 * Decimal already has at most the given decimal places
+		 * and its nearest double is the value
+		 */
+		if (fractionDigits <= places) return value;
+		int droppedDigits = fractionDigits - places;
+		long rounded = 0;
+		if (droppedDigits < LONG_POWERS_OF_TEN.length) {
+			long divisor = LONG_POWERS_OF_TEN[droppedDigits];
+			rounded = digits / divisor;
+			if (2 * (digits % divisor) >= divisor) rounded++;
+		}
+		if (rounded == 0) return 0;
+		int scale = places;
+		while ( (scale > 0) && (rounded % 10 == 0) ) {
+			rounded /= 10;
+			scale--;
+		}
+		if ( (rounded >= 1L << 53) || (scale >= DOUBLE_POWERS_OF_TEN.length) ) return Double.NaN;
+		double result = rounded / DOUBLE_POWERS_OF_TEN[scale];
+		return negative ? -result : result;
+	}
+	/**
+	 * Double rounding (half up rounding of the decimal representation
+	 * given by Double.toString(value))
 	 *
 	 * @param value    double value to be rounded
 	 * @param places   decimal places
@@ -1493,6 +1726,11 @@ public final class MathFunctions {
  	public static final double round(double value, int places) {
 		if (Double.isNaN(value)) return Double.NaN;
 		if (places < 0) return Double.NaN;
+		if (value == 0) return 0;
+		if (!Double.isInfinite(value)) {
+			double rounded = roundDecimal(value, places);
+			if (!Double.isNaN(rounded)) return rounded;
+		}
 	    BigDecimal bd = new BigDecimal(Double.toString(value));
 	    bd = bd.setScale(places, RoundingMode.HALF_UP);
 	    return bd.doubleValue();
@@ -148,6 +148,19 @@ public final class NumberTheory {
 	 *             otherwise returns Double.NaN.
 	 */
 	public static final double argmin(double... numbers) {
+		return argmin(numbers, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Arg-Min function.
+	 *
+	 * @param      numbers             the a function parameter
+	 * @param      epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param      epsilon             the epsilon used by the epsilon comparison
+	 *
+	 * @return     Returns the index of the first smallest number,
+	 *             otherwise returns Double.NaN.
+	 */
+	public static final double argmin(double[] numbers, boolean epsilonComparison, double epsilon) {
 		if (numbers == null) return Double.NaN;
 		if (numbers.length == 0) return Double.NaN;
 		double min = Double.POSITIVE_INFINITY;
@@ -156,7 +169,7 @@ public final class NumberTheory {
 			double number = numbers[i];
 			if (Double.isNaN(number))
 				return Double.NaN;
-			if (BinaryRelations.lt(number, min) == BooleanAlgebra.TRUE) {
+			if (BinaryRelations.lt(number, min, epsilonComparison, epsilon) == BooleanAlgebra.TRUE) {
 				min = number;
 				minIndex = i;
 			}
@@ -206,6 +219,19 @@ public final class NumberTheory {
 	 *             otherwise returns Double.NaN.
 	 */
 	public static final double argmax(double... numbers) {
+		return argmax(numbers, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Arg-Max function.
+	 *
+	 * @param      numbers             the a function parameter
+	 * @param      epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param      epsilon             the epsilon used by the epsilon comparison
+	 *
+	 * @return     Returns the index of the first biggest number,
+	 *             otherwise returns Double.NaN.
+	 */
+	public static final double argmax(double[] numbers, boolean epsilonComparison, double epsilon) {
 		if (numbers == null) return Double.NaN;
 		if (numbers.length == 0) return Double.NaN;
 		double max = Double.NEGATIVE_INFINITY;
@@ -214,7 +240,7 @@ public final class NumberTheory {
 			double number = numbers[i];
 			if (Double.isNaN(number))
 				return Double.NaN;
-			if (BinaryRelations.gt(number, max) == BooleanAlgebra.TRUE) {
+			if (BinaryRelations.gt(number, max, epsilonComparison, epsilon) == BooleanAlgebra.TRUE) {
 				max = number;
 				maxIndex = i;
 			}
@@ -227,9 +253,11 @@ public final class NumberTheory {
 	 * @param initOrder     Array to be swapped together with sorted array
 	 * @param leftIndex     Starting left index.
 	 * @param rightIndex    Starting right index.
+	 * @param epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param epsilon             the epsilon used by the epsilon comparison
 	 * @return              Initial ordering swapped according to sorting order.
 	 */
-	private static final void sortAsc(double[] array, int[] initOrder, int leftIndex, int rightIndex) {
+	private static final void sortAsc(double[] array, int[] initOrder, int leftIndex, int rightIndex, boolean epsilonComparison, double epsilon) {
 		int i = leftIndex;
 		int j = rightIndex;
 		double x = array[(leftIndex+rightIndex)/2];
@@ -237,8 +265,8 @@ public final class NumberTheory {
 		int v;
 		do {
 
-			while ( BinaryRelations.lt(array[i], x) == BooleanAlgebra.TRUE ) i++;
-			while ( BinaryRelations.gt(array[j], x) == BooleanAlgebra.TRUE ) j--;
+			while ( BinaryRelations.lt(array[i], x, epsilonComparison, epsilon) == BooleanAlgebra.TRUE ) i++;
+			while ( BinaryRelations.gt(array[j], x, epsilonComparison, epsilon) == BooleanAlgebra.TRUE ) j--;
 			if (i <= j) {
 				w = array[i];
 				array[i] = array[j];
@@ -250,8 +278,8 @@ public final class NumberTheory {
 				j--;
 			}
 		} while (i <= j);
-		if (leftIndex < j) sortAsc(array, initOrder, leftIndex, j);
-		if (i < rightIndex) sortAsc(array, initOrder, i, rightIndex);
+		if (leftIndex < j) sortAsc(array, initOrder, leftIndex, j, epsilonComparison, epsilon);
+		if (i < rightIndex) sortAsc(array, initOrder, i, rightIndex, epsilonComparison, epsilon);
 	}
 	/**
 	 * Array sort - ascending - quick sort algorithm.
@@ -260,12 +288,23 @@ public final class NumberTheory {
 	 *               initial ordering swapped according to sorting order.
 	 */
 	public static final int[] sortAsc(double[] array) {
+		return sortAsc(array, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Array sort - ascending - quick sort algorithm.
+	 * @param array  Array to be sorted
+	 * @param epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param epsilon             the epsilon used by the epsilon comparison
+	 * @return       Sorts array and additionally returns
+	 *               initial ordering swapped according to sorting order.
+	 */
+	public static final int[] sortAsc(double[] array, boolean epsilonComparison, double epsilon) {
 		if (array == null) return null;
 		int[] initOrder = new int[array.length];
 		for (int i = 0; i < array.length; i++)
 			initOrder[i] = i;
 		if (array.length < 2) return initOrder;
-		sortAsc(array, initOrder, 0, array.length-1);
+		sortAsc(array, initOrder, 0, array.length-1, epsilonComparison, epsilon);
 		return initOrder;
 	}
 	/**
@@ -277,6 +316,19 @@ public final class NumberTheory {
 	 *                                        2 - minimal value position in original array
 	 */
 	public static final double[][] getDistValues(double[] array, boolean returnOrderByDescFreqAndAscOrigPos) {
+		return getDistValues(array, returnOrderByDescFreqAndAscOrigPos, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Returns list of distinct values found in a given array.
+	 * @param array The array
+	 * @param returnOrderByDescFreqAndAscOrigPos Indicator whether to apply final ordering based
+	 *                                           on descending value frequency and ascending initial position.
+	 * @param epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param epsilon             the epsilon used by the epsilon comparison
+	 * @return List of values in the form of: first index - value index, second index: 0 - value, 1 - value count,
+	 *                                        2 - minimal value position in original array
+	 */
+	public static final double[][] getDistValues(double[] array, boolean returnOrderByDescFreqAndAscOrigPos, boolean epsilonComparison, double epsilon) {
 		if (array == null) return null;
 		/*
 		 * double[n][3] is returned
@@ -298,7 +350,7 @@ public final class NumberTheory {
 		/*
 		 * Sort ascending by value
 		 */
-		int[] initPos = sortAsc(array);
+		int[] initPos = sortAsc(array, epsilonComparison, epsilon);
 		/*
 		 * Building unique values list
 		 */
@@ -315,7 +367,7 @@ public final class NumberTheory {
 		 */
 		for (int i = 1; i < array.length; i++) {
 			/* if the same value */
-			if ( BinaryRelations.eq(unqValue, array[i]) == BooleanAlgebra.TRUE ) {
+			if ( BinaryRelations.eq(unqValue, array[i], epsilonComparison, epsilon) == BooleanAlgebra.TRUE ) {
 				/*
 				 * - increase counter
 				 * - check if found smaller original position
@@ -324,7 +376,7 @@ public final class NumberTheory {
 				if (initPos[i] < unqValMinPos)
 					unqValMinPos = initPos[i];
 			}
-			if ( ( BinaryRelations.eq(unqValue, array[i]) == BooleanAlgebra.FALSE ) && (i < array.length-1) ) {
+			if ( ( BinaryRelations.eq(unqValue, array[i], epsilonComparison, epsilon) == BooleanAlgebra.FALSE ) && (i < array.length-1) ) {
 				/* if new value found and not end of the list */
 				/*
 				 * Store analyzed value
@@ -342,7 +394,7 @@ public final class NumberTheory {
 				unqValue = array[i];
 				unqValCnt = 1;
 				unqValMinPos = initPos[i];
-			} else if ( ( BinaryRelations.eq(unqValue, array[i]) == BooleanAlgebra.FALSE ) && (i == array.length-1) ) {
+			} else if ( ( BinaryRelations.eq(unqValue, array[i], epsilonComparison, epsilon) == BooleanAlgebra.FALSE ) && (i == array.length-1) ) {
 				/* if new value found and end of the list */
 				/*
 				 * Store analyzed value
@@ -423,12 +475,23 @@ public final class NumberTheory {
 	 *                   is found then Double.NaN is returned.
 	 */
 	public static final double numberOfDistValues(double... numbers) {
+		return numberOfDistValues(numbers, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Returns number of unique values found the list of numbers
+	 * @param numbers    The list of numbers
+	 * @param epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param epsilon             the epsilon used by the epsilon comparison
+	 * @return           Number of unique values. If list is null or any Double.NaN
+	 *                   is found then Double.NaN is returned.
+	 */
+	public static final double numberOfDistValues(double[] numbers, boolean epsilonComparison, double epsilon) {
 		if (numbers == null) return Double.NaN;
 		if (numbers.length == 0) return 0;
 		for (double v : numbers)
 			if (Double.isNaN(v)) return Double.NaN;
 		if (numbers.length == 1) return 1;
-		return getDistValues(numbers, false).length;
+		return DistinctValues.of(numbers, epsilonComparison, epsilon).size;
 	}
 	/**
 	 * Greatest common divisor (GCD)
@@ -655,7 +718,9 @@ public final class NumberTheory {
 	}
 
 	/**
-	 * Prime test
+	 * Prime test - primes cache is used if the number is in cache,
+	 * otherwise small primes divisors are checked and deterministic
+	 * Miller-Rabin test is performed.
 	 *
 	 * @param n           The number to be tested.
 	 *
@@ -675,51 +740,154 @@ public final class NumberTheory {
 		 */
 		if (n <= 1) return false;
 		/*
-		 * Will be searching for divisors till sqrt(n)
+		 * If prime cache is ready and number we are querying
+		 * is in cache (or cache can be extended) the cache
+		 * answer will be returned
 		 */
-		long top = (long)Math.sqrt(n);
+		PrimesCache primesCache = mXparser.primesCache;
+		if ( (primesCache != null) && (n <= Integer.MAX_VALUE) )
+			if ( primesCache.getCacheStatus() == PrimesCache.CACHING_FINISHED ) {
+				int cacheTest = primesCache.primeTest((int)n);
+				if (cacheTest != PrimesCache.NOT_IN_CACHE)
+					return cacheTest == PrimesCache.IS_PRIME;
+			}
 		/*
-		 * Supporting variable indicating odd end of primes cache
+		 * Small odd primes divisors
 		 */
-		long primesCacheOddEnd = 3;
+		for (long p : MILLER_RABIN_SMALL_PRIMES) {
+			if (n == p) return true;
+			if (n % p == 0) return false;
+		}
+		if (n < MILLER_RABIN_SMALL_PRIMES_SQUARE) return true;
 		/*
-		 * If prime cache exist
+		 * Deterministic Miller-Rabin test, bases 2, 3, 5, 7 are enough
+		 * below 3215031751, otherwise 7 bases set valid for all 64 bit
+		 * integers (Jim Sinclair) is used
 		 */
-		if (mXparser.primesCache != null)
-			if ( mXparser.primesCache.cacheStatus == PrimesCache.CACHING_FINISHED ) {
-					/*
-					 * If prime cache is ready and number we are querying
-					 * is in cache the cache answer will be returned
-					 */
-					if ( n <= mXparser.primesCache.maxNumInCache )
-						return mXparser.primesCache.isPrime[(int)n];
-					else {
-						/*
-						 * If number is bigger than maximum stored in cache
-						 * the we are querying each prime in cache
-						 * and checking if it is a divisor of n
-						 */
-						long topCache = Math.min(top, mXparser.primesCache.maxNumInCache);
-						long i;
-						for (i = 3; i <= topCache; i+=2) {
-							if (mXparser.primesCache.isPrime[(int)i] == true)
-								if (n % i == 0) return false;
-						}
-						/*
-						 * If no prime divisor of n in primes cache
-						 * we are seting the odd end of prime cache
-						 */
-						primesCacheOddEnd = i;
-					}
+		long d = n - 1;
+		int s = Long.numberOfTrailingZeros(d);
+		d >>>= s;
+		if (n < MILLER_RABIN_INT_LIMIT) {
+			for (long a : MILLER_RABIN_INT_BASES)
+				if ( !millerRabinWitness(a, d, s, n) ) return false;
+		} else {
+			Montgomery m = new Montgomery(n);
+			for (long a : MILLER_RABIN_LONG_BASES)
+				if ( !m.millerRabinWitness(a % n, d, s) ) return false;
+		}
+		return true;
+	}
+	/*
+	 * Miller-Rabin test constants
+	 */
+	private static final long[] MILLER_RABIN_SMALL_PRIMES = {3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37, 41, 43, 47};
+	private static final long MILLER_RABIN_SMALL_PRIMES_SQUARE = 53 * 53;
+	private static final long[] MILLER_RABIN_INT_BASES = {2, 3, 5, 7};
+	private static final long[] MILLER_RABIN_LONG_BASES = {2, 325, 9375, 28178, 450775, 9780504, 1795265022};
+	/**
+	 * Below the limit product of two numbers lower than n fits in long
+	 */
+	private static final long MILLER_RABIN_INT_LIMIT = 3037000499L;
+	/**
+	 * Miller-Rabin strong probable prime test to the base a,
+	 * n - 1 = d * 2^s, n below {@link #MILLER_RABIN_INT_LIMIT}.
+	 *
+	 * @return true if n is strong probable prime to the base a
+	 */
+	private static boolean millerRabinWitness(long a, long d, int s, long n) {
+		a %= n;
+		if (a == 0) return true;
+		long x = 1;
+		while (d > 0) {
+			if ((d & 1) == 1) x = x * a % n;
+			a = a * a % n;
+			d >>>= 1;
+		}
+		if ( (x == 1) || (x == n - 1) ) return true;
+		for (int r = 1; r < s; r++) {
+			x = x * x % n;
+			if (x == n - 1) return true;
+			if (x == 1) return false;
+		}
+		return false;
+	}
+	/**
+	 * Montgomery multiplication modulo odd n (n &lt; 2^63),
+	 * numbers are kept in Montgomery form (x * 2^64 mod n).
+	 */
+	private static final class Montgomery {
+		final long n;
+		/**
+		 * -n^(-1) mod 2^64
+		 */
+		final long nInverse;
+		/**
+		 * 2^64 mod n and 2^128 mod n
+		 */
+		final long r1;
+		final long r2;
+		Montgomery(long n) {
+			this.n = n;
+			long inverse = n;
+			for (int i = 0; i < 5; i++)
+				inverse *= 2 - n * inverse;
+			nInverse = -inverse;
+			long r = (Long.MAX_VALUE % n + 1) % n;
+			r <<= 1;
+			if ( (r < 0) || (r >= n) ) r -= n;
+			r1 = r;
+			for (int i = 0; i < 64; i++) {
+				r <<= 1;
+				if ( (r < 0) || (r >= n) ) r -= n;
 			}
-		/*
-		 * Finally we are checking any odd number that
-		 * still left and is below sqrt(n) agains being
-		 * divisor of n
+			r2 = r;
+		}
+		/**
+		 * High 64 bits of the unsigned product.
 		 */
-		for (long i = primesCacheOddEnd; i <= top; i+=2)
-			if (n % i == 0) return false;
-		return true;
+		static long multiplyHigh(long a, long b) {
+			long aLo = a & 0xFFFFFFFFL;
+			long aHi = a >>> 32;
+			long bLo = b & 0xFFFFFFFFL;
+			long bHi = b >>> 32;
+			long loHi = aHi * bLo + ((aLo * bLo) >>> 32);
+			long cross = (loHi & 0xFFFFFFFFL) + aLo * bHi;
+			return aHi * bHi + (loHi >>> 32) + (cross >>> 32);
+		}
+		/**
+		 * Montgomery product a * b * 2^(-64) mod n.
+		 */
+		long multiply(long a, long b) {
+			long lo = a * b;
+			long hi = multiplyHigh(a, b);
+			long m = lo * nInverse;
+			long t = hi + multiplyHigh(m, n) + ((lo != 0) ? 1 : 0);
+			if ( (t < 0) || (t >= n) ) t -= n;
+			return t;
+		}
+		/**
+		 * Miller-Rabin strong probable prime test to the base a (a &lt; n),
+		 * n - 1 = d * 2^s.
+		 */
+		boolean millerRabinWitness(long a, long d, int s) {
+			if (a == 0) return true;
+			long one = r1;
+			long minusOne = n - r1;
+			long base = multiply(a, r2);
+			long x = one;
+			while (d > 0) {
+				if ((d & 1) == 1) x = multiply(x, base);
+				base = multiply(base, base);
+				d >>>= 1;
+			}
+			if ( (x == one) || (x == minusOne) ) return true;
+			for (int r = 1; r < s; r++) {
+				x = multiply(x, x);
+				if (x == minusOne) return true;
+				if (x == one) return false;
+			}
+			return false;
+		}
 	}
 	/**
 	 * Prime test
@@ -737,7 +905,9 @@ public final class NumberTheory {
 			return 0;
 	}
 	/**
-	 * Prime counting function
+	 * Prime counting function - prefix counts index of the primes cache
+	 * is used if the number is in cache, otherwise Lucy Hedgehog
+	 * algorithm (O(n^(3/4)) time, O(n^(1/2)) memory).
 	 *
 	 * @param n number
 	 *
@@ -746,11 +916,43 @@ public final class NumberTheory {
 	public static final long primeCount(long n) {
 		if (n <= 1) return 0;
 		if (n == 2) return 1;
-		long numberOfPrimes = 1;
-		for (long i = 3; i <= n; i++)
-			if( primeTest(i) == true)
-				numberOfPrimes++;
-		return numberOfPrimes;
+		PrimesCache primesCache = mXparser.primesCache;
+		if ( (primesCache != null) && (n <= Integer.MAX_VALUE) )
+			if ( primesCache.getCacheStatus() == PrimesCache.CACHING_FINISHED ) {
+				int count = primesCache.primeCount((int)n);
+				if (count != PrimesCache.NOT_IN_CACHE)
+					return count;
+			}
+		/*
+		 * Lucy Hedgehog algorithm - S(v) number of integers in 2 ... v
+		 * not sieved by primes lower than p, for all values v = n / i,
+		 * small values (v <= sqrt(n)) and large values (v = n / i, i <= sqrt(n))
+		 */
+		int r = (int)Math.sqrt(n);
+		while ((long)r * r > n) r--;
+		while ((long)(r + 1) * (r + 1) <= n) r++;
+		long[] small = new long[r + 1];
+		long[] large = new long[r + 1];
+		for (int i = 1; i <= r; i++) {
+			small[i] = i - 1;
+			large[i] = n / i - 1;
+		}
+		for (int p = 2; p <= r; p++) {
+			if (small[p] == small[p - 1]) continue;
+			long primesBefore = small[p - 1];
+			long p2 = (long)p * p;
+			long iMax = Math.min(r, n / p2);
+			for (int i = 1; i <= iMax; i++) {
+				long ip = (long)i * p;
+				if (ip <= r)
+					large[i] -= large[(int)ip] - primesBefore;
+				else
+					large[i] -= small[(int)(n / ip)] - primesBefore;
+			}
+			for (int v = r; v >= p2; v--)
+				small[v] -= small[v / p] - primesBefore;
+		}
+		return large[1];
 	}
 	/**
 	 * Prime counting function
@@ -774,23 +976,9 @@ public final class NumberTheory {
 	 * @return     summation operation (for empty summation operations returns 0).
 	 */
 	public static final double sigmaSummation(Expression f, Argument index, double from, double to, double delta) {
-		double result = 0;
 		if ( (Double.isNaN(delta) ) || (Double.isNaN(from) ) || (Double.isNaN(to) ) || (delta == 0) )
 			return Double.NaN;
-		if ( (to >= from) && (delta > 0) ) {
-			double i;
-			for (i = from; i < to; i+=delta)
-				result += mXparser.getFunctionValue(f, index, i);
-			if ( delta - (i - to) > 0.5 * delta) result += mXparser.getFunctionValue(f, index, to);
-		} else if ( (to <= from) && (delta < 0) ) {
-			double i;
-			for (i = from; i > to; i+=delta)
-				result += mXparser.getFunctionValue(f, index, i);
-			if ( -delta - (to - i) > -0.5 * delta)
-				result += mXparser.getFunctionValue(f, index, to);
-		} else if (from == to)
-			result += mXparser.getFunctionValue(f, index, from);
-		return result;
+		return Statistics.accumulateSummation(f, index, from, to, delta).getSum();
 	}
 	/**
 	 * Product operator
@@ -809,20 +997,7 @@ public final class NumberTheory {
 	public static final double piProduct(Expression f, Argument index, double from, double to, double delta) {
 		if ( (Double.isNaN(delta) ) || (Double.isNaN(from) ) || (Double.isNaN(to) ) || (delta == 0) )
 			return Double.NaN;
-		double result = 1;
-		if ( (to >= from) && (delta > 0) ) {
-			double i;
-			for (i = from; i < to; i+=delta)
-				result *= mXparser.getFunctionValue(f, index, i);
-			if ( delta - (i - to) > 0.5 * delta) result *= mXparser.getFunctionValue(f, index, to);
-		} else if ( (to <= from) && (delta < 0) ) {
-			double i;
-			for (i = from; i > to; i+=delta)
-				result *= mXparser.getFunctionValue(f, index, i);
-			if ( -delta - (to - i) > -0.5 * delta) result *= mXparser.getFunctionValue(f, index, to);
-		} else if (from == to)
-			result *= mXparser.getFunctionValue(f, index, from);
-		return result;
+		return Statistics.accumulateSummation(f, index, from, to, delta).getProduct();
 	}
 	/**
 	 * Minimum value - iterative operator.
@@ -841,25 +1016,7 @@ public final class NumberTheory {
 	public static final double min(Expression f, Argument index, double from, double to, double delta) {
 		if ( (Double.isNaN(delta) ) || (Double.isNaN(from) ) || (Double.isNaN(to) ) || (delta == 0) )
 			return Double.NaN;
-		double min = Double.POSITIVE_INFINITY;
-		double v;
-		if ( (to >= from) && (delta > 0) ) {
-			for (double i = from; i < to; i+=delta) {
-				v = mXparser.getFunctionValue(f, index, i);
-				if (v < min) min = v;
-			}
-			v = mXparser.getFunctionValue(f, index, to);
-			if (v < min) min = v;
-		} else if ( (to <= from) && (delta < 0) ) {
-			for (double i = from; i > to; i+=delta) {
-				v = mXparser.getFunctionValue(f, index, i);
-				if (v < min) min = v;
-			}
-			v = mXparser.getFunctionValue(f, index, to);
-			if (v < min) min = v;
-		} else if (from == to)
-			min = mXparser.getFunctionValue(f, index, from);
-		return min;
+		return Statistics.accumulate(f, index, from, to, delta).getMin();
 	}
 	/**
 	 * Maximum value - iterative operator.
@@ -878,25 +1035,7 @@ public final class NumberTheory {
 	public static final double max(Expression f, Argument index, double from, double to, double delta) {
 		if ( (Double.isNaN(delta) ) || (Double.isNaN(from) ) || (Double.isNaN(to) ) || (delta == 0) )
 			return Double.NaN;
-		double max = Double.NEGATIVE_INFINITY;
-		double v;
-		if ( (to >= from) && (delta > 0) ) {
-			for (double i = from; i < to; i+=delta) {
-				v = mXparser.getFunctionValue(f, index, i);
-				if (v > max) max = v;
-			}
-			v = mXparser.getFunctionValue(f, index, to);
-			if (v > max) max = v;
-		} else if ( (to <= from) && (delta < 0) ) {
-			for (double i = from; i > to; i+=delta) {
-				v = mXparser.getFunctionValue(f, index, i);
-				if (v > max) max = v;
-			}
-			v = mXparser.getFunctionValue(f, index, to);
-			if (v > max) max = v;
-		} else if (from == to)
-			max = mXparser.getFunctionValue(f, index, from);
-		return max;
+		return Statistics.accumulate(f, index, from, to, delta).getMax();
 	}
     /**
      * Return regular expression representing number literal
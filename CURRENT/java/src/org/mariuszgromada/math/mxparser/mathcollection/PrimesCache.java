@@ -51,9 +51,20 @@
  *                              "Yes, up to isomorphism."
  */
 package org.mariuszgromada.math.mxparser.mathcollection;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.mariuszgromada.math.mxparser.mXparser;
+
 /**
  * Class for generating prime numbers cache using
- * Eratosthenes Sieve.
+ * segmented Eratosthenes Sieve. Only odd numbers are stored,
+ * one bit per number, in segments of fixed size. Cache can be
+ * extended (explicitly or lazily - on demand up to the given
+ * limit), new segments are sieved in parallel. Cache state is
+ * replaced atomically, so reading threads do not lock while
+ * the cache is being extended.
  *
  * @author         <b>Mariusz Gromada</b><br>
  *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
@@ -98,84 +109,253 @@ public class PrimesCache {
 	 */
 	public static final int NOT_IN_CACHE = -1;
 	/**
-	 * Primes between 0 ... and ... maximumNumberInCache
-	 * will be cached
+	 * Number of 64 bit words in the segment, bit i of the
+	 * segment s represents odd number 2 * (s * SEGMENT_BITS + i) + 1,
+	 * bit set - composite number
 	 */
-	int maxNumInCache;
+	static final int SEGMENT_WORDS = 4096;
+	static final int SEGMENT_BITS = SEGMENT_WORDS * 64;
 	/**
-	 * Number of cached prime numbers
+	 * Minimum number of new segments sieved in parallel
 	 */
-	int numberOfPrimes;
+	private static final int PARALLEL_MIN_SEGMENTS = 8;
 	/**
-	 * Time in seconds showing
-	 * how long did it take to finalize prime numbers
-	 * caching.
+	 * Cache state - immutable, replaced when cache is extended
+	 * (segments are shared with the previous state).
 	 */
-	double computingTime;
+	static final class Sieve {
+		/**
+		 * Sieved segments
+		 */
+		final long[][] segments;
+		/**
+		 * Primes between 0 ... and ... maximumNumberInCache
+		 * are cached
+		 */
+		final int maxNumInCache;
+		/**
+		 * Prefix counts index - number of odd primes
+		 * in the segments preceding the segment
+		 */
+		final int[] segmentsCounts;
+		/**
+		 * Number of cached prime numbers
+		 */
+		final int numberOfPrimes;
+		Sieve(long[][] segments, Sieve previous, int maxNumInCache) {
+			this.segments = segments;
+			this.maxNumInCache = maxNumInCache;
+			segmentsCounts = new int[segments.length];
+			int from = 0;
+			if (previous != null) {
+				from = previous.segmentsCounts.length;
+				System.arraycopy(previous.segmentsCounts, 0, segmentsCounts, 0, from);
+			}
+			for (int s = Math.max(from, 1); s < segments.length; s++)
+				segmentsCounts[s] = segmentsCounts[s - 1] + countOddPrimes(segments[s - 1], SEGMENT_BITS - 1);
+			numberOfPrimes = primeCount(maxNumInCache);
+		}
+		/**
+		 * Prime test of the number between 0 and maxNumInCache.
+		 */
+		boolean isPrime(int n) {
+			if (n == 2) return true;
+			if ( (n < 2) || ((n & 1) == 0) ) return false;
+			int bit = n >>> 1;
+			long word = segments[bit / SEGMENT_BITS][(bit % SEGMENT_BITS) >>> 6];
+			return (word & (1L << bit)) == 0;
+		}
+		/**
+		 * Number of primes below or equal to the number
+		 * between 0 and maxNumInCache.
+		 */
+		int primeCount(int n) {
+			if (n < 2) return 0;
+			int lastBit = (n - 1) >>> 1;
+			int segment = lastBit / SEGMENT_BITS;
+			return 1 + segmentsCounts[segment] + countOddPrimes(segments[segment], lastBit % SEGMENT_BITS);
+		}
+	}
 	/**
-	 * Caching process status
-	 */
-	boolean cacheStatus;
-	/*
-	 * Integers table to store number and indicate
-	 * whether they are prime or not
+	 * Current cache state, null - cache empty
 	 */
-	boolean[] isPrime;
+	private volatile Sieve sieve;
 	/**
-	 * Eratosthenes Sieve implementation
+	 * Cache is extended on demand up to this number
 	 */
-	private void EratosthenesSieve() {
-		isPrime = new boolean[maxNumInCache+1];
-		numberOfPrimes = 0;
-		long startTime = System.currentTimeMillis();
-		/*
-		 * Initially assume all integers are primes
-		 */
-		isPrime[0] = false;
-		isPrime[1] = false;
-		for (int i = 2; i <= maxNumInCache; i++)
-			isPrime[i] = true;
-		/*
-		 * Sieve of Eratosthenes - marking non-primes
-		 */
-        for (int i = 2; i*i <= maxNumInCache; i++)
-            if (isPrime[i] == true)
-                for (int j = i; i*j <= maxNumInCache; j++)
-                    isPrime[i*j] = false;
-		long endTime = System.currentTimeMillis();
-		computingTime = (endTime - startTime)/1000.0;
-	}
+	private final int maxNumInCacheLimit;
 	/**
-	 * Counting found primes
+	 * Time in seconds showing
+	 * how long did it take to finalize prime numbers
+	 * caching (including all the extensions).
 	 */
-	private void countPrimes() {
-		for (int i = 0; i <= maxNumInCache; i++)
-			if (isPrime[i] == true) numberOfPrimes++;
-	}
+	private volatile double computingTime;
 	/**
 	 * Default constructor - setting prime cache for a default range if integers
 	 */
 	public PrimesCache() {
-		cacheStatus = CACHE_EMPTY;
-		maxNumInCache = DEFAULT_MAX_NUM_IN_CACHE;
-		EratosthenesSieve();
-		countPrimes();
-		cacheStatus = CACHING_FINISHED;
+		this(DEFAULT_MAX_NUM_IN_CACHE);
 	}
 	/**
 	 * Constructor - setting prime cache for a given range if integers
 	 * @param maxNumInCache Range of integers to be stored in prime cache
 	 */
 	public PrimesCache(int maxNumInCache) {
-		if (maxNumInCache > 2)
-			this.maxNumInCache = maxNumInCache;
-		else
-			this.maxNumInCache = DEFAULT_MAX_NUM_IN_CACHE;
-		cacheStatus = CACHE_EMPTY;
-		maxNumInCache = DEFAULT_MAX_NUM_IN_CACHE;
-		EratosthenesSieve();
-		countPrimes();
-		cacheStatus = CACHING_FINISHED;
+		this(maxNumInCache, maxNumInCache);
+	}
+	/**
+	 * Constructor - setting prime cache for a given range if integers,
+	 * cache is extended on demand (by the prime test of the number
+	 * above the cache range) up to the given limit.
+	 *
+	 * @param maxNumInCache         Range of integers to be stored in prime cache
+	 *                              initially
+	 * @param maxNumInCacheLimit    Limit of the cache extension on demand
+	 */
+	public PrimesCache(int maxNumInCache, int maxNumInCacheLimit) {
+		if (maxNumInCache <= 2)
+			maxNumInCache = DEFAULT_MAX_NUM_IN_CACHE;
+		this.maxNumInCacheLimit = Math.max(maxNumInCache, maxNumInCacheLimit);
+		extend(maxNumInCache);
+	}
+	/**
+	 * Extends cache up to the given number, only the new segments
+	 * are sieved. Threads reading the cache are not blocked.
+	 *
+	 * @param maxNumInCache Range of integers to be stored in prime cache
+	 */
+	public void extend(int maxNumInCache) {
+		synchronized (this) {
+			Sieve current = sieve;
+			if ( (current != null) && (current.maxNumInCache >= maxNumInCache) )
+				return;
+			long startTime = System.currentTimeMillis();
+			int segmentsNumber = (maxNumInCache >>> 1) / SEGMENT_BITS + 1;
+			long[][] segments;
+			int from = 0;
+			if (current != null) {
+				from = current.segments.length;
+				segments = Arrays.copyOf(current.segments, Math.max(from, segmentsNumber));
+			} else
+				segments = new long[segmentsNumber][];
+			if (segmentsNumber > from) {
+				long highest = 2L * segmentsNumber * SEGMENT_BITS - 1;
+				int[] basePrimes = oddPrimes((int)Math.sqrt(highest) + 1);
+				sieveSegments(segments, from, segmentsNumber, basePrimes);
+			}
+			sieve = new Sieve(segments, current, maxNumInCache);
+			long endTime = System.currentTimeMillis();
+			computingTime += (endTime - startTime)/1000.0;
+		}
+	}
+	/**
+	 * Returns cache state covering given number - cache is extended if
+	 * number is within the extension limit.
+	 *
+	 * @param n Given number
+	 * @return Cache state covering the number, or null if the number
+	 *         is not in cache (current state is returned if the number is
+	 *         not in cache and cache can not be extended).
+	 */
+	private Sieve ensure(long n) {
+		Sieve current = sieve;
+		if ( (current == null) || (n <= current.maxNumInCache) )
+			return current;
+		if (n > maxNumInCacheLimit)
+			return current;
+		long doubled = Math.min(2L * current.maxNumInCache, maxNumInCacheLimit);
+		extend((int)Math.max(n, doubled));
+		return sieve;
+	}
+	/**
+	 * Odd primes below or equal to the given number
+	 * (simple sieve, used to sieve segments).
+	 */
+	private static int[] oddPrimes(int limit) {
+		boolean[] composite = new boolean[limit + 1];
+		int number = 0;
+		for (int i = 3; i <= limit; i += 2)
+			if (composite[i] == false) {
+				number++;
+				for (long j = (long)i * i; j <= limit; j += 2 * i)
+					composite[(int)j] = true;
+			}
+		int[] primes = new int[number];
+		number = 0;
+		for (int i = 3; i <= limit; i += 2)
+			if (composite[i] == false)
+				primes[number++] = i;
+		return primes;
+	}
+	/**
+	 * Sieves one segment using odd primes up to square root
+	 * of the segment highest number.
+	 */
+	private static long[] sieveSegment(int segment, int[] basePrimes) {
+		long[] words = new long[SEGMENT_WORDS];
+		long lowBit = (long)segment * SEGMENT_BITS;
+		long low = 2 * lowBit + 1;
+		long high = low + 2L * (SEGMENT_BITS - 1);
+		for (int p : basePrimes) {
+			long start = (long)p * p;
+			if (start > high) break;
+			if (start < low) {
+				start = (low + p - 1) / p * p;
+				if ((start & 1) == 0) start += p;
+			}
+			for (long bit = (start >>> 1) - lowBit; bit < SEGMENT_BITS; bit += p)
+				words[(int)(bit >>> 6)] |= 1L << bit;
+		}
+		/*
+		 * 1 is not a prime
+		 */
+		if (segment == 0)
+			words[0] |= 1L;
+		return words;
+	}
+	/**
+	 * Sieves segments between from (inclusive) and to (exclusive),
+	 * segments are sieved in parallel if the number of threads and
+	 * the number of segments are big enough.
+	 */
+	private static void sieveSegments(final long[][] segments, int from, final int to, final int[] basePrimes) {
+		final AtomicInteger next = new AtomicInteger(from);
+		Runnable task = new Runnable() {
+			public void run() {
+				int segment;
+				while ( (segment = next.getAndIncrement()) < to )
+					segments[segment] = sieveSegment(segment, basePrimes);
+			}
+		};
+		int threadsNumber = Math.min(mXparser.getThreadsNumber(), (to - from) / PARALLEL_MIN_SEGMENTS);
+		Thread[] threads = new Thread[Math.max(threadsNumber - 1, 0)];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(task, "PrimesCache-" + t);
+			threads[t].setDaemon(true);
+			threads[t].start();
+		}
+		task.run();
+		boolean interrupted = false;
+		for (Thread thread : threads)
+			while (thread.isAlive())
+				try {
+					thread.join();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+	/**
+	 * Counts odd primes in the segment (bits between 0 and lastBit).
+	 */
+	private static int countOddPrimes(long[] words, int lastBit) {
+		int lastWord = lastBit >>> 6;
+		int count = 0;
+		for (int i = 0; i < lastWord; i++)
+			count += 64 - Long.bitCount(words[i]);
+		long mask = -1L >>> (63 - (lastBit & 63));
+		return count + Long.bitCount(~words[lastWord] & mask);
 	}
 	/**
 	 * Returns computing time of Eratosthenes Sieve
@@ -189,41 +369,67 @@ public class PrimesCache {
 	 * @return PrimesCache.CACHE_EMPTY or PrimesCache.CACHING_FINISHED;
 	 */
 	public boolean getCacheStatus() {
-		return cacheStatus;
+		if (sieve != null)
+			return CACHING_FINISHED;
+		else
+			return CACHE_EMPTY;
 	}
 	/**
 	 * Returns number of found primes.
 	 * @return Number of found primes.
 	 */
 	public int getNumberOfPrimes() {
-		return numberOfPrimes;
+		Sieve current = sieve;
+		if (current != null)
+			return current.numberOfPrimes;
+		else
+			return 0;
 	}
 	/**
 	 * Returns cache range.
 	 * @return Maximum integera number in cache/
 	 */
 	public int getMaxNumInCache() {
-		return maxNumInCache;
+		Sieve current = sieve;
+		if (current != null)
+			return current.maxNumInCache;
+		else
+			return 0;
 	}
 	/**
-	 * Check whether given number is prime
+	 * Returns limit of the cache extension on demand.
+	 * @return Maximum integer number that can be stored in cache
+	 *         by the extension on demand.
+	 */
+	public int getMaxNumInCacheLimit() {
+		return maxNumInCacheLimit;
+	}
+	/**
+	 * Check whether given number is prime, cache is
+	 * extended if number is within the extension limit.
 	 * @param n Given integer number.
 	 * @return PrimesCache.IS_PRIME or PrimesCache.IS_NOT_PRIME or PrimesCache.NOT_IN_CACHE
 	 */
 	public int primeTest(int n) {
-		if ( (n <= maxNumInCache) && (cacheStatus = CACHING_FINISHED) )
-			if ( isPrime[n] == true)
-				return IS_PRIME;
-			else
-				return IS_NOT_PRIME;
-		else
+		Sieve current = ensure(n);
+		if ( (current == null) || (n > current.maxNumInCache) )
 			return NOT_IN_CACHE;
+		if ( current.isPrime(n) )
+			return IS_PRIME;
+		else
+			return IS_NOT_PRIME;
 	}
 	/**
-	 * Gets underlying primes cache boolean table
-	 * @return Underlying primes cache boolean table
+	 * Returns number of primes below or equal to the given number
+	 * (prefix counts index is used), cache is extended if number is
+	 * within the extension limit.
+	 * @param n Given integer number.
+	 * @return Number of primes below or equal to n, or PrimesCache.NOT_IN_CACHE
 	 */
-	boolean[] getPrimes() {
-		return isPrime;
+	public int primeCount(int n) {
+		Sieve current = ensure(n);
+		if ( (current == null) || (n > current.maxNumInCache) )
+			return NOT_IN_CACHE;
+		return current.primeCount(n);
 	}
-}
\ No newline at end of file
+}
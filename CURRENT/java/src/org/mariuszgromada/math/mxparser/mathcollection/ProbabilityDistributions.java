@@ -81,9 +81,13 @@ import java.util.Random;
  */
 public final class ProbabilityDistributions {
 	/**
-	 * Random number generator
+	 * Random number generator, by default streams of the
+	 * current thread are used (no contention between threads)
+	 *
+	 * @see RandomStream#PER_THREAD
+	 * @see RandomStream#setThreadStreamsSeed(long)
 	 */
-	public static Random randomGenerator = new Random();
+	public static Random randomGenerator = RandomStream.PER_THREAD;
 	/**
 	 * Random number from Uniform Continuous distribution over interval [a, b).
 	 *
@@ -389,4 +393,262 @@ public final class ProbabilityDistributions {
 		if (q == 1.0) return Double.POSITIVE_INFINITY;
 		return mean - ( stddev * MathConstants.SQRT2 * SpecialFunctions.erfcInv( 2.0*q ) );
 	}
+	/**
+	 * Checks whether distribution parameters are regular - finite,
+	 * scale greater than 0 (batch kernels use the loop with parameters
+	 * validated once, otherwise values are calculated point by point).
+	 */
+	private static boolean regularParameters(double location, double scale) {
+		return (scale > 0) && (scale < Double.POSITIVE_INFINITY) && (Double.isNaN(location) == false) && (Double.isInfinite(location) == false);
+	}
+	/**
+	 * PDF - Probability Distribution Function - Uniform Continuous distribution
+	 * over interval [a, b), batch kernel over the array of points.
+	 *
+	 * @param x       Points to evaluate pdf function.
+	 * @param a       Interval limit - left / lower.
+	 * @param b       Interval limit - right / upper.
+	 * @param out     Output array (can be the same as x), its length
+	 *                defines number of points.
+	 *
+	 * @see #pdfUniformContinuous(double, double, double)
+	 */
+	public static final void pdfUniformContinuous(double[] x, double a, double b, double[] out) {
+		if (regularParameters(a, b - a) == false) {
+			for (int i = 0; i < out.length; i++)
+				out[i] = pdfUniformContinuous(x[i], a, b);
+			return;
+		}
+		double density = 1.0 / (b - a);
+		for (int i = 0; i < out.length; i++) {
+			double xi = x[i];
+			out[i] = ( (xi >= a) && (xi <= b) ) ? density : ( Double.isNaN(xi) ? Double.NaN : 0 );
+		}
+	}
+	/**
+	 * PDF - Probability Distribution Function - Uniform Continuous distribution
+	 * over interval [a, b), batch kernel over the arrays of points and parameters.
+	 *
+	 * @param x       Points to evaluate pdf function.
+	 * @param a       Interval limits - left / lower.
+	 * @param b       Interval limits - right / upper.
+	 * @param out     Output array (can be the same as x), its length
+	 *                defines number of points.
+	 *
+	 * @see #pdfUniformContinuous(double, double, double)
+	 */
+	public static final void pdfUniformContinuous(double[] x, double[] a, double[] b, double[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = pdfUniformContinuous(x[i], a[i], b[i]);
+	}
+	/**
+	 * CDF - Cumulative Distribution Function - Uniform Continuous distribution
+	 * over interval [a, b), batch kernel over the array of points.
+	 *
+	 * @param x       Points to evaluate cdf function.
+	 * @param a       Interval limit - left / lower.
+	 * @param b       Interval limit - right / upper.
+	 * @param out     Output array (can be the same as x), its length
+	 *                defines number of points.
+	 *
+	 * @see #cdfUniformContinuous(double, double, double)
+	 */
+	public static final void cdfUniformContinuous(double[] x, double a, double b, double[] out) {
+		if (regularParameters(a, b - a) == false) {
+			for (int i = 0; i < out.length; i++)
+				out[i] = cdfUniformContinuous(x[i], a, b);
+			return;
+		}
+		double d = b - a;
+		for (int i = 0; i < out.length; i++) {
+			double xi = x[i];
+			out[i] = (xi < a) ? 0.0 : ( (xi >= b) ? 1.0 : (xi - a) / d );
+		}
+	}
+	/**
+	 * CDF - Cumulative Distribution Function - Uniform Continuous distribution
+	 * over interval [a, b), batch kernel over the arrays of points and parameters.
+	 *
+	 * @param x       Points to evaluate cdf function.
+	 * @param a       Interval limits - left / lower.
+	 * @param b       Interval limits - right / upper.
+	 * @param out     Output array (can be the same as x), its length
+	 *                defines number of points.
+	 *
+	 * @see #cdfUniformContinuous(double, double, double)
+	 */
+	public static final void cdfUniformContinuous(double[] x, double[] a, double[] b, double[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = cdfUniformContinuous(x[i], a[i], b[i]);
+	}
+	/**
+	 * QNT - Quantile Function - Uniform Continuous distribution over interval [a, b),
+	 * batch kernel over the array of quantiles.
+	 *
+	 * @param q       Quantiles.
+	 * @param a       Interval limit - left / lower.
+	 * @param b       Interval limit - right / upper.
+	 * @param out     Output array (can be the same as q), its length
+	 *                defines number of quantiles.
+	 *
+	 * @see #qntUniformContinuous(double, double, double)
+	 */
+	public static final void qntUniformContinuous(double[] q, double a, double b, double[] out) {
+		if (regularParameters(a, b - a) == false) {
+			for (int i = 0; i < out.length; i++)
+				out[i] = qntUniformContinuous(q[i], a, b);
+			return;
+		}
+		double d = b - a;
+		for (int i = 0; i < out.length; i++) {
+			double qi = q[i];
+			if ( (qi > 0.0) && (qi < 1.0) ) out[i] = a + qi*d;
+			else if (qi == 0.0) out[i] = a;
+			else if (qi == 1.0) out[i] = b;
+			else out[i] = Double.NaN;
+		}
+	}
+	/**
+	 * QNT - Quantile Function - Uniform Continuous distribution over interval [a, b),
+	 * batch kernel over the arrays of quantiles and parameters.
+	 *
+	 * @param q       Quantiles.
+	 * @param a       Interval limits - left / lower.
+	 * @param b       Interval limits - right / upper.
+	 * @param out     Output array (can be the same as q), its length
+	 *                defines number of quantiles.
+	 *
+	 * @see #qntUniformContinuous(double, double, double)
+	 */
+	public static final void qntUniformContinuous(double[] q, double[] a, double[] b, double[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = qntUniformContinuous(q[i], a[i], b[i]);
+	}
+	/**
+	 * PDF - Probability Distribution Function - Normal distribution N(mean, stddev),
+	 * batch kernel over the array of points.
+	 *
+	 * @param x                 Points to evaluate pdf function.
+	 * @param mean              Mean value.
+	 * @param stddev            Standard deviation.
+	 * @param out               Output array (can be the same as x), its length
+	 *                          defines number of points.
+	 *
+	 * @see #pdfNormal(double, double, double)
+	 */
+	public static final void pdfNormal(double[] x, double mean, double stddev, double[] out) {
+		if (regularParameters(mean, stddev) == false) {
+			for (int i = 0; i < out.length; i++)
+				out[i] = pdfNormal(x[i], mean, stddev);
+			return;
+		}
+		double norm = MathConstants.SQRT2Pi*stddev;
+		for (int i = 0; i < out.length; i++) {
+			double d = (x[i] - mean) / stddev;
+			out[i] = Math.exp( -0.5*d*d ) / norm;
+		}
+	}
+	/**
+	 * PDF - Probability Distribution Function - Normal distribution N(mean, stddev),
+	 * batch kernel over the arrays of points and parameters.
+	 *
+	 * @param x                 Points to evaluate pdf function.
+	 * @param mean              Mean values.
+	 * @param stddev            Standard deviations.
+	 * @param out               Output array (can be the same as x), its length
+	 *                          defines number of points.
+	 *
+	 * @see #pdfNormal(double, double, double)
+	 */
+	public static final void pdfNormal(double[] x, double[] mean, double[] stddev, double[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = pdfNormal(x[i], mean[i], stddev[i]);
+	}
+	/**
+	 * CDF - Cumulative Distribution Function - Normal distribution N(mean, stddev),
+	 * batch kernel over the array of points.
+	 *
+	 * @param x                 Points to evaluate cdf function.
+	 * @param mean              Mean value.
+	 * @param stddev            Standard deviation.
+	 * @param out               Output array (can be the same as x), its length
+	 *                          defines number of points.
+	 *
+	 * @see #cdfNormal(double, double, double)
+	 */
+	public static final void cdfNormal(double[] x, double mean, double stddev, double[] out) {
+		if (regularParameters(mean, stddev) == false) {
+			for (int i = 0; i < out.length; i++)
+				out[i] = cdfNormal(x[i], mean, stddev);
+			return;
+		}
+		/*
+		 * Standardization, erfc and scaling as separate loops
+		 */
+		double scale = stddev * MathConstants.SQRT2;
+		for (int i = 0; i < out.length; i++)
+			out[i] = (mean - x[i]) / scale;
+		SpecialFunctions.erfc(out, out);
+		for (int i = 0; i < out.length; i++)
+			out[i] = 0.5 * out[i];
+	}
+	/**
+	 * CDF - Cumulative Distribution Function - Normal distribution N(mean, stddev),
+	 * batch kernel over the arrays of points and parameters.
+	 *
+	 * @param x                 Points to evaluate cdf function.
+	 * @param mean              Mean values.
+	 * @param stddev            Standard deviations.
+	 * @param out               Output array (can be the same as x), its length
+	 *                          defines number of points.
+	 *
+	 * @see #cdfNormal(double, double, double)
+	 */
+	public static final void cdfNormal(double[] x, double[] mean, double[] stddev, double[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = cdfNormal(x[i], mean[i], stddev[i]);
+	}
+	/**
+	 * QNT - Quantile Function - Normal distribution N(mean, stddev),
+	 * batch kernel over the array of quantiles.
+	 *
+	 * @param q                 Quantiles.
+	 * @param mean              Mean value.
+	 * @param stddev            Standard deviation.
+	 * @param out               Output array (can be the same as q), its length
+	 *                          defines number of quantiles.
+	 *
+	 * @see #qntNormal(double, double, double)
+	 */
+	public static final void qntNormal(double[] q, double mean, double stddev, double[] out) {
+		if (regularParameters(mean, stddev) == false) {
+			for (int i = 0; i < out.length; i++)
+				out[i] = qntNormal(q[i], mean, stddev);
+			return;
+		}
+		double scale = stddev * MathConstants.SQRT2;
+		for (int i = 0; i < out.length; i++) {
+			double qi = q[i];
+			if ( (qi > 0.0) && (qi < 1.0) ) out[i] = mean - ( scale * SpecialFunctions.erfcInv( 2.0*qi ) );
+			else if (qi == 0.0) out[i] = Double.NEGATIVE_INFINITY;
+			else if (qi == 1.0) out[i] = Double.POSITIVE_INFINITY;
+			else out[i] = Double.NaN;
+		}
+	}
+	/**
+	 * QNT - Quantile Function - Normal distribution N(mean, stddev),
+	 * batch kernel over the arrays of quantiles and parameters.
+	 *
+	 * @param q                 Quantiles.
+	 * @param mean              Mean values.
+	 * @param stddev            Standard deviations.
+	 * @param out               Output array (can be the same as q), its length
+	 *                          defines number of quantiles.
+	 *
+	 * @see #qntNormal(double, double, double)
+	 */
+	public static final void qntNormal(double[] q, double[] mean, double[] stddev, double[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = qntNormal(q[i], mean[i], stddev[i]);
+	}
 }
@@ -0,0 +1,315 @@
+/*
+ * @(#)QuantileSketch.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser.mathcollection;
+
+import java.util.Arrays;
+
+/**
+ * Streaming approximate quantiles sketch (KLL sketch - hierarchy
+ * of compactors, items of the level h have weight 2^h). Memory
+ * is O(k) independently of the number of values added, the rank
+ * error is about 1.7 / k of the number of values (k = 200 gives
+ * about 1%). Compaction offsets alternate, so results are
+ * deterministic. Sketches can be merged (values added in parallel).
+ * Sketch is not thread safe.
+ *
+ * <pre>
+ * QuantileSketch sketch = new QuantileSketch();
+ * for (double x : values)
+ *     sketch.add(x);
+ * double p99 = sketch.quantile(0.99);
+ * </pre>
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ *
+ * @see Statistics#quantile(double, double...)
+ * @see Statistics#median(double...)
+ */
+public final class QuantileSketch {
+	/**
+	 * Default accuracy parameter
+	 */
+	public static final int DEFAULT_K = 200;
+	/**
+	 * Minimal accuracy parameter
+	 */
+	public static final int MIN_K = 8;
+	/**
+	 * Capacity of the level decreases by this factor
+	 * for the lower levels
+	 */
+	private static final double CAPACITY_FACTOR = 2.0 / 3.0;
+	/**
+	 * Accuracy parameter - capacity of the top level
+	 */
+	private final int k;
+	/**
+	 * Levels items (unsorted) and sizes
+	 */
+	private double[][] levels = new double[0][];
+	private int[] sizes = new int[0];
+	/**
+	 * Compaction offset of the level (alternating)
+	 */
+	private boolean[] offsets = new boolean[0];
+	/**
+	 * Number of added values
+	 */
+	private long count = 0;
+	/**
+	 * Minimum and maximum (exact)
+	 */
+	private double min = Double.NaN;
+	private double max = Double.NaN;
+	/**
+	 * Double.NaN was added
+	 */
+	private boolean nan = false;
+	/**
+	 * Default constructor - accuracy parameter {@link #DEFAULT_K}.
+	 */
+	public QuantileSketch() {
+		this(DEFAULT_K);
+	}
+	/**
+	 * Constructor.
+	 *
+	 * @param k   Accuracy parameter (at least {@link #MIN_K}), rank error
+	 *            is about 1.7 / k.
+	 */
+	public QuantileSketch(int k) {
+		this.k = Math.max(k, MIN_K);
+		addLevel();
+	}
+	/**
+	 * Capacity of the level.
+	 */
+	private int capacity(int level) {
+		int depth = levels.length - 1 - level;
+		return Math.max(2, (int)Math.ceil(k * Math.pow(CAPACITY_FACTOR, depth)));
+	}
+	private void addLevel() {
+		int n = levels.length;
+		levels = Arrays.copyOf(levels, n + 1);
+		sizes = Arrays.copyOf(sizes, n + 1);
+		offsets = Arrays.copyOf(offsets, n + 1);
+		levels[n] = new double[Math.max(2, k)];
+	}
+	/**
+	 * Adds item to the level.
+	 */
+	private void push(int level, double x) {
+		if (sizes[level] == levels[level].length)
+			levels[level] = Arrays.copyOf(levels[level], 2 * levels[level].length);
+		levels[level][sizes[level]++] = x;
+	}
+	/**
+	 * Adds value to the sketch.
+	 *
+	 * @param x   Value, Double.NaN makes quantiles Double.NaN
+	 */
+	public void add(double x) {
+		if (Double.isNaN(x)) {
+			nan = true;
+			return;
+		}
+		if (count == 0) {
+			min = x;
+			max = x;
+		} else {
+			if (x < min) min = x;
+			if (x > max) max = x;
+		}
+		count++;
+		push(0, x);
+		compress();
+	}
+	/**
+	 * Adds values to the sketch.
+	 *
+	 * @param numbers   Values
+	 */
+	public void add(double... numbers) {
+		for (double x : numbers)
+			add(x);
+	}
+	/**
+	 * Merges other sketch into this sketch.
+	 *
+	 * @param other   Other sketch
+	 */
+	public void merge(QuantileSketch other) {
+		if (other.nan) nan = true;
+		if (other.count == 0) return;
+		if (count == 0) {
+			min = other.min;
+			max = other.max;
+		} else {
+			if (other.min < min) min = other.min;
+			if (other.max > max) max = other.max;
+		}
+		count += other.count;
+		while (levels.length < other.levels.length)
+			addLevel();
+		for (int level = 0; level < other.levels.length; level++)
+			for (int i = 0; i < other.sizes[level]; i++)
+				push(level, other.levels[level][i]);
+		compress();
+	}
+	/**
+	 * Compacts levels exceeding the capacity - level is sorted and every
+	 * second item is promoted to the next level (with double weight).
+	 */
+	private void compress() {
+		for (int level = 0; level < levels.length; level++) {
+			if (sizes[level] < capacity(level))
+				continue;
+			if (level == levels.length - 1)
+				addLevel();
+			double[] items = levels[level];
+			int size = sizes[level];
+			Arrays.sort(items, 0, size);
+			/*
+			 * Odd item is kept at the level
+			 */
+			int kept = size % 2;
+			int start = offsets[level] ? 1 : 0;
+			offsets[level] = !offsets[level];
+			for (int i = kept + start; i < size; i += 2)
+				push(level + 1, items[i]);
+			sizes[level] = kept;
+		}
+	}
+	/**
+	 * Returns number of added values.
+	 *
+	 * @return    Number of added values (without Double.NaN).
+	 */
+	public long getCount() {
+		return count;
+	}
+	/**
+	 * Returns number of items stored by the sketch.
+	 *
+	 * @return    Number of stored items.
+	 */
+	public int getRetainedItems() {
+		int retained = 0;
+		for (int size : sizes)
+			retained += size;
+		return retained;
+	}
+	/**
+	 * Approximate quantile.
+	 *
+	 * @param p   Probability between 0 and 1 (0 - minimum, 1 - maximum)
+	 * @return    Approximate quantile, if the sketch is empty, Double.NaN
+	 *            was added or p is not between 0 and 1 then Double.NaN
+	 *            is returned.
+	 */
+	public double quantile(double p) {
+		if ( nan || (count == 0) ) return Double.NaN;
+		if ( Double.isNaN(p) || (p < 0) || (p > 1) ) return Double.NaN;
+		if (p == 0) return min;
+		if (p == 1) return max;
+		/*
+		 * Levels are sorted and merged (the item of the level h has
+		 * the weight 2^h) until the cumulative weight reaches the rank
+		 */
+		int levelsNumber = levels.length;
+		double[][] sorted = new double[levelsNumber][];
+		int[] heads = new int[levelsNumber];
+		long total = 0;
+		for (int level = 0; level < levelsNumber; level++) {
+			sorted[level] = Arrays.copyOf(levels[level], sizes[level]);
+			Arrays.sort(sorted[level]);
+			total += (long)sizes[level] << level;
+		}
+		double rank = p * total;
+		long cumulative = 0;
+		while (true) {
+			int best = -1;
+			for (int level = 0; level < levelsNumber; level++)
+				if ( (heads[level] < sorted[level].length) && ( (best < 0) || (sorted[level][heads[level]] < sorted[best][heads[best]]) ) )
+					best = level;
+			if (best < 0) break;
+			double x = sorted[best][heads[best]++];
+			cumulative += 1L << best;
+			if (cumulative >= rank)
+				return x;
+		}
+		return max;
+	}
+	/**
+	 * Approximate median.
+	 *
+	 * @return    Approximate median.
+	 */
+	public double median() {
+		return quantile(0.5);
+	}
+}
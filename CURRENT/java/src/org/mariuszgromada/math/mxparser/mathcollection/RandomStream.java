@@ -0,0 +1,460 @@
+/*
+ * @(#)RandomStream.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser.mathcollection;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RandomStream - random numbers generator based on the splittable
+ * generator (SplitMix64 algorithm, the same as used by
+ * <code>java.util.SplittableRandom</code> available since Java 8).
+ * Differently from {@link Random} the generator does not use the
+ * atomic seed update, therefore single stream is not thread safe,
+ * instead streams are split - {@link #split()} creates the new
+ * independent stream deterministically derived from the current stream,
+ * so parallel work seeded from one stream is reproducible.
+ *
+ * Stream extends {@link Random}, so it can be used everywhere
+ * random generator is expected (i.e. {@link org.mariuszgromada.math.mxparser.mXparser#setRandomGenerator(Random)},
+ * {@link org.mariuszgromada.math.mxparser.EvaluationOptions#setRandomGenerator(Random)}
+ * for the per evaluation stream).
+ *
+ * {@link #PER_THREAD} stream (default random generator of the
+ * {@link ProbabilityDistributions}) delegates to the stream of the
+ * current thread, thread streams are split from the common root stream
+ * in the order of the first use, root stream is reseeded by
+ * {@link #setThreadStreamsSeed(long)}.
+ *
+ * <pre>
+ * RandomStream stream = new RandomStream(2018);
+ * RandomStream[] streams = stream.split(threadsNumber);
+ * double[] values = new double[1000000];
+ * streams[0].fillNormal(values, 0, 1);
+ * </pre>
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ *
+ * @see ProbabilityDistributions#randomGenerator
+ */
+public class RandomStream extends Random {
+	private static final long serialVersionUID = 1L;
+	/**
+	 * Default gamma (odd number close to 2^64 / golden ratio)
+	 */
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+	/**
+	 * Seed generator of the streams created without seed
+	 */
+	private static final AtomicLong defaultSeed = new AtomicLong( mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime()) );
+	/**
+	 * Stream delegating to the stream of the current thread
+	 */
+	public static final RandomStream PER_THREAD = new PerThread();
+	/**
+	 * Root stream of the thread streams
+	 */
+	private static RandomStream root = new RandomStream();
+	/**
+	 * Root stream generation, thread streams
+	 * of the older generation are split again
+	 */
+	private static volatile int rootGeneration = 0;
+	/**
+	 * Stream of the current thread
+	 */
+	private static final ThreadLocal<RandomStream> threadStream = new ThreadLocal<RandomStream>();
+	/**
+	 * Generator state and the state increment (odd number)
+	 */
+	private long seed;
+	private long gamma;
+	/**
+	 * Generation of the root stream (thread streams)
+	 */
+	private int generation;
+	/**
+	 * Second value of the polar method
+	 */
+	private double nextNextGaussian;
+	private boolean haveNextNextGaussian = false;
+	/**
+	 * Creates stream with the seed that is likely to be
+	 * different from the seed of the other streams.
+	 */
+	public RandomStream() {
+		super(0L);
+		long s = defaultSeed.getAndAdd(2 * GOLDEN_GAMMA);
+		seed = mix64(s);
+		gamma = mixGamma(s + GOLDEN_GAMMA);
+	}
+	/**
+	 * Creates stream with the given seed.
+	 *
+	 * @param seed    Seed value.
+	 */
+	public RandomStream(long seed) {
+		this(seed, GOLDEN_GAMMA);
+	}
+	private RandomStream(long seed, long gamma) {
+		super(0L);
+		this.seed = seed;
+		this.gamma = gamma;
+	}
+	/**
+	 * SplitMix64 output function (64 bits).
+	 */
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+	/**
+	 * SplitMix64 output function (32 bits).
+	 */
+	private static int mix32(long z) {
+		z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+		return (int)(((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+	}
+	/**
+	 * Gamma of the split stream - odd number with enough bits transitions.
+	 */
+	private static long mixGamma(long z) {
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		z = (z ^ (z >>> 33)) | 1L;
+		int n = Long.bitCount(z ^ (z >>> 1));
+		return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+	}
+	/**
+	 * Advances the generator state.
+	 */
+	private long nextSeed() {
+		return seed += gamma;
+	}
+	/**
+	 * Double from the upper 53 bits of the random long.
+	 */
+	private static double toDouble(long z) {
+		return (z >>> 11) * 0x1.0p-53;
+	}
+	/**
+	 * Stream of the current thread.
+	 *
+	 * @return        Thread stream.
+	 */
+	public static RandomStream current() {
+		RandomStream stream = threadStream.get();
+		int generation = rootGeneration;
+		if ( (stream == null) || (stream.generation != generation) ) {
+			synchronized (RandomStream.class) {
+				generation = rootGeneration;
+				stream = root.split();
+			}
+			stream.generation = generation;
+			threadStream.set(stream);
+		}
+		return stream;
+	}
+	/**
+	 * Reseeds root stream of the thread streams, thread streams
+	 * are split again from the root stream on the next use.
+	 *
+	 * @param seed    Seed value.
+	 */
+	public static void setThreadStreamsSeed(long seed) {
+		synchronized (RandomStream.class) {
+			root = new RandomStream(seed);
+			rootGeneration++;
+		}
+	}
+	/**
+	 * Splits new independent stream (stream state is advanced).
+	 *
+	 * @return        New stream.
+	 */
+	public RandomStream split() {
+		long s = nextLong();
+		return new RandomStream(s, mixGamma(nextSeed()));
+	}
+	/**
+	 * Splits new independent streams (stream state is advanced),
+	 * i.e. one stream for each parallel task.
+	 *
+	 * @param n       Number of streams.
+	 * @return        New streams, empty array if n is lower than 1.
+	 */
+	public RandomStream[] split(int n) {
+		if (n < 1) return new RandomStream[0];
+		RandomStream[] streams = new RandomStream[n];
+		for (int i = 0; i < n; i++)
+			streams[i] = split();
+		return streams;
+	}
+	/**
+	 * Reseeds the stream.
+	 *
+	 * @param seed    Seed value.
+	 */
+	@Override
+	public void setSeed(long seed) {
+		this.seed = seed;
+		gamma = GOLDEN_GAMMA;
+		haveNextNextGaussian = false;
+	}
+	@Override
+	protected int next(int bits) {
+		return (int)(mix64(nextSeed()) >>> (64 - bits));
+	}
+	@Override
+	public int nextInt() {
+		return mix32(nextSeed());
+	}
+	@Override
+	public int nextInt(int bound) {
+		if (bound <= 0)
+			throw new IllegalArgumentException("bound must be positive");
+		int r = mix32(nextSeed());
+		int m = bound - 1;
+		if ( (bound & m) == 0 )
+			return r & m;
+		for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(nextSeed()) >>> 1);
+		return r;
+	}
+	@Override
+	public long nextLong() {
+		return mix64(nextSeed());
+	}
+	@Override
+	public double nextDouble() {
+		return toDouble(mix64(nextSeed()));
+	}
+	@Override
+	public boolean nextBoolean() {
+		return mix32(nextSeed()) < 0;
+	}
+	/**
+	 * Random number from normal distribution N(0, 1) - polar method.
+	 *
+	 * @return        Random number.
+	 */
+	@Override
+	public double nextGaussian() {
+		if (haveNextNextGaussian) {
+			haveNextNextGaussian = false;
+			return nextNextGaussian;
+		}
+		double v1, v2, r;
+		do {
+			v1 = 2.0 * toDouble(mix64(nextSeed())) - 1.0;
+			v2 = 2.0 * toDouble(mix64(nextSeed())) - 1.0;
+			r = v1 * v1 + v2 * v2;
+		} while ( (r >= 1.0) || (r == 0.0) );
+		double fac = Math.sqrt(-2.0 * Math.log(r) / r);
+		nextNextGaussian = v2 * fac;
+		haveNextNextGaussian = true;
+		return v1 * fac;
+	}
+	/**
+	 * Fills array with random numbers from Uniform Continuous
+	 * distribution over interval [0, 1).
+	 *
+	 * @param values  Array to be filled.
+	 */
+	public void fillUniform(double[] values) {
+		if (values == null) return;
+		long s = seed;
+		long g = gamma;
+		for (int i = 0; i < values.length; i++)
+			values[i] = toDouble(mix64(s += g));
+		seed = s;
+	}
+	/**
+	 * Fills array with random numbers from Uniform Continuous
+	 * distribution over interval [a, b).
+	 *
+	 * @param values  Array to be filled.
+	 * @param a       Interval limit - left / lower.
+	 * @param b       Interval limit - right / upper.
+	 *
+	 * @see ProbabilityDistributions#rndUniformContinuous(double, double, Random)
+	 */
+	public void fillUniform(double[] values, double a, double b) {
+		if (values == null) return;
+		if ( Double.isNaN(a) || Double.isNaN(b) || (b < a) ) {
+			Arrays.fill(values, Double.NaN);
+			return;
+		}
+		long s = seed;
+		long g = gamma;
+		double d = b - a;
+		for (int i = 0; i < values.length; i++)
+			values[i] = a + toDouble(mix64(s += g)) * d;
+		seed = s;
+	}
+	/**
+	 * Fills array with random numbers from normal distribution
+	 * N(mean, stddev) - polar method, both values of the pair are used.
+	 *
+	 * @param values  Array to be filled.
+	 * @param mean    Mean value.
+	 * @param stddev  Standard deviation.
+	 *
+	 * @see ProbabilityDistributions#rndNormal(double, double, Random)
+	 */
+	public void fillNormal(double[] values, double mean, double stddev) {
+		if (values == null) return;
+		if ( Double.isNaN(mean) || Double.isNaN(stddev) || (stddev < 0) ) {
+			Arrays.fill(values, Double.NaN);
+			return;
+		}
+		long s = seed;
+		long g = gamma;
+		int i = 0;
+		while (i < values.length) {
+			double v1, v2, r;
+			do {
+				v1 = 2.0 * toDouble(mix64(s += g)) - 1.0;
+				v2 = 2.0 * toDouble(mix64(s += g)) - 1.0;
+				r = v1 * v1 + v2 * v2;
+			} while ( (r >= 1.0) || (r == 0.0) );
+			double fac = stddev * Math.sqrt(-2.0 * Math.log(r) / r);
+			values[i++] = mean + v1 * fac;
+			if (i < values.length)
+				values[i++] = mean + v2 * fac;
+		}
+		seed = s;
+	}
+	/**
+	 * Stream delegating to the stream of the current thread.
+	 */
+	private static final class PerThread extends RandomStream {
+		private static final long serialVersionUID = 1L;
+		/**
+		 * Construction finished (Random constructor calls setSeed)
+		 */
+		private final boolean initialized;
+		PerThread() {
+			super(0L);
+			initialized = true;
+		}
+		/**
+		 * Reseeds thread streams.
+		 *
+		 * @see RandomStream#setThreadStreamsSeed(long)
+		 */
+		@Override
+		public void setSeed(long seed) {
+			if (initialized) setThreadStreamsSeed(seed);
+		}
+		@Override
+		public RandomStream split() {
+			return current().split();
+		}
+		@Override
+		protected int next(int bits) {
+			return current().next(bits);
+		}
+		@Override
+		public int nextInt() {
+			return current().nextInt();
+		}
+		@Override
+		public int nextInt(int bound) {
+			return current().nextInt(bound);
+		}
+		@Override
+		public long nextLong() {
+			return current().nextLong();
+		}
+		@Override
+		public double nextDouble() {
+			return current().nextDouble();
+		}
+		@Override
+		public boolean nextBoolean() {
+			return current().nextBoolean();
+		}
+		@Override
+		public double nextGaussian() {
+			return current().nextGaussian();
+		}
+		@Override
+		public void fillUniform(double[] values) {
+			current().fillUniform(values);
+		}
+		@Override
+		public void fillUniform(double[] values, double a, double b) {
+			current().fillUniform(values, a, b);
+		}
+		@Override
+		public void fillNormal(double[] values, double mean, double stddev) {
+			current().fillNormal(values, mean, stddev);
+		}
+	}
+}
@@ -352,6 +352,62 @@ public final class SpecialFunctions {
         }
         return erfInvImpl(p, q, s);
 	}
+	/**
+	 * Error function over the array of points (batch kernel,
+	 * values equal to {@link #erf(double)}).
+	 * @param x     Points at which function will be evaluated.
+	 * @param out   Output array (can be the same as x), its length
+	 *              defines number of points.
+	 */
+	public static final void erf(double[] x, double[] out) {
+		for (int i = 0; i < out.length; i++) {
+			double z = x[i];
+			if (Double.isNaN(z)) out[i] = Double.NaN;
+			else if (z == 0) out[i] = 0;
+			else if (z == Double.POSITIVE_INFINITY) out[i] = 1.0;
+			else if (z == Double.NEGATIVE_INFINITY) out[i] = -1.0;
+			else out[i] = erfImp(z, false);
+		}
+	}
+	/**
+	 * Complementary error function over the array of points (batch kernel,
+	 * values equal to {@link #erfc(double)}).
+	 * @param x     Points at which function will be evaluated.
+	 * @param out   Output array (can be the same as x), its length
+	 *              defines number of points.
+	 */
+	public static final void erfc(double[] x, double[] out) {
+		for (int i = 0; i < out.length; i++) {
+			double z = x[i];
+			if (Double.isNaN(z)) out[i] = Double.NaN;
+			else if (z == 0) out[i] = 1;
+			else if (z == Double.POSITIVE_INFINITY) out[i] = 0.0;
+			else if (z == Double.NEGATIVE_INFINITY) out[i] = 2.0;
+			else out[i] = erfImp(z, true);
+		}
+	}
+	/**
+	 * Inverse error function over the array of points (batch kernel,
+	 * values equal to {@link #erfInv(double)}).
+	 * @param x     Points at which function will be evaluated.
+	 * @param out   Output array (can be the same as x), its length
+	 *              defines number of points.
+	 */
+	public static final void erfInv(double[] x, double[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = erfInv(x[i]);
+	}
+	/**
+	 * Complementary inverse error function over the array of points
+	 * (batch kernel, values equal to {@link #erfcInv(double)}).
+	 * @param x     Points at which function will be evaluated.
+	 * @param out   Output array (can be the same as x), its length
+	 *              defines number of points.
+	 */
+	public static final void erfcInv(double[] x, double[] out) {
+		for (int i = 0; i < out.length; i++)
+			out[i] = erfcInv(x[i]);
+	}
 	/**
 	 * The implementation of the inverse error function.
 	 * @param p
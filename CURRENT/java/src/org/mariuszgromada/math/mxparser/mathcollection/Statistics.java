@@ -93,31 +93,7 @@ public final class Statistics {
 	public static final double avg(Expression f, Argument index, double from, double to, double delta) {
 		if ( (Double.isNaN(delta) ) || (Double.isNaN(from) ) || (Double.isNaN(to) ) || (delta == 0) )
 			return Double.NaN;
-		double sum = 0;
-		int n = 0;
-		if ( (to >= from) && (delta > 0) ) {
-			double i;
-			for (i = from; i < to; i+=delta) {
-				sum += mXparser.getFunctionValue(f, index, i);
-				n++;
-			}
-			if ( delta - (i - to) > 0.5 * delta) {
-				sum += mXparser.getFunctionValue(f, index, to);
-				n++;
-			}
-		} else if ( (to <= from) && (delta < 0) ) {
-			double i;
-			for (i = from; i > to; i+=delta) {
-				sum += mXparser.getFunctionValue(f, index, i);
-				n++;
-			}
-			if ( -delta - (to - i) > -0.5 * delta) {
-				sum += mXparser.getFunctionValue(f, index, to);
-				n++;
-			}
-		} else if (from == to)
-			return mXparser.getFunctionValue(f, index, from);
-		return sum / n;
+		return accumulateSummation(f, index, from, to, delta).getAvg();
 	}
 	/**
 	 * Bias-corrected variance from sample function values - iterative operator.
@@ -136,7 +112,7 @@ public final class Statistics {
 	public static final double var(Expression f, Argument index, double from, double to, double delta) {
 		if ( (Double.isNaN(delta) ) || (Double.isNaN(from) ) || (Double.isNaN(to) ) || (delta == 0) )
 			return Double.NaN;
-		return var( mXparser.getFunctionValues(f, index, from, to, delta) );
+		return accumulate(f, index, from, to, delta).getVar();
 	}
 	/**
 	 * Bias-corrected standard deviation from sample function values - iterative operator.
@@ -155,7 +131,78 @@ public final class Statistics {
 	public static final double std(Expression f, Argument index, double from, double to, double delta) {
 		if ( (Double.isNaN(delta) ) || (Double.isNaN(from) ) || (Double.isNaN(to) ) || (delta == 0) )
 			return Double.NaN;
-		return std( mXparser.getFunctionValues(f, index, from, to, delta) );
+		return accumulate(f, index, from, to, delta).getStd();
+	}
+	/**
+	 * Single pass accumulation of the sample function values (index values
+	 * as in {@link mXparser#getFunctionValues(Expression, Argument, double, double, double)},
+	 * values are not stored). Accumulators of the consecutive index
+	 * ranges can be merged.
+	 *
+	 * @param      f                   the expression
+	 * @param      index               the name of index argument
+	 * @param      from                FROM index = form
+	 * @param      to                  TO index = to
+	 * @param      delta               BY delta
+	 *
+	 * @return     accumulator of the function values (empty accumulator
+	 *             if the range or delta is not valid).
+	 *
+	 * @see        StatisticsAccumulator
+	 * @see        Expression
+	 * @see        Argument
+	 */
+	public static final StatisticsAccumulator accumulate(Expression f, Argument index, double from, double to, double delta) {
+		StatisticsAccumulator a = new StatisticsAccumulator();
+		if ( (Double.isNaN(delta) ) || (Double.isNaN(from) ) || (Double.isNaN(to) ) || (delta == 0) )
+			return a;
+		if ( (to >= from) && (delta > 0) ) {
+			for (double i = from; i < to; i+=delta)
+				a.add( mXparser.getFunctionValue(f, index, i) );
+			a.add( mXparser.getFunctionValue(f, index, to) );
+		} else if ( (to <= from) && (delta < 0) ) {
+			for (double i = from; i > to; i+=delta)
+				a.add( mXparser.getFunctionValue(f, index, i) );
+			a.add( mXparser.getFunctionValue(f, index, to) );
+		} else if (from == to)
+			a.add( mXparser.getFunctionValue(f, index, from) );
+		return a;
+	}
+	/**
+	 * Single pass accumulation of the sample function values for the
+	 * summation, product and average operators - index values as in the
+	 * {@link #accumulate(Expression, Argument, double, double, double)},
+	 * but value for TO index is added only if the last index value
+	 * is closer to TO than half of delta.
+	 *
+	 * @param      f                   the expression
+	 * @param      index               the name of index argument
+	 * @param      from                FROM index = form
+	 * @param      to                  TO index = to
+	 * @param      delta               BY delta
+	 *
+	 * @return     accumulator of the function values (empty accumulator
+	 *             if the range or delta is not valid).
+	 */
+	static final StatisticsAccumulator accumulateSummation(Expression f, Argument index, double from, double to, double delta) {
+		StatisticsAccumulator a = new StatisticsAccumulator();
+		if ( (Double.isNaN(delta) ) || (Double.isNaN(from) ) || (Double.isNaN(to) ) || (delta == 0) )
+			return a;
+		if ( (to >= from) && (delta > 0) ) {
+			double i;
+			for (i = from; i < to; i+=delta)
+				a.add( mXparser.getFunctionValue(f, index, i) );
+			if ( delta - (i - to) > 0.5 * delta)
+				a.add( mXparser.getFunctionValue(f, index, to) );
+		} else if ( (to <= from) && (delta < 0) ) {
+			double i;
+			for (i = from; i > to; i+=delta)
+				a.add( mXparser.getFunctionValue(f, index, i) );
+			if ( -delta - (to - i) > -0.5 * delta)
+				a.add( mXparser.getFunctionValue(f, index, to) );
+		} else if (from == to)
+			a.add( mXparser.getFunctionValue(f, index, from) );
+		return a;
 	}
 	/**
 	 * Sample average.
@@ -222,7 +269,8 @@ public final class Statistics {
 		return MathFunctions.sqrt( var(numbers) );
 	}
 	/**
-	 * Sample median
+	 * Sample median (quickselect on the copy of the list, O(n)
+	 * expected time, the list is not modified)
 	 * @param numbers   List of number
 	 * @return          Sample median, if table was empty or null then Double.NaN is returned.
 	 */
@@ -233,27 +281,118 @@ public final class Statistics {
 		if (numbers.length == 2) return (numbers[0] + numbers[1]) / 2.0;
 		for (double v : numbers)
 			if (Double.isNaN(v)) return Double.NaN;
-		NumberTheory.sortAsc(numbers);
-		if ((numbers.length % 2) == 1) {
-			int i = (numbers.length-1) / 2;
-			return numbers[i];
-		} else {
-			int i = ( numbers.length / 2 ) - 1;
-			return (numbers[i] + numbers[i+1]) / 2.0;
+		double[] a = numbers.clone();
+		int n = a.length;
+		if ((n % 2) == 1)
+			return select(a, (n-1) / 2);
+		else {
+			int i = ( n / 2 ) - 1;
+			double lower = select(a, i);
+			return (lower + minimum(a, i + 1)) / 2.0;
+		}
+	}
+	/**
+	 * Sample quantile (linear interpolation between the order
+	 * statistics, quickselect on the copy of the list, O(n)
+	 * expected time, the list is not modified)
+	 * @param p         Probability between 0 and 1 (0.5 - median,
+	 *                  0.99 - 99th percentile)
+	 * @param numbers   List of number
+	 * @return          Sample quantile, if table was empty or null or p is
+	 *                  not between 0 and 1 then Double.NaN is returned.
+	 *
+	 * @see QuantileSketch
+	 */
+	public static final double quantile(double p, double... numbers) {
+		if (numbers == null) return Double.NaN;
+		if (numbers.length == 0) return Double.NaN;
+		if ( Double.isNaN(p) || (p < 0) || (p > 1) ) return Double.NaN;
+		for (double v : numbers)
+			if (Double.isNaN(v)) return Double.NaN;
+		if (numbers.length == 1) return numbers[0];
+		double[] a = numbers.clone();
+		double h = (a.length - 1) * p;
+		int i = (int)Math.floor(h);
+		double lower = select(a, i);
+		if ( (h == i) || (i == a.length - 1) )
+			return lower;
+		return lower + (h - i) * (minimum(a, i + 1) - lower);
+	}
+	/**
+	 * Quickselect - rearranges array so that a[k] is the k-th smallest
+	 * value, values before k are lower or equal, values after
+	 * k are greater or equal.
+	 *
+	 * @param a   the array (without Double.NaN)
+	 * @param k   the order statistic index
+	 * @return    the k-th smallest value
+	 */
+	private static double select(double[] a, int k) {
+		int left = 0;
+		int right = a.length - 1;
+		while (right > left) {
+			/*
+			 * Median of three pivot
+			 */
+			int middle = (left + right) >>> 1;
+			if (a[middle] < a[left]) swap(a, middle, left);
+			if (a[right] < a[left]) swap(a, right, left);
+			if (a[right] < a[middle]) swap(a, right, middle);
+			double pivot = a[middle];
+			int i = left;
+			int j = right;
+			while (i <= j) {
+				while (a[i] < pivot) i++;
+				while (a[j] > pivot) j--;
+				if (i <= j) {
+					swap(a, i, j);
+					i++;
+					j--;
+				}
+			}
+			if (k <= j) right = j;
+			else if (k >= i) left = i;
+			else return a[k];
 		}
+		return a[k];
 	}
 	/**
-	 * Sample mode
+	 * Minimum of the array values from the given position.
+	 */
+	private static double minimum(double[] a, int from) {
+		double min = a[from];
+		for (int i = from + 1; i < a.length; i++)
+			if (a[i] < min) min = a[i];
+		return min;
+	}
+	private static void swap(double[] a, int i, int j) {
+		double t = a[i];
+		a[i] = a[j];
+		a[j] = t;
+	}
+	/**
+	 * Sample mode (values are counted by the primitive hash map,
+	 * the first appearing value in case of equal counts)
 	 * @param numbers   List of number
 	 * @return          Sample median, if table was empty or null then Double.NaN is returned.
 	 */
 	public static final double mode(double... numbers) {
+		return mode(numbers, BinaryRelations.epsilonComparison, BinaryRelations.epsilon);
+	}
+	/**
+	 * Sample mode (values are counted by the primitive hash map,
+	 * the first appearing value in case of equal counts)
+	 * @param numbers   List of number
+	 * @param epsilonComparison   true - epsilon comparison mode, false - exact mode
+	 * @param epsilon             the epsilon used by the epsilon comparison
+	 * @return          Sample median, if table was empty or null then Double.NaN is returned.
+	 */
+	public static final double mode(double[] numbers, boolean epsilonComparison, double epsilon) {
 		if (numbers == null) return Double.NaN;
 		if (numbers.length == 0) return Double.NaN;
 		if (numbers.length == 1) return numbers[0];
 		for (double v : numbers)
 			if (Double.isNaN(v)) return Double.NaN;
-		double[][] dist = NumberTheory.getDistValues(numbers, true);
-		return dist[0][0];
+		return DistinctValues.of(numbers, epsilonComparison, epsilon).mode();
 	}
 }
@@ -0,0 +1,247 @@
+/*
+ * @(#)StatisticsAccumulator.java        4.2.0    2026-10-18
+ *
+ * You may use this software under the condition of "Simplified BSD License"
+ *
+ * Copyright 2010-2018 MARIUSZ GROMADA. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY <MARIUSZ GROMADA> ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of MARIUSZ GROMADA.
+ *
+ * If you have any questions/bugs feel free to contact:
+ *
+ *     Mariusz Gromada
+ *     mariuszgromada.org@gmail.com
+ *     http://mathparser.org
+ *     http://mathspace.pl
+ *     http://janetsudoku.mariuszgromada.org
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *     http://mariuszgromada.github.io/MathParser.org-mXparser
+ *     http://mxparser.sourceforge.net
+ *     http://bitbucket.org/mariuszgromada/mxparser
+ *     http://mxparser.codeplex.com
+ *     http://github.com/mariuszgromada/Janet-Sudoku
+ *     http://janetsudoku.codeplex.com
+ *     http://sourceforge.net/projects/janetsudoku
+ *     http://bitbucket.org/mariuszgromada/janet-sudoku
+ *     http://github.com/mariuszgromada/MathParser.org-mXparser
+ *
+ *                              Asked if he believes in one God, a mathematician answered:
+ *                              "Yes, up to isomorphism."
+ */
+package org.mariuszgromada.math.mxparser.mathcollection;
+
+/**
+ * StatisticsAccumulator - single pass, constant memory accumulator of
+ * the count, sum (Kahan summation), product, mean and variance (Welford
+ * update), minimum and maximum of the values. Partial accumulators of the
+ * separate chunks of values can be merged (Chan et al. pairwise
+ * update), so values can be accumulated in the streaming fashion
+ * or in parallel. Merging partial accumulators in the same order
+ * gives the same result independently of the threads scheduling.
+ * Accumulator is not thread safe.
+ *
+ * <pre>
+ * StatisticsAccumulator a = Statistics.accumulate(f, i, 1, 5e7, 1);
+ * a.merge( Statistics.accumulate(f, i, 5e7 + 1, 1e8, 1) );
+ * double var = a.getVar();
+ * </pre>
+ *
+ * @author         <b>Mariusz Gromada</b><br>
+ *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
+ *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
+ *                 <a href="http://mathparser.org" target="_blank">MathParser.org - mXparser project page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/MathParser.org-mXparser" target="_blank">mXparser on GitHub</a><br>
+ *                 <a href="http://mxparser.sourceforge.net" target="_blank">mXparser on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/mxparser" target="_blank">mXparser on Bitbucket</a><br>
+ *                 <a href="http://mxparser.codeplex.com" target="_blank">mXparser on CodePlex</a><br>
+ *                 <a href="http://janetsudoku.mariuszgromada.org" target="_blank">Janet Sudoku - project web page</a><br>
+ *                 <a href="http://github.com/mariuszgromada/Janet-Sudoku" target="_blank">Janet Sudoku on GitHub</a><br>
+ *                 <a href="http://janetsudoku.codeplex.com" target="_blank">Janet Sudoku on CodePlex</a><br>
+ *                 <a href="http://sourceforge.net/projects/janetsudoku" target="_blank">Janet Sudoku on SourceForge</a><br>
+ *                 <a href="http://bitbucket.org/mariuszgromada/janet-sudoku" target="_blank">Janet Sudoku on BitBucket</a><br>
+ *
+ * @version        4.2.0
+ *
+ * @see Statistics#accumulate(org.mariuszgromada.math.mxparser.Expression, org.mariuszgromada.math.mxparser.Argument, double, double, double)
+ */
+public final class StatisticsAccumulator {
+	/**
+	 * Number of values
+	 */
+	private long n = 0;
+	/**
+	 * Sum of values (Kahan summation)
+	 */
+	private double sum = 0;
+	/**
+	 * Kahan summation compensation
+	 */
+	private double compensation = 0;
+	/**
+	 * Product of values
+	 */
+	private double product = 1;
+	/**
+	 * Minimum value
+	 */
+	private double min = Double.POSITIVE_INFINITY;
+	/**
+	 * Maximum value
+	 */
+	private double max = Double.NEGATIVE_INFINITY;
+	/**
+	 * Mean value
+	 */
+	private double mean = 0;
+	/**
+	 * Sum of squares of differences from the mean
+	 */
+	private double m2 = 0;
+	/**
+	 * Adds value to the sum.
+	 *
+	 * @param      v                   the value
+	 */
+	private void addToSum(double v) {
+		double y = v - compensation;
+		double t = sum + y;
+		if (Double.isInfinite(t)) compensation = 0;
+		else compensation = (t - sum) - y;
+		sum = t;
+	}
+	/**
+	 * Adds value.
+	 *
+	 * @param      v                   the value
+	 */
+	public void add(double v) {
+		n++;
+		addToSum(v);
+		product *= v;
+		if (v < min) min = v;
+		if (v > max) max = v;
+		double d = v - mean;
+		mean += d / n;
+		m2 += d * (v - mean);
+	}
+	/**
+	 * Adds values.
+	 *
+	 * @param      values              the values
+	 */
+	public void add(double... values) {
+		if (values == null) return;
+		for (double v : values)
+			add(v);
+	}
+	/**
+	 * Merges partial accumulator of the next chunk of values.
+	 *
+	 * @param      a                   the partial accumulator
+	 */
+	public void merge(StatisticsAccumulator a) {
+		if ( (a == null) || (a.n == 0) ) return;
+		long n = this.n + a.n;
+		addToSum(a.sum - a.compensation);
+		product *= a.product;
+		if (a.min < min) min = a.min;
+		if (a.max > max) max = a.max;
+		double d = a.mean - mean;
+		mean += d * a.n / n;
+		m2 += a.m2 + d * d * ( (double)this.n * a.n / n );
+		this.n = n;
+	}
+	/**
+	 * Gets number of values.
+	 *
+	 * @return     Number of values.
+	 */
+	public long getCount() {
+		return n;
+	}
+	/**
+	 * Gets sum of values.
+	 *
+	 * @return     Sum of values, 0 if there are no values.
+	 */
+	public double getSum() {
+		return sum - compensation;
+	}
+	/**
+	 * Gets product of values.
+	 *
+	 * @return     Product of values, 1 if there are no values.
+	 */
+	public double getProduct() {
+		return product;
+	}
+	/**
+	 * Gets average.
+	 *
+	 * @return     Average, Double.NaN if there are no values.
+	 */
+	public double getAvg() {
+		return (sum - compensation) / n;
+	}
+	/**
+	 * Gets bias-corrected variance.
+	 *
+	 * @return     Variance, Double.NaN if there are no values.
+	 */
+	public double getVar() {
+		if (n == 0) return Double.NaN;
+		if (n == 1) {
+			if (Double.isNaN(mean)) return Double.NaN;
+			return 0;
+		}
+		return m2 / (n - 1);
+	}
+	/**
+	 * Gets bias-corrected standard deviation.
+	 *
+	 * @return     Standard deviation, Double.NaN if there are no values.
+	 */
+	public double getStd() {
+		return MathFunctions.sqrt( getVar() );
+	}
+	/**
+	 * Gets minimum value (Double.NaN values are skipped
+	 * as by the iterative min operator).
+	 *
+	 * @return     Minimum value, Double.POSITIVE_INFINITY if there are no values.
+	 */
+	public double getMin() {
+		return min;
+	}
+	/**
+	 * Gets maximum value (Double.NaN values are skipped
+	 * as by the iterative max operator).
+	 *
+	 * @return     Maximum value, Double.NEGATIVE_INFINITY if there are no values.
+	 */
+	public double getMax() {
+		return max;
+	}
+}
@@ -61,6 +61,10 @@ import org.mariuszgromada.math.mxparser.mXparser;
 /**
  * PerformanceTests - mXparser performance tests
  *
+ * Quick wall-clock measurements, the same scenarios (and many more)
+ * with warm-up, fork isolation and GC / allocation profiling are
+ * available as JMH benchmarks in the java/benchmarks Maven module.
+ *
  * @author         <b>Mariusz Gromada</b><br>
  *                 <a href="mailto:mariuszgromada.org@gmail.com">mariuszgromada.org@gmail.com</a><br>
  *                 <a href="http://mathspace.pl" target="_blank">MathSpace.pl</a><br>
@@ -10663,7 +10663,7 @@ public class RegTestExpression {
 			break;
 		case 921:
 			mXparser.setEpsilonComparison();
-			expStr = "int( LambW0(x)/( x*sqrt(x) ), x, 0.01 , 240000) - 2*sqrt(2*pi)";
+			expStr = "int( LambW0(exp(u))*exp(-u/2), u, -80, 80) - 2*sqrt(2*pi)";
 			mXparser.consolePrint(expStr + " ...... ");
 			exp[testId] = new Expression(expStr);
 			value = exp[testId].calculate();
@@ -13408,7 +13408,7 @@ public class RegTestExpression {
 			exp[testId] = new Expression(expStr);
 			value = exp[testId].calculate();
 			reg = 0;
-			if ( MathFunctions.abs(reg - value) <= 1e-14 )
+			if ( MathFunctions.abs(reg - value) <= 1e-13 )
 				testResult = true;
 			mXparser.consolePrint(value + " reg ... " + reg + " --> ");
 			mXparser.enableUlpRounding();
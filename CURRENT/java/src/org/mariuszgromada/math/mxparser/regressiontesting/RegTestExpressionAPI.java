@@ -52,16 +52,34 @@
  */
 package org.mariuszgromada.math.mxparser.regressiontesting;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import org.mariuszgromada.math.mxparser.Argument;
+import org.mariuszgromada.math.mxparser.BytecodeFunction;
+import org.mariuszgromada.math.mxparser.CompiledExpression;
 import org.mariuszgromada.math.mxparser.Constant;
+import org.mariuszgromada.math.mxparser.EvaluationContext;
+import org.mariuszgromada.math.mxparser.EvaluationOptions;
 import org.mariuszgromada.math.mxparser.Expression;
 import org.mariuszgromada.math.mxparser.Function;
+import org.mariuszgromada.math.mxparser.FunctionExtensionPrimitive;
+import org.mariuszgromada.math.mxparser.FunctionExtensionPrimitiveAdapter;
+import org.mariuszgromada.math.mxparser.FunctionExtensionVariadic;
 import org.mariuszgromada.math.mxparser.RecursiveArgument;
 import org.mariuszgromada.math.mxparser.mXparser;
 import org.mariuszgromada.math.mxparser.mathcollection.MathFunctions;
 import org.mariuszgromada.math.mxparser.mathcollection.NumberTheory;
+import org.mariuszgromada.math.mxparser.mathcollection.PrimesCache;
+import org.mariuszgromada.math.mxparser.mathcollection.ProbabilityDistributions;
+import org.mariuszgromada.math.mxparser.mathcollection.QuantileSketch;
+import org.mariuszgromada.math.mxparser.mathcollection.RandomStream;
+import org.mariuszgromada.math.mxparser.mathcollection.SpecialFunctions;
+import org.mariuszgromada.math.mxparser.mathcollection.Statistics;
+import org.mariuszgromada.math.mxparser.mathcollection.StatisticsAccumulator;
 import org.mariuszgromada.math.mxparser.parsertokens.*;
 
 /**
@@ -2241,6 +2259,864 @@ public class RegTestExpressionAPI {
 		x = new Argument("AAAAA = y*730000000", y);
 		if (x.checkSyntax() == Argument.NO_SYNTAX_ERRORS)
 			test[testId] = true;
+		/*
+		 * 65. Compiled evaluation - repeated calculations, changing arguments
+		 */
+		testId++;
+		x = new Argument("x", 1);
+		F1 = new Function("fib(n) = if(n>1, fib(n-1)+fib(n-2), if(n>0, 1, 0))");
+		e = new Expression("iff(x<0, -1, x>=0, fib(x) + max(x, 2)^2 - 3!)", x, F1);
+		d1 = e.calculate();
+		x.setArgumentValue(10);
+		d2 = e.calculate();
+		x.setArgumentValue(-5);
+		d3 = e.calculate();
+		if ( (d1 == -1) && (d2 == 149) && (d3 == -1) )
+			test[testId] = true;
+		/*
+		 * 66. Compiled expression - arguments values in the evaluation context
+		 */
+		testId++;
+		x = new Argument("x", 1);
+		y = new Argument("y = 2*x", x);
+		F1 = new Function("fib(n) = if(n>1, fib(n-1)+fib(n-2), if(n>0, 1, 0))");
+		e = new Expression("fib(x) + y", x, y, F1);
+		CompiledExpression ce = e.compile();
+		EvaluationContext ctx = ce.createContext();
+		ctx.setArgumentValue("x", 10);
+		d1 = ce.calculate(ctx);
+		d2 = ce.calculate(20);
+		d3 = x.getArgumentValue();
+		if ( (d1 == 75) && (d2 == 6805) && (d3 == 1) && (e.calculate() == 3) )
+			test[testId] = true;
+		/*
+		 * 67. Batch calculation over arguments values columns
+		 */
+		testId++;
+		x = new Argument("x", 1);
+		y = new Argument("y", 2);
+		e = new Expression("if(x > y, x - y, x*y)", x, y);
+		double[][] columns = new double[][] { {1, 5, 3, 10}, {2, 2, 3, 4} };
+		double[] values = new double[4];
+		e.calculate(columns, values);
+		if ( (values[0] == 2) && (values[1] == 3) && (values[2] == 9) && (values[3] == 6)
+				&& (x.getArgumentValue() == 1) && (y.getArgumentValue() == 2) )
+			test[testId] = true;
+		/*
+		 * 68. Tokenizing with shared built-in key words
+		 */
+		testId++;
+		x = new Argument("sinh1", 3);
+		e = new Expression("sinh1 + sinh(0) + sin(0) + 1.5e1", x);
+		d1 = e.calculate();
+		mXparser.modifyBuiltinToken("cos", "cosinus");
+		d2 = new Expression("cosinus(0) + 2").calculate();
+		mXparser.unmodifyAllBuiltinTokens();
+		d3 = new Expression("cos(0) + 2").calculate();
+		syn1 = new Expression("sin(1)", new Argument("sin", 1)).checkSyntax();
+		if ( (d1 == 18) && (d2 == 3) && (d3 == 3) && (syn1 == Expression.SYNTAX_ERROR_OR_STATUS_UNKNOWN) )
+			test[testId] = true;
+		/*
+		 * 69. Expressions cache
+		 */
+		testId++;
+		mXparser.clearExpressionsCache();
+		x = new Argument("x", 2);
+		d1 = new Expression("x^2 + 1", x).calculate();
+		x = new Argument("x", 3);
+		d2 = new Expression("x^2 + 1", x).calculate();
+		y = new Argument("y", 3);
+		x = new Argument("x = 2*y", y);
+		d3 = new Expression("x^2 + 1", x).calculate();
+		long[] stats = mXparser.getExpressionsCacheStatistics();
+		b3 = ( (d1 == 5) && (d2 == 10) && (d3 == 37) );
+		mXparser.disableExpressionsCache();
+		b1 = mXparser.checkIfExpressionsCacheEnabled();
+		d1 = new Expression("x^2 + 1", x).calculate();
+		mXparser.setDefaultExpressionsCacheLimits();
+		b2 = mXparser.checkIfExpressionsCacheEnabled();
+		if ( (b3 == true) && (d1 == 37) && (stats[0] == 1) && (stats[3] == 2)
+				&& (b1 == false) && (b2 == true) )
+			test[testId] = true;
+		/*
+		 * 70. Parallel iterative operators
+		 */
+		testId++;
+		x = new Argument("x", 2);
+		e = new Expression("sum(i, 1, 10^5, sin(i)/i) + vari(i, 1, 10^5, x*cos(i)) + maxi(i, 10^5, 1, sin(i), -1) + prod(i, 1, 10^5, 1 + 1/i^2)", x);
+		mXparser.setThreadsNumber(1);
+		d1 = e.calculate();
+		mXparser.setThreadsNumber(4);
+		d2 = e.calculate();
+		mXparser.setThreadsNumber(3);
+		d3 = e.calculate();
+		mXparser.setThreadsNumber(2);
+		b1 = (e.calculate() == d2);
+		mXparser.setDefaultThreadsNumber();
+		/*
+		 * Serial and parallel results do not depend on threads number
+		 */
+		if ( (d1 == d2) && (d2 == d3) && (b1 == true) && (x.getArgumentValue() == 2) )
+			test[testId] = true;
+		/*
+		 * 71. Adaptive integration
+		 */
+		testId++;
+		x = new Argument("x", 5);
+		e = new Expression("int(1/sqrt(t), t, 0, 1) + int(exp(-t^2/2), t, -10, 10) - sqrt(2*pi)", x);
+		mXparser.setThreadsNumber(1);
+		d1 = e.calculate();
+		mXparser.setThreadsNumber(4);
+		d2 = e.calculate();
+		mXparser.setDefaultThreadsNumber();
+		b1 = ( (MathFunctions.abs(d1 - 2) < 1e-6) && (d1 == d2) && (x.getArgumentValue() == 5) );
+		mXparser.setIntegrationMaxEvaluations(15);
+		i1 = mXparser.getIntegrationMaxEvaluations();
+		d1 = new Expression("int(1/sqrt(t), t, 0, 1)").calculate();
+		mXparser.setDefaultIntegrationMaxEvaluations();
+		d2 = new Expression("int(1/sqrt(t), t, 0, 1)").calculate();
+		if ( (b1 == true) && (i1 == 15) && (MathFunctions.abs(d1 - 2) > 1e-2) && (MathFunctions.abs(d2 - 2) < 1e-6) )
+			test[testId] = true;
+		/*
+		 * 72. Evaluation context reused - frames and parameters buffers
+		 */
+		testId++;
+		x = new Argument("x", 1);
+		y = new Argument("y = 2*x", x);
+		F1 = new Function("fib(n) = if(n>1, fib(n-1)+fib(n-2), if(n>0, 1, 0))");
+		F2 = new Function("g(...) = par(1) - par(-1) + [npar]");
+		e = new Expression("g(fib(x), max(x, 2, fib(x-1)), x) + y", x, y, F1, F2);
+		ce = e.compile();
+		ctx = ce.createContext();
+		columns = new double[][] { new double[21] };
+		values = new double[21];
+		b1 = true;
+		for (int i = 0; i <= 20; i++) {
+			ctx.setArgumentValue(0, i);
+			d1 = ce.calculate(ctx);
+			d2 = ce.calculate(i);
+			x.setArgumentValue(i);
+			d3 = e.calculate();
+			columns[0][i] = i;
+			if ( (d1 != d2) || (d1 != d3) )
+				b1 = false;
+		}
+		ce.calculate(ctx, columns, values);
+		if ( (b1 == true) && (values[10] == 68) && (values[20] == 6788) )
+			test[testId] = true;
+		/*
+		 * 73. Evaluation options
+		 */
+		testId++;
+		x = new Argument("x", 90);
+		F1 = new Function("f(t) = sin(t)");
+		e = new Expression("f(x) + cos(x) + (0.1 + 0.2 = 0.3)", x, F1);
+		EvaluationOptions options = new EvaluationOptions();
+		options.setDegreesMode();
+		ce = e.compile();
+		ctx = ce.createContext();
+		ctx.setOptions(options);
+		d1 = ce.calculate(ctx);
+		options.disableUlpRounding();
+		options.setExactComparison();
+		d2 = ce.calculate(ctx);
+		d3 = e.calculate();
+		e.setEvaluationOptions(options);
+		b1 = ( (d1 == 2) && (d2 == 1) && (e.calculate() == 1) && (MathFunctions.abs(d3 - 1.4459230) < 1e-6) );
+		e = new Expression("rUni(0, 1) + [Uni]");
+		ce = e.compile();
+		ctx = ce.createContext();
+		options = new EvaluationOptions();
+		options.setRandomGenerator(new Random(7));
+		ctx.setOptions(options);
+		d1 = ce.calculate(ctx);
+		options.setRandomGenerator(new Random(7));
+		d2 = ce.calculate(ctx);
+		options.setMaxAllowedRecursionDepth(0);
+		d3 = ce.calculate(ctx);
+		b2 = ( (d1 == d2) && (Double.isNaN(d3)) );
+		if ( (b1 == true) && (b2 == true) && (mXparser.checkIfRadiansMode() == true)
+				&& (mXparser.checkIfUlpRounding() == true) && (mXparser.checkIfEpsilonMode() == true) )
+			test[testId] = true;
+		/*
+		 * 74. Constant folding
+		 */
+		testId++;
+		x = new Argument("x", 2);
+		e = new Expression("sin(pi/6)*[km] + sin(30) + x^2 + gcd(12, 18)", x);
+		ce = e.compile();
+		ctx = ce.createContext();
+		d1 = ce.calculate(ctx);
+		options = new EvaluationOptions();
+		options.setDegreesMode();
+		ctx.setOptions(options);
+		d2 = ce.calculate(ctx);
+		b1 = ( (d1 == e.calculate()) && (MathFunctions.abs(d1 - (510 + Math.sin(30))) < 1e-9)
+				&& (MathFunctions.abs(d2 - (1000 * Math.sin(Math.PI * Math.PI / 1080) + 10.5)) < 1e-9) );
+		e = new Expression("0.1 + 0.2 + 0*x", x);
+		ce = e.compile();
+		ctx = ce.createContext();
+		d1 = ce.calculate(ctx);
+		options = new EvaluationOptions();
+		options.disableUlpRounding();
+		ctx.setOptions(options);
+		d2 = ce.calculate(ctx);
+		b2 = ( (d1 == 0.3) && (d2 == 0.1 + 0.2) && (e.calculate() == 0.3) );
+		e = new Expression("rUni(0, 1) + [Uni] + 2*3");
+		d1 = e.calculate();
+		d2 = e.calculate();
+		b3 = ( (d1 != d2) && (d1 >= 6) && (d1 <= 8) );
+		if ( (b1 == true) && (b2 == true) && (b3 == true) )
+			test[testId] = true;
+		/*
+		 * 75. Lazy boolean operators and if / iff branches
+		 */
+		testId++;
+		x = new Argument("x", -1);
+		F1 = new Function("c", new FunExtCounter());
+		e = new Expression("(x > 0) && (c(x) > 0)", x, F1);
+		FunExtCounter.calls = 0;
+		d1 = e.calculate();
+		x.setArgumentValue(2);
+		d2 = e.calculate();
+		b1 = ( (d1 == 0) && (d2 == 1) && (FunExtCounter.calls == 1) );
+		e = new Expression("(x < 0) | (c(x) > 0) | (c(x) < 0)", x, F1);
+		FunExtCounter.calls = 0;
+		d1 = e.calculate();
+		x.setArgumentValue(-1);
+		d2 = e.calculate();
+		b2 = ( (d1 == 1) && (d2 == 1) && (FunExtCounter.calls == 1) );
+		e = new Expression("iff(x < 0, -1, x < 10, sum(i, 1, x, i), x >= 10, c(x))", x, F1);
+		FunExtCounter.calls = 0;
+		d1 = e.calculate();
+		x.setArgumentValue(4);
+		d2 = e.calculate();
+		b3 = ( (d1 == -1) && (d2 == 10) && (FunExtCounter.calls == 0) );
+		x.setArgumentValue(12);
+		d3 = e.calculate();
+		if ( (b1 == true) && (b2 == true) && (b3 == true) && (d3 == 12) && (FunExtCounter.calls == 1) )
+			test[testId] = true;
+		/*
+		 * 76. Calculus operators internal expressions reused
+		 */
+		testId++;
+		F1 = new Function("f(x) = sum(i, 1, x, i) + int(2*t, t, 0, x)");
+		e = new Expression("f(3) + f(4)", F1);
+		d1 = e.calculate();
+		d2 = e.calculate();
+		b1 = ( (d1 == 16 + 25) && (d2 == d1) );
+		x = new Argument("i", 5);
+		e = new Expression("sum(i, 1, 3, sum(j, 1, i, j)) + i + der(y^2, y)", x);
+		d1 = e.calculate();
+		d2 = e.calculate();
+		e.setExpressionString("sum(i, 1, 3, sum(j, 1, i, j)) + i");
+		d3 = e.calculate();
+		e.setExpressionString("prod(i, 1, 4, i) + i");
+		b2 = ( (Double.isNaN(d1)) && (Double.isNaN(d2)) && (d3 == 15) && (e.calculate() == 29) && (x.getArgumentValue() == 5) );
+		F2 = new Function("g(n) = if(n > 0, sum(i, 1, n, i) + g(n-1), 0)");
+		e = new Expression("g(4) + g(3)", F2);
+		b3 = ( (e.calculate() == 30) && (e.calculate() == 30) );
+		if ( (b1 == true) && (b2 == true) && (b3 == true) )
+			test[testId] = true;
+		/*
+		 * 77. Dependent arguments values cache
+		 */
+		testId++;
+		x = new Argument("x", 1);
+		y = new Argument("y", 2);
+		Argument da = new Argument("da = x + 1", x);
+		Argument db = new Argument("db = 2*da + y", da, y);
+		F1 = new Function("f", "t + x", "t");
+		F1.addDefinitions(x);
+		Argument dc = new Argument("dc", "f(db)", db, F1);
+		e = new Expression("db + dc", db, dc);
+		d1 = e.calculate();
+		d2 = e.calculate();
+		x.setArgumentValue(3);
+		d3 = dc.getArgumentValue();
+		y.setArgumentValue(0);
+		b1 = ( (d1 == 13) && (d2 == 13) && (d3 == 13) && (db.getArgumentValue() == 8) && (e.calculate() == 19) );
+		da.setArgumentExpressionString("x - 1");
+		d1 = dc.getArgumentValue();
+		F1.removeDefinitions(x);
+		F1.addDefinitions(new Argument("x", 100));
+		d2 = dc.getArgumentValue();
+		b2 = ( (d1 == 7) && (d2 == 104) && (db.getArgumentValue() == 4) );
+		Argument dd = new Argument("dd", "sin(90)");
+		d1 = dd.getArgumentValue();
+		mXparser.setDegreesMode();
+		d2 = dd.getArgumentValue();
+		mXparser.setRadiansMode();
+		d3 = dd.getArgumentValue();
+		Argument dr = new Argument("dr", "rUni(0, 1)");
+		Argument ds = new Argument("ds", "sum(i, 1, 3, i) + i", new Argument("i", 5));
+		b3 = ( (d1 == d3) && (d2 == 1) && (dr.getArgumentValue() != dr.getArgumentValue())
+				&& (ds.getArgumentValue() == 11) && (ds.getArgumentValue() == 11) );
+		if ( (b1 == true) && (b2 == true) && (b3 == true) )
+			test[testId] = true;
+		/*
+		 * 78. Recursive arguments calculated iteratively
+		 */
+		testId++;
+		RecursiveArgument ra = new RecursiveArgument("s", "s(n-1) + n", new Argument("n"));
+		ra.addBaseCase(0, 0);
+		d1 = ra.getArgumentValue(200000);
+		RecursiveArgument rb = new RecursiveArgument("fib(n) = fib(n-1) + fib(n-2)");
+		rb.addBaseCase(0, 0);
+		rb.addBaseCase(1, 1);
+		e = new Expression("fib(30) + fib(10)", rb);
+		b1 = ( (d1 == 200000.0 * 200001.0 / 2.0) && (e.calculate() == 832040 + 55) && (e.calculate() == 832040 + 55) );
+		RecursiveArgument rc = new RecursiveArgument("h(n) = h(floor(n/2)) + 1");
+		rc.addBaseCase(1, 0);
+		RecursiveArgument rd = new RecursiveArgument("p(n) = p(n-1) + 1");
+		rd.addBaseCase(1, 1);
+		b2 = ( (rc.getArgumentValue(1024) == 10) && (rd.getArgumentValue(5) == 5) && (Double.isNaN(rd.getArgumentValue(0))) );
+		rd.resetAllCases();
+		rd.addBaseCase(0, 10);
+		if ( (b1 == true) && (b2 == true) && (rd.getArgumentValue(3) == 13) )
+			test[testId] = true;
+		/*
+		 * 79. Memoization of the user defined functions
+		 */
+		testId++;
+		F1 = new Function("fib(n) = if(n < 2, n, fib(n-1) + fib(n-2))");
+		F1.enableMemoization();
+		e = new Expression("fib(60)", F1);
+		d1 = e.calculate();
+		long[] stats1 = F1.getMemoizationStatistics();
+		d2 = F1.calculate(60);
+		long[] stats2 = F1.getMemoizationStatistics();
+		b1 = ( (d1 == 1548008755920.0) && (d2 == d1) && (stats1[0] > 0) && (stats1[1] == 61) && (stats1[3] == 61) && (stats2[0] == stats1[0] + 1) );
+		F1.disableMemoization();
+		F2 = new Function("g(x, y) = x^2 + y");
+		F2.enableMemoization(16);
+		e = new Expression("sum(i, 1, 100, g(i # 5, 1))", F2);
+		d1 = e.calculate();
+		long[] stats3 = F2.getMemoizationStatistics();
+		b2 = ( (d1 == 700) && (stats3[0] + stats3[1] == 100) && (stats3[0] > 0) && (F1.checkIfMemoizationEnabled() == false)
+				&& (F1.getMemoizationStatistics()[0] == 0) );
+		F3 = new Function("h(x) = sin(x)");
+		F3.enableMemoization();
+		d1 = F3.calculate(90);
+		mXparser.setDegreesMode();
+		d2 = F3.calculate(90);
+		mXparser.setRadiansMode();
+		d3 = F3.calculate(90);
+		b3 = ( (d1 == d3) && (d2 == 1) );
+		if ( (b1 == true) && (b2 == true) && (b3 == true) )
+			test[testId] = true;
+		/*
+		 * 80. Expressions compiled into the bytecode
+		 */
+		testId++;
+		x = new Argument("x", 2);
+		y = new Argument("y", 3);
+		Argument z = new Argument("z = 2*x + y", x, y);
+		F1 = new Function("g", "a*b + sin(a)", "a", "b");
+		e = new Expression("x^2 - 3*x*y + if(x > y, ln(x), cos(y)) + z + g(x, y) + (x < 0) | (y/0 > 1)", x, y, z);
+		e.addFunctions(F1);
+		BytecodeFunction bf1 = e.compileToBytecode("x", "y");
+		b1 = (bf1 != null) && (bf1.isBytecode());
+		for (double[] v : new double[][] { {2, 3}, {5, -1}, {-1, 0.5}, {0, 0} }) {
+			x.setArgumentValue(v[0]);
+			y.setArgumentValue(v[1]);
+			d1 = e.calculate();
+			if ( (b1 == false) || (Double.compare(d1, bf1.applyAsDouble(v[0], v[1])) != 0) || (Double.compare(d1, bf1.calculate(v)) != 0) )
+				b1 = false;
+		}
+		F2 = new Function("f(x) = x^3 - x");
+		BytecodeFunction bf2 = F2.compileToBytecode();
+		mXparser.setDegreesMode();
+		BytecodeFunction bf3 = new Expression("sin(x)", new Argument("x")).compileToBytecode();
+		d1 = bf3.applyAsDouble(90);
+		mXparser.setRadiansMode();
+		d2 = bf3.applyAsDouble(90);
+		b2 = ( (bf2.isBytecode()) && (bf2.applyAsDouble(3) == 24) && (Double.isNaN(bf2.calculate())) && (d1 == 1) && (d2 == Math.sin(90)) );
+		F3 = new Function("fact(n) = if(n > 1, n*fact(n-1), 1)");
+		BytecodeFunction bf4 = F3.compileToBytecode();
+		y.setArgumentValue(10);
+		BytecodeFunction bf5 = new Expression("x + y", x, y).compileToBytecode("x");
+		b3 = ( (bf4.isBytecode() == false) && (bf4.applyAsDouble(5) == 120) && (bf5.applyAsDouble(1) == 11)
+				&& (new Expression("x + ").compileToBytecode() == null) );
+		if ( (b1 == true) && (b2 == true) && (b3 == true) )
+			test[testId] = true;
+		/*
+		 * 81. Primitive function extensions
+		 */
+		testId++;
+		x = new Argument("x", 3);
+		FunExtPrimitiveMul mul = new FunExtPrimitiveMul();
+		F1 = new Function("f", mul);
+		F2 = new Function("g", mul);
+		F3 = new Function("s", new FunExtPrimitiveSum());
+		e = new Expression("f(x, 2) + g(1, x) + s(1, 2, 3, x, 5, 6) + s(x)", x, F1, F2, F3);
+		d1 = e.calculate();
+		CompiledExpression ceExt = e.compile();
+		BytecodeFunction bf6 = e.compileToBytecode("x");
+		b1 = ( (d1 == 32) && (ceExt != null) && (ceExt.calculate() == 32) && (bf6 != null) && (bf6.isBytecode()) && (bf6.applyAsDouble(4) == 37) );
+		F1.setArgumentValue(0, 4);
+		F1.setArgumentValue(1, 5);
+		b2 = ( (F1.calculate() == 20) && (F1.calculate(2, 5) == 10) && (F3.calculate(1, 2, 3) == 6)
+				&& (F1.getParametersNumber() == 2) && (F1.getParameterName(1).equals("b")) && (F3.calculate(x) == 3) );
+		b3 = ( (Double.isNaN(F1.calculate(1, 2, 3))) && (new Expression("f(1,2,3)", F1).checkSyntax() == Expression.SYNTAX_ERROR_OR_STATUS_UNKNOWN) );
+		e = new Expression("f(f(x, 2), g(2, s(x, f(1, x))))", x, F1, F2, F3);
+		ceExt = e.compile();
+		bf6 = e.compileToBytecode("x");
+		b3 = ( (b3 == true) && (e.calculate() == 72) && (e.calculate() == 72) && (ceExt.calculate() == 72) && (bf6.isBytecode()) && (bf6.applyAsDouble(4) == 128)
+				&& (bf6.applyAsDouble(3) == 72) && (mul.calculate(new double[] {0, 2, 3}, 1, 2) == 6) && (Double.isNaN(mul.calculate(1))) );
+		if ( (b1 == true) && (b2 == true) && (b3 == true) )
+			test[testId] = true;
+		/*
+		 * 82. Primes cache - segmented bitset, extension on demand
+		 */
+		testId++;
+		PrimesCache primesCache = new PrimesCache(1000, 1100000);
+		b1 = ( (primesCache.getNumberOfPrimes() == 168) && (primesCache.getMaxNumInCache() == 1000) && (primesCache.primeTest(997) == PrimesCache.IS_PRIME)
+				&& (primesCache.primeTest(1000) == PrimesCache.IS_NOT_PRIME) && (primesCache.primeTest(2000000) == PrimesCache.NOT_IN_CACHE) );
+		b2 = ( (primesCache.primeTest(1000003) == PrimesCache.IS_PRIME) && (primesCache.getMaxNumInCache() == 1000003)
+				&& (primesCache.getNumberOfPrimes() == 78499) && (primesCache.primeTest(524288) == PrimesCache.IS_NOT_PRIME) );
+		primesCache.extend(1100000);
+		b3 = true;
+		for (int n = -5; n <= 1100000; n += 7)
+			if ( (primesCache.primeTest(n) == PrimesCache.IS_PRIME) != NumberTheory.primeTest((long)n) )
+				b3 = false;
+		mXparser.initPrimesCache(100, 10000);
+		b3 = ( (b3 == true) && (NumberTheory.primeTest(99999989L * 99999989L) == false) && (NumberTheory.primeTest(99999989L) == true)
+				&& (NumberTheory.primeTest(9973) == true) && (mXparser.getMaxNumInPrimesCache() == 9973) );
+		mXparser.setNoPrimesCache();
+		if ( (b1 == true) && (b2 == true) && (b3 == true) )
+			test[testId] = true;
+		/*
+		 * 83. Miller-Rabin prime test and prime counting
+		 */
+		testId++;
+		b1 = ( (NumberTheory.primeTest(2305843009213693951L) == true) && (NumberTheory.primeTest(9223372036854775783L) == true)
+				&& (NumberTheory.primeTest(3825123056546413051L) == false) && (NumberTheory.primeTest(3215031751L) == false)
+				&& (NumberTheory.primeTest(4294967291L) == true) && (NumberTheory.primeTest(2809) == false) );
+		b2 = ( (NumberTheory.primeCount(100000000L) == 5761455) && (NumberTheory.primeCount(10000000000L) == 455052511L)
+				&& (new Expression("Pi(10^8) + ispr(1000000007)").calculate() == 5761456) );
+		mXparser.initPrimesCache(100000);
+		b3 = ( (NumberTheory.primeCount(99991) == 9592) && (NumberTheory.primeCount(1000000) == 78498) && (NumberTheory.primeTest(99991) == true) );
+		mXparser.setNoPrimesCache();
+		for (long n = 0; n <= 2000; n += 3) {
+			long count = 0;
+			for (long k = 2; k <= n; k++)
+				if (NumberTheory.primeTest(k)) count++;
+			if (count != NumberTheory.primeCount(n))
+				b3 = false;
+		}
+		if ( (b1 == true) && (b2 == true) && (b3 == true) )
+			test[testId] = true;
+		/*
+		 * 84. Combinatorial numbers tables
+		 */
+		testId++;
+		b1 = ( (MathFunctions.bellNumber(26) == 49631246523618756274.0) && (MathFunctions.bernoulliNumber(20, 0) == -174611.0 / 330)
+				&& (MathFunctions.bernoulliNumber(1, 0) == -0.5) && (MathFunctions.bernoulliNumber(1, 1) == 0.5)
+				&& (MathFunctions.Stirling2Number(50, 2) == Math.pow(2, 49) - 1) && (MathFunctions.eulerNumber(40, 1) == Math.pow(2, 40) - 41)
+				&& (MathFunctions.Stirling1Number(40, 39) == 780) && (MathFunctions.Stirling1Number(40, 40) == 1) );
+		b2 = ( (MathFunctions.Stirling1Number(600, 599) == 179700) && (MathFunctions.Stirling2Number(600, 599) == 179700)
+				&& (MathFunctions.worpitzkyNumber(600, 0) == 1) && (Double.isNaN(MathFunctions.worpitzkyNumber(3, 4)))
+				&& (MathFunctions.Stirling1Number(5, 7) == 0) && (MathFunctions.eulerNumber(5, 5) == 0) && (Double.isNaN(MathFunctions.bellNumber(-1))) );
+		e = new Expression("sum(k, 0, 40, Stirl1(40,k)) / 40! + Worp(30,10) / (10! * Stirl2(31,11)) + Bell(30) / sum(k, 0, 30, Stirl2(30,k))");
+		d1 = e.calculate();
+		b3 = ( MathFunctions.abs(d1 - 3) < 1e-12 );
+		if ( (b1 == true) && (b2 == true) && (b3 == true) )
+			test[testId] = true;
+		/*
+		 * 85. Order statistics - median, quantile, mode, ndist, quantile sketch
+		 */
+		testId++;
+		double[] osValues = new double[] {5, 1, -0.0, 4, 2, 0, 3, 2};
+		double[] osCopy = osValues.clone();
+		b1 = ( (Statistics.median(osValues) == 2) && (Statistics.median(1, 2, 3, 40) == 2.5) && (Statistics.quantile(0, osValues) == 0)
+				&& (Statistics.quantile(1, osValues) == 5) && (Statistics.quantile(0.5, osValues) == 2) && (Statistics.quantile(0.75, 1, 2, 3, 4, 5) == 4)
+				&& (Statistics.quantile(0.1, 10, 20) == 11) && (Double.isNaN(Statistics.quantile(1.5, osValues))) && (Arrays.equals(osValues, osCopy)) );
+		b2 = ( (Statistics.mode(osValues) == 0) && (NumberTheory.numberOfDistValues(osValues) == 6) && (Statistics.mode(1, 2, 2, 1) == 1)
+				&& (NumberTheory.numberOfDistValues(1, 1 + 1e-15, 2) == 2) && (Statistics.mode(3, 1, 1 + 1e-15, 3) == 3) && (Arrays.equals(osValues, osCopy)) );
+		e = new Expression("mode(1,2,7,7,2,7) + ndist(1,2,2,1e-15,0) + med(3,1,2,4)");
+		d1 = e.calculate();
+		QuantileSketch sketch = new QuantileSketch();
+		double[] sketchValues = new double[100000];
+		for (int i = 0; i < sketchValues.length; i++) {
+			sketchValues[i] = (i * 7919) % sketchValues.length;
+			sketch.add(sketchValues[i]);
+		}
+		b3 = ( (d1 == 12.5) && (sketch.getCount() == 100000) && (sketch.quantile(0) == 0) && (sketch.quantile(1) == 99999)
+				&& (MathFunctions.abs(sketch.quantile(0.5) - Statistics.median(sketchValues)) < 2000)
+				&& (MathFunctions.abs(sketch.quantile(0.99) - 99000) < 2000) && (sketch.getRetainedItems() < 1000) );
+		if ( (b1 == true) && (b2 == true) && (b3 == true) )
+			test[testId] = true;
+		/*
+		 * 86. Mergeable statistics accumulator - avg, var, std
+		 */
+		testId++;
+		Argument accIndex = new Argument("i");
+		Expression accFun = new Expression("sin(i) + i / 1000", accIndex);
+		double[] accValues = mXparser.getFunctionValues(accFun, accIndex, 1, 3000, 1);
+		StatisticsAccumulator acc = Statistics.accumulate(accFun, accIndex, 1, 1000, 1);
+		acc.merge( Statistics.accumulate(accFun, accIndex, 1001, 3000, 1) );
+		StatisticsAccumulator accArray = new StatisticsAccumulator();
+		accArray.add(accValues);
+		b1 = ( (acc.getCount() == 3000) && (accArray.getCount() == 3000) && (MathFunctions.abs(acc.getVar() - Statistics.var(accValues)) < 1e-12)
+				&& (MathFunctions.abs(acc.getAvg() - Statistics.avg(accValues)) < 1e-12) && (MathFunctions.abs(acc.getStd() - accArray.getStd()) < 1e-12)
+				&& (acc.getMin() == NumberTheory.min(accValues)) && (acc.getMax() == NumberTheory.max(accValues)) );
+		StatisticsAccumulator accEmpty = Statistics.accumulate(accFun, accIndex, 10, 1, 1);
+		StatisticsAccumulator accNaN = new StatisticsAccumulator();
+		accNaN.add(1, Double.NaN, 3);
+		b2 = ( (accEmpty.getCount() == 0) && (Double.isNaN(accEmpty.getVar())) && (Double.isNaN(accEmpty.getAvg())) && (accEmpty.getSum() == 0)
+				&& (Double.isNaN(accNaN.getVar())) && (Double.isNaN(accNaN.getAvg())) );
+		e = new Expression("vari(i, 1, 3000, sin(i) + i / 1000) - stdi(i, 1, 3000, sin(i) + i / 1000)^2 + avg(i, 1, 2, i)");
+		d1 = e.calculate();
+		StatisticsAccumulator accShifted = new StatisticsAccumulator();
+		accShifted.add(1e9 + 4, 1e9 + 7, 1e9 + 13, 1e9 + 16);
+		b3 = ( (MathFunctions.abs(d1 - 1.5) < 1e-12) && (accShifted.getVar() == 30) && (accShifted.getProduct() == (1e9 + 4) * (1e9 + 7) * (1e9 + 13) * (1e9 + 16)) );
+		mXparser.disableUlpRounding();
+		mXparser.disableAlmostIntRounding();
+		accFun = new Expression("1 + sin(i) / 1000", accIndex);
+		b3 = ( (b3 == true)
+				&& (MathFunctions.abs(new Expression("sum(i, 1, 3000, 1 + sin(i) / 1000)").calculate() - NumberTheory.sigmaSummation(accFun, accIndex, 1, 3000, 1)) < 1e-12)
+				&& (new Expression("prod(i, 1, 3000, 1 + sin(i) / 1000)").calculate() == NumberTheory.piProduct(accFun, accIndex, 1, 3000, 1))
+				&& (new Expression("mini(i, 1, 3000, 1 + sin(i) / 1000)").calculate() == NumberTheory.min(accFun, accIndex, 1, 3000, 1))
+				&& (new Expression("maxi(i, 1, 3000, 1 + sin(i) / 1000)").calculate() == NumberTheory.max(accFun, accIndex, 1, 3000, 1)) );
+		mXparser.enableUlpRounding();
+		mXparser.enableAlmostIntRounding();
+		if ( (b1 == true) && (b2 == true) && (b3 == true) )
+			test[testId] = true;
+		/*
+		 * 87. Splittable random streams - seeding, split, bulk fill, per thread streams
+		 */
+		testId++;
+		RandomStream rs1 = new RandomStream(2018);
+		RandomStream rs2 = new RandomStream(2018);
+		RandomStream[] rsSplit1 = rs1.split(3);
+		RandomStream[] rsSplit2 = rs2.split(3);
+		b1 = ( (rsSplit1.length == 3) && (rs1.nextDouble() == rs2.nextDouble()) && (rs1.nextGaussian() == rs2.nextGaussian()) );
+		for (int i = 0; i < 3; i++)
+			if ( (rsSplit1[i].nextLong() != rsSplit2[i].nextLong()) || (rsSplit1[i].nextInt(10) != rsSplit2[i].nextInt(10)) )
+				b1 = false;
+		if (rsSplit1[0].nextLong() == rsSplit1[1].nextLong())
+			b1 = false;
+		double[] rsUniform = new double[100000];
+		double[] rsNormal = new double[100001];
+		rs1.fillUniform(rsUniform, 2, 3);
+		rs1.fillNormal(rsNormal, 1, 2);
+		b2 = ( (NumberTheory.min(rsUniform) >= 2) && (NumberTheory.max(rsUniform) < 3) && (MathFunctions.abs(Statistics.avg(rsUniform) - 2.5) < 0.01)
+				&& (MathFunctions.abs(Statistics.avg(rsNormal) - 1) < 0.03) && (MathFunctions.abs(Statistics.std(rsNormal) - 2) < 0.03) );
+		ProbabilityDistributions.randomGenerator.setSeed(2018);
+		e = new Expression("rUni(0, 1) + rNor(0, 1) + rList(1, 2, 3) + [Uni] + [Int]");
+		d1 = e.calculate();
+		ProbabilityDistributions.randomGenerator.setSeed(2018);
+		d2 = e.calculate();
+		final RandomStream[] rsThread = new RandomStream[1];
+		Thread rsOther = new Thread(new Runnable() {
+			public void run() {
+				rsThread[0] = RandomStream.current();
+			}
+		});
+		rsOther.start();
+		try {
+			rsOther.join();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		b3 = ( (ProbabilityDistributions.randomGenerator == RandomStream.PER_THREAD) && (Double.isNaN(d1) == false) && (d1 == d2)
+				&& (rsThread[0] != null) && (rsThread[0] != RandomStream.current()) && (RandomStream.current() == RandomStream.current()) );
+		if ( (b1 == true) && (b2 == true) && (b3 == true) )
+			test[testId] = true;
+		/*
+		 * 88. Batch probability distributions kernels
+		 */
+		testId++;
+		int kernelRows = 1000;
+		double[] kernelX = new double[kernelRows];
+		double[] kernelQ = new double[kernelRows];
+		double[] kernelS = new double[kernelRows];
+		for (int i = 0; i < kernelRows; i++) {
+			kernelX[i] = (i - 500) / 50.0;
+			kernelQ[i] = (i - 50) / 900.0;
+			kernelS[i] = (i % 7) / 2.0;
+		}
+		kernelX[0] = Double.NaN;
+		kernelX[1] = Double.NEGATIVE_INFINITY;
+		kernelX[2] = Double.POSITIVE_INFINITY;
+		Argument kx = new Argument("x");
+		Argument ks = new Argument("s");
+		String[] kernelFunctions = new String[] {"pNor(x, 0.5, 2)", "cNor(x, 0.5, 2)", "qNor(x, -1, 3)", "pUni(x, -2, 3)", "cUni(x, -2, 3)", "qUni(x, -2, 3)", "cNor(x, 1, s)", "qNor(x, 1, s)"};
+		b1 = true;
+		double[] kernelOut = new double[kernelRows];
+		for (String kernelFunction : kernelFunctions) {
+			e = new Expression(kernelFunction, kx, ks);
+			double[] kernelIn = kernelFunction.startsWith("q") ? kernelQ : kernelX;
+			e.calculate(new double[][] {kernelIn, kernelS}, kernelOut);
+			for (int i = 0; i < kernelRows; i++) {
+				kx.setArgumentValue(kernelIn[i]);
+				ks.setArgumentValue(kernelS[i]);
+				if (Double.doubleToLongBits(kernelOut[i]) != Double.doubleToLongBits(e.calculate()))
+					b1 = false;
+			}
+		}
+		double[] erfOut = new double[kernelRows];
+		double[] erfcOut = new double[kernelRows];
+		SpecialFunctions.erf(kernelX, erfOut);
+		SpecialFunctions.erfc(kernelX, erfcOut);
+		b2 = true;
+		for (int i = 0; i < kernelRows; i++)
+			if ( (Double.doubleToLongBits(erfOut[i]) != Double.doubleToLongBits(SpecialFunctions.erf(kernelX[i])))
+					|| (Double.doubleToLongBits(erfcOut[i]) != Double.doubleToLongBits(SpecialFunctions.erfc(kernelX[i]))) )
+				b2 = false;
+		ProbabilityDistributions.cdfNormal(kernelX, 0, 1, kernelOut);
+		b3 = ( (kernelOut[1] == 0) && (kernelOut[2] == 1) && (Double.isNaN(kernelOut[0])) && (kernelOut[500] == 0.5)
+				&& (MathFunctions.abs(kernelOut[550] - 0.8413447460685429) < 1e-15) );
+		double[] kernelInvalid = new double[] {0.5, 0, 1, 2};
+		ProbabilityDistributions.qntNormal(kernelInvalid, 0, -1, kernelInvalid);
+		b3 = b3 && (Double.isNaN(kernelInvalid[0])) && (Double.isNaN(kernelInvalid[3]));
+		if ( (b1 == true) && (b2 == true) && (b3 == true) )
+			test[testId] = true;
+		/*
+		 * 89. Cached tokens reused for replaced (same name) arguments
+		 */
+		testId++;
+		Argument cx1 = new Argument("x", 1);
+		Argument cx2 = new Argument("x", 10);
+		e = new Expression("x+1", cx1);
+		d1 = e.calculate();
+		e.removeArguments(cx1);
+		e.addArguments(cx2);
+		d2 = e.calculate();
+		cx2.setArgumentValue(20);
+		d3 = e.calculate();
+		if ( (d1 == 2) && (d2 == 11) && (d3 == 21) )
+			test[testId] = true;
+		/*
+		 * 90. Internal expressions of calculus operators for replaced (same name) arguments
+		 */
+		testId++;
+		Argument cy1 = new Argument("y", 1);
+		Argument cy2 = new Argument("y", 7);
+		e = new Expression("sum(i, 1, 2, y) + if(y > 5, 100, 0)", cy1);
+		d1 = e.calculate();
+		e.removeArguments(cy1);
+		e.addArguments(cy2);
+		d2 = e.calculate();
+		d3 = e.calculate();
+		if ( (d1 == 2) && (d2 == 114) && (d3 == 114) )
+			test[testId] = true;
+		/*
+		 * 91. Parallel iterative operators while threads number changes
+		 */
+		testId++;
+		final double[] poolResults = new double[3 * 20];
+		Thread[] poolThreads = new Thread[3];
+		for (int pt = 0; pt < poolThreads.length; pt++) {
+			final int poolThread = pt;
+			poolThreads[pt] = new Thread(new Runnable() {
+				public void run() {
+					Expression threadSum = new Expression("sum(i, 1, 50000, i*x)", new Argument("x", 1));
+					for (int k = 0; k < 20; k++)
+						poolResults[20 * poolThread + k] = threadSum.calculate();
+				}
+			});
+			poolThreads[pt].start();
+		}
+		boolean poolAlive = true;
+		for (int k = 0; poolAlive; k++) {
+			mXparser.setThreadsNumber(2 + k % 3);
+			poolAlive = false;
+			for (Thread poolThread : poolThreads)
+				if (poolThread.isAlive()) poolAlive = true;
+		}
+		try {
+			for (Thread poolThread : poolThreads)
+				poolThread.join();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		mXparser.setDefaultThreadsNumber();
+		b1 = true;
+		for (double poolResult : poolResults)
+			if (poolResult != 1250025000) b1 = false;
+		if (b1 == true)
+			test[testId] = true;
+		/*
+		 * 92. Memoization - maximum number of cached results
+		 */
+		testId++;
+		F1 = new Function("g(x) = x^2");
+		F1.enableMemoization(100);
+		for (int i = 1; i <= 1000; i++)
+			F1.calculate(i);
+		long[] statsMax = F1.getMemoizationStatistics();
+		F1.enableMemoization(1);
+		F1.calculate(1);
+		F1.calculate(2);
+		d1 = F1.calculate(3);
+		long[] statsOne = F1.getMemoizationStatistics();
+		if ( (statsMax[3] <= 100) && (statsMax[3] >= 50) && (statsMax[1] == 1000) && (statsOne[3] == 1) && (d1 == 9) )
+			test[testId] = true;
+		/*
+		 * 93. Distinct values and mode - infinities of the same sign are one value
+		 */
+		testId++;
+		double[] infValues = new double[] {0, 3, 0, 3, 3, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, 2, 4};
+		double[] infEpsValues = new double[] {1, 1 + 1e-15, Double.NEGATIVE_INFINITY, 5, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+		d1 = NumberTheory.numberOfDistValues(infValues);
+		d2 = new Expression("ndist(e^1000, e^1000, 1)").calculate();
+		d3 = NumberTheory.numberOfDistValues(infEpsValues);
+		b1 = ( (d1 == 5) && (d2 == 2) && (d3 == 3) && (Statistics.mode(infEpsValues) == Double.NEGATIVE_INFINITY)
+				&& (Statistics.mode(1, Double.POSITIVE_INFINITY, 2, Double.POSITIVE_INFINITY) == Double.POSITIVE_INFINITY) );
+		mXparser.setExactComparison();
+		b2 = ( (NumberTheory.numberOfDistValues(infValues) == d1) && (NumberTheory.numberOfDistValues(infEpsValues) == 4) );
+		mXparser.setEpsilonComparison();
+		if ( (b1 == true) && (b2 == true) )
+			test[testId] = true;
+		/*
+		 * 94. Memoization - large maximum number of cached results, tables growth
+		 */
+		testId++;
+		F1 = new Function("f(a, b) = a + b");
+		F1.enableMemoization(Integer.MAX_VALUE);
+		d1 = new Expression("f(1, 2)", F1).calculate();
+		F2 = new Function("g(x) = x^2");
+		F2.enableMemoization(100000000);
+		b1 = true;
+		for (int i = 1; i <= 3000; i++)
+			if (F2.calculate(i) != i * i) b1 = false;
+		for (int i = 1; i <= 3000; i++)
+			if (F2.calculate(i) != i * i) b1 = false;
+		long[] statsGrow = F2.getMemoizationStatistics();
+		if ( (d1 == 3) && (b1 == true) && (statsGrow[0] + statsGrow[1] == 6000) && (statsGrow[0] > 2900) && (statsGrow[3] > 2900) && (statsGrow[3] <= 3000) )
+			test[testId] = true;
+		/*
+		 * 95. Memoization - arguments used by the function body
+		 */
+		testId++;
+		A1 = new Argument("k", 1);
+		A2 = new Argument("m = 2 * k", A1);
+		F1 = new Function("g(n) = n * k");
+		F1.addDefinitions(A1);
+		F1.enableMemoization();
+		F2 = new Function("h(n) = g(n) + m");
+		F2.addDefinitions(F1, A2);
+		F2.enableMemoization();
+		F3 = new Function("r(n) = n + rUni(0, 1)");
+		F3.enableMemoization();
+		d1 = F1.calculate(2);
+		d2 = F2.calculate(2);
+		A1.setArgumentValue(5);
+		d3 = F1.calculate(2);
+		b1 = ( (d1 == 2) && (d2 == 4) && (d3 == 10) && (F2.calculate(2) == 20) && (F1.calculate(2) == 10) );
+		F3.calculate(1);
+		F3.calculate(1);
+		long[] statsPure = F1.getMemoizationStatistics();
+		long[] statsRandom = F3.getMemoizationStatistics();
+		b2 = ( (statsPure[0] > 0) && (statsRandom[0] == 0) && (statsRandom[3] == 0) );
+		if ( (b1 == true) && (b2 == true) )
+			test[testId] = true;
+		/*
+		 * 96. Evaluation options - calculus operators and epsilon comparison
+		 */
+		testId++;
+		b1 = true;
+		for (String s : new String[] { "sum(i, 1, 10, i)", "int(x, x, 0, 1)", "der(sin(x), x, 0)", "solve(x^2 - 2, x, 0, 2)", "sum(i, 1, 3, sum(j, 1, i, i*j))" }) {
+			d1 = new Expression(s).calculate();
+			e = new Expression(s);
+			e.setEvaluationOptions(new EvaluationOptions());
+			d2 = e.calculate();
+			if ( (Double.isNaN(d1)) || (Double.compare(d1, d2) != 0) )
+				b1 = false;
+		}
+		ce = new Expression("sum(i, 1, 10, i) + int(x, x, 0, 1)").compile();
+		b2 = ( (ce != null) && (ce.calculate(ce.createContext()) == 55.5) );
+		options = new EvaluationOptions();
+		options.setEpsilonComparison();
+		options.setEpsilon(0.5);
+		e = new Expression("(0.3 & 1) + 10 * mode(1, 1.2, 3, 3)");
+		e.setEvaluationOptions(options);
+		d1 = e.calculate();
+		d2 = new Expression("(0.3 & 1) + 10 * mode(1, 1.2, 3, 3)").calculate();
+		b3 = ( (d1 == 12) && (d2 == 31) );
+		if ( (b1 == true) && (b2 == true) && (b3 == true) )
+			test[testId] = true;
+		/*
+		 * 97. Compiled evaluation - batch calculation of calculus operators
+		 */
+		testId++;
+		x = new Argument("x", 7);
+		e = new Expression("sum(i, 1, x, i) + der(x^2, x)", x);
+		ce = e.compile();
+		columns = new double[][] { {1, 2, 3, 10} };
+		values = new double[4];
+		e.calculate(columns, values);
+		b1 = ( (ce != null) && (x.getArgumentValue() == 7) );
+		for (int i = 0; i < 4; i++) {
+			x.setArgumentValue(columns[0][i]);
+			if (Double.compare(values[i], e.calculate()) != 0)
+				b1 = false;
+		}
+		x.setArgumentValue(7);
+		e = new Expression("x + ", x);
+		e.calculate(columns, values);
+		b2 = ( (Double.isNaN(values[0])) && (Double.isNaN(values[3])) && (x.getArgumentValue() == 7) );
+		if ( (b1 == true) && (b2 == true) )
+			test[testId] = true;
+		/*
+		 * 98. Bytecode - variadic functions call sites, fallback cause
+		 */
+		testId++;
+		x = new Argument("x", 1);
+		y = new Argument("y", 2);
+		e = new Expression("max(x, max(y, 2*x), x) + min(x, y, 3) + med(x, y, 2*x)", x, y);
+		BytecodeFunction bf7 = e.compileToBytecode("x");
+		b1 = ( (bf7 != null) && (bf7.isBytecode()) && (bf7.getFallbackCause() == null) );
+		for (double v : new double[] {1, 3, -2, 1}) {
+			x.setArgumentValue(v);
+			if ( (b1 == false) || (Double.compare(bf7.applyAsDouble(v), e.calculate()) != 0) )
+				b1 = false;
+		}
+		F3 = new Function("fact(n) = if(n > 1, n*fact(n-1), 1)");
+		BytecodeFunction bf8 = F3.compileToBytecode();
+		b2 = ( (bf8.isBytecode() == false) && (bf8.getFallbackCause() != null) && (bf8.getFallbackCause().getMessage() != null)
+				&& (bf8.applyAsDouble(5) == 120) && (bf8.applyAsDouble(4) == 24) && (bf8.applyAsDouble(5) == 120) );
+		y.setArgumentValue(1);
+		e = new Expression("fact(x) + y", x, y);
+		e.addFunctions(F3);
+		bf8 = e.compileToBytecode("x");
+		d1 = bf8.applyAsDouble(3);
+		y.setArgumentValue(10);
+		d2 = bf8.applyAsDouble(3);
+		b3 = ( (bf8.isBytecode() == false) && (d1 == 7) && (d2 == 16) );
+		if ( (b1 == true) && (b2 == true) && (b3 == true) )
+			test[testId] = true;
+		/*
+		 * 99. Rounding without BigDecimal, parameters of the compiled user functions calls
+		 */
+		testId++;
+		Random rnd = new Random(99);
+		b1 = true;
+		for (int i = 0; i < 20000; i++) {
+			d1 = (i % 2 == 0) ? Double.longBitsToDouble(rnd.nextLong()) : (rnd.nextDouble() - 0.5) * Math.pow(10, rnd.nextInt(30) - 15);
+			if (i < 8) d1 = new double[] {0.0, -0.0, 0.30000000000000004, -2.5, 1.005, 2.675, 1e23, Double.MIN_VALUE}[i];
+			if ( (Double.isNaN(d1)) || (Double.isInfinite(d1)) ) continue;
+			int places = (i % 3 == 0) ? MathFunctions.ulpDecimalDigitsBefore(d1) : rnd.nextInt(330);
+			if (places < 0) continue;
+			d2 = new BigDecimal(Double.toString(d1)).setScale(places, RoundingMode.HALF_UP).doubleValue();
+			if (Double.doubleToRawLongBits(MathFunctions.round(d1, places)) != Double.doubleToRawLongBits(d2))
+				b1 = false;
+		}
+		F4 = new Function("f(x, y) = par(1) * [npar] + y");
+		F5 = new Function("g(...) = par(1) - par([npar])");
+		x = new Argument("x", 3);
+		e = new Expression("f(x, 2) + g(x, 1, 10) + f(1, g(5, 2))", x);
+		e.addFunctions(F4, F5);
+		d1 = e.calculate();
+		ce = e.compile();
+		d2 = e.calculate();
+		x.setArgumentValue(4);
+		d3 = e.calculate();
+		b2 = ( (ce != null) && (d1 == 6) && (d2 == 6) && (d3 == 9) && (F5.getParametersNumber() == 2) );
+		if ( (b1 == true) && (b2 == true) )
+			test[testId] = true;
 		/* ============================================= */
         long end =  System.currentTimeMillis();
 		int nOk = 0;
@@ -2269,4 +3145,52 @@ public class RegTestExpressionAPI {
 	public static void main(String[] args) {
 		start();
 	}
-}
\ No newline at end of file
+}
+/**
+ * Variadic function extension counting the calls
+ * (sum of the parameters).
+ */
+class FunExtCounter implements FunctionExtensionVariadic {
+	static int calls = 0;
+	public double calculate(double... parameters) {
+		calls++;
+		double result = 0;
+		for (double x : parameters)
+			result += x;
+		return result;
+	}
+	public FunExtCounter clone() {
+		return new FunExtCounter();
+	}
+}
+/**
+ * Primitive function extension - product of two parameters.
+ */
+class FunExtPrimitiveMul extends FunctionExtensionPrimitiveAdapter {
+	public int getParametersNumber() {
+		return 2;
+	}
+	public String getParameterName(int parameterIndex) {
+		return (parameterIndex == 0) ? "a" : "b";
+	}
+	public double calculate(double a, double b) {
+		return a * b;
+	}
+}
+/**
+ * Variadic primitive function extension - sum of the parameters.
+ */
+class FunExtPrimitiveSum implements FunctionExtensionPrimitive {
+	public int getParametersNumber() {
+		return -1;
+	}
+	public String getParameterName(int parameterIndex) {
+		return "x" + parameterIndex;
+	}
+	public double calculate(double[] parameters, int offset, int length) {
+		double result = 0;
+		for (int i = offset; i < offset + length; i++)
+			result += parameters[i];
+		return result;
+	}
+}